@@ -16,9 +16,16 @@ package com.querydsl.codegen.utils;
 import java.io.IOException;
 import java.io.StringWriter;
 import java.lang.reflect.Method;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Map;
-import java.util.WeakHashMap;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 import com.querydsl.codegen.utils.model.ClassType;
 import com.querydsl.codegen.utils.model.Parameter;
@@ -28,14 +35,95 @@ import com.querydsl.codegen.utils.model.TypeCategory;
 import com.querydsl.codegen.utils.support.ClassUtils;
 
 /**
+ * AbstractEvaluatorFactory is the base class for EvaluatorFactory implementations which compile
+ * the evaluated sources into classes.
+ *
+ * <p>The eval methods of the compiled classes are cached by source, projection type, argument types
+ * and constant types. Cache lookups don't lock, concurrent misses of the same key wait for a single
+ * load, and only the compilation itself is serialized. The cache is bounded, the oldest entries are
+ * evicted first.</p>
+ *
+ * <p>The bound only limits the cached {@code Method} references. Compiled classes stay defined in
+ * the class loader of the factory, so evicted entries are loaded again without being recompiled,
+ * and their classes are unloaded only together with the factory.</p>
+ *
  * @author tiwe
  *
  */
 public abstract class AbstractEvaluatorFactory implements EvaluatorFactory {
-    
-    private final Map<String, Method> cache = new WeakHashMap<String, Method>();
-    
+
+    /**
+     * Default maximum amount of cached eval methods
+     */
+    public static final int DEFAULT_CACHE_SIZE = 1024;
+
+    private final ConcurrentMap<Key, Method> cache = new ConcurrentHashMap<Key, Method>();
+
+    private final ConcurrentMap<Key, CompletableFuture<Method>> loading = new ConcurrentHashMap<Key, CompletableFuture<Method>>();
+
+    private final Queue<Key> insertionOrder = new ConcurrentLinkedQueue<Key>();
+
+    private final Object compileLock = new Object();
+
+    private final AtomicLong hits = new AtomicLong();
+
+    private final AtomicLong misses = new AtomicLong();
+
+    private final AtomicLong evictions = new AtomicLong();
+
+    private volatile int cacheSize = DEFAULT_CACHE_SIZE;
+
     protected ClassLoader loader;
+
+    /**
+     * Set the maximum amount of cached eval methods. Evicted eval methods are loaded again
+     * from the class loader of this factory.
+     *
+     * @param cacheSize maximum cache size
+     */
+    public void setCacheSize(int cacheSize) {
+        if (cacheSize <= 0) {
+            throw new IllegalArgumentException("cacheSize needs to be positive, got " + cacheSize);
+        }
+        this.cacheSize = cacheSize;
+        evict();
+    }
+
+    /**
+     * Get the amount of cached eval methods
+     *
+     * @return cache size
+     */
+    public int getCacheSize() {
+        return cache.size();
+    }
+
+    /**
+     * Get the amount of evaluators which have been created from cached eval methods
+     *
+     * @return hit count
+     */
+    public long getCacheHitCount() {
+        return hits.get();
+    }
+
+    /**
+     * Get the amount of evaluators which required the eval method to be loaded or compiled
+     *
+     * @return miss count
+     */
+    public long getCacheMissCount() {
+        return misses.get();
+    }
+
+    /**
+     * Get the amount of eval methods which have been evicted from the cache
+     *
+     * @return eviction count
+     */
+    public long getCacheEvictionCount() {
+        return evictions.get();
+    }
     
     /**
      * @param source
@@ -114,26 +202,71 @@ public abstract class AbstractEvaluatorFactory implements EvaluatorFactory {
      */
     @SuppressWarnings("unchecked")
     @Override
-    public synchronized <T> Evaluator<T> createEvaluator(String source, ClassType projection, String[] names,
+    public <T> Evaluator<T> createEvaluator(String source, ClassType projection, String[] names,
             Type[] types, Class<?>[] classes, Map<String, Object> constants) {
+        Key key = new Key(source, projection.getJavaClass(), types, constants.values());
+        Method method = cache.get(key);
+        if (method != null) {
+            hits.incrementAndGet();
+        } else {
+            method = load(key, source, projection, names, types, constants);
+        }
+        return new MethodEvaluator<T>(method, constants, (Class) projection.getJavaClass());
+    }
+
+    private Method load(Key key, String source, ClassType projection, String[] names,
+            Type[] types, Map<String, Object> constants) {
+        CompletableFuture<Method> future = new CompletableFuture<Method>();
+        CompletableFuture<Method> pending = loading.putIfAbsent(key, future);
+        if (pending != null) {
+            // loaded by a concurrent miss of the same key
+            hits.incrementAndGet();
+            try {
+                return pending.join();
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() : e;
+            }
+        }
+        try {
+            Method method = cache.get(key);
+            if (method != null) {
+                // cached before the load was registered
+                hits.incrementAndGet();
+            } else {
+                misses.incrementAndGet();
+                method = findEvalMethod(loadClass(source, projection, names, types, constants));
+                cache.put(key, method);
+                insertionOrder.add(key);
+                evict();
+            }
+            future.complete(method);
+            return method;
+        } catch (RuntimeException e) {
+            future.completeExceptionally(e);
+            throw e;
+        } finally {
+            loading.remove(key, future);
+        }
+    }
+
+    private Class<?> loadClass(String source, ClassType projection, String[] names,
+            Type[] types, Map<String, Object> constants) {
+        final String id = toId(source, projection.getJavaClass(), types, constants.values());
         try {
-            final String id = toId(source, projection.getJavaClass(), types, constants.values());
-            Method method = cache.get(id);
-                        
-            if (method == null) {
-                Class<?> clazz;
-                try {
-                    clazz = loader.loadClass(id);
-                } catch (ClassNotFoundException e) {
-                    compile(source, projection, names, types, id, constants);
-                    // reload
-                    clazz = loader.loadClass(id);
+            try {
+                return loader.loadClass(id);
+            } catch (ClassNotFoundException e) {
+                // the compilers aren't thread safe
+                synchronized (compileLock) {
+                    try {
+                        // compiled in the meantime by a concurrent miss
+                        return loader.loadClass(id);
+                    } catch (ClassNotFoundException e2) {
+                        compile(source, projection, names, types, id, constants);
+                        return loader.loadClass(id);
+                    }
                 }
-                method = findEvalMethod(clazz);
-                cache.put(id, method);
             }
-            
-            return new MethodEvaluator<T>(method, constants, (Class) projection.getJavaClass());
         } catch (ClassNotFoundException e) {
             throw new CodegenException(e);
         } catch (SecurityException e) {
@@ -143,6 +276,17 @@ public abstract class AbstractEvaluatorFactory implements EvaluatorFactory {
         }
     }
 
+    private void evict() {
+        while (cache.size() > cacheSize) {
+            Key eldest = insertionOrder.poll();
+            if (eldest == null) {
+                break;
+            }
+            cache.remove(eldest);
+            evictions.incrementAndGet();
+        }
+    }
+
     protected Method findEvalMethod(Class<?> clazz) {
         /*
          * Note 1:
@@ -176,5 +320,55 @@ public abstract class AbstractEvaluatorFactory implements EvaluatorFactory {
         }
         return b.toString().replace('-', '0');
     }
-    
+
+    private static final class Key {
+
+        private final String source;
+
+        private final Class<?> returnType;
+
+        private final String[] types;
+
+        private final Class<?>[] constants;
+
+        private final int hashCode;
+
+        Key(String source, Class<?> returnType, Type[] types, Collection<Object> constants) {
+            this.source = source;
+            this.returnType = returnType;
+            this.types = new String[types.length];
+            for (int i = 0; i < types.length; i++) {
+                this.types[i] = types[i].getFullName();
+            }
+            this.constants = new Class<?>[constants.size()];
+            int i = 0;
+            for (Object constant : constants) {
+                this.constants[i++] = constant.getClass();
+            }
+            this.hashCode = 31 * (31 * source.hashCode() + returnType.hashCode()) + Arrays.hashCode(this.types);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (o == this) {
+                return true;
+            } else if (o instanceof Key) {
+                Key other = (Key) o;
+                return hashCode == other.hashCode
+                        && source.equals(other.source)
+                        && returnType.equals(other.returnType)
+                        && Arrays.equals(types, other.types)
+                        && Arrays.equals(constants, other.constants);
+            } else {
+                return false;
+            }
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+
+    }
+
 }
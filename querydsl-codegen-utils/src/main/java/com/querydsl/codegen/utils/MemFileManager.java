@@ -15,10 +15,10 @@ package com.querydsl.codegen.utils;
 
 import java.io.IOException;
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import javax.tools.FileObject;
 import javax.tools.ForwardingJavaFileManager;
@@ -45,8 +45,9 @@ public class MemFileManager extends ForwardingJavaFileManager<JavaFileManager> {
 
     public MemFileManager(ClassLoader parent, StandardJavaFileManager sjfm) {
         super(sjfm);
-        ramFileSystem = new HashMap<LocationAndKind, Map<String, JavaFileObject>>();
-        Map<String, JavaFileObject> classLoaderContent = new HashMap<String, JavaFileObject>();
+        // the class loader reads compiled classes concurrently to compilations
+        ramFileSystem = new ConcurrentHashMap<LocationAndKind, Map<String, JavaFileObject>>();
+        Map<String, JavaFileObject> classLoaderContent = new ConcurrentHashMap<String, JavaFileObject>();
         ramFileSystem.put(new LocationAndKind(StandardLocation.CLASS_OUTPUT, Kind.CLASS),
                 classLoaderContent);
         classLoader = new MemClassLoader(parent, ramFileSystem);
@@ -158,7 +159,7 @@ public class MemFileManager extends ForwardingJavaFileManager<JavaFileManager> {
 
     private void register(LocationAndKind key, JavaFileObject javaFileObject) {
         if (!ramFileSystem.containsKey(key)) {
-            ramFileSystem.put(key, new HashMap<String, JavaFileObject>());
+            ramFileSystem.put(key, new ConcurrentHashMap<String, JavaFileObject>());
         }
         ramFileSystem.get(key).put(javaFileObject.getName(), javaFileObject);
     }
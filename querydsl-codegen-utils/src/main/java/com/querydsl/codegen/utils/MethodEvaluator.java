@@ -44,8 +44,13 @@ public final class MethodEvaluator<T> implements Evaluator<T> {
     @Override
     public T evaluate(Object... args) {
         try {
-            System.arraycopy(args, 0, this.args, 0, args.length);
-            return (T) method.invoke(null, this.args);
+            // copy into a new array, so that concurrent evaluations don't share arguments
+            Object[] actualArgs = args;
+            if (args.length != this.args.length) {
+                actualArgs = this.args.clone();
+                System.arraycopy(args, 0, actualArgs, 0, args.length);
+            }
+            return (T) method.invoke(null, actualArgs);
         } catch (IllegalAccessException e) {
             throw new IllegalArgumentException(e);
         } catch (InvocationTargetException e) {
@@ -0,0 +1,97 @@
+package com.querydsl.codegen.utils;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.querydsl.codegen.utils.model.ClassType;
+import com.querydsl.codegen.utils.model.Type;
+
+public class EvaluatorCacheTest {
+
+    private static final Map<String, Object> NO_CONSTANTS = Collections.emptyMap();
+
+    private final AtomicInteger compilations = new AtomicInteger();
+
+    private AbstractEvaluatorFactory factory;
+
+    @Before
+    public void setUp() {
+        factory = new ECJEvaluatorFactory(getClass().getClassLoader()) {
+            @Override
+            protected void compile(String source, ClassType projectionType, String[] names, Type[] types,
+                                   String id, Map<String, Object> constants) throws IOException {
+                compilations.incrementAndGet();
+                super.compile(source, projectionType, names, types, id, constants);
+            }
+        };
+    }
+
+    private Evaluator<Integer> evaluator(String source) {
+        return factory.createEvaluator(source, Integer.class, new String[]{"a"},
+                new Class<?>[]{int.class}, NO_CONSTANTS);
+    }
+
+    @Test
+    public void hits_and_misses() {
+        assertEquals(Integer.valueOf(2), evaluator("return a + 1;").evaluate(1));
+        assertEquals(Integer.valueOf(3), evaluator("return a + 1;").evaluate(2));
+        assertEquals(Integer.valueOf(4), evaluator("return a * 2;").evaluate(2));
+        assertEquals(1, factory.getCacheHitCount());
+        assertEquals(2, factory.getCacheMissCount());
+        assertEquals(2, factory.getCacheSize());
+    }
+
+    @Test
+    public void bounded() {
+        factory.setCacheSize(2);
+        evaluator("return a + 1;");
+        evaluator("return a + 2;");
+        evaluator("return a + 3;");
+        assertEquals(2, factory.getCacheSize());
+        assertEquals(1, factory.getCacheEvictionCount());
+
+        // evicted methods are loaded from the class loader again
+        assertEquals(Integer.valueOf(2), evaluator("return a + 1;").evaluate(1));
+        assertEquals(4, factory.getCacheMissCount());
+        assertEquals(3, compilations.get());
+    }
+
+    @Test
+    public void concurrent() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<Integer>> results = new ArrayList<Future<Integer>>();
+            for (int i = 0; i < 32; i++) {
+                final int value = i;
+                results.add(executor.submit(new Callable<Integer>() {
+                    @Override
+                    public Integer call() {
+                        return evaluator("return a - 1;").evaluate(value);
+                    }
+                }));
+            }
+            for (int i = 0; i < results.size(); i++) {
+                assertEquals(Integer.valueOf(i - 1), results.get(i).get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+        assertEquals(1, factory.getCacheMissCount());
+        assertEquals(31, factory.getCacheHitCount());
+        assertEquals(1, compilations.get());
+    }
+
+}
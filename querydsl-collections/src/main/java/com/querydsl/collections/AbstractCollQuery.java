@@ -17,6 +17,7 @@ import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
 import java.util.stream.Stream;
 
 import com.mysema.commons.lang.CloseableIterator;
@@ -39,7 +40,7 @@ public abstract class AbstractCollQuery<T, Q extends AbstractCollQuery<T, Q>> ex
 
     private final Map<Expression<?>, Iterable<?>> iterables = new HashMap<Expression<?>, Iterable<?>>();
 
-    private final QueryEngine queryEngine;
+    private QueryEngine queryEngine;
 
     public AbstractCollQuery(QueryMetadata metadata, QueryEngine queryEngine) {
         super(new CollQueryMixin<Q>(metadata));
@@ -93,6 +94,40 @@ public abstract class AbstractCollQuery<T, Q extends AbstractCollQuery<T, Q>> ex
         return queryMixin.getSelf();
     }
 
+    /**
+     * Create the evaluators of this query ahead of its first execution, e.g. for queries which are
+     * declared at application startup. Parameters of the query need to be bound before.
+     *
+     * @return current object
+     */
+    public Q precompile() {
+        queryEngine.precompile(getMetadata());
+        return queryMixin.getSelf();
+    }
+
+    /**
+     * Evaluate this query in parallel on the common fork/join pool. Large list sources are
+     * filtered, projected, ordered and aggregated in chunks, with the order of the results
+     * preserved.
+     *
+     * @return current object
+     */
+    public Q parallel() {
+        return parallel(ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Evaluate this query in parallel on the given fork/join pool
+     *
+     * @param pool fork/join pool
+     * @return current object
+     * @see #parallel()
+     */
+    public Q parallel(ForkJoinPool pool) {
+        queryEngine = queryEngine.parallel(pool);
+        return queryMixin.getSelf();
+    }
+
     @Override
     public Q groupBy(Expression<?> e) {
         throw new UnsupportedOperationException();
@@ -117,6 +152,15 @@ public abstract class AbstractCollQuery<T, Q extends AbstractCollQuery<T, Q>> ex
         return queryEngine;
     }
 
+    /**
+     * Copy the sources of the given query to this query
+     *
+     * @param query query to copy from
+     */
+    protected void clone(Q query) {
+        iterables.putAll(((AbstractCollQuery<?, ?>) query).iterables);
+    }
+
     /**
      * Define an inner join from the Collection typed path to the alias
      *
@@ -171,14 +215,14 @@ public abstract class AbstractCollQuery<T, Q extends AbstractCollQuery<T, Q>> ex
 
     @Override
     public CloseableIterator<T> iterate() {
-        @SuppressWarnings("unchecked") // This is the built type
-        Expression<T> projection = (Expression<T>) queryMixin.getMetadata().getProjection();
-        return new IteratorAdapter<T>(fetch().iterator());
+        return new IteratorAdapter<T>(stream().iterator());
     }
 
     @Override
     public Stream<T> stream() {
-        return fetch().stream();
+        @SuppressWarnings("unchecked") // This is the built type
+        Expression<T> projection = (Expression<T>) queryMixin.getMetadata().getProjection();
+        return queryEngine.stream(getMetadata(), iterables, projection);
     }
 
     @Override
@@ -13,8 +13,12 @@
  */
 package com.querydsl.collections;
 
+import org.jetbrains.annotations.Nullable;
+
 import com.querydsl.core.DefaultQueryMetadata;
 import com.querydsl.core.FetchableQuery;
+import com.querydsl.core.KeysetFetchable;
+import com.querydsl.core.KeysetPage;
 import com.querydsl.core.QueryMetadata;
 import com.querydsl.core.Tuple;
 import com.querydsl.core.types.Expression;
@@ -26,7 +30,7 @@ import com.querydsl.core.types.Expression;
  *
  * @author tiwe
  */
-public class CollQuery<T> extends AbstractCollQuery<T, CollQuery<T>> implements Cloneable {
+public class CollQuery<T> extends AbstractCollQuery<T, CollQuery<T>> implements Cloneable, KeysetFetchable<T> {
 
     /**
      * Create a new CollQuery instance
@@ -78,7 +82,14 @@ public class CollQuery<T> extends AbstractCollQuery<T, CollQuery<T>> implements
      */
     @Override
     public CollQuery<T> clone() {
-        return new CollQuery<T>(queryMixin.getMetadata().clone(), getQueryEngine());
+        CollQuery<T> query = new CollQuery<T>(queryMixin.getMetadata().clone(), getQueryEngine());
+        query.clone(this);
+        return query;
+    }
+
+    @Override
+    public KeysetPage<T> fetchPage(@Nullable String token, int size) {
+        return fetchPage(clone(), token, size);
     }
 
     @Override
@@ -83,6 +83,29 @@ public final class CollQueryFunctions {
         return Objects.equals(o1, o2);
     }
 
+    /**
+     * Compare primitive or wrapper values by value, like {@code ==} compares primitives.
+     * Unlike {@code ==} on wrappers this doesn't compare by identity, and null equals only null.
+     *
+     * @param o1 first value
+     * @param o2 second value
+     * @return true, if equal
+     */
+    public static boolean valueEquals(Object o1, Object o2) {
+        if (o1 == null || o2 == null) {
+            return o1 == o2;
+        } else if (o1 instanceof Boolean || o2 instanceof Boolean) {
+            return o1.equals(o2);
+        }
+        Number n1 = o1 instanceof Character ? (int) (Character) o1 : (Number) o1;
+        Number n2 = o2 instanceof Character ? (int) (Character) o2 : (Number) o2;
+        if (n1 instanceof Double || n1 instanceof Float || n2 instanceof Double || n2 instanceof Float) {
+            return n1.doubleValue() == n2.doubleValue();
+        } else {
+            return n1.longValue() == n2.longValue();
+        }
+    }
+
     public static <T extends Comparable<? super T>> int compareTo(T c1, T c2) {
         if (c1 == null) {
             return c2 == null ? 0 : -1;
@@ -0,0 +1,705 @@
+/*
+ * Copyright 2015, The Querydsl Team (http://www.querydsl.com/team)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.querydsl.collections;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
+
+import org.jetbrains.annotations.Nullable;
+
+import com.querydsl.codegen.utils.Evaluator;
+import com.querydsl.core.JoinExpression;
+import com.querydsl.core.JoinType;
+import com.querydsl.core.QueryException;
+import com.querydsl.core.QueryMetadata;
+import com.querydsl.core.types.*;
+import com.querydsl.core.util.MathUtils;
+import com.querydsl.core.util.PrimitiveUtils;
+
+/**
+ * {@code CollQueryInterpreter} turns expressions into composed functions over the values of the
+ * query sources. It mirrors the semantics of the Java sources created by {@link DefaultEvaluatorFactory}
+ * for the supported subset of expressions, without compiling them.
+ *
+ * <p>Unsupported expressions are signaled via {@link UnsupportedExpressionException}, when the
+ * evaluator is created.</p>
+ */
+final class CollQueryInterpreter implements Visitor<Function<Object[], Object>, Void> {
+
+    /**
+     * Thrown for expressions which can't be interpreted
+     */
+    static final class UnsupportedExpressionException extends RuntimeException {
+
+        private static final long serialVersionUID = 1L;
+
+        UnsupportedExpressionException(Object expr) {
+            super(String.valueOf(expr), null, false, false);
+        }
+
+    }
+
+    private static final Map<Operator, ToIntFunction<Date>> DATE_FUNCTIONS = new IdentityHashMap<>();
+
+    static {
+        DATE_FUNCTIONS.put(Ops.DateTimeOps.YEAR, CollQueryFunctions::getYear);
+        DATE_FUNCTIONS.put(Ops.DateTimeOps.MONTH, CollQueryFunctions::getMonth);
+        DATE_FUNCTIONS.put(Ops.DateTimeOps.WEEK, CollQueryFunctions::getWeek);
+        DATE_FUNCTIONS.put(Ops.DateTimeOps.DAY_OF_WEEK, CollQueryFunctions::getDayOfWeek);
+        DATE_FUNCTIONS.put(Ops.DateTimeOps.DAY_OF_MONTH, CollQueryFunctions::getDayOfMonth);
+        DATE_FUNCTIONS.put(Ops.DateTimeOps.DAY_OF_YEAR, CollQueryFunctions::getDayOfYear);
+        DATE_FUNCTIONS.put(Ops.DateTimeOps.HOUR, CollQueryFunctions::getHour);
+        DATE_FUNCTIONS.put(Ops.DateTimeOps.MINUTE, CollQueryFunctions::getMinute);
+        DATE_FUNCTIONS.put(Ops.DateTimeOps.SECOND, CollQueryFunctions::getSecond);
+        DATE_FUNCTIONS.put(Ops.DateTimeOps.MILLISECOND, CollQueryFunctions::getMilliSecond);
+        DATE_FUNCTIONS.put(Ops.DateTimeOps.YEAR_MONTH, CollQueryFunctions::getYearMonth);
+        DATE_FUNCTIONS.put(Ops.DateTimeOps.YEAR_WEEK, CollQueryFunctions::getYearWeek);
+    }
+
+    /**
+     * Create an Evaluator for the given query sources and projection
+     *
+     * @param metadata query metadata
+     * @param sources sources of the query
+     * @param projection projection of the query
+     * @return evaluator
+     */
+    static <T> Evaluator<T> create(QueryMetadata metadata, List<? extends Expression<?>> sources,
+            Expression<T> projection) {
+        Function<Object[], Object> function = new CollQueryInterpreter(metadata, sources).handle(projection);
+        return new FunctionEvaluator<T>(projection.getType(), function);
+    }
+
+    /**
+     * Create an Evaluator for the given source and filter
+     *
+     * @param metadata query metadata
+     * @param source source of the query
+     * @param filter filter of the query
+     * @return evaluator
+     */
+    @SuppressWarnings("unchecked")
+    static <T> Evaluator<List<T>> createEvaluator(QueryMetadata metadata, Expression<? extends T> source,
+            Predicate filter) {
+        final Function<Object[], Object> condition = new CollQueryInterpreter(metadata,
+                Collections.singletonList(source)).handle(filter);
+        return new Evaluator<List<T>>() {
+            @Override
+            public List<T> evaluate(Object... args) {
+                List<T> rv = new ArrayList<T>();
+                Object[] row = new Object[1];
+                for (Object value : (Iterable<?>) args[0]) {
+                    row[0] = value;
+                    if (matches(condition, row)) {
+                        rv.add((T) value);
+                    }
+                }
+                return rv;
+            }
+
+            @Override
+            public Class<? extends List<T>> getType() {
+                return (Class) List.class;
+            }
+        };
+    }
+
+    /**
+     * Create an Evaluator for the given sources and the given optional filter
+     *
+     * @param metadata query metadata
+     * @param joins joins
+     * @param filter where condition
+     * @return evaluator
+     */
+    static Evaluator<List<Object[]>> createEvaluator(QueryMetadata metadata, List<JoinExpression> joins,
+            @Nullable Predicate filter) {
+        List<Expression<?>> vars = new ArrayList<Expression<?>>(joins.size());
+        for (JoinExpression join : joins) {
+            if (join.getType() == JoinType.DEFAULT) {
+                vars.add(join.getTarget());
+            } else if (join.getType() == JoinType.INNERJOIN || join.getType() == JoinType.LEFTJOIN) {
+                if (join.getCondition() != null && join.getCondition().toString().equals("any")) {
+                    throw new UnsupportedExpressionException(join);
+                }
+                vars.add(((Operation<?>) join.getTarget()).getArg(1));
+            } else {
+                throw new IllegalArgumentException("Illegal join expression " + join);
+            }
+        }
+        CollQueryInterpreter interpreter = new CollQueryInterpreter(metadata, vars);
+        @SuppressWarnings("unchecked")
+        final Function<Object[], Object>[] targets = new Function[joins.size()];
+        final boolean[] leftJoins = new boolean[joins.size()];
+        final boolean[] maps = new boolean[joins.size()];
+        for (int i = 0; i < targets.length; i++) {
+            JoinExpression join = joins.get(i);
+            if (join.getType() != JoinType.DEFAULT) {
+                Expression<?> target = ((Operation<?>) join.getTarget()).getArg(0);
+                targets[i] = interpreter.handle(target);
+                leftJoins[i] = join.getType() == JoinType.LEFTJOIN;
+                maps[i] = target.getType().equals(Map.class);
+            }
+        }
+        final Function<Object[], Object> condition = filter != null ? interpreter.handle(filter) : null;
+        return new Evaluator<List<Object[]>>() {
+            @Override
+            public List<Object[]> evaluate(Object... args) {
+                List<Object[]> rv = new ArrayList<Object[]>();
+                evaluate(args, 0, 0, new Object[targets.length], rv);
+                return rv;
+            }
+
+            private void evaluate(Object[] args, int join, int source, Object[] row, List<Object[]> rv) {
+                if (join == targets.length) {
+                    if (condition == null || matches(condition, row)) {
+                        rv.add(row.clone());
+                    }
+                    return;
+                }
+                Iterable<?> values;
+                if (targets[join] == null) {
+                    values = (Iterable<?>) args[source++];
+                } else {
+                    Object target = targets[join].apply(row);
+                    if (maps[join]) {
+                        target = ((Map<?, ?>) target).values();
+                    }
+                    values = leftJoins[join] ? CollQueryFunctions.leftJoin((Collection<?>) target)
+                            : (Iterable<?>) target;
+                }
+                for (Object value : values) {
+                    row[join] = value;
+                    evaluate(args, join + 1, source, row, rv);
+                }
+                row[join] = null;
+            }
+
+            @SuppressWarnings("unchecked")
+            @Override
+            public Class<? extends List<Object[]>> getType() {
+                return (Class) List.class;
+            }
+        };
+    }
+
+    private static boolean matches(Function<Object[], Object> condition, Object[] row) {
+        try {
+            return (Boolean) condition.apply(row);
+        } catch (NullPointerException e) {
+            // same as for compiled conditions
+            return false;
+        }
+    }
+
+    private final QueryMetadata metadata;
+
+    private final List<? extends Expression<?>> vars;
+
+    private CollQueryInterpreter(QueryMetadata metadata, List<? extends Expression<?>> vars) {
+        this.metadata = metadata;
+        this.vars = vars;
+    }
+
+    private Function<Object[], Object> handle(Expression<?> expr) {
+        return expr.accept(this, null);
+    }
+
+    private Function<Object[], Object>[] handle(List<? extends Expression<?>> exprs) {
+        @SuppressWarnings("unchecked")
+        Function<Object[], Object>[] rv = new Function[exprs.size()];
+        for (int i = 0; i < rv.length; i++) {
+            rv[i] = handle(exprs.get(i));
+        }
+        return rv;
+    }
+
+    private static Object[] apply(Function<Object[], Object>[] functions, Object[] row) {
+        Object[] rv = new Object[functions.length];
+        for (int i = 0; i < rv.length; i++) {
+            rv[i] = functions[i].apply(row);
+        }
+        return rv;
+    }
+
+    @Override
+    public Function<Object[], Object> visit(Constant<?> expr, @Nullable Void context) {
+        final Object constant = expr.getConstant();
+        return row -> constant;
+    }
+
+    @Override
+    public Function<Object[], Object> visit(FactoryExpression<?> expr, @Nullable Void context) {
+        final FactoryExpression<?> factory = expr;
+        final Function<Object[], Object>[] args = handle(expr.getArgs());
+        return row -> factory.newInstance(apply(args, row));
+    }
+
+    @Override
+    public Function<Object[], Object> visit(ParamExpression<?> expr, @Nullable Void context) {
+        final Object value = metadata.getParams().get(expr);
+        if (value == null) {
+            throw new ParamNotSetException(expr);
+        }
+        return row -> value;
+    }
+
+    @Override
+    public Function<Object[], Object> visit(Path<?> expr, @Nullable Void context) {
+        final int index = vars.indexOf(expr);
+        if (index > -1) {
+            return row -> row[index];
+        }
+        PathMetadata md = expr.getMetadata();
+        PathType pathType = md.getPathType();
+        if (pathType == PathType.PROPERTY) {
+            return property(handle(md.getParent()), md.getParent().getType(), md.getName());
+        } else if (pathType == PathType.DELEGATE) {
+            return handle(md.getParent());
+        } else if (pathType == PathType.LISTVALUE || pathType == PathType.LISTVALUE_CONSTANT) {
+            final Function<Object[], Object> list = handle(md.getParent());
+            final Function<Object[], Object> index2 = element(md.getElement());
+            return row -> ((List<?>) list.apply(row)).get((Integer) index2.apply(row));
+        } else if (pathType == PathType.MAPVALUE || pathType == PathType.MAPVALUE_CONSTANT) {
+            final Function<Object[], Object> map = handle(md.getParent());
+            final Function<Object[], Object> key = element(md.getElement());
+            return row -> ((Map<?, ?>) map.apply(row)).get(key.apply(row));
+        } else if (pathType == PathType.ARRAYVALUE || pathType == PathType.ARRAYVALUE_CONSTANT) {
+            final Function<Object[], Object> array = handle(md.getParent());
+            final Function<Object[], Object> index2 = element(md.getElement());
+            return row -> Array.get(array.apply(row), (Integer) index2.apply(row));
+        } else {
+            throw new UnsupportedExpressionException(expr);
+        }
+    }
+
+    private Function<Object[], Object> element(Object element) {
+        if (element instanceof Expression) {
+            return handle((Expression<?>) element);
+        } else {
+            return row -> element;
+        }
+    }
+
+    private static Function<Object[], Object> property(final Function<Object[], Object> parent,
+            Class<?> parentType, final String property) {
+        final Method getter = CollQuerySerializer.getAccessor(parentType, property);
+        if (getter != null && Modifier.isPublic(getter.getModifiers())) {
+            makeAccessible(getter);
+            return row -> {
+                Object value = parent.apply(row);
+                try {
+                    return getter.invoke(Objects.requireNonNull(value));
+                } catch (InvocationTargetException e) {
+                    if (e.getCause() instanceof RuntimeException) {
+                        throw (RuntimeException) e.getCause();
+                    } else if (e.getCause() instanceof Error) {
+                        throw (Error) e.getCause();
+                    }
+                    throw new QueryException(e.getCause());
+                } catch (IllegalAccessException e) {
+                    throw new QueryException(e);
+                }
+            };
+        }
+        final Field field = CollQuerySerializer.getField(parentType, property);
+        if (field != null && Modifier.isPublic(field.getModifiers())) {
+            makeAccessible(field);
+            return row -> {
+                Object value = parent.apply(row);
+                try {
+                    return field.get(Objects.requireNonNull(value));
+                } catch (IllegalAccessException e) {
+                    throw new QueryException(e);
+                }
+            };
+        }
+        return row -> CollQueryFunctions.get(parent.apply(row), property);
+    }
+
+    private static void makeAccessible(java.lang.reflect.AccessibleObject member) {
+        try {
+            member.setAccessible(true);
+        } catch (SecurityException e) {
+            // invoke without
+        }
+    }
+
+    @Override
+    public Function<Object[], Object> visit(SubQueryExpression<?> expr, @Nullable Void context) {
+        throw new UnsupportedExpressionException(expr);
+    }
+
+    @Override
+    public Function<Object[], Object> visit(TemplateExpression<?> expr, @Nullable Void context) {
+        if (expr instanceof NullExpression) {
+            return row -> null;
+        }
+        throw new UnsupportedExpressionException(expr);
+    }
+
+    @Override
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public Function<Object[], Object> visit(Operation<?> expr, @Nullable Void context) {
+        Operator operator = expr.getOperator();
+        List<Expression<?>> exprArgs = expr.getArgs();
+        if (DATE_FUNCTIONS.containsKey(operator)) {
+            final ToIntFunction<Date> function = DATE_FUNCTIONS.get(operator);
+            final Function<Object[], Object> arg = handle(exprArgs.get(0));
+            return row -> function.applyAsInt((Date) arg.apply(row));
+        } else if (operator == Ops.StringOps.LOCATE || operator == Ops.StringOps.LOCATE2) {
+            final Function<Object[], Object>[] args = handle(exprArgs);
+            final boolean from = args.length > 2;
+            return row -> {
+                String str = string(args[1], row);
+                String search = string(args[0], row);
+                return (from ? str.indexOf(search, (Integer) args[2].apply(row) - 1) : str.indexOf(search)) + 1;
+            };
+        } else if (operator == Ops.COALESCE) {
+            final Function<Object[], Object>[] args = handle(flatten(exprArgs.get(0)));
+            return row -> {
+                for (Function<Object[], Object> arg : args) {
+                    Object value = arg.apply(row);
+                    if (value != null) {
+                        return value;
+                    }
+                }
+                return null;
+            };
+        } else if (!(operator instanceof Ops)) {
+            throw new UnsupportedExpressionException(expr);
+        }
+        final Function<Object[], Object>[] args = handle(exprArgs);
+        final Function<Object[], Object> a0 = args.length > 0 ? args[0] : null;
+        final Function<Object[], Object> a1 = args.length > 1 ? args[1] : null;
+        final Function<Object[], Object> a2 = args.length > 2 ? args[2] : null;
+        final boolean primitives = args.length == 2
+                && isPrimitiveOrWrapperType(exprArgs.get(0).getType())
+                && isPrimitiveOrWrapperType(exprArgs.get(1).getType());
+        final Ops op = (Ops) operator;
+        switch (op) {
+        // boolean
+        case AND:
+            if (args.length > 2) {
+                return row -> {
+                    for (Function<Object[], Object> arg : args) {
+                        if (!(Boolean) arg.apply(row)) {
+                            return false;
+                        }
+                    }
+                    return true;
+                };
+            }
+            return row -> (Boolean) a0.apply(row) && (Boolean) a1.apply(row);
+        case OR:
+            if (args.length > 2) {
+                return row -> {
+                    for (Function<Object[], Object> arg : args) {
+                        if ((Boolean) arg.apply(row)) {
+                            return true;
+                        }
+                    }
+                    return false;
+                };
+            }
+            return row -> (Boolean) a0.apply(row) || (Boolean) a1.apply(row);
+        case NOT: return row -> !(Boolean) a0.apply(row);
+
+        // general
+        case EQ:
+            if (primitives) {
+                return CollQuerySerializer.isUnboxed(exprArgs.get(1))
+                        ? row -> primitiveEquals(a0.apply(row), a1.apply(row))
+                        : row -> CollQueryFunctions.valueEquals(a0.apply(row), a1.apply(row));
+            }
+            return row -> Objects.equals(a0.apply(row), a1.apply(row));
+        case NE:
+            if (primitives) {
+                return CollQuerySerializer.isUnboxed(exprArgs.get(1))
+                        ? row -> !primitiveEquals(a0.apply(row), a1.apply(row))
+                        : row -> !CollQueryFunctions.valueEquals(a0.apply(row), a1.apply(row));
+            }
+            return row -> !Objects.equals(a0.apply(row), a1.apply(row));
+        case IS_NULL: return row -> a0.apply(row) == null;
+        case IS_NOT_NULL: return row -> a0.apply(row) != null;
+        case INSTANCE_OF: return row -> ((Class<?>) a1.apply(row)).isInstance(a0.apply(row));
+        case ORDINAL: return row -> ((Enum<?>) a0.apply(row)).ordinal();
+        case NULLIF: return row -> CollQueryFunctions.nullif(a0.apply(row), a1.apply(row));
+        case CASE: case CASE_ELSE: return a0;
+        case CASE_WHEN: return row -> (Boolean) a0.apply(row) ? a1.apply(row) : a2.apply(row);
+        case IN: return row -> ((Collection<?>) a1.apply(row)).contains(a0.apply(row));
+        case NOT_IN: return row -> !((Collection<?>) a1.apply(row)).contains(a0.apply(row));
+
+        // comparison
+        case GT: case LT: case GOE: case LOE:
+            return primitives ? row -> primitiveCompare(op, a0.apply(row), a1.apply(row))
+                    : row -> compare(op, a0.apply(row), a1.apply(row));
+        case BETWEEN:
+            return row -> CollQueryFunctions.between(
+                    (Comparable) a0.apply(row), (Comparable) a1.apply(row), (Comparable) a2.apply(row));
+
+        // numeric
+        case ADD: case SUB: case MULT: case DIV: case MOD:
+            if (primitives) {
+                return row -> arithmetic(op, a0.apply(row), a1.apply(row));
+            } else if (op != Ops.MOD && (BigDecimal.class.equals(exprArgs.get(0).getType())
+                    || BigInteger.class.equals(exprArgs.get(0).getType()))) {
+                return row -> bigArithmetic(op, a0.apply(row), a1.apply(row));
+            } else {
+                throw new UnsupportedExpressionException(expr);
+            }
+        case NEGATE:
+            if (isPrimitiveOrWrapperType(exprArgs.get(0).getType())) {
+                return row -> arithmetic(Ops.SUB, 0, a0.apply(row));
+            } else {
+                throw new UnsupportedExpressionException(expr);
+            }
+        case NUMCAST:
+            final Class<? extends Number> targetType = (Class) ((Constant<?>) exprArgs.get(1)).getConstant();
+            if (!PrimitiveUtils.isWrapperType(targetType) || targetType.equals(Character.class)
+                    || targetType.equals(Boolean.class)) {
+                throw new UnsupportedExpressionException(expr);
+            }
+            return row -> MathUtils.cast(toNumber(Objects.requireNonNull(a0.apply(row))), targetType);
+        case STRING_CAST: return row -> a0.apply(row).toString();
+
+        // collection, map and array
+        case COL_IS_EMPTY: return row -> ((Collection<?>) a0.apply(row)).isEmpty();
+        case COL_SIZE: return row -> ((Collection<?>) a0.apply(row)).size();
+        case MAP_IS_EMPTY: return row -> ((Map<?, ?>) a0.apply(row)).isEmpty();
+        case MAP_SIZE: return row -> ((Map<?, ?>) a0.apply(row)).size();
+        case CONTAINS_KEY: return row -> ((Map<?, ?>) a0.apply(row)).containsKey(a1.apply(row));
+        case CONTAINS_VALUE: return row -> ((Map<?, ?>) a0.apply(row)).containsValue(a1.apply(row));
+        case ARRAY_SIZE: return row -> Array.getLength(Objects.requireNonNull(a0.apply(row)));
+
+        // string
+        case CONCAT: return row -> String.valueOf(a0.apply(row)) + a1.apply(row);
+        case CHAR_AT: return row -> string(a0, row).charAt((Integer) a1.apply(row));
+        case LOWER: return row -> string(a0, row).toLowerCase();
+        case UPPER: return row -> string(a0, row).toUpperCase();
+        case TRIM: return row -> string(a0, row).trim();
+        case SUBSTR_1ARG: return row -> string(a0, row).substring((Integer) a1.apply(row));
+        case SUBSTR_2ARGS:
+            return row -> string(a0, row).substring((Integer) a1.apply(row), (Integer) a2.apply(row));
+        case MATCHES: return row -> string(a0, row).matches(string(a1, row));
+        case MATCHES_IC: return row -> string(a0, row).toLowerCase().matches(string(a1, row).toLowerCase());
+        case STRING_LENGTH: return row -> string(a0, row).length();
+        case STRING_IS_EMPTY: return row -> string(a0, row).isEmpty();
+        case STRING_CONTAINS: return row -> string(a0, row).contains(string(a1, row));
+        case STRING_CONTAINS_IC:
+            return row -> string(a0, row).toLowerCase().contains(string(a1, row).toLowerCase());
+        case STARTS_WITH: return row -> string(a0, row).startsWith(string(a1, row));
+        case STARTS_WITH_IC:
+            return row -> string(a0, row).toLowerCase().startsWith(string(a1, row).toLowerCase());
+        case ENDS_WITH: return row -> string(a0, row).endsWith(string(a1, row));
+        case ENDS_WITH_IC:
+            return row -> string(a0, row).toLowerCase().endsWith(string(a1, row).toLowerCase());
+        case EQ_IGNORE_CASE: return row -> string(a0, row).equalsIgnoreCase(string(a1, row));
+        case INDEX_OF: return row -> string(a0, row).indexOf(string(a1, row));
+        case INDEX_OF_2ARGS:
+            return row -> string(a0, row).indexOf(string(a1, row), (Integer) a2.apply(row));
+        case LIKE: return row -> CollQueryFunctions.like(string(a0, row), string(a1, row));
+        case LIKE_IC: return row -> CollQueryFunctions.likeIgnoreCase(string(a0, row), string(a1, row));
+        case LIKE_ESCAPE:
+            return row -> CollQueryFunctions.like(string(a0, row), string(a1, row), (Character) a2.apply(row));
+        case LIKE_ESCAPE_IC:
+            return row -> CollQueryFunctions.likeIgnoreCase(string(a0, row), string(a1, row),
+                    (Character) a2.apply(row));
+
+        default:
+            throw new UnsupportedExpressionException(expr);
+        }
+    }
+
+    private static List<Expression<?>> flatten(Expression<?> expr) {
+        List<Expression<?>> rv = new ArrayList<Expression<?>>();
+        if (expr instanceof Operation && ((Operation<?>) expr).getOperator() == Ops.LIST) {
+            for (Expression<?> arg : ((Operation<?>) expr).getArgs()) {
+                rv.addAll(flatten(arg));
+            }
+        } else {
+            rv.add(expr);
+        }
+        return rv;
+    }
+
+    private static String string(Function<Object[], Object> function, Object[] row) {
+        return (String) Objects.requireNonNull(function.apply(row));
+    }
+
+    private static boolean isPrimitiveOrWrapperType(Class<?> type) {
+        return type.isPrimitive() || PrimitiveUtils.isWrapperType(type);
+    }
+
+    private static boolean isFloating(Number number) {
+        return number instanceof Double || number instanceof Float;
+    }
+
+    private static Number toNumber(Object value) {
+        if (value instanceof Character) {
+            return (int) (Character) value;
+        } else {
+            return (Number) Objects.requireNonNull(value);
+        }
+    }
+
+    private static boolean primitiveEquals(Object o1, Object o2) {
+        // the unboxing of the compiled comparison fails for nulls
+        return CollQueryFunctions.valueEquals(Objects.requireNonNull(o1), Objects.requireNonNull(o2));
+    }
+
+    private static boolean primitiveCompare(Ops op, Object o1, Object o2) {
+        Number n1 = toNumber(o1);
+        Number n2 = toNumber(o2);
+        if (isFloating(n1) || isFloating(n2)) {
+            double d1 = n1.doubleValue();
+            double d2 = n2.doubleValue();
+            switch (op) {
+            case GT: return d1 > d2;
+            case LT: return d1 < d2;
+            case GOE: return d1 >= d2;
+            default: return d1 <= d2;
+            }
+        } else {
+            long l1 = n1.longValue();
+            long l2 = n2.longValue();
+            switch (op) {
+            case GT: return l1 > l2;
+            case LT: return l1 < l2;
+            case GOE: return l1 >= l2;
+            default: return l1 <= l2;
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static boolean compare(Ops op, Object o1, Object o2) {
+        int result = CollQueryFunctions.compareTo((Comparable) o1, (Comparable) o2);
+        switch (op) {
+        case GT: return result > 0;
+        case LT: return result < 0;
+        case GOE: return result >= 0;
+        default: return result <= 0;
+        }
+    }
+
+    private static Number arithmetic(Ops op, Object o1, Object o2) {
+        Number n1 = toNumber(o1);
+        Number n2 = toNumber(o2);
+        // binary numeric promotion
+        if (n1 instanceof Double || n2 instanceof Double) {
+            double d1 = n1.doubleValue();
+            double d2 = n2.doubleValue();
+            switch (op) {
+            case ADD: return d1 + d2;
+            case SUB: return d1 - d2;
+            case MULT: return d1 * d2;
+            case DIV: return d1 / d2;
+            default: return d1 % d2;
+            }
+        } else if (n1 instanceof Float || n2 instanceof Float) {
+            float f1 = n1.floatValue();
+            float f2 = n2.floatValue();
+            switch (op) {
+            case ADD: return f1 + f2;
+            case SUB: return f1 - f2;
+            case MULT: return f1 * f2;
+            case DIV: return f1 / f2;
+            default: return f1 % f2;
+            }
+        } else if (n1 instanceof Long || n2 instanceof Long) {
+            long l1 = n1.longValue();
+            long l2 = n2.longValue();
+            switch (op) {
+            case ADD: return l1 + l2;
+            case SUB: return l1 - l2;
+            case MULT: return l1 * l2;
+            case DIV: return l1 / l2;
+            default: return l1 % l2;
+            }
+        } else {
+            int i1 = n1.intValue();
+            int i2 = n2.intValue();
+            switch (op) {
+            case ADD: return i1 + i2;
+            case SUB: return i1 - i2;
+            case MULT: return i1 * i2;
+            case DIV: return i1 / i2;
+            default: return i1 % i2;
+            }
+        }
+    }
+
+    private static Number bigArithmetic(Ops op, Object o1, Object o2) {
+        if (o1 instanceof BigInteger) {
+            BigInteger b1 = (BigInteger) o1;
+            BigInteger b2 = (BigInteger) o2;
+            switch (op) {
+            case ADD: return b1.add(b2);
+            case SUB: return b1.subtract(b2);
+            case MULT: return b1.multiply(b2);
+            default: return b1.divide(b2);
+            }
+        } else {
+            BigDecimal b1 = (BigDecimal) Objects.requireNonNull(o1);
+            BigDecimal b2 = (BigDecimal) o2;
+            switch (op) {
+            case ADD: return b1.add(b2);
+            case SUB: return b1.subtract(b2);
+            case MULT: return b1.multiply(b2);
+            default: return b1.divide(b2);
+            }
+        }
+    }
+
+    private static final class FunctionEvaluator<T> implements Evaluator<T> {
+
+        private final Class<? extends T> type;
+
+        private final Function<Object[], Object> function;
+
+        FunctionEvaluator(Class<? extends T> type, Function<Object[], Object> function) {
+            this.type = type;
+            this.function = function;
+        }
+
+        @SuppressWarnings("unchecked")
+        @Override
+        public T evaluate(Object... args) {
+            return (T) function.apply(args);
+        }
+
+        @Override
+        public Class<? extends T> getType() {
+            return type;
+        }
+
+    }
+
+}
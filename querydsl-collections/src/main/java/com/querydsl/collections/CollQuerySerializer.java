@@ -130,7 +130,7 @@ public final class CollQuerySerializer extends SerializerBase<CollQuerySerialize
 
     }
 
-    private Method getAccessor(Class<?> owner, String property) {
+    static Method getAccessor(Class<?> owner, String property) {
         try {
             BeanInfo beanInfo = Introspector.getBeanInfo(owner);
             PropertyDescriptor[] descriptors = beanInfo.getPropertyDescriptors();
@@ -145,7 +145,7 @@ public final class CollQuerySerializer extends SerializerBase<CollQuerySerialize
         }
     }
 
-    private Field getField(Class<?> owner, String field) {
+    static Field getField(Class<?> owner, String field) {
         try {
             return owner.getField(field);
         } catch (NoSuchFieldException e) {
@@ -181,10 +181,22 @@ public final class CollQuerySerializer extends SerializerBase<CollQuerySerialize
         }
         if (args.size() == 2 && OPERATOR_SYMBOLS.containsKey(operator)
              && isPrimitiveOrWrapperType(args.get(0).getType()) && isPrimitiveOrWrapperType(args.get(1).getType())) {
+            if ((operator == Ops.EQ || operator == Ops.NE) && !isUnboxed(args.get(1))) {
+                // == would compare wrapper operands by identity
+                if (operator == Ops.NE) {
+                    append("!");
+                }
+                append(CollQueryFunctions.class.getName() + ".valueEquals(");
+                handle(args.get(0));
+                append(", ");
+                handle(args.get(1));
+                append(")");
+                return;
+            }
             handle(args.get(0));
             append(OPERATOR_SYMBOLS.get(operator));
             handle(args.get(1));
-            if (args.get(1) instanceof Constant<?>) {
+            if (isUnboxed(args.get(1))) {
                 append(CAST_SUFFIXES.get(args.get(1).getType()));
             }
             return;
@@ -206,6 +218,13 @@ public final class CollQuerySerializer extends SerializerBase<CollQuerySerialize
         return type.isPrimitive() || PrimitiveUtils.isWrapperType(type);
     }
 
+    /**
+     * Constants and parameters are unboxed in comparisons of primitive and wrapper types
+     */
+    static boolean isUnboxed(Expression<?> expr) {
+        return expr instanceof Constant<?> || expr instanceof ParamExpression<?>;
+    }
+
     @Override
     public Void visit(FactoryExpression<?> expr, Void context) {
         visitConstant(expr);
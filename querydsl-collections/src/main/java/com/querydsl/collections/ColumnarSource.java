@@ -0,0 +1,460 @@
+/*
+ * Copyright 2015, The Querydsl Team (http://www.querydsl.com/team)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.querydsl.collections;
+
+import java.lang.reflect.Array;
+import java.util.AbstractList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.RandomAccess;
+import java.util.function.IntFunction;
+import java.util.function.IntToLongFunction;
+import java.util.function.Predicate;
+
+import org.jetbrains.annotations.Nullable;
+
+import com.querydsl.core.QueryMetadata;
+import com.querydsl.core.types.Constant;
+import com.querydsl.core.types.Expression;
+import com.querydsl.core.types.Operation;
+import com.querydsl.core.types.Operator;
+import com.querydsl.core.types.Ops;
+import com.querydsl.core.types.ParamExpression;
+import com.querydsl.core.types.Path;
+import com.querydsl.core.util.MathUtils;
+import com.querydsl.core.util.PrimitiveUtils;
+
+/**
+ * {@code ColumnarSource} is an immutable query source, which keeps the properties of its
+ * elements in columns of primitive or object arrays instead of element instances.
+ *
+ * <p>When a {@code ColumnarSource} is used as the only source of a query, where clauses built of
+ * {@code eq}, {@code ne}, {@code lt}, {@code loe}, {@code gt}, {@code goe}, {@code between},
+ * {@code in}, {@code isNull} and {@code isNotNull} conditions of columns and constants, combined
+ * with {@code and}, {@code or} and {@code not}, are evaluated a column at a time into a selection
+ * of rows. Ordering by columns, aggregates of columns and projections of columns are evaluated
+ * on the selected rows of the columns. Elements are created via the row factory only for other
+ * projections and for other where clauses, which are evaluated on the created elements. Without
+ * a row factory, queries with such where clauses are rejected.</p>
+ *
+ * <pre>{@code
+ * ColumnarSource<Cat> columns = new ColumnarSource<Cat>(cat, ids.length)
+ *     .column(cat.id, ids)
+ *     .column(cat.bodyWeight, weights);
+ * Double avg = CollQueryFactory.from(cat, columns).where(cat.id.gt(10))
+ *     .select(cat.bodyWeight.avg()).fetchOne();
+ * }</pre>
+ *
+ * <p>Columns are matched by their path relative to the source, so the same columnar source
+ * can be used with different source variables.</p>
+ *
+ * @param <T> element type
+ */
+public class ColumnarSource<T> extends AbstractList<T> implements RandomAccess {
+
+    private final Path<T> source;
+
+    private final int size;
+
+    @Nullable
+    private final IntFunction<? extends T> rowFactory;
+
+    private final Map<List<Object>, Object> columns = new HashMap<List<Object>, Object>();
+
+    /**
+     * Create a new ColumnarSource instance without elements
+     *
+     * @param source source variable of the column paths
+     * @param size amount of rows
+     */
+    public ColumnarSource(Path<T> source, int size) {
+        this(source, size, null);
+    }
+
+    /**
+     * Create a new ColumnarSource instance
+     *
+     * @param source source variable of the column paths
+     * @param size amount of rows
+     * @param rowFactory factory for the element of a row or null, if elements can't be created
+     */
+    public ColumnarSource(Path<T> source, int size, @Nullable IntFunction<? extends T> rowFactory) {
+        this.source = source;
+        this.size = size;
+        this.rowFactory = rowFactory;
+    }
+
+    /**
+     * Add a column for the given path
+     *
+     * @param path path relative to the source variable
+     * @param values array of the values, with primitive arrays for primitive or wrapper types
+     * @return the current object
+     */
+    public ColumnarSource<T> column(Path<?> path, Object values) {
+        if (!path.getRoot().equals(source) || path.equals(source)) {
+            throw new IllegalArgumentException(path + " is not a property path of " + source);
+        } else if (values == null || !values.getClass().isArray()) {
+            throw new IllegalArgumentException("Expected an array for " + path + ", but got " + values);
+        } else if (Array.getLength(values) != size) {
+            throw new IllegalArgumentException("Expected " + size + " values for " + path
+                    + ", but got " + Array.getLength(values));
+        }
+        Class<?> componentType = values.getClass().getComponentType();
+        if (componentType.isPrimitive() && !componentType.equals(PrimitiveUtils.unwrap(path.getType()))) {
+            throw new IllegalArgumentException(componentType + " values don't match " + path);
+        }
+        columns.put(IndexedSource.getRelativePath(path), values);
+        return this;
+    }
+
+    @Override
+    public T get(int index) {
+        if (rowFactory == null) {
+            throw new UnsupportedOperationException("Elements of " + source + " can't be created without a row factory");
+        } else if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+        return rowFactory.apply(index);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Get a reader for the values of the given expression
+     *
+     * @param expr source variable of the query
+     * @param target expression
+     * @return reader of the values by row or null, if the expression is not a column
+     */
+    @Nullable
+    IntFunction<Object> getReader(Expression<?> expr, Expression<?> target) {
+        Object column = getColumn(expr, target);
+        return column != null ? reader(column) : null;
+    }
+
+    /**
+     * Get the rows which match the where clause of the given query
+     *
+     * @param expr source variable of the query
+     * @param metadata query metadata
+     * @return matching rows in source order or null, if the where clause can't be evaluated
+     *         on the columns
+     * @throws UnsupportedOperationException if the where clause can't be evaluated on the columns
+     *         and there is no row factory
+     */
+    @Nullable
+    int[] select(Expression<?> expr, QueryMetadata metadata) {
+        BitSet all = new BitSet(size);
+        all.set(0, size);
+        BitSet failed = new BitSet(size);
+        BitSet selection = metadata.getWhere() != null
+                ? select(expr, metadata.getWhere(), metadata, all, failed) : all;
+        if (selection != null) {
+            // the compiled where clauses skip the rows which fail with a NullPointerException
+            selection.andNot(failed);
+            return selection.stream().toArray();
+        } else if (rowFactory == null) {
+            throw new UnsupportedOperationException("The where clause " + metadata.getWhere()
+                    + " can't be evaluated on the columns of " + source + " and elements can't be created"
+                    + " without a row factory");
+        } else {
+            return null;
+        }
+    }
+
+    /**
+     * Aggregate the given rows of a primitive column
+     *
+     * @param expr source variable of the query
+     * @param aggregation aggregation
+     * @param rows non-empty rows
+     * @return aggregate or null, if the aggregation doesn't apply to a primitive column
+     */
+    @Nullable
+    @SuppressWarnings("unchecked")
+    Number aggregate(Expression<?> expr, Operation<?> aggregation, int[] rows) {
+        Object column = getColumn(expr, aggregation.getArg(0));
+        Operator operator = aggregation.getOperator();
+        boolean sum = operator == Ops.AggOps.SUM_AGG || operator == Ops.AggOps.AVG_AGG;
+        boolean min = operator == Ops.AggOps.MIN_AGG;
+        if (!sum && !min && operator != Ops.AggOps.MAX_AGG) {
+            return null;
+        }
+        Class<Number> type = (Class<Number>) aggregation.getArg(0).getType();
+        if (column instanceof double[]) {
+            double[] values = (double[]) column;
+            // min and max compare like the compareTo of CollQueryFunctions.aggregate
+            double rv = values[rows[0]];
+            for (int i = 1; i < rows.length; i++) {
+                double value = values[rows[i]];
+                if (sum) {
+                    rv += value;
+                } else if (min ? Double.compare(value, rv) < 0 : Double.compare(value, rv) > 0) {
+                    rv = value;
+                }
+            }
+            return operator == Ops.AggOps.AVG_AGG ? rv / rows.length : MathUtils.cast(rv, type);
+        } else if (column instanceof long[] || column instanceof int[]) {
+            IntToLongFunction values = column instanceof long[]
+                    ? i -> ((long[]) column)[i] : i -> ((int[]) column)[i];
+            long rv = values.applyAsLong(rows[0]);
+            for (int i = 1; i < rows.length; i++) {
+                long value = values.applyAsLong(rows[i]);
+                if (sum) {
+                    rv += value;
+                } else if (min ? value < rv : value > rv) {
+                    rv = value;
+                }
+            }
+            return operator == Ops.AggOps.AVG_AGG ? (double) rv / rows.length : MathUtils.cast(rv, type);
+        } else {
+            return null;
+        }
+    }
+
+    @Nullable
+    private Object getColumn(Expression<?> expr, Expression<?> target) {
+        if (target instanceof Path && ((Path<?>) target).getRoot().equals(expr) && !target.equals(expr)) {
+            return columns.get(IndexedSource.getRelativePath((Path<?>) target));
+        } else {
+            return null;
+        }
+    }
+
+    /**
+     * Get the candidate rows which match the given condition. Like the compiled where clauses,
+     * the arguments of AND and OR are only evaluated for the rows which the previous arguments
+     * haven't decided, and the rows for which a comparison would unbox a null value are added to
+     * {@code failed}.
+     */
+    @Nullable
+    @SuppressWarnings("unchecked")
+    private BitSet select(Expression<?> expr, Expression<?> condition, QueryMetadata metadata, BitSet candidates,
+                          BitSet failed) {
+        Object column = getColumn(expr, condition);
+        if (column != null) {
+            // boolean property
+            return compare(column, Ops.EQ, Boolean.TRUE, candidates, false, failed);
+        } else if (!(condition instanceof Operation) || ((Operation<?>) condition).getArgs().isEmpty()) {
+            return null;
+        }
+        Operation<?> operation = (Operation<?>) condition;
+        Operator operator = operation.getOperator();
+        if (operator == Ops.AND) {
+            BitSet rv = candidates;
+            for (Expression<?> arg : operation.getArgs()) {
+                rv = select(expr, arg, metadata, rv, failed);
+                if (rv == null) {
+                    return null;
+                }
+            }
+            return rv;
+        } else if (operator == Ops.OR) {
+            BitSet rv = new BitSet(size);
+            BitSet remaining = candidates;
+            for (Expression<?> arg : operation.getArgs()) {
+                BitSet selection = select(expr, arg, metadata, remaining, failed);
+                if (selection == null) {
+                    return null;
+                }
+                rv.or(selection);
+                remaining = (BitSet) candidates.clone();
+                remaining.andNot(rv);
+            }
+            return rv;
+        } else if (operator == Ops.NOT) {
+            BitSet selection = select(expr, operation.getArg(0), metadata, candidates, failed);
+            if (selection == null) {
+                return null;
+            }
+            BitSet rv = (BitSet) candidates.clone();
+            rv.andNot(selection);
+            return rv;
+        }
+
+        // conditions of a column and constants
+        column = getColumn(expr, operation.getArg(0));
+        if (column == null) {
+            return null;
+        } else if (operator == Ops.IS_NULL || operator == Ops.IS_NOT_NULL) {
+            return filter(column, candidates, value -> (value == null) == (operator == Ops.IS_NULL));
+        }
+        Object[] constants = new Object[operation.getArgs().size() - 1];
+        for (int i = 0; i < constants.length; i++) {
+            Expression<?> arg = operation.getArg(i + 1);
+            if (!(arg instanceof Constant) && !(arg instanceof ParamExpression)) {
+                return null;
+            }
+            constants[i] = IndexedSource.getValue(arg, metadata);
+        }
+        if (operator == Ops.IN) {
+            if (!(constants[0] instanceof Collection)) {
+                return null;
+            }
+            Collection<?> values = (Collection<?>) constants[0];
+            return filter(column, candidates, values::contains);
+        }
+        Class<?> type = PrimitiveUtils.wrap(operation.getArg(0).getType());
+        for (Object constant : constants) {
+            // constants of other types are compared with other semantics
+            if (!type.isInstance(constant)) {
+                return null;
+            }
+        }
+        if (operator == Ops.EQ || operator == Ops.NE || operator == Ops.LT || operator == Ops.LOE
+                || operator == Ops.GT || operator == Ops.GOE) {
+            // comparisons of wrapper types use the Java operators, which unbox the values
+            return compare(column, operator, constants[0], candidates, false,
+                    PrimitiveUtils.isWrapperType(type) ? failed : null);
+        } else if (operator == Ops.BETWEEN) {
+            // between compares by the natural order of the values
+            BitSet lower = compare(column, Ops.GOE, constants[0], candidates, true, null);
+            return compare(column, Ops.LOE, constants[1], lower, true, null);
+        } else {
+            return null;
+        }
+    }
+
+    /**
+     * Compare the candidate rows of the given column to the given value with the semantics of the
+     * compiled where clauses, which use the Java operators for numbers and
+     * {@link CollQueryFunctions#equals(Object, Object)} and
+     * {@link CollQueryFunctions#compareTo(Comparable, Comparable)} otherwise. Natural comparisons
+     * use {@code compareTo} also for numbers, which differs for {@code NaN} and {@code -0.0}.
+     * If {@code failed} is given, the rows with null values don't match and are added to it, as
+     * the unboxing of the compiled comparison fails for them.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static BitSet compare(Object column, Operator operator, Object value, BitSet candidates,
+                                  boolean natural, @Nullable BitSet failed) {
+        BitSet rv = new BitSet(candidates.length());
+        if (column instanceof long[]) {
+            long[] values = (long[]) column;
+            long v = (Long) value;
+            for (int i = candidates.nextSetBit(0); i >= 0; i = candidates.nextSetBit(i + 1)) {
+                if (matches(operator, Long.compare(values[i], v))) {
+                    rv.set(i);
+                }
+            }
+        } else if (column instanceof int[]) {
+            int[] values = (int[]) column;
+            int v = (Integer) value;
+            for (int i = candidates.nextSetBit(0); i >= 0; i = candidates.nextSetBit(i + 1)) {
+                if (matches(operator, Integer.compare(values[i], v))) {
+                    rv.set(i);
+                }
+            }
+        } else if (column instanceof double[]) {
+            double[] values = (double[]) column;
+            double v = (Double) value;
+            for (int i = candidates.nextSetBit(0); i >= 0; i = candidates.nextSetBit(i + 1)) {
+                if (natural ? matches(operator, Double.compare(values[i], v)) : matches(operator, values[i], v)) {
+                    rv.set(i);
+                }
+            }
+        } else {
+            IntFunction<Object> values = reader(column);
+            boolean equality = operator == Ops.EQ || operator == Ops.NE;
+            boolean floatingPoint = !natural && (value instanceof Double || value instanceof Float);
+            for (int i = candidates.nextSetBit(0); i >= 0; i = candidates.nextSetBit(i + 1)) {
+                Object v = values.apply(i);
+                boolean match;
+                if (v == null && failed != null) {
+                    failed.set(i);
+                    match = false;
+                } else if (floatingPoint && v != null) {
+                    match = matches(operator, ((Number) v).doubleValue(), ((Number) value).doubleValue());
+                } else {
+                    int result = equality ? (Objects.equals(v, value) ? 0 : 1)
+                            : CollQueryFunctions.compareTo((Comparable) v, (Comparable) value);
+                    match = matches(operator, result);
+                }
+                if (match) {
+                    rv.set(i);
+                }
+            }
+        }
+        return rv;
+    }
+
+    private static boolean matches(Operator operator, int result) {
+        if (operator == Ops.EQ) {
+            return result == 0;
+        } else if (operator == Ops.NE) {
+            return result != 0;
+        } else if (operator == Ops.LT) {
+            return result < 0;
+        } else if (operator == Ops.LOE) {
+            return result <= 0;
+        } else if (operator == Ops.GT) {
+            return result > 0;
+        } else {
+            return result >= 0;
+        }
+    }
+
+    private static boolean matches(Operator operator, double value, double other) {
+        if (operator == Ops.EQ) {
+            return value == other;
+        } else if (operator == Ops.NE) {
+            return value != other;
+        } else if (operator == Ops.LT) {
+            return value < other;
+        } else if (operator == Ops.LOE) {
+            return value <= other;
+        } else if (operator == Ops.GT) {
+            return value > other;
+        } else {
+            return value >= other;
+        }
+    }
+
+    private static BitSet filter(Object column, BitSet candidates, Predicate<Object> condition) {
+        IntFunction<Object> values = reader(column);
+        BitSet rv = new BitSet(candidates.length());
+        for (int i = candidates.nextSetBit(0); i >= 0; i = candidates.nextSetBit(i + 1)) {
+            if (condition.test(values.apply(i))) {
+                rv.set(i);
+            }
+        }
+        return rv;
+    }
+
+    private static IntFunction<Object> reader(Object column) {
+        if (column instanceof Object[]) {
+            Object[] values = (Object[]) column;
+            return i -> values[i];
+        } else if (column instanceof long[]) {
+            long[] values = (long[]) column;
+            return i -> values[i];
+        } else if (column instanceof int[]) {
+            int[] values = (int[]) column;
+            return i -> values[i];
+        } else if (column instanceof double[]) {
+            double[] values = (double[]) column;
+            return i -> values[i];
+        } else {
+            return i -> Array.get(column, i);
+        }
+    }
+
+}
@@ -13,6 +13,8 @@
  */
 package com.querydsl.collections;
 
+import org.jetbrains.annotations.Nullable;
+
 import com.querydsl.codegen.utils.Evaluator;
 import com.mysema.commons.lang.IteratorAdapter;
 import com.querydsl.core.JoinExpression;
@@ -20,21 +22,36 @@ import com.querydsl.core.JoinType;
 import com.querydsl.core.QueryMetadata;
 import com.querydsl.core.QueryModifiers;
 import com.querydsl.core.types.ArrayConstructorExpression;
+import com.querydsl.core.types.Constant;
 import com.querydsl.core.types.Expression;
+import com.querydsl.core.types.FactoryExpression;
 import com.querydsl.core.types.Operation;
 import com.querydsl.core.types.Operator;
 import com.querydsl.core.types.Ops;
 import com.querydsl.core.types.Order;
 import com.querydsl.core.types.OrderSpecifier;
 
+import java.util.AbstractList;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
 import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Function;
+import java.util.function.IntFunction;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * Default implementation of the {@link QueryEngine} interface
@@ -54,10 +71,35 @@ public class DefaultQueryEngine implements QueryEngine {
         return defaultQueryEngine;
     }
 
+    /**
+     * Minimum amount of rows per parallel chunk
+     */
+    private static final int MIN_CHUNK_SIZE = 4096;
+
     private final DefaultEvaluatorFactory evaluatorFactory;
 
+    @Nullable
+    private final ForkJoinPool pool;
+
     public DefaultQueryEngine(DefaultEvaluatorFactory evaluatorFactory) {
+        this(evaluatorFactory, null);
+    }
+
+    /**
+     * Create a new DefaultQueryEngine instance, which filters, projects, orders and aggregates
+     * large list sources in parallel on the given pool
+     *
+     * @param evaluatorFactory evaluator factory
+     * @param pool fork/join pool or null for serial evaluation
+     */
+    public DefaultQueryEngine(DefaultEvaluatorFactory evaluatorFactory, @Nullable ForkJoinPool pool) {
         this.evaluatorFactory = evaluatorFactory;
+        this.pool = pool;
+    }
+
+    @Override
+    public QueryEngine parallel(ForkJoinPool pool) {
+        return new DefaultQueryEngine(evaluatorFactory, pool);
     }
 
     @Override
@@ -71,6 +113,12 @@ public class DefaultQueryEngine implements QueryEngine {
 
     @Override
     public boolean exists(QueryMetadata metadata, Map<Expression<?>, Iterable<?>> iterables) {
+        if (metadata.getJoins().size() == 1 && !(iterables.values().iterator().next() instanceof ColumnarSource)) {
+            Long offset = metadata.getModifiers().getOffset();
+            Stream<Object> rows = filter(metadata, metadata.getJoins().get(0).getTarget(),
+                    iterables.values().iterator().next());
+            return (offset != null ? rows.skip(offset) : rows).findAny().isPresent();
+        }
         QueryModifiers modifiers = metadata.getModifiers();
         metadata.setLimit(1L);
         try {
@@ -87,28 +135,112 @@ public class DefaultQueryEngine implements QueryEngine {
     @Override
     public <T> List<T> list(QueryMetadata metadata, Map<Expression<?>, Iterable<?>> iterables,
             Expression<T> projection) {
-        if (metadata.getJoins().size() == 1) {
+        if (isStreamable(metadata, iterables) && metadata.getModifiers().getLimit() != null) {
+            return stream(metadata, iterables, projection).collect(Collectors.toList());
+        } else if (metadata.getJoins().size() == 1) {
             return evaluateSingleSource(metadata, iterables, false);
         } else {
             return evaluateMultipleSources(metadata, iterables, false);
         }
     }
 
-    private <T> List<T> distinct(List<T> list) {
-        List<T> rv = new ArrayList<T>(list.size());
-        if (!list.isEmpty() && list.get(0) != null && list.get(0).getClass().isArray()) {
-            Set set = new HashSet(list.size());
-            for (T o : list) {
-                if (set.add(Collections.unmodifiableList(Arrays.asList((Object[]) o)))) {
-                    rv.add(o);
-                }
+    @Override
+    public <T> Stream<T> stream(QueryMetadata metadata, Map<Expression<?>, Iterable<?>> iterables,
+            Expression<T> projection) {
+        if (!isStreamable(metadata, iterables)) {
+            return list(metadata, iterables, projection).stream();
+        }
+        Expression<?> source = metadata.getJoins().get(0).getTarget();
+        Stream<Object> rows = filter(metadata, source, iterables.values().iterator().next());
+        if (metadata.getProjection() != null && !metadata.getProjection().equals(source)) {
+            rows = rows.map(createProjector(metadata, Collections.<Expression<?>>singletonList(source)));
+        }
+        if (metadata.isDistinct()) {
+            Set<Object> seen = new HashSet<Object>();
+            rows = rows.filter(o -> seen.add(o instanceof Object[] ? Arrays.asList((Object[]) o) : o));
+        }
+        QueryModifiers modifiers = metadata.getModifiers();
+        if (modifiers.getOffset() != null) {
+            rows = rows.skip(modifiers.getOffset());
+        }
+        if (modifiers.getLimit() != null) {
+            rows = rows.limit(modifiers.getLimit());
+        }
+        return (Stream<T>) rows;
+    }
+
+    /**
+     * Unordered, non-aggregating queries of a single source can be evaluated lazily, unless the
+     * source is evaluated on its columns
+     */
+    private boolean isStreamable(QueryMetadata metadata, Map<Expression<?>, Iterable<?>> iterables) {
+        return metadata.getJoins().size() == 1 && metadata.getOrderBy().isEmpty()
+                && !isAggregation(metadata.getProjection())
+                && !(iterables.values().iterator().next() instanceof ColumnarSource);
+    }
+
+    /**
+     * Get the elements of the given source which match the where clause of the query. The
+     * elements are filtered in growing chunks as the stream is consumed.
+     */
+    private Stream<Object> filter(QueryMetadata metadata, Expression<?> source, Iterable<?> iterable) {
+        if (iterable instanceof IndexedSource) {
+            List<?> candidates = ((IndexedSource<?>) iterable).getCandidates(source, metadata);
+            if (candidates != null) {
+                iterable = candidates;
             }
-            return rv;
+        }
+        final Iterator<?> it = iterable.iterator();
+        Iterator<Object> matches;
+        if (metadata.getWhere() == null) {
+            matches = (Iterator<Object>) it;
         } else {
-            for (T o : list) {
-                if (!rv.contains(o)) {
-                    rv.add(o);
+            final Evaluator<List<?>> evaluator = (Evaluator) evaluatorFactory
+                    .createEvaluator(metadata, source, metadata.getWhere());
+            matches = new Iterator<Object>() {
+
+                private final List<Object> chunk = new ArrayList<Object>();
+
+                private Iterator<?> current = Collections.emptyIterator();
+
+                private int chunkSize = 16;
+
+                @Override
+                public boolean hasNext() {
+                    while (!current.hasNext() && it.hasNext()) {
+                        chunk.clear();
+                        while (chunk.size() < chunkSize && it.hasNext()) {
+                            chunk.add(it.next());
+                        }
+                        current = evaluator.evaluate(chunk).iterator();
+                        chunkSize = Math.min(chunkSize * 2, 1024);
+                    }
+                    return current.hasNext();
                 }
+
+                @Override
+                public Object next() {
+                    if (!hasNext()) {
+                        throw new NoSuchElementException();
+                    }
+                    return current.next();
+                }
+
+            };
+        }
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(matches, Spliterator.ORDERED), false);
+    }
+
+    /**
+     * Get the distinct elements of the given iterator, stopping once max elements are collected
+     */
+    private <T> List<T> distinct(Iterator<T> it, long max) {
+        List<T> rv = new ArrayList<T>();
+        Set<Object> seen = new HashSet<Object>();
+        while (rv.size() < max && it.hasNext()) {
+            T o = it.next();
+            if (seen.add(o instanceof Object[] ? Arrays.asList((Object[]) o) : o)) {
+                rv.add(o);
             }
         }
         return rv;
@@ -117,43 +249,36 @@ public class DefaultQueryEngine implements QueryEngine {
     private List evaluateMultipleSources(QueryMetadata metadata, Map<Expression<?>,
             Iterable<?>> iterables, boolean count) {
         // from where
-        Evaluator<List<Object[]>> ev = evaluatorFactory.createEvaluator(metadata, metadata.getJoins(), metadata.getWhere());
-        List<Iterable<?>> iterableList = new ArrayList<Iterable<?>>(metadata.getJoins().size());
-        for (JoinExpression join : metadata.getJoins()) {
-            if (join.getType() == JoinType.DEFAULT) {
-                iterableList.add(iterables.get(join.getTarget()));
-            }
-        }
-        List<?> list = ev.evaluate(iterableList.toArray());
-
-        if (!count && !list.isEmpty()) {
-            List<Expression<?>> sources = new ArrayList<Expression<?>>(metadata.getJoins().size());
+        List<?> list = HashJoin.evaluate(evaluatorFactory, metadata, iterables);
+        if (list == null) {
+            Evaluator<List<Object[]>> ev = evaluatorFactory.createEvaluator(metadata, metadata.getJoins(), metadata.getWhere());
+            List<Iterable<?>> iterableList = new ArrayList<Iterable<?>>(metadata.getJoins().size());
             for (JoinExpression join : metadata.getJoins()) {
                 if (join.getType() == JoinType.DEFAULT) {
-                    sources.add(join.getTarget());
-                } else {
-                    Operation target = (Operation) join.getTarget();
-                    sources.add(target.getArg(1));
+                    iterableList.add(iterables.get(join.getTarget()));
                 }
             }
-            // ordered
-            if (!metadata.getOrderBy().isEmpty()) {
-                order(metadata, sources, list);
-            }
-            // projection
-            list = project(metadata, sources, list);
-            // limit + offset
-            if (metadata.getModifiers().isRestricting()) {
-                list = metadata.getModifiers().subList(list);
-            }
-            if (list.isEmpty()) {
-                return list;
+            Object[] args = iterableList.toArray();
+            if (args[0] instanceof List) {
+                // the first source is iterated by the outermost loop
+                list = inChunks((List<?>) args[0], chunk -> {
+                    Object[] chunkArgs = args.clone();
+                    chunkArgs[0] = chunk;
+                    return ev.evaluate(chunkArgs);
+                });
+            } else {
+                list = ev.evaluate(args);
             }
         }
 
+        if (!count && !list.isEmpty()) {
+            return orderAndProject(metadata, getSources(metadata), list,
+                    !metadata.getOrderBy().isEmpty(), true);
+        }
+
         // distinct
         if (metadata.isDistinct()) {
-            list = distinct(list);
+            list = distinct(list.iterator(), Long.MAX_VALUE);
         }
 
         return list;
@@ -164,6 +289,12 @@ public class DefaultQueryEngine implements QueryEngine {
         final Expression<?> source = metadata.getJoins().get(0).getTarget();
         final List<Expression<?>> sources = Collections.<Expression<?>>singletonList(source);
         final Iterable<?> iterable = iterables.values().iterator().next();
+        if (iterable instanceof ColumnarSource) {
+            List<?> rv = evaluateColumnar(metadata, source, (ColumnarSource<?>) iterable, count);
+            if (rv != null) {
+                return rv;
+            }
+        }
         List<?> list;
         if (iterable instanceof List) {
             list = (List) iterable;
@@ -171,58 +302,355 @@ public class DefaultQueryEngine implements QueryEngine {
             list = IteratorAdapter.asList(iterable.iterator());
         }
 
+        boolean ordered = false;
+        if (iterable instanceof IndexedSource) {
+            IndexedSource<?> indexed = (IndexedSource<?>) iterable;
+            List<?> candidates = indexed.getCandidates(source, metadata);
+            if (candidates != null) {
+                list = candidates;
+            } else if (!count && metadata.getOrderBy().size() == 1 && metadata.getModifiers().getLimit() != null
+                    && !isAggregation(metadata.getProjection()) && !metadata.isDistinct()) {
+                Iterable<?> sorted = indexed.getOrdered(source, metadata.getOrderBy().get(0));
+                if (sorted != null) {
+                    QueryModifiers modifiers = metadata.getModifiers();
+                    long offset = modifiers.getOffset() != null ? modifiers.getOffset() : 0L;
+                    list = firstMatches(metadata, source, sorted, offset + modifiers.getLimit());
+                    ordered = true;
+                }
+            }
+        }
+
         // from & where
-        if (metadata.getWhere() != null) {
+        if (metadata.getWhere() != null && !ordered) {
             Evaluator<List<?>> evaluator = (Evaluator) evaluatorFactory
                     .createEvaluator(metadata, source, metadata.getWhere());
-            list = evaluator.evaluate(list);
+            list = inChunks(list, chunk -> evaluator.evaluate(chunk));
         }
 
         if (!count && !list.isEmpty()) {
-            // ordered
-            if (!metadata.getOrderBy().isEmpty()) {
-                // clone list
-                if (list == iterable) {
-                    list = new ArrayList(list);
-                }
-                order(metadata, sources, list);
+            return orderAndProject(metadata, sources, list,
+                    !metadata.getOrderBy().isEmpty() && !ordered,
+                    metadata.getProjection() != null && !metadata.getProjection().equals(source));
+        }
+
+        // distinct
+        if (metadata.isDistinct()) {
+            list = distinct(list.iterator(), Long.MAX_VALUE);
+        }
+
+        return list;
+
+    }
+
+    /**
+     * Order, project, deduplicate and page the given filtered rows
+     *
+     * <p>Rows beyond offset + limit are neither sorted nor projected, unless the projection is
+     * an aggregation.</p>
+     */
+    private List<?> orderAndProject(QueryMetadata metadata, List<Expression<?>> sources, List<?> list,
+            boolean order, boolean project) {
+        QueryModifiers modifiers = metadata.getModifiers();
+        boolean aggregation = project && isAggregation(metadata.getProjection());
+        boolean distinct = metadata.isDistinct();
+        long max = getMax(modifiers);
+        // ordered
+        if (order) {
+            list = order(metadata, sources, list, distinct || aggregation ? Long.MAX_VALUE : max);
+        }
+        if (aggregation) {
+            list = project(metadata, sources, list);
+        } else if (distinct) {
+            Stream<?> rows = list.stream();
+            if (project) {
+                rows = rows.map(createProjector(metadata, sources));
             }
-            // projection
-            if (metadata.getProjection() != null && !metadata.getProjection().equals(source)) {
+            list = distinct(rows.iterator(), max);
+        } else {
+            // limit + offset before the projection
+            if (modifiers.isRestricting()) {
+                list = modifiers.subList(list);
+            }
+            if (project) {
                 list = project(metadata, sources, list);
             }
-            // limit + offset
-            if (metadata.getModifiers().isRestricting()) {
-                list = metadata.getModifiers().subList(list);
+            return list;
+        }
+        // limit + offset
+        if (modifiers.isRestricting()) {
+            list = modifiers.subList(list);
+        }
+        return list;
+    }
+
+    /**
+     * Get offset + limit of the given modifiers
+     */
+    private static long getMax(QueryModifiers modifiers) {
+        if (modifiers.getLimit() == null) {
+            return Long.MAX_VALUE;
+        }
+        long offset = modifiers.getOffset() != null ? modifiers.getOffset() : 0L;
+        return modifiers.getLimit() < Long.MAX_VALUE - offset ? offset + modifiers.getLimit() : Long.MAX_VALUE;
+    }
+
+    /**
+     * Evaluate a query of a single columnar source on the selected rows of its columns
+     *
+     * @return results or null, if the where clause can't be evaluated on the columns
+     */
+    @Nullable
+    private List<?> evaluateColumnar(QueryMetadata metadata, Expression<?> source, ColumnarSource<?> columns,
+            boolean count) {
+        int[] rows = columns.select(source, metadata);
+        if (rows == null) {
+            return null;
+        } else if (count) {
+            List<?> list = rows(rows, columns::get);
+            return metadata.isDistinct() ? distinct(list.iterator(), Long.MAX_VALUE) : list;
+        } else if (rows.length == 0) {
+            return Collections.emptyList();
+        }
+        Expression<?> projection = metadata.getProjection() != null ? metadata.getProjection() : source;
+        if (isAggregation(projection)) {
+            Operation<?> aggregation = (Operation<?>) projection;
+            Number rv = columns.aggregate(source, aggregation, rows);
+            if (rv == null) {
+                List values = rows(rows, createReader(metadata, source, columns, aggregation.getArg(0)));
+                rv = CollQueryFunctions.aggregate(values, aggregation.getArg(0), aggregation.getOperator());
+            }
+            return Collections.singletonList(rv);
+        }
+        QueryModifiers modifiers = metadata.getModifiers();
+        long max = getMax(modifiers);
+        // ordered
+        List<OrderSpecifier<?>> orderBy = metadata.getOrderBy();
+        if (!orderBy.isEmpty()) {
+            IntFunction<?>[] readers = new IntFunction<?>[orderBy.size()];
+            for (int i = 0; i < readers.length; i++) {
+                readers[i] = createReader(metadata, source, columns, orderBy.get(i).getTarget());
             }
-            if (list.isEmpty()) {
-                return list;
+            Object[][] keys = new Object[rows.length][readers.length];
+            for (int i = 0; i < rows.length; i++) {
+                for (int j = 0; j < readers.length; j++) {
+                    keys[i][j] = readers[j].apply(rows[i]);
+                }
             }
+            Integer[] indices = sort(keys, createComparator(metadata, null),
+                    metadata.isDistinct() ? Long.MAX_VALUE : max);
+            int[] ordered = new int[indices.length];
+            for (int i = 0; i < ordered.length; i++) {
+                ordered[i] = rows[indices[i]];
+            }
+            rows = ordered;
         }
-
-        // distinct
+        List<?> list = rows(rows, createReader(metadata, source, columns, projection));
         if (metadata.isDistinct()) {
-            list = distinct(list);
+            list = distinct(list.iterator(), max);
+        }
+        // limit + offset before the projection
+        if (modifiers.isRestricting()) {
+            list = modifiers.subList(list);
         }
+        return new ArrayList<Object>(list);
+    }
 
-        return list;
+    /**
+     * Create a reader for the values of the given expression, which reads columns directly and
+     * evaluates other expressions on the created elements
+     */
+    private IntFunction<?> createReader(QueryMetadata metadata, Expression<?> source, ColumnarSource<?> columns,
+            Expression<?> expr) {
+        IntFunction<?> reader = columns.getReader(source, expr);
+        if (reader != null) {
+            return reader;
+        } else if (expr.equals(source)) {
+            return columns::get;
+        } else if (expr instanceof Constant) {
+            Object constant = ((Constant<?>) expr).getConstant();
+            return row -> constant;
+        } else if (expr instanceof FactoryExpression) {
+            FactoryExpression<?> factory = (FactoryExpression<?>) expr;
+            IntFunction<?>[] args = new IntFunction<?>[factory.getArgs().size()];
+            for (int i = 0; i < args.length; i++) {
+                args[i] = createReader(metadata, source, columns, factory.getArgs().get(i));
+            }
+            return row -> {
+                Object[] values = new Object[args.length];
+                for (int i = 0; i < values.length; i++) {
+                    values[i] = args[i].apply(row);
+                }
+                return factory.newInstance(values);
+            };
+        } else {
+            EvaluatorFunction<Object, Object> function = new EvaluatorFunction(
+                    evaluatorFactory.create(metadata, Collections.<Expression<?>>singletonList(source), expr));
+            return row -> function.apply(columns.get(row));
+        }
+    }
 
+    /**
+     * Get a view of the values of the given rows
+     */
+    private static List<Object> rows(final int[] rows, final IntFunction<?> reader) {
+        return new AbstractList<Object>() {
+            @Override
+            public Object get(int index) {
+                return reader.apply(rows[index]);
+            }
+
+            @Override
+            public int size() {
+                return rows.length;
+            }
+        };
+    }
+
+    /**
+     * Get the first matching elements of the given ordered source
+     */
+    private List<?> firstMatches(QueryMetadata metadata, Expression<?> source, Iterable<?> sorted, long max) {
+        Evaluator<List<?>> evaluator = metadata.getWhere() != null
+                ? (Evaluator) evaluatorFactory.createEvaluator(metadata, source, metadata.getWhere()) : null;
+        List<Object> rv = new ArrayList<Object>();
+        List<Object> chunk = new ArrayList<Object>();
+        Iterator<?> it = sorted.iterator();
+        while (rv.size() < max && it.hasNext()) {
+            chunk.clear();
+            long chunkSize = Math.min(Math.max(max - rv.size(), 16), 1024);
+            while (chunk.size() < chunkSize && it.hasNext()) {
+                chunk.add(it.next());
+            }
+            rv.addAll(evaluator != null ? evaluator.evaluate(chunk) : chunk);
+        }
+        return rv.size() > max ? rv.subList(0, (int) max) : rv;
     }
 
-    private void order(QueryMetadata metadata, List<Expression<?>> sources, List<?> list) {
+    @Override
+    public void precompile(QueryMetadata metadata) {
+        Expression<?> projection = metadata.getProjection();
+        List<Expression<?>> sources;
+        boolean project;
+        if (metadata.getJoins().size() == 1) {
+            Expression<?> source = metadata.getJoins().get(0).getTarget();
+            sources = Collections.<Expression<?>>singletonList(source);
+            if (metadata.getWhere() != null) {
+                evaluatorFactory.createEvaluator(metadata, source, metadata.getWhere());
+            }
+            project = projection != null && !projection.equals(source);
+        } else {
+            evaluatorFactory.createEvaluator(metadata, metadata.getJoins(), metadata.getWhere());
+            sources = getSources(metadata);
+            project = projection != null;
+        }
+        if (!metadata.getOrderBy().isEmpty()) {
+            createOrderEvaluator(metadata, sources);
+        }
+        if (project) {
+            evaluatorFactory.create(metadata, sources, getAggregationArg(projection));
+        }
+    }
+
+    private List<Expression<?>> getSources(QueryMetadata metadata) {
+        List<Expression<?>> sources = new ArrayList<Expression<?>>(metadata.getJoins().size());
+        for (JoinExpression join : metadata.getJoins()) {
+            if (join.getType() == JoinType.DEFAULT) {
+                sources.add(join.getTarget());
+            } else {
+                Operation target = (Operation) join.getTarget();
+                sources.add(target.getArg(1));
+            }
+        }
+        return sources;
+    }
+
+    private Evaluator createOrderEvaluator(QueryMetadata metadata, List<Expression<?>> sources) {
         // create a projection for the order
         List<OrderSpecifier<?>> orderBy = metadata.getOrderBy();
         Expression<Object>[] orderByExpr = new Expression[orderBy.size()];
+        for (int i = 0; i < orderBy.size(); i++) {
+            orderByExpr[i] = (Expression) orderBy.get(i).getTarget();
+        }
+        Expression<?> expr = new ArrayConstructorExpression<Object>(Object[].class, orderByExpr);
+        return evaluatorFactory.create(metadata, sources, expr);
+    }
+
+    private boolean isAggregation(Expression<?> projection) {
+        return projection instanceof Operation && Ops.aggOps.contains(((Operation) projection).getOperator());
+    }
+
+    private Expression<?> getAggregationArg(Expression<?> projection) {
+        if (isAggregation(projection)) {
+            return ((Operation<?>) projection).getArg(0);
+        } else {
+            return projection;
+        }
+    }
+
+    /**
+     * Order the given rows, keeping only the first max rows via a bounded heap if max is
+     * smaller than the amount of rows
+     */
+    private List<?> order(QueryMetadata metadata, List<Expression<?>> sources, List<?> list, long max) {
+        MultiComparator<?> comparator = createComparator(metadata, createOrderEvaluator(metadata, sources));
+        // evaluate the order keys once per row
+        Object[][] keys = inChunks(list, chunk -> chunk.stream().map(comparator::getKeys)
+                .collect(Collectors.toList())).toArray(new Object[0][]);
+        Integer[] indices = sort(keys, comparator, max);
+        List<Object> rv = new ArrayList<Object>(indices.length);
+        for (Integer index : indices) {
+            rv.add(list.get(index));
+        }
+        return rv;
+    }
+
+    private MultiComparator<?> createComparator(QueryMetadata metadata, @Nullable Evaluator orderEvaluator) {
+        List<OrderSpecifier<?>> orderBy = metadata.getOrderBy();
         boolean[] directions = new boolean[orderBy.size()];
         boolean[] nullsLast = new boolean[orderBy.size()];
         for (int i = 0; i < orderBy.size(); i++) {
-            orderByExpr[i] = (Expression) orderBy.get(i).getTarget();
             directions[i] = orderBy.get(i).getOrder() == Order.ASC;
             nullsLast[i] = orderBy.get(i).getNullHandling() == OrderSpecifier.NullHandling.NullsLast;
         }
-        Expression<?> expr = new ArrayConstructorExpression<Object>(Object[].class, orderByExpr);
-        Evaluator orderEvaluator = evaluatorFactory.create(metadata, sources, expr);
-        list.sort(new MultiComparator(orderEvaluator, directions, nullsLast));
+        return new MultiComparator(orderEvaluator, directions, nullsLast);
+    }
+
+    /**
+     * Get the positions of the first max of the given order keys in order
+     */
+    private Integer[] sort(Object[][] keys, MultiComparator<?> comparator, long max) {
+        // compare ties by position to keep the order stable
+        Comparator<Integer> byKeys = (i1, i2) -> {
+            int res = comparator.compareKeys(keys[i1], keys[i2]);
+            return res != 0 ? res : Integer.compare(i1, i2);
+        };
+        Integer[] indices;
+        if (max < keys.length) {
+            PriorityQueue<Integer> heap = new PriorityQueue<Integer>((int) max + 1, byKeys.reversed());
+            for (int i = 0; i < keys.length; i++) {
+                heap.add(i);
+                if (heap.size() > max) {
+                    heap.poll();
+                }
+            }
+            indices = heap.toArray(new Integer[0]);
+        } else {
+            indices = new Integer[keys.length];
+            for (int i = 0; i < indices.length; i++) {
+                indices[i] = i;
+            }
+        }
+        if (pool != null && indices.length >= 2 * MIN_CHUNK_SIZE) {
+            Integer[] toSort = indices;
+            pool.submit(() -> Arrays.parallelSort(toSort, byKeys)).join();
+        } else {
+            Arrays.sort(indices, byKeys);
+        }
+        return indices;
+    }
+
+    private EvaluatorFunction<Object, Object> createProjector(QueryMetadata metadata, List<Expression<?>> sources) {
+        return new EvaluatorFunction(evaluatorFactory.create(metadata, sources, metadata.getProjection()));
     }
 
     private List<?> project(QueryMetadata metadata, List<Expression<?>> sources, List<?> list) {
@@ -235,7 +663,17 @@ public class DefaultQueryEngine implements QueryEngine {
         }
         Evaluator projectionEvaluator = evaluatorFactory.create(metadata, sources, projection);
         EvaluatorFunction<Object, Object> transformer = new EvaluatorFunction(projectionEvaluator);
-        List target = list.stream().map(transformer).collect(Collectors.toList());
+        // floating-point sums depend on the order of the additions and are aggregated serially
+        if (aggregator == Ops.AggOps.MIN_AGG || aggregator == Ops.AggOps.MAX_AGG
+                || aggregator == Ops.AggOps.SUM_AGG && !isFloatingPoint(projection.getType())) {
+            // aggregate each chunk and then the partial results
+            Expression<?> arg = projection;
+            Operator op = aggregator;
+            List<Number> partials = inChunks(list, chunk -> Collections.singletonList(CollQueryFunctions
+                    .aggregate((List) chunk.stream().map(transformer).collect(Collectors.toList()), arg, op)));
+            return Collections.singletonList(CollQueryFunctions.aggregate(partials, projection, aggregator));
+        }
+        List target = inChunks(list, chunk -> chunk.stream().map(transformer).collect(Collectors.toList()));
         if (aggregator != null) {
             return Collections.singletonList(CollQueryFunctions.aggregate(target, projection, aggregator));
         } else {
@@ -243,6 +681,26 @@ public class DefaultQueryEngine implements QueryEngine {
         }
     }
 
+    /**
+     * Apply the given function to the given list and return the result. With a pool, large lists
+     * are split into chunks, which are processed in parallel and concatenated in order.
+     */
+    private <T> List<T> inChunks(List<?> list, Function<List<?>, List<? extends T>> function) {
+        if (pool == null || list.size() < 2 * MIN_CHUNK_SIZE) {
+            return (List<T>) function.apply(list);
+        }
+        int size = list.size();
+        int chunkSize = Math.max(MIN_CHUNK_SIZE, size / (pool.getParallelism() * 4));
+        int chunks = (size + chunkSize - 1) / chunkSize;
+        return pool.submit(() -> IntStream.range(0, chunks).parallel()
+                .mapToObj(i -> function.apply(list.subList(i * chunkSize, Math.min(size, (i + 1) * chunkSize))))
+                .flatMap(List::stream)
+                .collect(Collectors.<T>toList())).join();
+    }
 
+    private static boolean isFloatingPoint(Class<?> type) {
+        return type.equals(Double.class) || type.equals(Float.class)
+                || type.equals(double.class) || type.equals(float.class);
+    }
 
 }
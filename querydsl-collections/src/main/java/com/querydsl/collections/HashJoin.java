@@ -0,0 +1,332 @@
+/*
+ * Copyright 2015, The Querydsl Team (http://www.querydsl.com/team)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.querydsl.collections;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.jetbrains.annotations.Nullable;
+
+import com.mysema.commons.lang.IteratorAdapter;
+import com.querydsl.codegen.utils.Evaluator;
+import com.querydsl.core.JoinExpression;
+import com.querydsl.core.JoinType;
+import com.querydsl.core.QueryMetadata;
+import com.querydsl.core.support.PathsExtractor;
+import com.querydsl.core.types.Expression;
+import com.querydsl.core.types.ExpressionUtils;
+import com.querydsl.core.types.Operation;
+import com.querydsl.core.types.Ops;
+import com.querydsl.core.types.Path;
+import com.querydsl.core.types.Predicate;
+import com.querydsl.core.util.PrimitiveUtils;
+
+/**
+ * {@code HashJoin} evaluates the sources of a query as hash joins on the equality predicates
+ * between them instead of as nested loops.
+ *
+ * <p>The where clause is split into its conjuncts. Conjuncts referring to a single source are
+ * applied to that source before joining, equality predicates between two sources are used as
+ * join keys and all other conjuncts are applied to the joined rows. The hash table is built on
+ * the smaller side of each join, the rows are returned in the same order as nested loops would
+ * return them.</p>
+ */
+final class HashJoin {
+
+    private static final Object NO_KEY = new Object();
+
+    private HashJoin() { }
+
+    /**
+     * Evaluate the joins of the given query
+     *
+     * @param evaluatorFactory evaluator factory
+     * @param metadata query metadata
+     * @param iterables source contents
+     * @return joined rows or null, if the query has no equality predicates between its sources
+     */
+    @Nullable
+    static List<Object[]> evaluate(DefaultEvaluatorFactory evaluatorFactory, QueryMetadata metadata,
+            Map<Expression<?>, Iterable<?>> iterables) {
+        Predicate where = metadata.getWhere();
+        if (where == null || metadata.getJoins().size() < 2) {
+            return null;
+        }
+        List<Expression<?>> sources = new ArrayList<Expression<?>>(metadata.getJoins().size());
+        for (JoinExpression join : metadata.getJoins()) {
+            if (join.getType() != JoinType.DEFAULT || join.getCondition() != null) {
+                return null;
+            }
+            sources.add(join.getTarget());
+        }
+
+        List<List<Predicate>> filters = new ArrayList<List<Predicate>>(sources.size());
+        for (int i = 0; i < sources.size(); i++) {
+            filters.add(new ArrayList<Predicate>());
+        }
+        List<Key> keys = new ArrayList<Key>();
+        List<Predicate> residual = new ArrayList<Predicate>();
+        for (Predicate condition : IndexedSource.getConjuncts(where, new ArrayList<Predicate>())) {
+            Set<Integer> refs = getReferencedSources(condition, sources);
+            if (refs != null && refs.size() == 1) {
+                filters.get(refs.iterator().next()).add(condition);
+                continue;
+            } else if (refs != null && refs.size() == 2) {
+                Key key = Key.of(condition, sources);
+                if (key != null) {
+                    keys.add(key);
+                    continue;
+                }
+            }
+            residual.add(condition);
+        }
+        if (keys.isEmpty()) {
+            return null;
+        }
+
+        List<List<?>> values = new ArrayList<List<?>>(sources.size());
+        for (int i = 0; i < sources.size(); i++) {
+            Iterable<?> iterable = iterables.get(sources.get(i));
+            List<?> list = iterable instanceof List ? (List<?>) iterable
+                    : IteratorAdapter.asList(iterable.iterator());
+            if (!filters.get(i).isEmpty()) {
+                Evaluator<List<Object>> ev = evaluatorFactory.createEvaluator(metadata,
+                        sources.get(i), ExpressionUtils.allOf(filters.get(i)));
+                list = ev.evaluate(list);
+            }
+            values.add(list);
+        }
+
+        List<Object[]> rows = new ArrayList<Object[]>(values.get(0).size());
+        for (Object value : values.get(0)) {
+            Object[] row = new Object[sources.size()];
+            row[0] = value;
+            rows.add(row);
+        }
+        for (int i = 1; i < sources.size() && !rows.isEmpty(); i++) {
+            List<Key> joinKeys = new ArrayList<Key>();
+            for (Key key : keys) {
+                if (key.inner == i) {
+                    joinKeys.add(key);
+                }
+            }
+            if (joinKeys.isEmpty()) {
+                rows = crossJoin(rows, values.get(i), i);
+            } else {
+                rows = hashJoin(evaluatorFactory, metadata, sources, rows, values.get(i), i, joinKeys);
+            }
+        }
+
+        if (!residual.isEmpty() && !rows.isEmpty()) {
+            Evaluator<Boolean> ev = evaluatorFactory.create(metadata, sources, ExpressionUtils.allOf(residual));
+            List<Object[]> filtered = new ArrayList<Object[]>(rows.size());
+            for (Object[] row : rows) {
+                try {
+                    if (Boolean.TRUE.equals(ev.evaluate(row))) {
+                        filtered.add(row);
+                    }
+                } catch (NullPointerException e) {
+                    // skip row, as in the generated filters
+                }
+            }
+            rows = filtered;
+        }
+        return rows;
+    }
+
+    /**
+     * Get the indexes of the sources the given expression refers to
+     *
+     * @return source indexes or null, if the expression refers to other paths
+     */
+    @Nullable
+    private static Set<Integer> getReferencedSources(Expression<?> expr, List<Expression<?>> sources) {
+        List<Path<?>> paths = new ArrayList<Path<?>>();
+        expr.accept(PathsExtractor.DEFAULT, paths);
+        Set<Integer> refs = new HashSet<Integer>();
+        for (Path<?> path : paths) {
+            int index = sources.indexOf(path.getRoot());
+            if (index < 0) {
+                return null;
+            }
+            refs.add(index);
+        }
+        return refs;
+    }
+
+    private static List<Object[]> crossJoin(List<Object[]> rows, List<?> inner, int index) {
+        List<Object[]> rv = new ArrayList<Object[]>();
+        for (Object[] row : rows) {
+            for (Object value : inner) {
+                rv.add(join(row, value, index));
+            }
+        }
+        return rv;
+    }
+
+    private static List<Object[]> hashJoin(DefaultEvaluatorFactory evaluatorFactory, QueryMetadata metadata,
+            List<Expression<?>> sources, List<Object[]> rows, List<?> inner, int index, List<Key> keys) {
+        Evaluator<?>[] outerKeys = new Evaluator<?>[keys.size()];
+        Evaluator<?>[] innerKeys = new Evaluator<?>[keys.size()];
+        for (int i = 0; i < keys.size(); i++) {
+            Key key = keys.get(i);
+            outerKeys[i] = evaluatorFactory.create(metadata, sources, key.outerExpr);
+            innerKeys[i] = evaluatorFactory.create(metadata,
+                    Collections.singletonList(sources.get(index)), key.innerExpr);
+        }
+
+        List<Object[]> rv = new ArrayList<Object[]>();
+        if (inner.size() <= rows.size()) {
+            // build on the inner side
+            Map<Object, List<Object>> table = new HashMap<Object, List<Object>>();
+            for (Object value : inner) {
+                Object key = getKey(innerKeys, new Object[]{value});
+                if (key != NO_KEY) {
+                    List<Object> matches = table.get(key);
+                    if (matches == null) {
+                        matches = new ArrayList<Object>(1);
+                        table.put(key, matches);
+                    }
+                    matches.add(value);
+                }
+            }
+            for (Object[] row : rows) {
+                Object key = getKey(outerKeys, row);
+                List<Object> matches = key != NO_KEY ? table.get(key) : null;
+                if (matches != null) {
+                    for (Object value : matches) {
+                        rv.add(join(row, value, index));
+                    }
+                }
+            }
+        } else {
+            // build on the outer side and collect the matches per outer row
+            Map<Object, List<Integer>> table = new HashMap<Object, List<Integer>>();
+            for (int i = 0; i < rows.size(); i++) {
+                Object key = getKey(outerKeys, rows.get(i));
+                if (key != NO_KEY) {
+                    List<Integer> matches = table.get(key);
+                    if (matches == null) {
+                        matches = new ArrayList<Integer>(1);
+                        table.put(key, matches);
+                    }
+                    matches.add(i);
+                }
+            }
+            List<List<Object>> matches = new ArrayList<List<Object>>(
+                    Collections.<List<Object>>nCopies(rows.size(), null));
+            for (Object value : inner) {
+                Object key = getKey(innerKeys, new Object[]{value});
+                List<Integer> outer = key != NO_KEY ? table.get(key) : null;
+                if (outer != null) {
+                    for (Integer i : outer) {
+                        List<Object> values = matches.get(i);
+                        if (values == null) {
+                            values = new ArrayList<Object>(1);
+                            matches.set(i, values);
+                        }
+                        values.add(value);
+                    }
+                }
+            }
+            for (int i = 0; i < rows.size(); i++) {
+                if (matches.get(i) != null) {
+                    for (Object value : matches.get(i)) {
+                        rv.add(join(rows.get(i), value, index));
+                    }
+                }
+            }
+        }
+        return rv;
+    }
+
+    private static Object getKey(Evaluator<?>[] evaluators, Object[] args) {
+        Object[] values = new Object[evaluators.length];
+        for (int i = 0; i < evaluators.length; i++) {
+            try {
+                values[i] = evaluators[i].evaluate(args);
+            } catch (NullPointerException e) {
+                return NO_KEY;
+            }
+        }
+        return values.length == 1 ? values[0] : Arrays.asList(values);
+    }
+
+    private static Object[] join(Object[] row, Object value, int index) {
+        Object[] rv = row.clone();
+        rv[index] = value;
+        return rv;
+    }
+
+    /**
+     * Equality predicate between an earlier (outer) and a later (inner) source
+     */
+    private static final class Key {
+
+        private final Expression<?> outerExpr;
+
+        private final Expression<?> innerExpr;
+
+        private final int inner;
+
+        private Key(Expression<?> outerExpr, Expression<?> innerExpr, int inner) {
+            this.outerExpr = outerExpr;
+            this.innerExpr = innerExpr;
+            this.inner = inner;
+        }
+
+        @Nullable
+        static Key of(Predicate condition, List<Expression<?>> sources) {
+            if (!(condition instanceof Operation) || ((Operation<?>) condition).getOperator() != Ops.EQ) {
+                return null;
+            }
+            Operation<?> operation = (Operation<?>) condition;
+            Expression<?> left = operation.getArg(0);
+            Expression<?> right = operation.getArg(1);
+            Class<?> type = left.getType();
+            if (!type.equals(right.getType()) || isFloatingPoint(type)) {
+                // the equality semantics of the generated code differ from equals/hashCode
+                return null;
+            }
+            Set<Integer> leftRefs = getReferencedSources(left, sources);
+            Set<Integer> rightRefs = getReferencedSources(right, sources);
+            if (leftRefs == null || rightRefs == null || leftRefs.size() != 1 || rightRefs.size() != 1) {
+                return null;
+            }
+            int leftSource = leftRefs.iterator().next();
+            int rightSource = rightRefs.iterator().next();
+            // wrapper operands are compared by value and null matches null, as with equals
+            if (leftSource < rightSource) {
+                return new Key(left, right, rightSource);
+            } else if (rightSource < leftSource) {
+                return new Key(right, left, leftSource);
+            } else {
+                return null;
+            }
+        }
+
+        private static boolean isFloatingPoint(Class<?> type) {
+            Class<?> wrapped = PrimitiveUtils.wrap(type);
+            return wrapped.equals(Double.class) || wrapped.equals(Float.class);
+        }
+
+    }
+
+}
@@ -0,0 +1,426 @@
+/*
+ * Copyright 2015, The Querydsl Team (http://www.querydsl.com/team)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.querydsl.collections;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.NoSuchElementException;
+import java.util.RandomAccess;
+import java.util.TreeMap;
+
+import org.jetbrains.annotations.Nullable;
+
+import com.querydsl.codegen.utils.Evaluator;
+import com.querydsl.core.DefaultQueryMetadata;
+import com.querydsl.core.QueryMetadata;
+import com.querydsl.core.types.Constant;
+import com.querydsl.core.types.Expression;
+import com.querydsl.core.types.Operation;
+import com.querydsl.core.types.Operator;
+import com.querydsl.core.types.Ops;
+import com.querydsl.core.types.OrderSpecifier;
+import com.querydsl.core.types.ParamExpression;
+import com.querydsl.core.types.Path;
+import com.querydsl.core.types.PathMetadata;
+import com.querydsl.core.types.Predicate;
+import com.querydsl.core.util.PrimitiveUtils;
+
+/**
+ * {@code IndexedSource} is an immutable query source with hash and sorted indexes on
+ * properties of its elements.
+ *
+ * <p>When an {@code IndexedSource} is used as the only source of a query, hash indexes narrow
+ * the candidates for {@code eq} and {@code in} conditions and sorted indexes the candidates
+ * for {@code eq}, {@code in}, {@code lt}, {@code loe}, {@code gt}, {@code goe} and
+ * {@code between} conditions of the where clause. The full where clause is still applied to
+ * the candidates. A sorted index also serves queries ordered by the indexed property with a
+ * limit, without sorting all matching elements.</p>
+ *
+ * <pre>{@code
+ * IndexedSource<Cat> indexed = new IndexedSource<Cat>(cat, cats)
+ *     .hashIndex(cat.name)
+ *     .sortedIndex(cat.birthdate);
+ * List<Cat> rv = CollQueryFactory.from(cat, indexed).where(cat.name.eq("Bob")).fetch();
+ * }</pre>
+ *
+ * <p>Indexed paths are matched by their path relative to the source, so the same indexed source
+ * can be used with different source variables.</p>
+ *
+ * @param <T> element type
+ */
+public class IndexedSource<T> extends AbstractList<T> implements RandomAccess {
+
+    private static final int[] EMPTY = new int[0];
+
+    private final Path<T> source;
+
+    private final List<T> elements;
+
+    private final Map<List<Object>, Map<Object, int[]>> hashIndexes = new HashMap<List<Object>, Map<Object, int[]>>();
+
+    private final Map<List<Object>, SortedIndex> sortedIndexes = new HashMap<List<Object>, SortedIndex>();
+
+    /**
+     * Create a new IndexedSource instance
+     *
+     * @param source source variable of the indexed paths
+     * @param elements elements, which are copied
+     */
+    public IndexedSource(Path<T> source, Collection<? extends T> elements) {
+        this.source = source;
+        this.elements = Collections.unmodifiableList(new ArrayList<T>(elements));
+    }
+
+    /**
+     * Add a hash index on the given path
+     *
+     * @param path path relative to the source variable
+     * @return the current object
+     */
+    public IndexedSource<T> hashIndex(Path<?> path) {
+        Map<Object, List<Integer>> positions = new HashMap<Object, List<Integer>>();
+        Object[] keys = getKeys(path);
+        for (int i = 0; i < keys.length; i++) {
+            List<Integer> list = positions.get(keys[i]);
+            if (list == null) {
+                list = new ArrayList<Integer>(1);
+                positions.put(keys[i], list);
+            }
+            list.add(i);
+        }
+        Map<Object, int[]> index = new HashMap<Object, int[]>(positions.size() * 4 / 3 + 1);
+        for (Map.Entry<Object, List<Integer>> entry : positions.entrySet()) {
+            index.put(entry.getKey(), toArray(entry.getValue()));
+        }
+        hashIndexes.put(getRelativePath(path), index);
+        return this;
+    }
+
+    /**
+     * Add a sorted index on the given path
+     *
+     * @param path path relative to the source variable
+     * @return the current object
+     */
+    public IndexedSource<T> sortedIndex(Path<? extends Comparable<?>> path) {
+        TreeMap<Object, List<Integer>> positions = new TreeMap<Object, List<Integer>>();
+        List<Integer> nulls = new ArrayList<Integer>();
+        Object[] keys = getKeys(path);
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] == null) {
+                nulls.add(i);
+                continue;
+            }
+            List<Integer> list = positions.get(keys[i]);
+            if (list == null) {
+                list = new ArrayList<Integer>(1);
+                positions.put(keys[i], list);
+            }
+            list.add(i);
+        }
+        TreeMap<Object, int[]> index = new TreeMap<Object, int[]>();
+        for (Map.Entry<Object, List<Integer>> entry : positions.entrySet()) {
+            index.put(entry.getKey(), toArray(entry.getValue()));
+        }
+        sortedIndexes.put(getRelativePath(path), new SortedIndex(index, toArray(nulls)));
+        return this;
+    }
+
+    private Object[] getKeys(Path<?> path) {
+        if (!path.getRoot().equals(source) || path.equals(source)) {
+            throw new IllegalArgumentException(path + " is not a property path of " + source);
+        }
+        Evaluator<?> evaluator = CollQueryInterpreter.create(new DefaultQueryMetadata(),
+                Collections.singletonList(source), path);
+        Object[] keys = new Object[elements.size()];
+        for (int i = 0; i < keys.length; i++) {
+            try {
+                keys[i] = evaluator.evaluate(new Object[]{elements.get(i)});
+            } catch (NullPointerException e) {
+                // null in the path
+                keys[i] = null;
+            }
+        }
+        return keys;
+    }
+
+    @Override
+    public T get(int index) {
+        return elements.get(index);
+    }
+
+    @Override
+    public int size() {
+        return elements.size();
+    }
+
+    /**
+     * Get the candidates for the where clause of the given query
+     *
+     * @param expr source variable of the query
+     * @param metadata query metadata
+     * @return candidates in source order or null, if no index applies
+     */
+    @Nullable
+    List<T> getCandidates(Expression<?> expr, QueryMetadata metadata) {
+        if (metadata.getWhere() == null) {
+            return null;
+        }
+        int[] best = null;
+        for (Predicate condition : getConjuncts(metadata.getWhere(), new ArrayList<Predicate>())) {
+            int[] positions = getPositions(expr, condition, metadata);
+            if (positions != null && (best == null || positions.length < best.length)) {
+                best = positions;
+            }
+        }
+        if (best == null) {
+            return null;
+        }
+        List<T> rv = new ArrayList<T>(best.length);
+        for (int position : best) {
+            rv.add(elements.get(position));
+        }
+        return rv;
+    }
+
+    /**
+     * Get the elements in the given order
+     *
+     * @param expr source variable of the query
+     * @param order order
+     * @return elements in the given order or null, if the order is not indexed
+     */
+    @Nullable
+    Iterable<T> getOrdered(Expression<?> expr, OrderSpecifier<?> order) {
+        Expression<?> target = order.getTarget();
+        if (!(target instanceof Path) || !isIndexable((Path<?>) target, expr)) {
+            return null;
+        }
+        final SortedIndex index = sortedIndexes.get(getRelativePath((Path<?>) target));
+        if (index == null) {
+            return null;
+        }
+        final boolean nullsLast = order.getNullHandling() == OrderSpecifier.NullHandling.NullsLast;
+        final NavigableMap<Object, int[]> keys = order.isAscending() ? index.keys : index.keys.descendingMap();
+        return () -> {
+            final List<int[]> groups = new LinkedList<int[]>(keys.values());
+            if (nullsLast) {
+                groups.add(index.nulls);
+            } else {
+                groups.add(0, index.nulls);
+            }
+            final Iterator<int[]> it = groups.iterator();
+            return new Iterator<T>() {
+                private int[] group = EMPTY;
+                private int position;
+
+                @Override
+                public boolean hasNext() {
+                    while (position == group.length && it.hasNext()) {
+                        group = it.next();
+                        position = 0;
+                    }
+                    return position < group.length;
+                }
+
+                @Override
+                public T next() {
+                    if (!hasNext()) {
+                        throw new NoSuchElementException();
+                    }
+                    return elements.get(group[position++]);
+                }
+            };
+        };
+    }
+
+    @Nullable
+    @SuppressWarnings("unchecked")
+    private int[] getPositions(Expression<?> expr, Predicate condition, QueryMetadata metadata) {
+        if (!(condition instanceof Operation)) {
+            return null;
+        }
+        Operation<?> operation = (Operation<?>) condition;
+        Operator operator = operation.getOperator();
+        if (!(operation.getArg(0) instanceof Path) || !isIndexable((Path<?>) operation.getArg(0), expr)) {
+            return null;
+        }
+        Path<?> path = (Path<?>) operation.getArg(0);
+        List<Object> relativePath = getRelativePath(path);
+        Class<?> type = PrimitiveUtils.wrap(path.getType());
+        Map<Object, int[]> hashIndex = hashIndexes.get(relativePath);
+        SortedIndex sortedIndex = sortedIndexes.get(relativePath);
+        if (operator == Ops.EQ || operator == Ops.IN) {
+            Object value = getValue(operation.getArg(1), metadata);
+            Collection<?> values;
+            if (operator == Ops.EQ) {
+                values = Collections.singletonList(value);
+            } else if (value instanceof Collection) {
+                values = (Collection<?>) value;
+            } else {
+                return null;
+            }
+            List<int[]> groups = new ArrayList<int[]>(values.size());
+            for (Object v : values) {
+                if (v == null || !v.getClass().equals(type)) {
+                    return null;
+                } else if (hashIndex != null) {
+                    groups.add(hashIndex.getOrDefault(v, EMPTY));
+                } else if (sortedIndex != null) {
+                    groups.add(sortedIndex.keys.getOrDefault(v, EMPTY));
+                } else {
+                    return null;
+                }
+            }
+            return merge(groups);
+        } else if (sortedIndex != null && (operator == Ops.LT || operator == Ops.LOE
+                || operator == Ops.GT || operator == Ops.GOE || operator == Ops.BETWEEN)) {
+            Object from = null, to = null;
+            boolean fromInclusive = true, toInclusive = true;
+            if (operator == Ops.LT || operator == Ops.LOE) {
+                to = getValue(operation.getArg(1), metadata);
+                toInclusive = operator == Ops.LOE;
+            } else if (operator == Ops.GT || operator == Ops.GOE) {
+                from = getValue(operation.getArg(1), metadata);
+                fromInclusive = operator == Ops.GOE;
+            } else {
+                from = getValue(operation.getArg(1), metadata);
+                to = getValue(operation.getArg(2), metadata);
+            }
+            if ((from != null && !from.getClass().equals(type)) || (to != null && !to.getClass().equals(type))) {
+                return null;
+            }
+            NavigableMap<Object, int[]> range = sortedIndex.keys;
+            if (from != null && to != null) {
+                if (((Comparable<Object>) from).compareTo(to) > 0) {
+                    return EMPTY;
+                }
+                range = range.subMap(from, fromInclusive, to, toInclusive);
+            } else if (from != null) {
+                range = range.tailMap(from, fromInclusive);
+            } else if (to != null) {
+                range = range.headMap(to, toInclusive);
+                if (!PrimitiveUtils.isWrapperType(type)) {
+                    // null is less than any other value in compareTo based comparisons
+                    List<int[]> groups = new ArrayList<int[]>(range.values());
+                    groups.add(sortedIndex.nulls);
+                    return merge(groups);
+                }
+            } else {
+                return null;
+            }
+            return merge(range.values());
+        } else {
+            return null;
+        }
+    }
+
+    private boolean isIndexable(Path<?> path, Expression<?> expr) {
+        if (!path.getRoot().equals(expr) || path.equals(expr)) {
+            return false;
+        }
+        Class<?> type = PrimitiveUtils.wrap(path.getType());
+        // the equality semantics of the generated code differ from equals/compareTo
+        return !type.equals(Double.class) && !type.equals(Float.class);
+    }
+
+    @Nullable
+    static Object getValue(Expression<?> expr, QueryMetadata metadata) {
+        if (expr instanceof Constant) {
+            return ((Constant<?>) expr).getConstant();
+        } else if (expr instanceof ParamExpression) {
+            return metadata.getParams().get(expr);
+        } else {
+            return null;
+        }
+    }
+
+    static List<Predicate> getConjuncts(Predicate predicate, List<Predicate> conjuncts) {
+        if (predicate instanceof Operation && ((Operation<?>) predicate).getOperator() == Ops.AND) {
+            for (Expression<?> arg : ((Operation<?>) predicate).getArgs()) {
+                getConjuncts((Predicate) arg, conjuncts);
+            }
+        } else {
+            conjuncts.add(predicate);
+        }
+        return conjuncts;
+    }
+
+    static List<Object> getRelativePath(Path<?> path) {
+        List<Object> rv = new ArrayList<Object>();
+        while (!path.getMetadata().isRoot()) {
+            PathMetadata md = path.getMetadata();
+            rv.add(md.getPathType());
+            rv.add(md.getElement());
+            path = md.getParent();
+        }
+        return rv;
+    }
+
+    private static int[] merge(Collection<int[]> groups) {
+        if (groups.size() == 1) {
+            return groups.iterator().next();
+        }
+        int size = 0;
+        for (int[] group : groups) {
+            size += group.length;
+        }
+        int[] rv = new int[size];
+        int i = 0;
+        for (int[] group : groups) {
+            System.arraycopy(group, 0, rv, i, group.length);
+            i += group.length;
+        }
+        // restore the source order
+        Arrays.sort(rv);
+        int distinct = 0;
+        for (int j = 0; j < rv.length; j++) {
+            if (j == 0 || rv[j] != rv[j - 1]) {
+                rv[distinct++] = rv[j];
+            }
+        }
+        return distinct < rv.length ? Arrays.copyOf(rv, distinct) : rv;
+    }
+
+    private static int[] toArray(List<Integer> list) {
+        int[] rv = new int[list.size()];
+        for (int i = 0; i < rv.length; i++) {
+            rv[i] = list.get(i);
+        }
+        return rv;
+    }
+
+    private static final class SortedIndex {
+
+        private final NavigableMap<Object, int[]> keys;
+
+        private final int[] nulls;
+
+        SortedIndex(NavigableMap<Object, int[]> keys, int[] nulls) {
+            this.keys = keys;
+            this.nulls = nulls;
+        }
+
+    }
+
+}
@@ -0,0 +1,260 @@
+/*
+ * Copyright 2015, The Querydsl Team (http://www.querydsl.com/team)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.querydsl.collections;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.jetbrains.annotations.Nullable;
+
+import com.querydsl.codegen.utils.Evaluator;
+import com.querydsl.codegen.utils.EvaluatorFactory;
+import com.querydsl.core.JoinExpression;
+import com.querydsl.core.QueryMetadata;
+import com.querydsl.core.types.Constant;
+import com.querydsl.core.types.Expression;
+import com.querydsl.core.types.FactoryExpression;
+import com.querydsl.core.types.Operation;
+import com.querydsl.core.types.Predicate;
+import com.querydsl.core.types.TemplateExpression;
+
+/**
+ * {@code InterpretedEvaluatorFactory} is a {@link DefaultEvaluatorFactory} which interprets the
+ * expressions of {@link CollQuery} queries instead of compiling them into Java classes
+ *
+ * <p>Interpretation avoids the compilation cost of new query shapes, which makes it suitable for
+ * dynamic filters. Expressions which can't be interpreted, such as subqueries, custom templates and
+ * any() joins, are compiled as before.</p>
+ *
+ * <p>With a compile threshold the factory uses a tiered policy: each query shape is interpreted
+ * for its first executions and compiled once it has been executed more often than the
+ * threshold. Query shapes are compared by the structure of their expressions, so queries which
+ * differ only by constants share the same counter. The counters of the least recently executed
+ * shapes are dropped first.</p>
+ *
+ * <p>Usage:</p>
+ * <pre>
+ * QueryEngine engine = new DefaultQueryEngine(new InterpretedEvaluatorFactory(CollQueryTemplates.DEFAULT, 100));
+ * List&lt;Cat&gt; result = new CollQuery&lt;Void&gt;(engine).from(cat, cats).where(cat.name.eq("Bob")).select(cat).fetch();
+ * </pre>
+ */
+public class InterpretedEvaluatorFactory extends DefaultEvaluatorFactory {
+
+    /**
+     * Compile threshold for interpreting all supported expressions
+     */
+    public static final int NEVER_COMPILE = Integer.MAX_VALUE;
+
+    static final int MAX_SHAPES = 10000;
+
+    private final int compileThreshold;
+
+    private final Map<Shape, AtomicInteger> executions = Collections.synchronizedMap(
+            new LinkedHashMap<Shape, AtomicInteger>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Shape, AtomicInteger> eldest) {
+                    return size() > MAX_SHAPES;
+                }
+            });
+
+    /**
+     * Create a new InterpretedEvaluatorFactory which never compiles supported expressions
+     *
+     * @param templates templates
+     */
+    public InterpretedEvaluatorFactory(CollQueryTemplates templates) {
+        this(templates, NEVER_COMPILE);
+    }
+
+    /**
+     * Create a new InterpretedEvaluatorFactory
+     *
+     * @param templates templates
+     * @param compileThreshold amount of executions after which a query shape is compiled
+     */
+    public InterpretedEvaluatorFactory(CollQueryTemplates templates, int compileThreshold) {
+        super(templates);
+        this.compileThreshold = compileThreshold;
+    }
+
+    /**
+     * Create a new InterpretedEvaluatorFactory
+     *
+     * @param templates templates
+     * @param factory evaluator factory for compilation
+     * @param compileThreshold amount of executions after which a query shape is compiled
+     */
+    public InterpretedEvaluatorFactory(CollQueryTemplates templates, EvaluatorFactory factory,
+            int compileThreshold) {
+        super(templates, factory);
+        this.compileThreshold = compileThreshold;
+    }
+
+    @Override
+    public <T> Evaluator<T> create(QueryMetadata metadata, List<? extends Expression<?>> sources,
+            Expression<T> projection) {
+        if (!isCompiled(sources, projection)) {
+            try {
+                return CollQueryInterpreter.create(metadata, sources, projection);
+            } catch (CollQueryInterpreter.UnsupportedExpressionException e) {
+                // compile
+            }
+        }
+        return super.create(metadata, sources, projection);
+    }
+
+    @Override
+    public <T> Evaluator<List<T>> createEvaluator(QueryMetadata metadata,
+            Expression<? extends T> source, Predicate filter) {
+        if (!isCompiled(source, filter)) {
+            try {
+                return CollQueryInterpreter.createEvaluator(metadata, source, filter);
+            } catch (CollQueryInterpreter.UnsupportedExpressionException e) {
+                // compile
+            }
+        }
+        return super.createEvaluator(metadata, source, filter);
+    }
+
+    @Override
+    public Evaluator<List<Object[]>> createEvaluator(QueryMetadata metadata,
+            List<JoinExpression> joins, @Nullable Predicate filter) {
+        if (!isCompiled(joins, filter)) {
+            try {
+                return CollQueryInterpreter.createEvaluator(metadata, joins, filter);
+            } catch (CollQueryInterpreter.UnsupportedExpressionException e) {
+                // compile
+            }
+        }
+        return super.createEvaluator(metadata, joins, filter);
+    }
+
+    private boolean isCompiled(Object sources, @Nullable Expression<?> expr) {
+        if (compileThreshold == NEVER_COMPILE) {
+            return false;
+        }
+        Shape shape = new Shape(sources, expr);
+        AtomicInteger counter;
+        synchronized (executions) {
+            counter = executions.computeIfAbsent(shape, key -> new AtomicInteger());
+        }
+        if (counter.get() > compileThreshold) {
+            // compiled shapes stay compiled without counting further
+            return true;
+        }
+        return counter.incrementAndGet() > compileThreshold;
+    }
+
+    /**
+     * Query shape, which compares expressions by their structure and constants by their type
+     */
+    private static final class Shape {
+
+        private final Object sources;
+
+        @Nullable
+        private final Expression<?> expr;
+
+        private final int hashCode;
+
+        Shape(Object sources, @Nullable Expression<?> expr) {
+            this.sources = sources;
+            this.expr = expr;
+            this.hashCode = 31 * sources.hashCode() + hash(expr);
+        }
+
+        private static int hash(@Nullable Object obj) {
+            if (obj instanceof Constant) {
+                return ((Constant<?>) obj).getType().hashCode();
+            } else if (obj instanceof Operation) {
+                Operation<?> operation = (Operation<?>) obj;
+                return 31 * operation.getOperator().hashCode() + hash(operation.getArgs());
+            } else if (obj instanceof TemplateExpression) {
+                TemplateExpression<?> template = (TemplateExpression<?>) obj;
+                return 31 * template.getTemplate().hashCode() + hash(template.getArgs());
+            } else if (obj instanceof FactoryExpression) {
+                FactoryExpression<?> factory = (FactoryExpression<?>) obj;
+                return 31 * factory.getType().hashCode() + hash(factory.getArgs());
+            } else {
+                return Objects.hashCode(obj);
+            }
+        }
+
+        private static int hash(List<?> args) {
+            int rv = 1;
+            for (Object arg : args) {
+                rv = 31 * rv + hash(arg);
+            }
+            return rv;
+        }
+
+        private static boolean equals(@Nullable Object o1, @Nullable Object o2) {
+            if (o1 instanceof Constant && o2 instanceof Constant) {
+                return ((Constant<?>) o1).getType().equals(((Constant<?>) o2).getType());
+            } else if (o1 instanceof Operation && o2 instanceof Operation) {
+                Operation<?> op1 = (Operation<?>) o1;
+                Operation<?> op2 = (Operation<?>) o2;
+                return op1.getOperator() == op2.getOperator() && op1.getType().equals(op2.getType())
+                        && equals(op1.getArgs(), op2.getArgs());
+            } else if (o1 instanceof TemplateExpression && o2 instanceof TemplateExpression) {
+                TemplateExpression<?> t1 = (TemplateExpression<?>) o1;
+                TemplateExpression<?> t2 = (TemplateExpression<?>) o2;
+                return t1.getTemplate().equals(t2.getTemplate()) && t1.getType().equals(t2.getType())
+                        && equals(t1.getArgs(), t2.getArgs());
+            } else if (o1 instanceof FactoryExpression && o2 instanceof FactoryExpression) {
+                FactoryExpression<?> f1 = (FactoryExpression<?>) o1;
+                FactoryExpression<?> f2 = (FactoryExpression<?>) o2;
+                return f1.getClass().equals(f2.getClass()) && f1.getType().equals(f2.getType())
+                        && equals(f1.getArgs(), f2.getArgs());
+            } else {
+                return Objects.equals(o1, o2);
+            }
+        }
+
+        private static boolean equals(List<?> args1, List<?> args2) {
+            if (args1.size() != args2.size()) {
+                return false;
+            }
+            for (int i = 0; i < args1.size(); i++) {
+                if (!equals(args1.get(i), args2.get(i))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (o == this) {
+                return true;
+            } else if (o instanceof Shape) {
+                Shape other = (Shape) o;
+                return hashCode == other.hashCode && sources.equals(other.sources) && equals(expr, other.expr);
+            } else {
+                return false;
+            }
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+
+    }
+
+}
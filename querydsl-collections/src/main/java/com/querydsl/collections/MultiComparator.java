@@ -46,17 +46,36 @@ public class MultiComparator<T> implements Comparator<T>, Serializable {
 
     @Override
     public int compare(T o1, T o2) {
-        if (o1 instanceof Object[]) {
-            return innerCompare(ev.evaluate((Object[]) o1), ev.evaluate((Object[]) o2));
+        return compareKeys(getKeys(o1), getKeys(o2));
+    }
+
+    /**
+     * Evaluate the order keys of the given element
+     *
+     * @param o element
+     * @return order keys
+     */
+    Object[] getKeys(Object o) {
+        if (o instanceof Object[]) {
+            return ev.evaluate((Object[]) o);
         } else {
-            return innerCompare(ev.evaluate(o1), ev.evaluate(o2));
+            return ev.evaluate(o);
         }
     }
 
-    private int innerCompare(Object[] o1, Object[] o2) {
+    /**
+     * Compare the given evaluated order keys
+     *
+     * @param o1 order keys of the first element
+     * @param o2 order keys of the second element
+     * @return comparison result
+     */
+    int compareKeys(Object[] o1, Object[] o2) {
         for (int i = 0; i < o1.length; i++) {
             if (o1[i] == null) {
-                return o2[i] == null ? 0 : nullsLast[i] ? 1 : -1;
+                if (o2[i] != null) {
+                    return nullsLast[i] ? 1 : -1;
+                }
             } else if (o2[i] == null) {
                 return nullsLast[i] ? -1 : 1;
             } else {
@@ -15,6 +15,8 @@ package com.querydsl.collections;
 
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Stream;
 
 import com.querydsl.core.QueryMetadata;
 import com.querydsl.core.types.Expression;
@@ -46,6 +48,19 @@ public interface QueryEngine {
     <T> List<T> list(QueryMetadata metadata, Map<Expression<?>, Iterable<?>> iterables,
             Expression<T> projection);
 
+    /**
+     * Evaluate the given query and return the projection as a stream, which is evaluated
+     * lazily if the query allows for it
+     *
+     * @param metadata query metadata
+     * @param iterables source contents
+     * @return matching rows
+     */
+    default <T> Stream<T> stream(QueryMetadata metadata, Map<Expression<?>, Iterable<?>> iterables,
+            Expression<T> projection) {
+        return list(metadata, iterables, projection).stream();
+    }
+
     /**
      * Evaluate the given query return whether rows where matched
      *
@@ -55,4 +70,24 @@ public interface QueryEngine {
      */
     boolean exists(QueryMetadata metadata, Map<Expression<?>, Iterable<?>> iterables);
 
+    /**
+     * Get a variant of this engine which evaluates large sources in parallel on the given pool.
+     * Engines without parallel evaluation return themselves.
+     *
+     * @param pool fork/join pool
+     * @return query engine
+     */
+    default QueryEngine parallel(ForkJoinPool pool) {
+        return this;
+    }
+
+    /**
+     * Create the evaluators of the given query ahead of its first evaluation
+     *
+     * @param metadata query metadata
+     */
+    default void precompile(QueryMetadata metadata) {
+        // no evaluators to create
+    }
+
 }
@@ -27,6 +27,7 @@ import org.junit.Test;
 
 import com.querydsl.core.Tuple;
 import com.querydsl.core.types.Expression;
+import com.querydsl.core.types.ExpressionUtils;
 import com.querydsl.core.types.Ops;
 import com.querydsl.core.types.dsl.Expressions;
 import com.querydsl.core.types.dsl.NumberExpression;
@@ -54,6 +55,16 @@ public class CollQueryTest extends AbstractQueryTest {
                        .select(cat).fetch());
     }
 
+    @Test
+    public void anyOf_and_allOf() {
+        assertEquals(Arrays.asList(c1, c2, c3), query().from(cat, cats)
+                .where(ExpressionUtils.anyOf(cat.name.eq("Kitty"), cat.name.eq("Bob"), cat.name.eq("Alex")))
+                .select(cat).fetch());
+        assertEquals(Collections.singletonList(c2), query().from(cat, cats)
+                .where(ExpressionUtils.allOf(cat.name.ne("Kitty"), cat.name.ne("Alex"), cat.name.ne("Francis")))
+                .select(cat).fetch());
+    }
+
     @Test
     public void after_and_before() {
         query().from(cat, Arrays.asList(c1, c2))
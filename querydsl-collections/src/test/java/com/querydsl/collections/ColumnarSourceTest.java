@@ -0,0 +1,274 @@
+package com.querydsl.collections;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.querydsl.core.types.Expression;
+import com.querydsl.core.types.OrderSpecifier;
+import com.querydsl.core.types.Predicate;
+import com.querydsl.core.types.Projections;
+import com.querydsl.core.types.dsl.Expressions;
+import com.querydsl.core.types.dsl.NumberPath;
+import com.querydsl.core.types.dsl.Param;
+import com.querydsl.core.types.dsl.PathBuilder;
+
+public class ColumnarSourceTest {
+
+    private final QCat cat = new QCat("cat");
+
+    private final QCat other = new QCat("other");
+
+    private List<Cat> cats;
+
+    private ColumnarSource<Cat> columns;
+
+    @Before
+    public void setUp() {
+        int size = 200;
+        int[] ids = new int[size];
+        int[] bodyWeights = new int[size];
+        String[] names = new String[size];
+        boolean[] alive = new boolean[size];
+        Color[] colors = new Color[size];
+        cats = new ArrayList<Cat>();
+        for (int i = 0; i < size; i++) {
+            ids[i] = i;
+            bodyWeights[i] = i % 17;
+            names[i] = i % 9 == 0 ? null : "Cat" + (i % 13);
+            alive[i] = i % 3 == 0;
+            colors[i] = i % 5 == 0 ? null : Color.values()[i % Color.values().length];
+            cats.add(createCat(ids[i], bodyWeights[i], names[i], alive[i], colors[i]));
+        }
+        columns = new ColumnarSource<Cat>(cat, size, cats::get)
+                .column(cat.id, ids)
+                .column(cat.bodyWeight, bodyWeights)
+                .column(cat.name, names)
+                .column(cat.alive, alive)
+                .column(cat.color, colors);
+    }
+
+    private static Cat createCat(int id, int bodyWeight, String name, boolean alive, Color color) {
+        Cat c = new Cat(name, id);
+        c.setBodyWeight(bodyWeight);
+        c.setWeight(200 - id);
+        c.setAlive(alive);
+        c.setColor(color);
+        return c;
+    }
+
+    private void assertSameResults(Predicate where, OrderSpecifier<?>... order) {
+        assertSameResults(cat.id, where, order);
+        assertEquals(CollQueryFactory.from(cat, cats).where(where).orderBy(order).fetch(),
+                CollQueryFactory.from(cat, columns).where(where).orderBy(order).fetch());
+        assertEquals(CollQueryFactory.from(cat, cats).where(where).fetchCount(),
+                CollQueryFactory.from(cat, columns).where(where).fetchCount());
+    }
+
+    private <T> void assertSameResults(Expression<T> projection, Predicate where, OrderSpecifier<?>... order) {
+        assertEquals(CollQueryFactory.from(cat, cats).select(projection).where(where).orderBy(order).fetch(),
+                CollQueryFactory.from(cat, columns).select(projection).where(where).orderBy(order).fetch());
+    }
+
+    @Test
+    public void comparisons() {
+        assertSameResults(cat.id.eq(5));
+        assertSameResults(cat.id.ne(5));
+        assertSameResults(cat.id.lt(50).and(cat.bodyWeight.goe(10)));
+        assertSameResults(cat.id.loe(50).and(cat.id.gt(20)).and(cat.bodyWeight.lt(3)));
+        assertSameResults(cat.bodyWeight.between(3, 5));
+        assertSameResults(cat.name.eq("Cat3"));
+        assertSameResults(cat.name.gt("Cat5"));
+        assertSameResults(cat.name.lt("Cat5"));
+        assertSameResults(cat.name.ne("Cat5"));
+        assertSameResults(cat.color.eq(Color.BLACK));
+    }
+
+    @Test
+    public void in() {
+        assertSameResults(cat.id.in(1, 2, 150, 300));
+        assertSameResults(cat.name.in("Cat3", "Cat5"));
+    }
+
+    @Test
+    public void nulls() {
+        assertSameResults(cat.name.isNull());
+        assertSameResults(cat.name.isNotNull().and(cat.color.isNull()));
+    }
+
+    @Test
+    public void boolean_operators() {
+        assertSameResults(cat.alive);
+        assertSameResults(cat.alive.not());
+        assertSameResults(cat.alive.eq(false).or(cat.id.lt(10)));
+        assertSameResults(cat.id.lt(10).or(cat.id.gt(190)).or(cat.name.eq("Cat1")).not());
+    }
+
+    @Test
+    public void params() {
+        Param<Integer> param = new Param<Integer>(Integer.class, "id");
+        assertEquals(CollQueryFactory.from(cat, cats).where(cat.id.lt(param)).set(param, 10).fetch(),
+                CollQueryFactory.from(cat, columns).where(cat.id.lt(param)).set(param, 10).fetch());
+    }
+
+    @Test
+    public void other_conditions() {
+        assertSameResults(cat.name.startsWith("Cat1").and(cat.id.gt(100)));
+        assertSameResults(cat.weight.gt(150));
+    }
+
+    @Test
+    public void projections() {
+        assertSameResults(cat.name, cat.id.lt(30));
+        assertSameResults(Projections.tuple(cat.id, cat.name, cat.color), cat.id.lt(30));
+        assertSameResults(Projections.tuple(cat.name, cat.id.add(cat.bodyWeight)), cat.id.gt(150));
+        assertSameResults(cat.weight, cat.id.gt(150));
+        assertSameResults(cat.id.add(cat.bodyWeight), cat.id.gt(150));
+    }
+
+    @Test
+    public void order() {
+        assertSameResults(cat.id.lt(100), cat.name.asc(), cat.id.desc());
+        assertSameResults(cat.id.lt(100), cat.name.desc().nullsLast(), cat.bodyWeight.asc());
+        assertSameResults(cat.id.lt(100), cat.weight.asc());
+    }
+
+    @Test
+    public void paging() {
+        assertEquals(CollQueryFactory.from(cat, cats).select(cat.name).where(cat.id.gt(20))
+                        .orderBy(cat.bodyWeight.desc(), cat.id.asc()).offset(5).limit(10).fetch(),
+                CollQueryFactory.from(cat, columns).select(cat.name).where(cat.id.gt(20))
+                        .orderBy(cat.bodyWeight.desc(), cat.id.asc()).offset(5).limit(10).fetch());
+        assertEquals(CollQueryFactory.from(cat, cats).select(cat.name).distinct().limit(4).fetch(),
+                CollQueryFactory.from(cat, columns).select(cat.name).distinct().limit(4).fetch());
+        assertEquals(CollQueryFactory.from(cat, cats).where(cat.id.gt(190)).fetchFirst(),
+                CollQueryFactory.from(cat, columns).where(cat.id.gt(190)).fetchFirst());
+        assertTrue(CollQueryFactory.from(cat, columns).where(cat.id.gt(190)).fetchCount() > 0);
+    }
+
+    @Test
+    public void aggregates() {
+        for (Expression<?> aggregate : Arrays.<Expression<?>>asList(cat.bodyWeight.sum(), cat.bodyWeight.avg(),
+                cat.bodyWeight.min(), cat.bodyWeight.max(), cat.bodyWeight.count(),
+                cat.bodyWeight.countDistinct(), cat.weight.max())) {
+            assertSameResults(aggregate, cat.id.gt(100));
+            assertSameResults(aggregate, cat.id.gt(300));
+        }
+    }
+
+    @Test
+    public void exists() {
+        assertTrue(CollQueryFactory.from(cat, columns).where(cat.id.eq(3)).fetchCount() == 1);
+        assertTrue(new CollQuery<Void>().from(cat, columns).where(cat.id.eq(3)).select(cat).fetchFirst() != null);
+        assertFalse(new CollQuery<Void>().from(cat, columns).where(cat.id.eq(300)).select(cat.id).fetchFirst() != null);
+    }
+
+    @Test
+    public void other_variable() {
+        assertEquals(CollQueryFactory.from(cat, cats).where(cat.id.lt(10)).fetch(),
+                CollQueryFactory.from(other, columns).where(other.id.lt(10)).fetch());
+    }
+
+    @Test
+    public void primitive_columns_only() {
+        NumberPath<Long> serial = Expressions.numberPath(Long.class, cat, "serial");
+        NumberPath<Double> price = Expressions.numberPath(Double.class, cat, "price");
+        long[] serials = new long[1000];
+        double[] prices = new double[1000];
+        for (int i = 0; i < serials.length; i++) {
+            serials[i] = i * 10L;
+            prices[i] = i % 4 * 0.25;
+        }
+        ColumnarSource<Cat> source = new ColumnarSource<Cat>(cat, serials.length)
+                .column(serial, serials)
+                .column(price, prices);
+        assertEquals(Long.valueOf(500), CollQueryFactory.from(cat, source).where(serial.lt(5000L))
+                .select(serial.count()).fetchOne());
+        assertEquals(Double.valueOf(187.5), CollQueryFactory.from(cat, source).where(serial.lt(5000L))
+                .select(price.sum()).fetchOne());
+        assertEquals(Double.valueOf(0.375), CollQueryFactory.from(cat, source).where(serial.lt(5000L))
+                .select(price.avg()).fetchOne());
+        assertEquals(Long.valueOf(9990), CollQueryFactory.from(cat, source).where(price.eq(0.75))
+                .select(serial.max()).fetchOne());
+        assertEquals(Arrays.asList(9990L, 9950L), CollQueryFactory.from(cat, source).where(price.goe(0.5))
+                .select(serial).orderBy(price.desc(), serial.desc()).limit(2).fetch());
+        assertEquals(250, CollQueryFactory.from(cat, source).where(price.eq(0.0)).fetchCount());
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void elements_without_row_factory() {
+        ColumnarSource<Cat> source = new ColumnarSource<Cat>(cat, 2).column(cat.id, new int[]{1, 2});
+        CollQueryFactory.from(cat, source).where(cat.id.eq(1)).fetch();
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void other_conditions_without_row_factory() {
+        ColumnarSource<Cat> source = new ColumnarSource<Cat>(cat, 2).column(cat.name, new String[]{"a", "b"});
+        CollQueryFactory.from(cat, source).where(cat.name.startsWith("a")).select(cat.name).fetch();
+    }
+
+    @Test
+    public void floating_point_comparisons() {
+        // the compiled where clauses use the Java operators, between and aggregates use compareTo
+        NumberPath<Double> price = Expressions.numberPath(Double.class, cat, "price");
+        ColumnarSource<Cat> source = new ColumnarSource<Cat>(cat, 4)
+                .column(price, new double[]{0.0, -0.0, Double.NaN, 1.0});
+        assertEquals(2, CollQueryFactory.from(cat, source).where(price.eq(0.0)).fetchCount());
+        assertEquals(3, CollQueryFactory.from(cat, source).where(price.ne(1.0)).fetchCount());
+        assertEquals(2, CollQueryFactory.from(cat, source).where(price.lt(1.0)).fetchCount());
+        assertEquals(3, CollQueryFactory.from(cat, source).where(price.goe(0.0)).fetchCount());
+        assertEquals(2, CollQueryFactory.from(cat, source).where(price.between(0.0, 1.0)).fetchCount());
+        assertEquals(Double.valueOf(-0.0), CollQueryFactory.from(cat, source).select(price.min()).fetchOne());
+        assertEquals(Double.valueOf(Double.NaN), CollQueryFactory.from(cat, source).select(price.max()).fetchOne());
+    }
+
+    @Test
+    public void wrapper_columns_with_nulls() {
+        // the compiled where clauses skip the rows for which the unboxing of a null value fails
+        PathBuilder<Entry> entry = new PathBuilder<Entry>(Entry.class, "entry");
+        NumberPath<Integer> value = entry.getNumber("value", Integer.class);
+        List<Entry> entries = Arrays.asList(new Entry(1), new Entry(null), new Entry(7));
+        ColumnarSource<Entry> source = new ColumnarSource<Entry>(entry, entries.size(), entries::get)
+                .column(value, new Integer[]{1, null, 7});
+        for (Predicate where : Arrays.<Predicate>asList(value.eq(1), value.ne(1), value.lt(5), value.eq(1).not(),
+                value.lt(5).or(value.gt(5)), value.lt(5).or(value.isNull()), value.isNull().or(value.lt(5)),
+                value.isNull(), value.isNotNull().and(value.gt(1)), value.between(0, 5), value.in(1, 7))) {
+            assertEquals(where.toString(),
+                    CollQueryFactory.from(entry, entries).where(where).select(value).fetch(),
+                    CollQueryFactory.from(entry, source).where(where).select(value).fetch());
+        }
+        assertEquals(Arrays.asList(7), CollQueryFactory.from(entry, source).where(value.ne(1)).select(value).fetch());
+    }
+
+    public static class Entry {
+
+        private final Integer value;
+
+        public Entry(Integer value) {
+            this.value = value;
+        }
+
+        public Integer getValue() {
+            return value;
+        }
+
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void column_of_other_size() {
+        new ColumnarSource<Cat>(cat, 2).column(cat.id, new int[]{1, 2, 3});
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void column_of_other_type() {
+        new ColumnarSource<Cat>(cat, 2).column(cat.id, new long[]{1, 2});
+    }
+
+}
@@ -56,6 +56,14 @@ public class DistinctTest extends AbstractQueryTest {
         assertEquals(3, CollQueryFactory.from(intVar2, list2).distinct().fetchCount());
     }
 
+    @Test
+    public void limit() {
+        assertEquals(Arrays.asList(2, 3), CollQueryFactory.from(intVar2, list2).distinct().limit(2).fetch());
+        assertEquals(Arrays.asList(3, 4), CollQueryFactory.from(intVar2, list2).distinct().offset(1).limit(2).fetch());
+        assertEquals(Arrays.asList(4, 3), CollQueryFactory.from(intVar1, list1)
+                .orderBy(intVar1.desc()).distinct().limit(2).fetch());
+    }
+
     @Test
     public void null_() {
         assertEquals(Arrays.asList(null, 1),
@@ -0,0 +1,153 @@
+package com.querydsl.collections;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.querydsl.core.Tuple;
+import com.querydsl.core.types.Predicate;
+
+public class HashJoinTest {
+
+    private final QCat cat = new QCat("cat");
+
+    private final QCat otherCat = new QCat("otherCat");
+
+    private final QCat thirdCat = new QCat("thirdCat");
+
+    private List<Cat> cats;
+
+    private List<Cat> others;
+
+    @Before
+    public void setUp() {
+        cats = new ArrayList<Cat>();
+        others = new ArrayList<Cat>();
+        for (int i = 0; i < 40; i++) {
+            Cat c = new Cat(i % 7 == 0 ? null : "Cat" + (i % 5), i % 10);
+            c.setBodyWeight(i % 3);
+            c.setWeight(i);
+            cats.add(c);
+        }
+        for (int i = 0; i < 15; i++) {
+            Cat c = new Cat(i % 4 == 0 ? null : "Cat" + (i % 6), i % 12);
+            c.setBodyWeight(i % 4);
+            c.setWeight(40 - i);
+            others.add(c);
+        }
+    }
+
+    private List<Tuple> join(List<Cat> left, List<Cat> right, Predicate where) {
+        return CollQueryFactory.from(cat, left).from(otherCat, right).where(where)
+                .select(cat, otherCat).fetch();
+    }
+
+    @Test
+    public void equals_inner_smaller() {
+        assertEquals(join(cats, others, cat.id.goe(otherCat.id).and(cat.id.loe(otherCat.id))),
+                join(cats, others, cat.id.eq(otherCat.id)));
+    }
+
+    @Test
+    public void equals_outer_smaller() {
+        assertEquals(join(others, cats, cat.id.goe(otherCat.id).and(cat.id.loe(otherCat.id))),
+                join(others, cats, cat.id.eq(otherCat.id)));
+    }
+
+    @Test
+    public void reversed_operands() {
+        assertEquals(join(cats, others, cat.id.eq(otherCat.id)),
+                join(cats, others, otherCat.id.eq(cat.id)));
+    }
+
+    @Test
+    public void null_keys() {
+        Predicate nullSafeEq = cat.name.isNull().and(otherCat.name.isNull()).or(cat.name.eq(otherCat.name));
+        assertEquals(join(cats, others, nullSafeEq), join(cats, others, cat.name.eq(otherCat.name)));
+        assertEquals(join(others, cats, nullSafeEq), join(others, cats, cat.name.eq(otherCat.name)));
+    }
+
+    @Test
+    public void wrapper_keys() {
+        QEntityWithLongId left = new QEntityWithLongId("left");
+        QEntityWithLongId right = new QEntityWithLongId("right");
+        List<EntityWithLongId> leftData = Arrays.asList(new EntityWithLongId(1L),
+                new EntityWithLongId(1000L), new EntityWithLongId(null), new EntityWithLongId(2000L));
+        List<EntityWithLongId> rightData = Arrays.asList(new EntityWithLongId(1000L),
+                new EntityWithLongId(null), new EntityWithLongId(1L), new EntityWithLongId(3000L));
+        List<Long> rv = CollQueryFactory.from(left, leftData).from(right, rightData)
+                .where(left.id.eq(right.id)).select(left.id).fetch();
+        assertEquals(Arrays.asList(1L, 1000L, null), rv);
+        // not an equality predicate, so it's evaluated by the generated filter
+        assertEquals(rv, CollQueryFactory.from(left, leftData).from(right, rightData)
+                .where(left.id.ne(right.id).not()).select(left.id).fetch());
+        // build on the outer side
+        assertEquals(Arrays.asList(1000L, null, 1L), CollQueryFactory.from(left, rightData.subList(0, 3))
+                .from(right, leftData).where(left.id.eq(right.id)).select(right.id).fetch());
+    }
+
+    @Test
+    public void filters_and_residual() {
+        List<Tuple> expected = join(cats, others, cat.id.goe(otherCat.id).and(cat.id.loe(otherCat.id))
+                .and(cat.bodyWeight.goe(otherCat.bodyWeight)).and(cat.bodyWeight.loe(otherCat.bodyWeight))
+                .and(cat.weight.gt(10)).and(otherCat.name.isNotNull()).and(cat.weight.lt(otherCat.weight)));
+        List<Tuple> rv = join(cats, others, cat.id.eq(otherCat.id).and(cat.bodyWeight.eq(otherCat.bodyWeight))
+                .and(cat.weight.gt(10)).and(otherCat.name.isNotNull()).and(cat.weight.lt(otherCat.weight)));
+        assertEquals(expected, rv);
+        assertEquals(expected.size(), CollQueryFactory.from(cat, cats).from(otherCat, others)
+                .where(cat.id.eq(otherCat.id).and(cat.bodyWeight.eq(otherCat.bodyWeight))
+                        .and(cat.weight.gt(10)).and(otherCat.name.isNotNull()).and(cat.weight.lt(otherCat.weight)))
+                .fetchCount());
+    }
+
+    @Test
+    public void three_sources() {
+        List<Tuple> expected = CollQueryFactory.from(cat, cats).from(otherCat, others).from(thirdCat, cats)
+                .where(cat.id.goe(otherCat.id), cat.id.loe(otherCat.id),
+                       thirdCat.bodyWeight.goe(otherCat.bodyWeight), thirdCat.bodyWeight.loe(otherCat.bodyWeight))
+                .select(cat.weight, otherCat.weight, thirdCat.weight).fetch();
+        List<Tuple> rv = CollQueryFactory.from(cat, cats).from(otherCat, others).from(thirdCat, cats)
+                .where(cat.id.eq(otherCat.id), thirdCat.bodyWeight.eq(otherCat.bodyWeight))
+                .select(cat.weight, otherCat.weight, thirdCat.weight).fetch();
+        assertEquals(expected, rv);
+    }
+
+    @Test
+    public void cross_join_between_keyed_sources() {
+        List<Tuple> expected = CollQueryFactory.from(cat, others).from(otherCat, others).from(thirdCat, others)
+                .where(cat.id.goe(thirdCat.id), cat.id.loe(thirdCat.id))
+                .select(cat.weight, otherCat.weight, thirdCat.weight).fetch();
+        List<Tuple> rv = CollQueryFactory.from(cat, others).from(otherCat, others).from(thirdCat, others)
+                .where(cat.id.eq(thirdCat.id))
+                .select(cat.weight, otherCat.weight, thirdCat.weight).fetch();
+        assertEquals(expected, rv);
+    }
+
+    @Test
+    public void ordered_and_paged() {
+        assertEquals(Arrays.asList(39, 38, 37),
+                CollQueryFactory.from(cat, cats).from(otherCat, others).where(cat.id.eq(otherCat.id))
+                .orderBy(cat.weight.desc()).select(cat.weight).distinct().limit(3).fetch());
+    }
+
+    @Test(timeout = 30000)
+    public void large_sources() {
+        List<Cat> left = new ArrayList<Cat>();
+        List<Cat> right = new ArrayList<Cat>();
+        for (int i = 0; i < 50000; i++) {
+            left.add(new Cat("Left" + i, i));
+            right.add(new Cat("Right" + i, 49999 - i));
+        }
+        List<Tuple> rv = join(left, right, cat.id.eq(otherCat.id));
+        assertEquals(50000, rv.size());
+        for (Tuple row : rv) {
+            assertEquals(row.get(cat).getId(), row.get(otherCat).getId());
+        }
+    }
+
+}
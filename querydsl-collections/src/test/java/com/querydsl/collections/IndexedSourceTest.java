@@ -0,0 +1,124 @@
+package com.querydsl.collections;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.querydsl.core.types.OrderSpecifier;
+import com.querydsl.core.types.Predicate;
+import com.querydsl.core.types.dsl.Param;
+
+public class IndexedSourceTest {
+
+    private final QCat cat = new QCat("cat");
+
+    private final QCat other = new QCat("other");
+
+    private List<Cat> cats;
+
+    private IndexedSource<Cat> indexed;
+
+    @Before
+    public void setUp() {
+        cats = new ArrayList<Cat>();
+        for (int i = 0; i < 200; i++) {
+            Cat c = new Cat(i % 9 == 0 ? null : "Cat" + (i % 13), i);
+            c.setBodyWeight(i % 17);
+            c.setWeight(200 - i);
+            cats.add(c);
+        }
+        indexed = new IndexedSource<Cat>(cat, cats)
+                .hashIndex(cat.name)
+                .sortedIndex(cat.bodyWeight)
+                .sortedIndex(cat.name);
+    }
+
+    private void assertSameResults(Predicate where, OrderSpecifier<?>... order) {
+        assertEquals(CollQueryFactory.from(cat, cats).where(where).orderBy(order).fetch(),
+                CollQueryFactory.from(cat, indexed).where(where).orderBy(order).fetch());
+        assertEquals(CollQueryFactory.from(cat, cats).where(where).fetchCount(),
+                CollQueryFactory.from(cat, indexed).where(where).fetchCount());
+    }
+
+    @Test
+    public void eq() {
+        assertSameResults(cat.name.eq("Cat3"));
+        assertSameResults(cat.name.eq("Cat3").and(cat.weight.gt(100)));
+        assertSameResults(cat.bodyWeight.eq(4));
+        assertSameResults(cat.name.eq("Unknown"));
+    }
+
+    @Test
+    public void in() {
+        assertSameResults(cat.name.in("Cat3", "Cat5", "Cat3"));
+        assertSameResults(cat.bodyWeight.in(1, 2, 16));
+    }
+
+    @Test
+    public void ranges() {
+        assertSameResults(cat.bodyWeight.lt(3));
+        assertSameResults(cat.bodyWeight.loe(3));
+        assertSameResults(cat.bodyWeight.gt(14));
+        assertSameResults(cat.bodyWeight.goe(14));
+        assertSameResults(cat.bodyWeight.between(5, 7));
+        assertSameResults(cat.bodyWeight.between(7, 5));
+        assertSameResults(cat.name.lt("Cat2"));
+        assertSameResults(cat.bodyWeight.between(5, 9).and(cat.name.eq("Cat1")), cat.weight.asc());
+    }
+
+    @Test
+    public void params() {
+        Param<String> name = new Param<String>(String.class, "name");
+        assertEquals(CollQueryFactory.from(cat, cats).where(cat.name.eq("Cat7")).fetch(),
+                CollQueryFactory.from(cat, indexed).where(cat.name.eq(name)).set(name, "Cat7").fetch());
+    }
+
+    @Test
+    public void other_source_variable() {
+        assertEquals(CollQueryFactory.from(other, cats).where(other.name.eq("Cat3")).fetch(),
+                CollQueryFactory.from(other, indexed).where(other.name.eq("Cat3")).fetch());
+    }
+
+    @Test
+    public void ordered_with_limit() {
+        for (OrderSpecifier<?> order : Arrays.asList(cat.bodyWeight.asc(), cat.bodyWeight.desc(),
+                cat.name.asc(), cat.name.desc(), cat.name.asc().nullsLast(), cat.name.desc().nullsLast())) {
+            for (Predicate where : Arrays.<Predicate>asList(null, cat.weight.lt(50), cat.id.gt(1000))) {
+                assertEquals(order + " " + where,
+                        CollQueryFactory.from(cat, cats).where(where).orderBy(order).limit(10).offset(5)
+                            .select(cat.id).fetch(),
+                        CollQueryFactory.from(cat, indexed).where(where).orderBy(order).limit(10).offset(5)
+                            .select(cat.id).fetch());
+            }
+        }
+    }
+
+    @Test
+    public void ordered_distinct_with_limit() {
+        // bodyWeight repeats every 17 rows, so the first rows in order are duplicates
+        assertEquals(Arrays.asList(0, 1, 2, 3, 4),
+                CollQueryFactory.from(cat, indexed).orderBy(cat.bodyWeight.asc()).limit(5)
+                    .select(cat.bodyWeight).distinct().fetch());
+        assertEquals(CollQueryFactory.from(cat, cats).orderBy(cat.bodyWeight.desc()).limit(5).offset(2)
+                    .select(cat.bodyWeight).distinct().fetch(),
+                CollQueryFactory.from(cat, indexed).orderBy(cat.bodyWeight.desc()).limit(5).offset(2)
+                    .select(cat.bodyWeight).distinct().fetch());
+    }
+
+    @Test
+    public void ordered_without_index() {
+        assertEquals(CollQueryFactory.from(cat, cats).orderBy(cat.weight.asc()).limit(3).fetch(),
+                CollQueryFactory.from(cat, indexed).orderBy(cat.weight.asc()).limit(3).fetch());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void index_on_other_source_variable() {
+        new IndexedSource<Cat>(cat, cats).hashIndex(other.name);
+    }
+
+}
@@ -0,0 +1,188 @@
+package com.querydsl.collections;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.querydsl.codegen.utils.ECJEvaluatorFactory;
+import com.querydsl.core.Fetchable;
+import com.querydsl.core.QueryExecution;
+import com.querydsl.core.QuerydslModule;
+import com.querydsl.core.Target;
+import com.querydsl.core.Tuple;
+import com.querydsl.core.types.Predicate;
+import com.querydsl.core.types.Projections;
+import com.querydsl.core.types.dsl.Param;
+
+public class InterpretedEvaluatorFactoryTest {
+
+    private final Date birthDate = new Date();
+
+    private final java.sql.Date date = new java.sql.Date(birthDate.getTime());
+
+    private final java.sql.Time time = new java.sql.Time(birthDate.getTime());
+
+    private final QCat cat = new QCat("cat");
+
+    private final QCat otherCat = new QCat("otherCat");
+
+    private final QCat kitten = new QCat("kitten");
+
+    private final List<Cat> data = Arrays.asList(
+        new Cat("Bob", 1, birthDate),
+        new Cat("Ruth", 2, birthDate),
+        new Cat("Felix", 3, birthDate),
+        new Cat("Allen", 4, birthDate),
+        new Cat("Mary", 5, birthDate)
+    );
+
+    private ECJEvaluatorFactory compiler;
+
+    private QueryEngine interpreted;
+
+    @Before
+    public void setUp() {
+        data.get(1).setMate(data.get(0));
+        compiler = new ECJEvaluatorFactory(getClass().getClassLoader());
+        interpreted = new DefaultQueryEngine(new InterpretedEvaluatorFactory(CollQueryTemplates.DEFAULT, compiler,
+                InterpretedEvaluatorFactory.NEVER_COMPILE));
+    }
+
+    private CollQuery<?> query() {
+        return new CollQuery<Void>(interpreted);
+    }
+
+    @Test
+    public void standard() {
+        QueryExecution standardTest = new QueryExecution(QuerydslModule.COLLECTIONS, Target.MEM) {
+            @Override
+            protected Fetchable<?> createQuery() {
+                return query().from(cat, data).from(otherCat, data);
+            }
+            @Override
+            protected Fetchable<?> createQuery(Predicate filter) {
+                return query().from(cat, data).from(otherCat, data).where(filter).select(cat.name);
+            }
+        };
+        Cat kitten = data.get(0).getKittens().get(0);
+        standardTest.runArrayTests(cat.kittenArray, otherCat.kittenArray, kitten, new Cat());
+        standardTest.runBooleanTests(cat.name.isNull(), otherCat.kittens.isEmpty());
+        standardTest.runCollectionTests(cat.kittens, otherCat.kittens, kitten, new Cat());
+        standardTest.runDateTests(cat.dateField, otherCat.dateField, date);
+        standardTest.runDateTimeTests(cat.birthdate, otherCat.birthdate, birthDate);
+        standardTest.runListTests(cat.kittens, otherCat.kittens, kitten, new Cat());
+        standardTest.runMapTests(cat.kittensByName, otherCat.kittensByName, "Kitty", kitten, "NoName", new Cat());
+        standardTest.runNumericCasts(cat.id, otherCat.id, 1);
+        standardTest.runNumericTests(cat.id, otherCat.id, 1);
+        standardTest.runStringTests(cat.name, otherCat.name, "Bob");
+        standardTest.runTimeTests(cat.timeField, otherCat.timeField, time);
+        standardTest.report();
+    }
+
+    @Test
+    public void single_source() {
+        assertEquals(Arrays.asList("Allen", "Felix"), query().from(cat, data)
+                .where(cat.id.between(2, 4), cat.name.length().gt(4))
+                .orderBy(cat.name.asc()).select(cat.name).fetch());
+        assertEquals(Arrays.asList(6, 9), query().from(cat, data)
+                .where(cat.name.startsWith("R").or(cat.name.eq("Mary")))
+                .select(cat.id.add(4)).fetch());
+        assertEquals(0, compiler.getCacheMissCount());
+    }
+
+    @Test
+    public void null_safety() {
+        assertEquals(Arrays.asList("Ruth"), query().from(cat, data)
+                .where(cat.mate.name.eq("Bob")).select(cat.name).fetch());
+        assertEquals(0, compiler.getCacheMissCount());
+    }
+
+    @Test
+    public void joins_and_projections() {
+        List<Tuple> tuples = query().from(cat, data).innerJoin(cat.kittens, kitten)
+                .where(cat.id.lt(3)).select(cat.name, kitten.name).fetch();
+        assertEquals(2, tuples.size());
+        assertEquals("Bob", tuples.get(0).get(cat.name));
+
+        List<Projection> projections = query().from(cat, data).where(cat.id.eq(1))
+                .select(Projections.constructor(Projection.class, cat.name, cat)).fetch();
+        assertEquals(1, projections.size());
+        assertEquals(0, compiler.getCacheMissCount());
+    }
+
+    @Test
+    public void params() {
+        Param<String> name = new Param<String>(String.class, "name");
+        assertEquals(Arrays.asList(2), query().from(cat, data).where(cat.name.eq(name))
+                .set(name, "Ruth").select(cat.id).fetch());
+        assertEquals(0, compiler.getCacheMissCount());
+    }
+
+    @Test
+    public void wrapper_equality() {
+        QEntityWithLongId left = new QEntityWithLongId("left");
+        QEntityWithLongId right = new QEntityWithLongId("right");
+        List<EntityWithLongId> leftData = Arrays.asList(
+                new EntityWithLongId(1L), new EntityWithLongId(1000L), new EntityWithLongId(null));
+        List<EntityWithLongId> rightData = Arrays.asList(
+                new EntityWithLongId(1L), new EntityWithLongId(1000L), new EntityWithLongId(null));
+        List<Boolean> expected = Arrays.asList(
+                true, false, false,
+                false, true, false,
+                false, false, true);
+        QueryEngine compiled = new DefaultQueryEngine(new InterpretedEvaluatorFactory(CollQueryTemplates.DEFAULT, compiler, 0));
+        for (QueryEngine engine : Arrays.asList(interpreted, compiled)) {
+            assertEquals(expected, new CollQuery<Void>(engine).from(left, leftData).from(right, rightData)
+                    .select(left.id.eq(right.id)).fetch());
+            assertEquals(expected, new CollQuery<Void>(engine).from(left, leftData).from(right, rightData)
+                    .select(left.id.ne(right.id).not()).fetch());
+        }
+        assertTrue(compiler.getCacheMissCount() > 0);
+    }
+
+    @Test
+    public void fallback() {
+        assertEquals(5, query().from(cat, data).where(cat.kittens.any().name.isNull()).fetchCount());
+        assertTrue(compiler.getCacheMissCount() > 0);
+    }
+
+    @Test
+    public void tiered() {
+        interpreted = new DefaultQueryEngine(new InterpretedEvaluatorFactory(CollQueryTemplates.DEFAULT, compiler, 2));
+        for (int i = 0; i < 2; i++) {
+            assertEquals(Arrays.asList(i + 1), query().from(cat, data).where(cat.id.eq(i + 1)).select(cat.id).fetch());
+        }
+        assertEquals(0, compiler.getCacheMissCount());
+
+        assertEquals(Arrays.asList(3), query().from(cat, data).where(cat.id.eq(3)).select(cat.id).fetch());
+        assertEquals(2, compiler.getCacheMissCount());
+    }
+
+    @Test
+    public void tiered_counters_survive_new_shapes() {
+        interpreted = new DefaultQueryEngine(new InterpretedEvaluatorFactory(CollQueryTemplates.DEFAULT, compiler, 2));
+        for (int i = 0; i < InterpretedEvaluatorFactory.MAX_SHAPES / 2 - 2; i++) {
+            QCat other = new QCat("other" + i);
+            query().from(other, data).where(other.id.eq(1)).select(other.id).fetch();
+        }
+        for (int i = 0; i < 2; i++) {
+            query().from(cat, data).where(cat.id.eq(i + 1)).select(cat.id).fetch();
+        }
+        for (int i = 0; i < 10; i++) {
+            QCat other = new QCat("another" + i);
+            query().from(other, data).where(other.id.eq(1)).select(other.id).fetch();
+        }
+        assertEquals(0, compiler.getCacheMissCount());
+
+        // the least recently used shapes are evicted, not the counters of recent ones
+        assertEquals(Arrays.asList(3), query().from(cat, data).where(cat.id.eq(3)).select(cat.id).fetch());
+        assertEquals(2, compiler.getCacheMissCount());
+    }
+
+}
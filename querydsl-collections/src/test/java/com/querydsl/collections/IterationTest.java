@@ -16,12 +16,23 @@ package com.querydsl.collections;
 import static com.querydsl.core.alias.Alias.$;
 import static com.querydsl.core.alias.Alias.alias;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import org.junit.Test;
 
+import com.mysema.commons.lang.CloseableIterator;
+import com.querydsl.core.QueryMetadata;
+import com.querydsl.core.types.Expression;
+import com.querydsl.core.types.dsl.Expressions;
+import com.querydsl.core.types.dsl.NumberPath;
+
 public class IterationTest {
 
     public static class Data {
@@ -59,4 +70,60 @@ public class IterationTest {
     public void test4() {
         assertEquals(expected, CollQueryFactory.<Data> from(lt, Arrays.<Data> asList(allData.toArray(new Data[0]))).select($(lt.getData())).fetch());
     }
+
+    private final NumberPath<Integer> number = Expressions.numberPath(Integer.class, "number");
+
+    private final int[] pulled = new int[1];
+
+    // an endless source, which can only be queried lazily
+    private final Iterable<Integer> naturals = () -> new Iterator<Integer>() {
+        @Override
+        public boolean hasNext() {
+            return true;
+        }
+
+        @Override
+        public Integer next() {
+            return pulled[0]++;
+        }
+    };
+
+    @Test
+    public void fetchFirst_is_lazy() {
+        assertEquals(Integer.valueOf(100), CollQueryFactory.from(number, naturals).where(number.goe(100)).fetchFirst());
+        assertTrue(pulled[0] < 1000);
+    }
+
+    @Test
+    public void exists_is_lazy() {
+        QueryMetadata metadata = CollQueryFactory.from(number, naturals).where(number.gt(50)).getMetadata();
+        assertTrue(DefaultQueryEngine.getDefault().exists(metadata,
+                Collections.<Expression<?>, Iterable<?>>singletonMap(number, naturals)));
+        assertTrue(pulled[0] < 1000);
+    }
+
+    @Test
+    public void stream_is_lazy() {
+        try (Stream<Integer> rows = CollQueryFactory.from(number, naturals)
+                .where(number.mod(2).eq(0)).select(number.multiply(10)).stream()) {
+            assertEquals(Arrays.asList(0, 20, 40), rows.limit(3).collect(Collectors.toList()));
+        }
+        assertTrue(pulled[0] < 100);
+    }
+
+    @Test
+    public void iterate_is_lazy() {
+        CloseableIterator<Integer> it = CollQueryFactory.from(number, naturals)
+                .where(number.gt(10)).distinct().offset(2).iterate();
+        assertEquals(Integer.valueOf(13), it.next());
+        assertEquals(Integer.valueOf(14), it.next());
+        it.close();
+    }
+
+    @Test
+    public void fetch_with_limit() {
+        assertEquals(Arrays.asList(5, 6, 7),
+                CollQueryFactory.from(number, naturals).where(number.goe(5)).limit(3).fetch());
+    }
+
 }
@@ -15,6 +15,7 @@ package com.querydsl.collections;
 
 import static org.junit.Assert.*;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 
@@ -81,4 +82,42 @@ public class OrderTest extends AbstractQueryTest {
         assertEquals(Arrays.asList(alex, bob, unknown),
                 query().from(this.cat, cats).orderBy(this.cat.name.asc().nullsLast()).select(this.cat).fetch());
     }
+
+    @Test
+    public void with_null_ties() {
+        Cat first = new Cat(null, 1);
+        Cat second = new Cat(null, 2);
+        Cat bob = new Cat("Bob", 3);
+        List<Cat> cats = Arrays.asList(bob, first, second);
+        assertEquals(Arrays.asList(second, first, bob),
+                query().from(cat, cats).orderBy(cat.name.asc(), cat.id.desc()).select(cat).fetch());
+    }
+
+    @Test
+    public void top_k() {
+        List<Cat> cats = new ArrayList<Cat>();
+        for (int i = 0; i < 1000; i++) {
+            cats.add(new Cat("Cat" + (i * 7919 % 100), i));
+        }
+        List<Cat> ordered = query().from(cat, cats).orderBy(cat.name.desc(), cat.id.asc()).select(cat).fetch();
+        assertEquals(ordered.subList(5, 15), query().from(cat, cats)
+                .orderBy(cat.name.desc(), cat.id.asc()).offset(5).limit(10).select(cat).fetch());
+        assertEquals(ordered.subList(0, 1), query().from(cat, cats)
+                .orderBy(cat.name.desc(), cat.id.asc()).limit(1).select(cat).fetch());
+    }
+
+    @Test
+    public void top_k_is_stable() {
+        List<Cat> cats = new ArrayList<Cat>();
+        for (int i = 0; i < 100; i++) {
+            cats.add(new Cat("Cat" + (i % 3), i));
+        }
+        List<Cat> ordered = query().from(cat, cats).orderBy(cat.name.asc()).select(cat).fetch();
+        assertEquals(ordered.subList(0, 20),
+                query().from(cat, cats).orderBy(cat.name.asc()).limit(20).select(cat).fetch());
+        for (int i = 1; i < 20; i++) {
+            assertTrue(ordered.get(i - 1).getId() < ordered.get(i).getId());
+        }
+    }
+
 }
@@ -0,0 +1,110 @@
+package com.querydsl.collections;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.After;
+import org.junit.Test;
+
+import com.querydsl.core.Tuple;
+
+public class ParallelQueryTest {
+
+    private final QCat cat = QCat.cat;
+
+    private final QCat otherCat = new QCat("otherCat");
+
+    private final ForkJoinPool pool = new ForkJoinPool(4);
+
+    private final List<Cat> cats = new ArrayList<Cat>();
+
+    private final List<Cat> others = new ArrayList<Cat>();
+
+    {
+        for (int i = 0; i < 50000; i++) {
+            Cat c = new Cat("Cat" + (i * 7919 % 1000), i);
+            c.setWeight(i % 97);
+            cats.add(c);
+        }
+        for (int i = 0; i < 3; i++) {
+            others.add(new Cat("Other" + i, i));
+        }
+    }
+
+    @After
+    public void tearDown() {
+        pool.shutdownNow();
+    }
+
+    private CollQuery<?> serial() {
+        return new CollQuery<Void>();
+    }
+
+    private CollQuery<?> parallel() {
+        return new CollQuery<Void>().parallel(pool);
+    }
+
+    @Test
+    public void filter() {
+        assertEquals(serial().from(cat, cats).where(cat.weight.gt(50)).select(cat).fetch(),
+                parallel().from(cat, cats).where(cat.weight.gt(50)).select(cat).fetch());
+    }
+
+    @Test
+    public void project() {
+        assertEquals(serial().from(cat, cats).where(cat.name.startsWith("Cat1")).select(cat.name, cat.id).fetch(),
+                parallel().from(cat, cats).where(cat.name.startsWith("Cat1")).select(cat.name, cat.id).fetch());
+    }
+
+    @Test
+    public void order() {
+        List<Tuple> expected = serial().from(cat, cats).orderBy(cat.name.asc(), cat.weight.desc())
+                .select(cat.name, cat.id).fetch();
+        assertEquals(expected, parallel().from(cat, cats).orderBy(cat.name.asc(), cat.weight.desc())
+                .select(cat.name, cat.id).fetch());
+    }
+
+    @Test
+    public void aggregate() {
+        assertEquals(serial().from(cat, cats).select(cat.weight.sum()).fetchOne(),
+                parallel().from(cat, cats).select(cat.weight.sum()).fetchOne());
+        assertEquals(serial().from(cat, cats).where(cat.id.gt(100)).select(cat.id.min()).fetchOne(),
+                parallel().from(cat, cats).where(cat.id.gt(100)).select(cat.id.min()).fetchOne());
+        assertEquals(serial().from(cat, cats).select(cat.weight.max()).fetchOne(),
+                parallel().from(cat, cats).select(cat.weight.max()).fetchOne());
+        assertEquals(serial().from(cat, cats).select(cat.weight.avg()).fetchOne(),
+                parallel().from(cat, cats).select(cat.weight.avg()).fetchOne());
+        assertEquals(serial().from(cat, cats).select(cat.weight.countDistinct()).fetchOne(),
+                parallel().from(cat, cats).select(cat.weight.countDistinct()).fetchOne());
+    }
+
+    @Test
+    public void floating_point_sum() {
+        assertEquals(serial().from(cat, cats).select(cat.id.doubleValue().divide(7.0).sum()).fetchOne(),
+                parallel().from(cat, cats).select(cat.id.doubleValue().divide(7.0).sum()).fetchOne());
+    }
+
+    @Test
+    public void count() {
+        assertEquals(serial().from(cat, cats).where(cat.weight.lt(10)).fetchCount(),
+                parallel().from(cat, cats).where(cat.weight.lt(10)).fetchCount());
+    }
+
+    @Test
+    public void cross_join() {
+        assertEquals(serial().from(cat, cats).from(otherCat, others).where(cat.weight.eq(otherCat.id))
+                        .select(cat.id, otherCat.name).fetch(),
+                parallel().from(cat, cats).from(otherCat, others).where(cat.weight.eq(otherCat.id))
+                        .select(cat.id, otherCat.name).fetch());
+    }
+
+    @Test
+    public void common_pool() {
+        assertEquals(serial().from(cat, cats).where(cat.weight.gt(90)).select(cat.id).fetch(),
+                new CollQuery<Void>().parallel().from(cat, cats).where(cat.weight.gt(90)).select(cat.id).fetch());
+    }
+
+}
@@ -0,0 +1,57 @@
+package com.querydsl.collections;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.querydsl.codegen.utils.ECJEvaluatorFactory;
+
+public class PrecompileTest {
+
+    private final QCat cat = new QCat("cat");
+
+    private final QCat otherCat = new QCat("otherCat");
+
+    private final List<Cat> cats = Arrays.asList(new Cat("Bob", 1), new Cat("Steve", 2), new Cat("Kitty", 3));
+
+    private ECJEvaluatorFactory evaluatorFactory;
+
+    private QueryEngine queryEngine;
+
+    @Before
+    public void setUp() {
+        evaluatorFactory = new ECJEvaluatorFactory(getClass().getClassLoader());
+        queryEngine = new DefaultQueryEngine(new DefaultEvaluatorFactory(CollQueryTemplates.DEFAULT, evaluatorFactory));
+    }
+
+    private CollQuery<?> query() {
+        return new CollQuery<Void>(queryEngine);
+    }
+
+    @Test
+    public void single_source() {
+        query().from(cat, cats).where(cat.id.gt(1)).orderBy(cat.name.asc()).select(cat.name).precompile();
+        assertEquals(3, evaluatorFactory.getCacheMissCount());
+
+        assertEquals(Arrays.asList("Kitty", "Steve"),
+                query().from(cat, cats).where(cat.id.gt(1)).orderBy(cat.name.asc()).select(cat.name).fetch());
+        assertEquals(3, evaluatorFactory.getCacheMissCount());
+        assertEquals(3, evaluatorFactory.getCacheHitCount());
+    }
+
+    @Test
+    public void multiple_sources() {
+        query().from(cat, cats).from(otherCat, cats).where(cat.id.lt(otherCat.id))
+                .select(cat.id.add(otherCat.id)).precompile();
+        assertEquals(2, evaluatorFactory.getCacheMissCount());
+
+        assertEquals(Arrays.asList(3, 4, 5), query().from(cat, cats).from(otherCat, cats)
+                .where(cat.id.lt(otherCat.id)).select(cat.id.add(otherCat.id)).fetch());
+        assertEquals(2, evaluatorFactory.getCacheMissCount());
+    }
+
+}
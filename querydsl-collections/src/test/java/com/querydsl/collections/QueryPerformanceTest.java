@@ -17,6 +17,9 @@ import org.openjdk.jmh.annotations.Benchmark;
 import org.openjdk.jmh.annotations.BenchmarkMode;
 import org.openjdk.jmh.annotations.Mode;
 import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
 import org.openjdk.jmh.runner.options.Options;
 import org.openjdk.jmh.runner.options.OptionsBuilder;
 import org.openjdk.jmh.runner.options.TimeValue;
@@ -45,6 +48,58 @@ public class QueryPerformanceTest {
         CollQueryFactory.from(cat, cats).where(cat.id.eq(ThreadLocalRandom.current().nextInt(100) % size)).select(cat).fetch();
     }
 
+    @State(Scope.Benchmark)
+    public static class LargeSource {
+
+        private final List<Cat> cats = new ArrayList<Cat>(1000000);
+
+        @Setup
+        public void setUp() {
+            for (int i = 0; i < 1000000; i++) {
+                Cat c = new Cat(String.valueOf(i), i);
+                c.setWeight(i % 100);
+                cats.add(c);
+            }
+        }
+
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public void serial_filter_and_sum(LargeSource source) {
+        QCat cat = QCat.cat;
+        CollQueryFactory.from(cat, source.cats).where(cat.name.endsWith("7"), cat.weight.gt(10))
+                .select(cat.id.sum()).fetchOne();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public void parallel_filter_and_sum(LargeSource source) {
+        QCat cat = QCat.cat;
+        CollQueryFactory.from(cat, source.cats).parallel().where(cat.name.endsWith("7"), cat.weight.gt(10))
+                .select(cat.id.sum()).fetchOne();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public void serial_order(LargeSource source) {
+        QCat cat = QCat.cat;
+        CollQueryFactory.from(cat, source.cats).where(cat.weight.lt(20))
+                .orderBy(cat.name.asc()).select(cat.id).fetch();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public void parallel_order(LargeSource source) {
+        QCat cat = QCat.cat;
+        CollQueryFactory.from(cat, source.cats).parallel().where(cat.weight.lt(20))
+                .orderBy(cat.name.asc()).select(cat.id).fetch();
+    }
+
     @Test
     public void launchBenchmark() throws Exception {
         Options opt = new OptionsBuilder()
@@ -17,9 +17,14 @@ import org.jetbrains.annotations.Nullable;
 
 import com.querydsl.core.types.Expression;
 import com.querydsl.core.types.ExpressionUtils;
+import com.querydsl.core.types.Operation;
+import com.querydsl.core.types.Operator;
+import com.querydsl.core.types.Ops;
 import com.querydsl.core.types.Predicate;
 import com.querydsl.core.types.Visitor;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Objects;
 
 /**
@@ -36,6 +41,9 @@ import java.util.Objects;
  * }
  * </pre>
  *
+ * <p>Repeated {@code and} or {@code or} calls collect their arguments into a single n-ary
+ * operation, which is created once when the value is read.</p>
+ *
  * @author tiwe
  */
 public final class BooleanBuilder implements Predicate, Cloneable  {
@@ -45,6 +53,12 @@ public final class BooleanBuilder implements Predicate, Cloneable  {
     @Nullable
     private Predicate predicate;
 
+    @Nullable
+    private Operator operator;
+
+    @Nullable
+    private List<Expression<?>> args;
+
     /**
      * Create an empty BooleanBuilder
      */
@@ -61,6 +75,7 @@ public final class BooleanBuilder implements Predicate, Cloneable  {
 
     @Override
     public <R,C> R accept(Visitor<R,C> v, C context) {
+        Predicate predicate = getValue();
         if (predicate != null) {
             return predicate.accept(v, context);
         } else {
@@ -75,11 +90,31 @@ public final class BooleanBuilder implements Predicate, Cloneable  {
      * @return the current object
      */
     public BooleanBuilder and(@Nullable Predicate right) {
-        if (right != null) {
-            if (predicate == null) {
+        return append(Ops.AND, right);
+    }
+
+    private BooleanBuilder append(Operator op, @Nullable Predicate right) {
+        if (right == null) {
+            return this;
+        } else if (op == operator) {
+            Expression<?> expr = ExpressionUtils.extract(right);
+            if (expr != null) {
+                args.add(expr);
+                predicate = null;
+            }
+        } else {
+            Predicate left = getValue();
+            if (left == null) {
                 predicate = right;
             } else {
-                predicate = ExpressionUtils.and(predicate, right);
+                predicate = op == Ops.AND ? ExpressionUtils.and(left, right) : ExpressionUtils.or(left, right);
+            }
+            if (predicate instanceof Operation && ((Operation<?>) predicate).getOperator() == op) {
+                operator = op;
+                args = new ArrayList<>(((Operation<?>) predicate).getArgs());
+            } else {
+                operator = null;
+                args = null;
             }
         }
         return this;
@@ -111,7 +146,11 @@ public final class BooleanBuilder implements Predicate, Cloneable  {
 
     @Override
     public BooleanBuilder clone() throws CloneNotSupportedException {
-        return (BooleanBuilder) super.clone();
+        BooleanBuilder clone = (BooleanBuilder) super.clone();
+        if (args != null) {
+            clone.args = new ArrayList<>(args);
+        }
+        return clone;
     }
 
     @Override
@@ -119,7 +158,7 @@ public final class BooleanBuilder implements Predicate, Cloneable  {
         if (o == this) {
             return true;
         } else if (o instanceof BooleanBuilder) {
-            return Objects.equals(((BooleanBuilder) o).getValue(), predicate);
+            return Objects.equals(((BooleanBuilder) o).getValue(), getValue());
         } else {
             return false;
         }
@@ -127,11 +166,15 @@ public final class BooleanBuilder implements Predicate, Cloneable  {
 
     @Nullable
     public Predicate getValue() {
+        if (predicate == null && operator != null) {
+            predicate = ExpressionUtils.predicate(operator, args);
+        }
         return predicate;
     }
 
     @Override
     public int hashCode() {
+        Predicate predicate = getValue();
         return predicate != null ? predicate.hashCode() : 0;
     }
 
@@ -141,13 +184,16 @@ public final class BooleanBuilder implements Predicate, Cloneable  {
      * @return true if initialized and false if not
      */
     public boolean hasValue() {
-        return predicate != null;
+        return predicate != null || operator != null;
     }
 
     @Override
     public BooleanBuilder not() {
+        Predicate predicate = getValue();
         if (predicate != null) {
-            predicate = predicate.not();
+            this.predicate = predicate.not();
+            operator = null;
+            args = null;
         }
         return this;
     }
@@ -159,14 +205,7 @@ public final class BooleanBuilder implements Predicate, Cloneable  {
      * @return the current object
      */
     public BooleanBuilder or(@Nullable Predicate right) {
-        if (right != null) {
-            if (predicate == null) {
-                predicate = right;
-            } else {
-                predicate = ExpressionUtils.or(predicate, right);
-            }
-        }
-        return this;
+        return append(Ops.OR, right);
     }
 
     /**
@@ -200,6 +239,7 @@ public final class BooleanBuilder implements Predicate, Cloneable  {
 
     @Override
     public String toString() {
+        Predicate predicate = getValue();
         return predicate != null ? predicate.toString() : super.toString();
     }
 
@@ -0,0 +1,38 @@
+/*
+ * Copyright 2015, The Querydsl Team (http://www.querydsl.com/team)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.querydsl.core;
+
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * {@code KeysetFetchable} defines keyset pagination for the query implementations which support it
+ *
+ * @param <T> result type
+ */
+public interface KeysetFetchable<T> {
+
+    /**
+     * Get the page of results which follows the row of the given continuation token
+     *
+     * <p>The order of this query defines the keys of the pagination, which need to be unique
+     * and non-null for each row. The limit and offset of this query are ignored and this
+     * query isn't modified.</p>
+     *
+     * @param token continuation token of the previous page or null for the first page
+     * @param size page size
+     * @return results and the continuation token of the next page
+     */
+    KeysetPage<T> fetchPage(@Nullable String token, int size);
+
+}
@@ -0,0 +1,75 @@
+/*
+ * Copyright 2015, The Querydsl Team (http://www.querydsl.com/team)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.querydsl.core;
+
+import java.io.Serializable;
+import java.util.List;
+
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * {@code KeysetPage} bundles the results of a keyset paginated query with the token
+ * which continues after the last row of the page
+ *
+ * @param <T> type of result elements
+ */
+public final class KeysetPage<T> implements Serializable {
+
+    private static final long serialVersionUID = 2310532826441271387L;
+
+    private final List<T> results;
+
+    @Nullable
+    private final String nextToken;
+
+    /**
+     * Create a new {@link KeysetPage} instance
+     *
+     * @param results paged results
+     * @param nextToken continuation token or null for the last page
+     */
+    public KeysetPage(List<T> results, @Nullable String nextToken) {
+        this.results = results;
+        this.nextToken = nextToken;
+    }
+
+    /**
+     * Get the results in List form
+     *
+     * @return results
+     */
+    public List<T> getResults() {
+        return results;
+    }
+
+    /**
+     * Get the opaque token which fetches the next page or null for the last page
+     *
+     * @return continuation token
+     */
+    @Nullable
+    public String getNextToken() {
+        return nextToken;
+    }
+
+    /**
+     * Get whether further pages follow this one
+     *
+     * @return true, if there is a next page
+     */
+    public boolean hasNext() {
+        return nextToken != null;
+    }
+
+}
@@ -47,6 +47,16 @@ public class GroupByBuilder<K> {
         this.key = key;
     }
 
+    /**
+     * Assume that the query results are ordered by the group key, which allows the groups
+     * to be streamed without buffering all of them
+     *
+     * @return builder for further specification
+     */
+    public SortedGroupByBuilder<K> assumeSorted() {
+        return new SortedGroupByBuilder<K>(key);
+    }
+
     /**
      * Get the results as a map
      *
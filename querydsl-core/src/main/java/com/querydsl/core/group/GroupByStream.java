@@ -0,0 +1,49 @@
+/*
+ * Copyright 2015, The Querydsl Team (http://www.querydsl.com/team)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.querydsl.core.group;
+
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import com.mysema.commons.lang.CloseableIterator;
+import com.querydsl.core.FetchableQuery;
+import com.querydsl.core.ResultTransformer;
+
+/**
+ * Provides aggregated results as a lazily consumed stream
+ *
+ * <p>Groups are emitted as soon as the group key changes, so only the current group is kept
+ * in memory. The stream needs to be closed to release the underlying query results.</p>
+ *
+ * @param <V>
+ */
+public class GroupByStream<V> implements ResultTransformer<Stream<V>> {
+
+    private final ResultTransformer<CloseableIterator<V>> iterate;
+
+    GroupByStream(ResultTransformer<CloseableIterator<V>> iterate) {
+        this.iterate = iterate;
+    }
+
+    @Override
+    public Stream<V> transform(FetchableQuery<?, ?> query) {
+        final CloseableIterator<V> iterator = iterate.transform(query);
+        final Spliterator<V> spliterator = Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED);
+        return StreamSupport.stream(spliterator, false)
+                .onClose(iterator::close);
+    }
+
+}
@@ -0,0 +1,73 @@
+/*
+ * Copyright 2015, The Querydsl Team (http://www.querydsl.com/team)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.querydsl.core.group;
+
+import java.util.stream.Stream;
+
+import com.querydsl.core.ResultTransformer;
+import com.querydsl.core.types.Expression;
+import com.querydsl.core.types.FactoryExpression;
+
+/**
+ * {@code SortedGroupByBuilder} is a {@link GroupByBuilder} for query results which are ordered by the
+ * group key. This class is not to be used directly, but via {@link GroupByBuilder#assumeSorted()}.
+ *
+ * <p>The streaming transformers of this builder emit each group as soon as the key changes, so that
+ * memory use is bounded by the size of a single group. Rows of the same key which are not adjacent
+ * are returned as separate groups.</p>
+ *
+ * @param <K>
+ */
+public class SortedGroupByBuilder<K> extends GroupByBuilder<K> {
+
+    /**
+     * Create a new SortedGroupByBuilder for the given key expression
+     *
+     * @param key key for aggregating
+     */
+    public SortedGroupByBuilder(Expression<K> key) {
+        super(key);
+    }
+
+    /**
+     * Get the results as a closeable stream
+     *
+     * @param expressions projection
+     * @return new result transformer
+     */
+    public ResultTransformer<Stream<Group>> stream(Expression<?>... expressions) {
+        return new GroupByStream<Group>(iterate(expressions));
+    }
+
+    /**
+     * Get the results as a closeable stream
+     *
+     * @param expression projection
+     * @return new result transformer
+     */
+    public <V> ResultTransformer<Stream<V>> stream(Expression<V> expression) {
+        return new GroupByStream<V>(iterate(expression));
+    }
+
+    /**
+     * Get the results as a closeable stream
+     *
+     * @param expression projection
+     * @return new result transformer
+     */
+    public <V> ResultTransformer<Stream<V>> stream(FactoryExpression<V> expression) {
+        return new GroupByStream<V>(iterate(expression));
+    }
+
+}
@@ -13,6 +13,7 @@
  */
 package com.querydsl.core.support;
 
+import java.util.ArrayList;
 import java.util.List;
 
 import org.jetbrains.annotations.Nullable;
@@ -21,8 +22,14 @@ import com.mysema.commons.lang.CloseableIterator;
 import com.mysema.commons.lang.IteratorAdapter;
 import com.querydsl.core.Fetchable;
 import com.querydsl.core.FetchableQuery;
+import com.querydsl.core.KeysetPage;
 import com.querydsl.core.NonUniqueResultException;
+import com.querydsl.core.QueryMetadata;
+import com.querydsl.core.QueryModifiers;
 import com.querydsl.core.ResultTransformer;
+import com.querydsl.core.Tuple;
+import com.querydsl.core.types.Expression;
+import com.querydsl.core.types.OrderSpecifier;
 import com.querydsl.core.types.SubQueryExpression;
 
 /**
@@ -51,6 +58,57 @@ public abstract class FetchableQueryBase<T, Q extends FetchableQueryBase<T, Q>>
         return limit(1).fetchOne();
     }
 
+    /**
+     * Get the page of results which follows the row of the given continuation token via the
+     * given copy of this query, for subclasses which implement {@link com.querydsl.core.KeysetFetchable}
+     *
+     * <p>The order of this query defines the keys of the pagination. The page query is
+     * restricted, limited and projected, so it needs to have its own metadata.</p>
+     *
+     * @param query copy of this query with cloned metadata
+     * @param token continuation token of the previous page or null for the first page
+     * @param size page size
+     * @return results and the continuation token of the next page
+     */
+    @SuppressWarnings("unchecked")
+    protected KeysetPage<T> fetchPage(FetchableQueryBase<?, ?> query, @Nullable String token, int size) {
+        if (size < 1) {
+            throw new IllegalArgumentException("Page size must be positive, got " + size);
+        }
+        QueryMetadata metadata = queryMixin.getMetadata();
+        List<OrderSpecifier<?>> orderBy = metadata.getOrderBy();
+        List<Expression<?>> keys = KeysetUtils.getKeys(orderBy);
+        Expression<?> projection = metadata.getProjection();
+        if (projection == null) {
+            throw new IllegalStateException("Keyset pagination requires a projection");
+        }
+        if (token != null) {
+            query.queryMixin.where(KeysetUtils.after(orderBy, KeysetUtils.decode(orderBy, token)));
+        }
+        // fetch one more row to detect whether a next page exists
+        query.queryMixin.getMetadata().setModifiers(new QueryModifiers((long) size + 1, null));
+        List<Expression<?>> args = new ArrayList<Expression<?>>(keys.size() + 1);
+        args.add(projection);
+        args.addAll(keys);
+        query.queryMixin.setProjection(args.toArray(new Expression<?>[0]));
+        List<Tuple> rows = (List<Tuple>) query.fetch();
+
+        List<T> results = new ArrayList<T>(Math.min(rows.size(), size));
+        for (int i = 0; i < rows.size() && i < size; i++) {
+            results.add((T) rows.get(i).get(0, Object.class));
+        }
+        String nextToken = null;
+        if (rows.size() > size) {
+            Tuple last = rows.get(size - 1);
+            Object[] values = new Object[keys.size()];
+            for (int i = 0; i < values.length; i++) {
+                values[i] = last.get(i + 1, Object.class);
+            }
+            nextToken = KeysetUtils.encode(values);
+        }
+        return new KeysetPage<T>(results, nextToken);
+    }
+
     public <T> T transform(ResultTransformer<T> transformer) {
         return transformer.transform((FetchableQuery<?,?>) this);
     }
@@ -0,0 +1,225 @@
+/*
+ * Copyright 2015, The Querydsl Team (http://www.querydsl.com/team)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.querydsl.core.support;
+
+import java.lang.reflect.InvocationTargetException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+
+import com.querydsl.core.types.ConstantImpl;
+import com.querydsl.core.types.Expression;
+import com.querydsl.core.types.ExpressionUtils;
+import com.querydsl.core.types.Ops;
+import com.querydsl.core.types.OrderSpecifier;
+import com.querydsl.core.types.Predicate;
+import com.querydsl.core.util.MathUtils;
+
+/**
+ * {@code KeysetUtils} provides the predicates and continuation tokens of keyset pagination
+ *
+ * <p>The keys of a page are the targets of the order specifiers. A page continues after the
+ * key values of the previous page's last row, which are encoded into an opaque token.</p>
+ */
+public final class KeysetUtils {
+
+    private static final char SEPARATOR = ',';
+
+    private static final char ESCAPE = '\\';
+
+    private KeysetUtils() { }
+
+    /**
+     * Get the key expressions of the given order
+     *
+     * @param orderBy order specifiers
+     * @return order targets
+     */
+    public static List<Expression<?>> getKeys(List<OrderSpecifier<?>> orderBy) {
+        if (orderBy.isEmpty()) {
+            throw new IllegalStateException("Keyset pagination requires an order");
+        }
+        List<Expression<?>> keys = new ArrayList<Expression<?>>(orderBy.size());
+        for (OrderSpecifier<?> order : orderBy) {
+            keys.add(order.getTarget());
+        }
+        return keys;
+    }
+
+    /**
+     * Create a predicate which matches the rows following the given key values in the given order
+     *
+     * <p>For the order {@code a asc, b desc} the predicate is
+     * {@code a > ?1 or a = ?1 and b < ?2}.</p>
+     *
+     * @param orderBy order specifiers
+     * @param values key values of the last row
+     * @return predicate
+     */
+    @SuppressWarnings("unchecked")
+    public static Predicate after(List<OrderSpecifier<?>> orderBy, Object[] values) {
+        if (values.length != orderBy.size()) {
+            throw new IllegalArgumentException("Expected " + orderBy.size() + " key values, got " + values.length);
+        }
+        List<Predicate> branches = new ArrayList<Predicate>(orderBy.size());
+        List<Predicate> equalities = new ArrayList<Predicate>(orderBy.size());
+        for (int i = 0; i < values.length; i++) {
+            OrderSpecifier<?> order = orderBy.get(i);
+            Expression<Object> key = (Expression<Object>) order.getTarget();
+            Expression<Object> value = ConstantImpl.create(values[i]);
+            List<Predicate> branch = new ArrayList<Predicate>(equalities);
+            branch.add(ExpressionUtils.predicate(order.isAscending() ? Ops.GT : Ops.LT, key, value));
+            branches.add(ExpressionUtils.allOf(branch));
+            equalities.add(ExpressionUtils.eq(key, value));
+        }
+        return ExpressionUtils.anyOf(branches);
+    }
+
+    /**
+     * Encode the given key values into a continuation token
+     *
+     * @param values key values
+     * @return token
+     */
+    public static String encode(Object... values) {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                builder.append(SEPARATOR);
+            }
+            String str = toString(values[i]);
+            for (int j = 0; j < str.length(); j++) {
+                char ch = str.charAt(j);
+                if (ch == SEPARATOR || ch == ESCAPE) {
+                    builder.append(ESCAPE);
+                }
+                builder.append(ch);
+            }
+        }
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(builder.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decode the key values of the given continuation token
+     *
+     * @param orderBy order specifiers which define the key types
+     * @param token token
+     * @return key values
+     */
+    public static Object[] decode(List<OrderSpecifier<?>> orderBy, String token) {
+        String str;
+        try {
+            str = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid keyset token " + token, e);
+        }
+        List<String> parts = new ArrayList<String>(orderBy.size());
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < str.length(); i++) {
+            char ch = str.charAt(i);
+            if (ch == ESCAPE && i < str.length() - 1) {
+                builder.append(str.charAt(++i));
+            } else if (ch == SEPARATOR) {
+                parts.add(builder.toString());
+                builder.setLength(0);
+            } else {
+                builder.append(ch);
+            }
+        }
+        parts.add(builder.toString());
+        if (parts.size() != orderBy.size()) {
+            throw new IllegalArgumentException("Invalid keyset token " + token);
+        }
+        Object[] values = new Object[parts.size()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = fromString(orderBy.get(i).getTarget().getType(), parts.get(i));
+        }
+        return values;
+    }
+
+    private static String toString(Object value) {
+        if (value == null) {
+            throw new IllegalArgumentException("Keyset pagination requires non-null keys");
+        } else if (value instanceof Timestamp) {
+            return ((Timestamp) value).getTime() + ":" + ((Timestamp) value).getNanos();
+        } else if (value instanceof Date) {
+            return String.valueOf(((Date) value).getTime());
+        } else if (value instanceof Enum<?>) {
+            return ((Enum<?>) value).name();
+        } else {
+            return value.toString();
+        }
+    }
+
+    private static Timestamp toTimestamp(String str) {
+        int index = str.indexOf(':');
+        if (index < 0) {
+            throw new IllegalArgumentException("Invalid key value " + str);
+        }
+        Timestamp timestamp = new Timestamp(Long.parseLong(str.substring(0, index)));
+        timestamp.setNanos(Integer.parseInt(str.substring(index + 1)));
+        return timestamp;
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Object fromString(Class<?> type, String str) {
+        if (type.equals(String.class)) {
+            return str;
+        } else if (Number.class.isAssignableFrom(type)) {
+            return MathUtils.cast(new BigDecimal(str), (Class<Number>) type);
+        } else if (type.equals(Boolean.class)) {
+            return Boolean.valueOf(str);
+        } else if (type.equals(Character.class) && str.length() == 1) {
+            return str.charAt(0);
+        } else if (type.isEnum()) {
+            return Enum.valueOf((Class) type, str);
+        } else if (type.equals(UUID.class)) {
+            return UUID.fromString(str);
+        } else if (type.equals(Timestamp.class) || (type.equals(Date.class) && str.indexOf(':') > -1)) {
+            // Date keys may hold Timestamp values, which keep their nanos
+            return toTimestamp(str);
+        } else if (type.equals(java.sql.Date.class)) {
+            return new java.sql.Date(Long.parseLong(str));
+        } else if (type.equals(Time.class)) {
+            return new Time(Long.parseLong(str));
+        } else if (type.equals(Date.class)) {
+            return new Date(Long.parseLong(str));
+        } else if (type.getName().startsWith("java.time.")) {
+            try {
+                return type.getMethod("parse", CharSequence.class).invoke(null, str);
+            } catch (NoSuchMethodException | IllegalAccessException e) {
+                throw new IllegalArgumentException("Unsupported key type " + type.getName(), e);
+            } catch (InvocationTargetException e) {
+                throw new IllegalArgumentException("Invalid key value " + str, e.getCause());
+            }
+        } else {
+            // types such as ObjectId, which are created from their string form
+            try {
+                return type.getConstructor(String.class).newInstance(str);
+            } catch (NoSuchMethodException | IllegalAccessException | InstantiationException e) {
+                throw new IllegalArgumentException("Unsupported key type " + type.getName(), e);
+            } catch (InvocationTargetException e) {
+                throw new IllegalArgumentException("Invalid key value " + str, e.getCause());
+            }
+        }
+    }
+
+}
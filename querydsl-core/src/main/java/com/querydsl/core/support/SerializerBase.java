@@ -204,10 +204,21 @@ public abstract class SerializerBase<S extends SerializerBase<S>> implements Vis
 
     @Override
     public final Void visit(Constant<?> expr, Void context) {
+        beforeConstant(expr);
         visitConstant(expr.getConstant());
         return null;
     }
 
+    /**
+     * Called before the value of the given constant expression is serialized via
+     * {@link #visitConstant(Object)}. The default implementation does nothing.
+     *
+     * @param expr constant expression
+     */
+    protected void beforeConstant(Constant<?> expr) {
+        // nothing by default
+    }
+
     public void visitConstant(Object constant) {
         final String constantLabel = getConstantToLabel().computeIfAbsent(constant, this::getConstantLabel);
         constants.add(constant);
@@ -293,30 +304,14 @@ public abstract class SerializerBase<S extends SerializerBase<S>> implements Vis
         final Template template = templates.getTemplate(operator);
         if (template != null) {
             final int precedence = templates.getPrecedence(operator);
-            boolean first = true;
-            for (final Template.Element element : template.getElements()) {
-                final Object rv = element.convert(args);
-                if (rv instanceof Expression) {
-                    final Expression<?> expr = (Expression<?>) rv;
-                    if (precedence > -1 && expr instanceof Operation) {
-                        Operator op = ((Operation<?>) expr).getOperator();
-                        int opPrecedence = templates.getPrecedence(op);
-                        if (precedence < opPrecedence) {
-                            append("(").handle(expr).append(")");
-                        } else if (!first && precedence == opPrecedence && !SAME_PRECEDENCE.contains(op)) {
-                            append("(").handle(expr).append(")");
-                        } else {
-                            handle(expr);
-                        }
-                    } else {
-                        handle(expr);
-                    }
-                    first = false;
-                } else if (element.isString()) {
-                    append(rv.toString());
-                } else {
-                    visitConstant(rv);
+            if (args.size() > 2 && isNary(operator, template)) {
+                // render n-ary AND and OR like the equivalent left-deep tree without recursion
+                appendElements(template.getElements(), 0, precedence, args.subList(0, 2));
+                for (int i = 2; i < args.size(); i++) {
+                    appendElements(template.getElements(), 1, precedence, Arrays.asList(args.get(0), args.get(i)));
                 }
+            } else {
+                appendElements(template.getElements(), 0, precedence, args);
             }
         } else if (strict) {
             throw new IllegalArgumentException(String.format("No pattern found for %s. Make sure to register any custom functions with %s.", operator, templates.getClass()));
@@ -328,4 +323,42 @@ public abstract class SerializerBase<S extends SerializerBase<S>> implements Vis
         }
     }
 
+    private static boolean isNary(Operator operator, Template template) {
+        if (operator == Ops.AND || operator == Ops.OR) {
+            Template.Element first = template.getElements().get(0);
+            return first instanceof Template.ByIndex && ((Template.ByIndex) first).getIndex() == 0;
+        } else {
+            return false;
+        }
+    }
+
+    private void appendElements(List<Template.Element> elements, int from, int precedence, List<? extends Expression<?>> args) {
+        boolean first = from == 0;
+        for (int i = from; i < elements.size(); i++) {
+            final Template.Element element = elements.get(i);
+            final Object rv = element.convert(args);
+            if (rv instanceof Expression) {
+                final Expression<?> expr = (Expression<?>) rv;
+                if (precedence > -1 && expr instanceof Operation) {
+                    Operator op = ((Operation<?>) expr).getOperator();
+                    int opPrecedence = templates.getPrecedence(op);
+                    if (precedence < opPrecedence) {
+                        append("(").handle(expr).append(")");
+                    } else if (!first && precedence == opPrecedence && !SAME_PRECEDENCE.contains(op)) {
+                        append("(").handle(expr).append(")");
+                    } else {
+                        handle(expr);
+                    }
+                } else {
+                    handle(expr);
+                }
+                first = false;
+            } else if (element.isString()) {
+                append(rv.toString());
+            } else {
+                visitConstant(rv);
+            }
+        }
+    }
+
 }
@@ -15,6 +15,9 @@ package com.querydsl.core.types;
 
 import java.io.IOException;
 import java.io.ObjectInputStream;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.Field;
 import java.lang.reflect.InvocationTargetException;
@@ -27,6 +30,9 @@ import static com.querydsl.core.util.ConstructorUtils.getConstructor;
 import static com.querydsl.core.util.ConstructorUtils.getConstructorParameters;
 import static com.querydsl.core.util.ConstructorUtils.getTransformers;
 import com.querydsl.core.annotations.Immutable;
+import com.querydsl.core.util.PrimitiveUtils;
+import org.codehaus.mojo.animal_sniffer.IgnoreJRERequirement;
+import org.jetbrains.annotations.Nullable;
 import org.jetbrains.annotations.Unmodifiable;
 
 /**
@@ -53,6 +59,8 @@ public class ConstructorExpression<T> extends FactoryExpressionBase<T> {
 
     private static final long serialVersionUID = -602747921848073175L;
 
+    private static final MethodHandle NO_FACTORY = MethodHandles.constant(Object.class, null);
+
     private static Class<?>[] getParameterTypes(Expression<?>... args) {
         Class<?>[] paramTypes = new Class[args.length];
         for (int i = 0; i < paramTypes.length; i++) {
@@ -70,6 +78,11 @@ public class ConstructorExpression<T> extends FactoryExpressionBase<T> {
 
     private final transient Iterable<Function<Object[], Object[]>> transformers;
 
+    @Nullable
+    private transient volatile MethodHandle factory;
+
+    private transient Class<?>[] factoryTypes;
+
     protected ConstructorExpression(Class<? extends T> type, Expression<?>... args) {
         this(type, getParameterTypes(args), Arrays.asList(args));
     }
@@ -134,19 +147,85 @@ public class ConstructorExpression<T> extends FactoryExpressionBase<T> {
         return args;
     }
 
+    /**
+     * Get the parameter types of the invoked constructor
+     *
+     * @return parameter types
+     */
+    public Class<?>[] getParameterTypes() {
+        return constructor.getParameterTypes();
+    }
+
     @Override
+    @IgnoreJRERequirement
     @SuppressWarnings("unchecked")
     public T newInstance(Object... args) {
         try {
             for (Function<Object[], Object[]> transformer : transformers) {
                 args = transformer.apply(args);
             }
-            return (T) constructor.newInstance(args);
+            MethodHandle handle = getFactory();
+            if (handle != null && isApplicable(args)) {
+                return (T) invoke(handle, args);
+            } else {
+                // reflection converts or rejects the other arguments
+                return (T) constructor.newInstance(args);
+            }
         } catch (SecurityException | InvocationTargetException | IllegalAccessException | InstantiationException e) {
             throw new ExpressionException(e.getMessage(), e);
         }
     }
 
+    @IgnoreJRERequirement
+    private static Object invoke(MethodHandle handle, Object[] args) throws InvocationTargetException {
+        try {
+            return handle.invokeExact(args);
+        } catch (Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new InvocationTargetException(e);
+        }
+    }
+
+    /**
+     * Check whether the arguments can be passed to the method handle without conversions
+     */
+    private boolean isApplicable(Object[] args) {
+        Class<?>[] types = factoryTypes;
+        if (args.length != types.length) {
+            return false;
+        }
+        for (int i = 0; i < args.length; i++) {
+            if (args[i] == null ? types[i].isPrimitive() : !PrimitiveUtils.wrap(types[i]).isInstance(args[i])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Get the constructor as a method handle of type (Object[])Object
+     *
+     * @return method handle or null, if the constructor is not accessible via method handles
+     */
+    @Nullable
+    private MethodHandle getFactory() {
+        MethodHandle rv = factory;
+        if (rv == null) {
+            try {
+                rv = MethodHandles.lookup().unreflectConstructor(constructor)
+                        .asFixedArity()
+                        .asSpreader(Object[].class, constructor.getParameterCount())
+                        .asType(MethodType.methodType(Object.class, Object[].class));
+                factoryTypes = constructor.getParameterTypes();
+            } catch (IllegalAccessException e) {
+                rv = NO_FACTORY;
+            }
+            factory = rv;
+        }
+        return rv != NO_FACTORY ? rv : null;
+    }
+
     private void readObject(ObjectInputStream ois)
             throws ClassNotFoundException, IOException {
         ois.readObject();
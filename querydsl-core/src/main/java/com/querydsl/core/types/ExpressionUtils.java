@@ -281,13 +281,7 @@ public final class ExpressionUtils {
      */
     @Nullable
     public static Predicate allOf(Collection<Predicate> exprs) {
-        Predicate rv = null;
-        for (Predicate b : exprs) {
-            if (b != null) {
-                rv = rv == null ? b : ExpressionUtils.and(rv,b);
-            }
-        }
-        return rv;
+        return combine(Ops.AND, exprs);
     }
 
     /**
@@ -298,13 +292,7 @@ public final class ExpressionUtils {
      */
     @Nullable
     public static Predicate allOf(Predicate... exprs) {
-        Predicate rv = null;
-        for (Predicate b : exprs) {
-            if (b != null) {
-                rv = rv == null ? b : ExpressionUtils.and(rv,b);
-            }
-        }
-        return rv;
+        return combine(Ops.AND, Arrays.asList(exprs));
     }
 
     /**
@@ -322,7 +310,7 @@ public final class ExpressionUtils {
         } else if (right == null) {
             return left;
         } else {
-            return predicate(Ops.AND, left, right);
+            return combine(Ops.AND, left, right);
         }
     }
 
@@ -335,13 +323,7 @@ public final class ExpressionUtils {
      */
     @Nullable
     public static Predicate anyOf(Collection<Predicate> exprs) {
-        Predicate rv = null;
-        for (Predicate b : exprs) {
-            if (b != null) {
-                rv = rv == null ? b : ExpressionUtils.or(rv,b);
-            }
-        }
-        return rv;
+        return combine(Ops.OR, exprs);
     }
 
     /**
@@ -352,13 +334,7 @@ public final class ExpressionUtils {
      */
     @Nullable
     public static Predicate anyOf(Predicate... exprs) {
-        Predicate rv = null;
-        for (Predicate b : exprs) {
-            if (b != null) {
-                rv = rv == null ? b : ExpressionUtils.or(rv,b);
-            }
-        }
-        return rv;
+        return combine(Ops.OR, Arrays.asList(exprs));
     }
 
     /**
@@ -728,7 +704,7 @@ public final class ExpressionUtils {
         } else if (right == null) {
             return left;
         } else {
-            return predicate(Ops.OR, left, right);
+            return combine(Ops.OR, left, right);
         }
     }
 
@@ -757,6 +733,51 @@ public final class ExpressionUtils {
         return CollectionUtils.unmodifiableList(new ArrayList<>(set));
     }
 
+    /**
+     * Combine the given predicates into a single n-ary AND or OR operation. Arguments which are
+     * operations of the same operator are spliced in the leftmost position, so that long chains
+     * stay flat instead of forming deep trees.
+     */
+    @Nullable
+    private static Predicate combine(Operator operator, Iterable<Predicate> exprs) {
+        List<Predicate> preds = new ArrayList<>();
+        for (Predicate b : exprs) {
+            if (b != null) {
+                preds.add(b);
+            }
+        }
+        if (preds.size() < 2) {
+            return preds.isEmpty() ? null : preds.get(0);
+        }
+        List<Expression<?>> args = new ArrayList<>(preds.size());
+        for (Predicate b : preds) {
+            if (args.isEmpty()) {
+                addArgs(operator, args, b);
+            } else if (extract(b) != null) {
+                args.add(extract(b));
+            }
+        }
+        return args.size() < 2 ? (Predicate) (args.isEmpty() ? null : args.get(0)) : predicate(operator, args);
+    }
+
+    private static Predicate combine(Operator operator, Predicate left, Predicate right) {
+        List<Expression<?>> args = new ArrayList<>();
+        addArgs(operator, args, left);
+        args.add(right);
+        return predicate(operator, args);
+    }
+
+    private static void addArgs(Operator operator, List<Expression<?>> args, Predicate left) {
+        Expression<?> expr = extract(left);
+        if (expr == null) {
+            return;
+        } else if (expr instanceof Operation && ((Operation<?>) expr).getOperator() == operator) {
+            args.addAll(((Operation<?>) expr).getArgs());
+        } else {
+            args.add(expr);
+        }
+    }
+
     /**
      * Get the potentially wrapped expression
      *
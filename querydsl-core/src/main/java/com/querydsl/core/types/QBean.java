@@ -15,11 +15,16 @@ package com.querydsl.core.types;
 
 import com.querydsl.core.group.GroupExpression;
 import com.querydsl.core.util.PrimitiveUtils;
+import org.codehaus.mojo.animal_sniffer.IgnoreJRERequirement;
+import org.jetbrains.annotations.Nullable;
 
 import java.beans.BeanInfo;
 import java.beans.IntrospectionException;
 import java.beans.Introspector;
 import java.beans.PropertyDescriptor;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Field;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
@@ -52,6 +57,8 @@ public class QBean<T> extends FactoryExpressionBase<T> {
 
     private static final long serialVersionUID = -8210214512730989778L;
 
+    private static final MethodHandle[] NO_WRITERS = new MethodHandle[0];
+
     private static Map<String,Expression<?>> createBindings(Expression<?>... args) {
         Map<String, Expression<?>> rv = new LinkedHashMap<>();
         for (Expression<?> expr : args) {
@@ -98,6 +105,11 @@ public class QBean<T> extends FactoryExpressionBase<T> {
 
     private final boolean fieldAccess;
 
+    @Nullable
+    private transient volatile MethodHandle[] writers;
+
+    private transient Class<?>[] writerTypes;
+
     /**
      * Create a new QBean instance
      *
@@ -217,7 +229,52 @@ public class QBean<T> extends FactoryExpressionBase<T> {
     }
 
     @Override
+    @IgnoreJRERequirement
     public T newInstance(Object... a) {
+        MethodHandle[] handles = getWriters();
+        if (handles == null) {
+            return newInstanceReflective(a);
+        }
+        Class<?>[] types = writerTypes;
+        try {
+            T rv = create(getType());
+            for (int i = 0; i < a.length; i++) {
+                Object value = a[i];
+                if (value != null && handles[i] != null) {
+                    if (types[i].isInstance(value)) {
+                        invoke(handles[i], rv, value);
+                    } else {
+                        // reflection converts or rejects the other values
+                        set(rv, i, value);
+                    }
+                }
+            }
+            return rv;
+        } catch (InstantiationException | InvocationTargetException | IllegalAccessException e) {
+            throw new ExpressionException(e.getMessage(), e);
+        }
+    }
+
+    @IgnoreJRERequirement
+    private static void invoke(MethodHandle handle, Object bean, Object value) throws InvocationTargetException {
+        try {
+            handle.invokeExact(bean, value);
+        } catch (Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new InvocationTargetException(e);
+        }
+    }
+
+    private void set(Object bean, int i, Object value) throws IllegalAccessException, InvocationTargetException {
+        if (fieldAccess) {
+            fields.get(i).set(bean, value);
+        } else {
+            setters.get(i).invoke(bean, value);
+        }
+    }
+
+    private T newInstanceReflective(Object... a) {
         try {
             T rv = create(getType());
             if (fieldAccess) {
@@ -247,6 +304,40 @@ public class QBean<T> extends FactoryExpressionBase<T> {
         }
     }
 
+    /**
+     * Get the field and setter bindings as method handles of type (Object,Object)void
+     *
+     * @return method handles or null, if the members are not accessible via method handles
+     */
+    @Nullable
+    private MethodHandle[] getWriters() {
+        MethodHandle[] rv = writers;
+        if (rv == null) {
+            List<?> members = fieldAccess ? fields : setters;
+            MethodType type = MethodType.methodType(void.class, Object.class, Object.class);
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            rv = new MethodHandle[members.size()];
+            Class<?>[] types = new Class<?>[rv.length];
+            try {
+                for (int i = 0; i < rv.length; i++) {
+                    Object member = members.get(i);
+                    if (member instanceof Field) {
+                        rv[i] = lookup.unreflectSetter((Field) member).asType(type);
+                        types[i] = PrimitiveUtils.wrap(((Field) member).getType());
+                    } else if (member instanceof Method) {
+                        rv[i] = lookup.unreflect((Method) member).asType(type);
+                        types[i] = PrimitiveUtils.wrap(((Method) member).getParameterTypes()[0]);
+                    }
+                }
+                writerTypes = types;
+            } catch (IllegalAccessException e) {
+                rv = NO_WRITERS;
+            }
+            writers = rv;
+        }
+        return rv != NO_WRITERS ? rv : null;
+    }
+
     protected <T> T create(Class<T> type) throws IllegalAccessException, InstantiationException {
         return type.newInstance();
     }
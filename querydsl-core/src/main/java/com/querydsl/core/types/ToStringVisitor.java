@@ -54,21 +54,17 @@ public final class ToStringVisitor implements Visitor<String,Templates> {
         if (template != null) {
             final int precedence = templates.getPrecedence(o.getOperator());
             final StringBuilder builder = new StringBuilder();
-            for (Template.Element element : template.getElements()) {
-                final Object rv = element.convert(o.getArgs());
-                if (rv instanceof Expression) {
-                    if (precedence > -1 && rv instanceof Operation) {
-                        if (precedence < templates.getPrecedence(((Operation<?>) rv).getOperator())) {
-                            builder.append("(");
-                            builder.append(((Expression<?>) rv).accept(this, templates));
-                            builder.append(")");
-                            continue;
-                        }
-                    }
-                    builder.append(((Expression<?>) rv).accept(this, templates));
-                } else {
-                    builder.append(rv.toString());
+            final List<Expression<?>> args = o.getArgs();
+            final Template.Element first = template.getElements().get(0);
+            if (args.size() > 2 && (o.getOperator() == Ops.AND || o.getOperator() == Ops.OR)
+                    && first instanceof Template.ByIndex && ((Template.ByIndex) first).getIndex() == 0) {
+                // render n-ary AND and OR like the equivalent left-deep tree without recursion
+                append(builder, template.getElements(), 0, precedence, args.subList(0, 2), templates);
+                for (int i = 2; i < args.size(); i++) {
+                    append(builder, template.getElements(), 1, precedence, Arrays.asList(args.get(0), args.get(i)), templates);
                 }
+            } else {
+                append(builder, template.getElements(), 0, precedence, args, templates);
             }
             return builder.toString();
         } else {
@@ -76,6 +72,26 @@ public final class ToStringVisitor implements Visitor<String,Templates> {
         }
     }
 
+    private void append(StringBuilder builder, List<Template.Element> elements, int from, int precedence,
+                        List<Expression<?>> args, Templates templates) {
+        for (int i = from; i < elements.size(); i++) {
+            final Object rv = elements.get(i).convert(args);
+            if (rv instanceof Expression) {
+                if (precedence > -1 && rv instanceof Operation) {
+                    if (precedence < templates.getPrecedence(((Operation<?>) rv).getOperator())) {
+                        builder.append("(");
+                        builder.append(((Expression<?>) rv).accept(this, templates));
+                        builder.append(")");
+                        continue;
+                    }
+                }
+                builder.append(((Expression<?>) rv).accept(this, templates));
+            } else {
+                builder.append(rv.toString());
+            }
+        }
+    }
+
     @Override
     public String visit(ParamExpression<?> param, Templates templates) {
         return "{" + param.getName() + "}";
@@ -19,6 +19,9 @@ import org.junit.Ignore;
 import org.junit.Test;
 
 import com.querydsl.core.types.ExpressionUtils;
+import com.querydsl.core.types.Operation;
+import com.querydsl.core.types.Ops;
+import com.querydsl.core.types.Predicate;
 import com.querydsl.core.types.Templates;
 import com.querydsl.core.types.ToStringVisitor;
 import com.querydsl.core.types.dsl.BooleanExpression;
@@ -101,6 +104,36 @@ public class BooleanBuilderTest {
         assertEquals(second, builder.getValue());
     }
 
+    @Test(timeout = 10000)
+    public void long_chain() {
+        BooleanBuilder builder = new BooleanBuilder();
+        for (int i = 0; i < 100000; i++) {
+            builder.or(Expressions.numberPath(Integer.class, "id").eq(i));
+        }
+        Operation<?> operation = (Operation<?>) builder.getValue();
+        assertEquals(Ops.OR, operation.getOperator());
+        assertEquals(100000, operation.getArgs().size());
+    }
+
+    @Test
+    public void read_between_appends() {
+        BooleanBuilder builder = new BooleanBuilder().and(first).and(second);
+        Predicate value = builder.getValue();
+        builder.and(first);
+        assertEquals(ExpressionUtils.and(first, second), value);
+        assertEquals(ExpressionUtils.and(ExpressionUtils.and(first, second), first), builder.getValue());
+        assertEquals(3, ((Operation<?>) builder.getValue()).getArgs().size());
+    }
+
+    @Test
+    public void clone_is_independent() throws CloneNotSupportedException {
+        BooleanBuilder builder = new BooleanBuilder().or(first).or(second);
+        BooleanBuilder clone = builder.clone().or(first);
+        builder.and(second);
+        assertEquals("true || false || true", clone.toString());
+        assertEquals("(true || false) && false", builder.toString());
+    }
+
     @Test
     public void and_null_supported() {
         assertEquals(first, first.and(null));
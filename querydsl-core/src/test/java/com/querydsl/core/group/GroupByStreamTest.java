@@ -0,0 +1,142 @@
+/*
+ * Copyright 2015, The Querydsl Team (http://www.querydsl.com/team)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.querydsl.core.group;
+
+import static com.querydsl.core.group.AbstractGroupByTest.*;
+import static com.querydsl.core.group.GroupBy.*;
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.Test;
+
+import com.mysema.commons.lang.CloseableIterator;
+import com.querydsl.core.Tuple;
+import com.querydsl.core.support.DummyFetchableQuery;
+
+public class GroupByStreamTest {
+
+    /**
+     * Query results which record how many rows have been consumed and whether they have been closed
+     */
+    private static class RecordingQuery extends DummyFetchableQuery<Tuple> {
+
+        private final List<Tuple> rows;
+
+        private int consumed;
+
+        private boolean closed;
+
+        RecordingQuery(List<Tuple> rows) {
+            super(rows);
+            this.rows = rows;
+        }
+
+        @Override
+        public CloseableIterator<Tuple> iterate() {
+            final Iterator<Tuple> iterator = rows.iterator();
+            return new CloseableIterator<Tuple>() {
+                @Override
+                public boolean hasNext() {
+                    return iterator.hasNext();
+                }
+
+                @Override
+                public Tuple next() {
+                    consumed++;
+                    return iterator.next();
+                }
+
+                @Override
+                public void remove() {
+                    throw new UnsupportedOperationException();
+                }
+
+                @Override
+                public void close() {
+                    closed = true;
+                }
+            };
+        }
+    }
+
+    private static RecordingQuery basicResults() {
+        return new RecordingQuery(BASIC_RESULTS.fetch());
+    }
+
+    @Test
+    public void groups() {
+        try (Stream<Group> results = BASIC_RESULTS.transform(
+            groupBy(postId).assumeSorted().stream(postName, set(commentId), list(commentText)))) {
+            List<Group> groups = results.collect(Collectors.toList());
+            assertEquals(4, groups.size());
+
+            Group group = groups.get(1);
+            assertEquals(Integer.valueOf(1), group.getOne(postId));
+            assertEquals("post 1", group.getOne(postName));
+            assertEquals(new HashSet<>(Arrays.asList(1, 2, 3)), group.getSet(commentId));
+            assertEquals(Arrays.asList("comment 1", "comment 2", "comment 3"), group.getList(commentText));
+        }
+    }
+
+    @Test
+    public void groups_are_emitted_as_the_key_changes() {
+        RecordingQuery query = basicResults();
+        try (Stream<Group> results = query.transform(
+            groupBy(postId).assumeSorted().stream(postName, set(commentId)))) {
+            Iterator<Group> groups = results.iterator();
+            assertEquals(0, query.consumed);
+
+            // the two null post rows and the first row of post 1, which ends the group
+            assertEquals(new HashSet<>(Arrays.asList(7, 8)), groups.next().getSet(commentId));
+            assertEquals(3, query.consumed);
+
+            assertEquals(new HashSet<>(Arrays.asList(1, 2, 3)), groups.next().getSet(commentId));
+            assertEquals(6, query.consumed);
+        }
+    }
+
+    @Test
+    public void short_circuit_stops_consumption() {
+        RecordingQuery query = basicResults();
+        try (Stream<String> results = query.transform(groupBy(postId).assumeSorted().stream(postName))) {
+            assertEquals("null post", results.findFirst().get());
+        }
+        assertEquals(3, query.consumed);
+    }
+
+    @Test
+    public void close_closes_results() {
+        RecordingQuery query = basicResults();
+        Stream<Group> results = query.transform(groupBy(postId).assumeSorted().stream(postName, set(commentId)));
+        results.iterator().next();
+        assertFalse(query.closed);
+        results.close();
+        assertTrue(query.closed);
+    }
+
+    @Test
+    public void unsorted_keys_are_not_merged() {
+        try (Stream<Group> results = BASIC_RESULTS_UNORDERED.transform(
+            groupBy(postId).assumeSorted().stream(postName, set(commentId)))) {
+            assertEquals(6, results.count());
+        }
+    }
+
+}
@@ -0,0 +1,103 @@
+package com.querydsl.core.support;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.Test;
+
+import com.querydsl.core.types.OrderSpecifier;
+import com.querydsl.core.types.dsl.EnumPath;
+import com.querydsl.core.types.dsl.Expressions;
+import com.querydsl.core.types.dsl.NumberPath;
+import com.querydsl.core.types.dsl.StringPath;
+
+public class KeysetUtilsTest {
+
+    public enum Color { RED, GREEN }
+
+    private final StringPath name = Expressions.stringPath("name");
+
+    private final NumberPath<Integer> id = Expressions.numberPath(Integer.class, "id");
+
+    private final NumberPath<BigDecimal> amount = Expressions.numberPath(BigDecimal.class, "amount");
+
+    private final EnumPath<Color> color = Expressions.enumPath(Color.class, "color");
+
+    @Test
+    public void after() {
+        List<OrderSpecifier<?>> orderBy = Arrays.<OrderSpecifier<?>>asList(name.asc(), id.desc());
+        assertEquals("name > a || name = a && id < 1",
+                KeysetUtils.after(orderBy, new Object[]{"a", 1}).toString());
+    }
+
+    @Test
+    public void after_three_keys() {
+        List<OrderSpecifier<?>> orderBy = Arrays.<OrderSpecifier<?>>asList(name.asc(), id.asc(), color.desc());
+        assertEquals("name > a || name = a && id > 1 || name = a && id = 1 && color < GREEN",
+                KeysetUtils.after(orderBy, new Object[]{"a", 1, Color.GREEN}).toString());
+    }
+
+    @Test
+    public void round_trip() {
+        List<OrderSpecifier<?>> orderBy = Arrays.<OrderSpecifier<?>>asList(
+                name.asc(), id.asc(), amount.asc(), color.asc());
+        Object[] values = {"a,b\\c", 5, new BigDecimal("1.50"), Color.GREEN};
+        assertArrayEquals(values, KeysetUtils.decode(orderBy, KeysetUtils.encode(values)));
+    }
+
+    @Test
+    public void round_trip_temporal() {
+        Timestamp timestamp = new Timestamp(1000L);
+        timestamp.setNanos(123456789);
+        UUID uuid = UUID.randomUUID();
+        List<OrderSpecifier<?>> orderBy = Arrays.<OrderSpecifier<?>>asList(
+                Expressions.dateTimePath(Timestamp.class, "ts").asc(),
+                Expressions.datePath(LocalDate.class, "date").asc(),
+                Expressions.comparablePath(UUID.class, "uuid").asc());
+        Object[] values = {timestamp, LocalDate.of(2015, 3, 1), uuid};
+        assertArrayEquals(values, KeysetUtils.decode(orderBy, KeysetUtils.encode(values)));
+    }
+
+    @Test
+    public void round_trip_timestamp_on_date() {
+        Timestamp timestamp = new Timestamp(1000L);
+        timestamp.setNanos(123456789);
+        Date date = new Date(2000L);
+        List<OrderSpecifier<?>> orderBy = Arrays.<OrderSpecifier<?>>asList(
+                Expressions.dateTimePath(Date.class, "created").asc(),
+                Expressions.dateTimePath(Date.class, "modified").asc());
+        Object[] values = {timestamp, date};
+        assertArrayEquals(values, KeysetUtils.decode(orderBy, KeysetUtils.encode(values)));
+    }
+
+    @Test
+    public void empty_string() {
+        List<OrderSpecifier<?>> orderBy = Arrays.<OrderSpecifier<?>>asList(name.asc(), name.desc());
+        assertArrayEquals(new Object[]{"", ""}, KeysetUtils.decode(orderBy, KeysetUtils.encode("", "")));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void wrong_key_count() {
+        KeysetUtils.decode(Collections.<OrderSpecifier<?>>singletonList(id.asc()), KeysetUtils.encode(1, 2));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void null_key() {
+        KeysetUtils.encode(1, null);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void no_order() {
+        KeysetUtils.getKeys(Collections.<OrderSpecifier<?>>emptyList());
+    }
+
+}
@@ -103,6 +103,47 @@ public class ConstructorExpressionTest {
         assertEquals("1234", projection.text);
     }
 
+    public static class Failing {
+
+        public Failing(String failure) {
+            if (failure.equals("exception")) {
+                throw new ClassCastException(failure);
+            } else {
+                throw new LinkageError(failure);
+            }
+        }
+
+    }
+
+    @Test
+    public void exception_of_constructor() {
+        try {
+            Projections.constructor(Failing.class, str1).newInstance("exception");
+            fail("Expected ExpressionException");
+        } catch (ExpressionException e) {
+            assertTrue(e.getCause().getCause() instanceof ClassCastException);
+        }
+    }
+
+    @Test(expected = LinkageError.class)
+    public void error_of_constructor() {
+        Projections.constructor(Failing.class, str1).newInstance("error");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void illegal_argument() {
+        Projections.constructor(Failing.class, str1).newInstance(1);
+    }
+
+    @Test
+    public void widened_argument() {
+        Expression<Long> longVal = ConstantImpl.create(1L);
+        Expression<String> stringVal = ConstantImpl.create("");
+        ProjectionExample instance = new ConstructorExpression<ProjectionExample>(ProjectionExample.class,
+                new Class<?>[]{long.class, String.class}, longVal, stringVal).newInstance(1, "");
+        assertEquals((Long) 1L, instance.id);
+    }
+
     @Test
     public void serializability() {
         ConstructorExpression<String> expr = Serialization.serialize(Projections.constructor(String.class));
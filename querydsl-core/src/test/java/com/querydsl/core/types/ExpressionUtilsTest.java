@@ -16,6 +16,7 @@ package com.querydsl.core.types;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
@@ -23,6 +24,7 @@ import java.util.List;
 import org.junit.Ignore;
 import org.junit.Test;
 
+import com.querydsl.core.BooleanBuilder;
 import com.querydsl.core.DefaultQueryMetadata;
 import com.querydsl.core.QueryException;
 import com.querydsl.core.types.dsl.Expressions;
@@ -195,4 +197,40 @@ public class ExpressionUtilsTest {
         assertTrue(s.startsWith("str not in com.querydsl.core.DefaultQueryMetadata@c"));
     }
 
+    @Test
+    public void and_is_flat() {
+        Predicate p = ExpressionUtils.and(ExpressionUtils.and(str.isNull(), str2.isNull()), str.eq("a"));
+        assertEquals(3, ((Operation<?>) p).getArgs().size());
+        assertEquals(Ops.AND, ((Operation<?>) p).getOperator());
+    }
+
+    @Test
+    public void allOf_is_flat() {
+        Predicate p = ExpressionUtils.allOf(str.isNull(), null, str2.isNull(), str.eq("a"));
+        assertEquals(3, ((Operation<?>) p).getArgs().size());
+        assertEquals("str is null && str2 is null && str = a", p.toString());
+    }
+
+    @Test
+    public void anyOf_renders_like_nested() {
+        Predicate a = str.isNull();
+        Predicate b = str2.isNull().and(str.eq("b"));
+        Predicate c = str.eq("c");
+        Predicate nested = ExpressionUtils.predicate(Ops.OR, ExpressionUtils.predicate(Ops.OR, a, b), c);
+        assertEquals(nested.toString(), ExpressionUtils.anyOf(a, b, c).toString());
+    }
+
+    @Test
+    public void long_chains() {
+        BooleanBuilder builder = new BooleanBuilder();
+        List<Predicate> predicates = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            builder.or(str.eq("a" + i));
+            predicates.add(str.eq("a" + i));
+        }
+        assertEquals(5000, ((Operation<?>) builder.getValue()).getArgs().size());
+        assertEquals(builder.getValue(), ExpressionUtils.anyOf(predicates));
+        assertTrue(builder.toString().endsWith("str = a4998 || str = a4999"));
+    }
+
 }
@@ -14,6 +14,8 @@
 package com.querydsl.core.types;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
 import org.junit.Test;
 
@@ -45,6 +47,42 @@ public class QBeanPropertyTest {
 
     }
 
+    public static class FailingEntity {
+
+        public void setName(String name) {
+            if (name.equals("exception")) {
+                throw new ClassCastException(name);
+            } else {
+                throw new LinkageError(name);
+            }
+        }
+
+    }
+
+    @Test
+    public void exception_of_setter() {
+        PathBuilder<FailingEntity> entity = new PathBuilder<FailingEntity>(FailingEntity.class, "entity");
+        QBean<FailingEntity> beanProjection = new QBean<FailingEntity>(FailingEntity.class, entity.getString("name"));
+        try {
+            beanProjection.newInstance("exception");
+            fail("Expected ExpressionException");
+        } catch (ExpressionException e) {
+            assertTrue(e.getCause().getCause() instanceof ClassCastException);
+        }
+    }
+
+    @Test(expected = LinkageError.class)
+    public void error_of_setter() {
+        PathBuilder<FailingEntity> entity = new PathBuilder<FailingEntity>(FailingEntity.class, "entity");
+        new QBean<FailingEntity>(FailingEntity.class, entity.getString("name")).newInstance("error");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void illegal_value() {
+        PathBuilder<Entity> entity = new PathBuilder<Entity>(Entity.class, "entity");
+        new QBean<Entity>(Entity.class, true, entity.getNumber("cId", Integer.class)).newInstance("1");
+    }
+
     @Test
     public void field_access() {
         PathBuilder<Entity> entity = new PathBuilder<Entity>(Entity.class, "entity");
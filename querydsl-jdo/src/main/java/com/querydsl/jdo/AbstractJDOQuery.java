@@ -28,6 +28,7 @@ import javax.jdo.Query;
 import com.mysema.commons.lang.CloseableIterator;
 import com.mysema.commons.lang.IteratorAdapter;
 import com.querydsl.core.*;
+import com.querydsl.core.support.FetchableQueryBase;
 import com.querydsl.core.support.FetchableSubQueryBase;
 import com.querydsl.core.types.*;
 
@@ -39,7 +40,8 @@ import com.querydsl.core.types.*;
  * @param <T> result type
  * @param <Q> concrete subclass
  */
-public abstract class AbstractJDOQuery<T, Q extends AbstractJDOQuery<T, Q>> extends FetchableSubQueryBase<T, Q> implements JDOQLQuery<T> {
+public abstract class AbstractJDOQuery<T, Q extends AbstractJDOQuery<T, Q>> extends FetchableSubQueryBase<T, Q>
+        implements JDOQLQuery<T>, KeysetFetchable<T> {
 
     private static final Logger logger =  Logger.getLogger(JDOQuery.class.getName());
 
@@ -107,6 +109,17 @@ public abstract class AbstractJDOQuery<T, Q extends AbstractJDOQuery<T, Q>> exte
         }
     }
 
+    @Override
+    public KeysetPage<T> fetchPage(@Nullable String token, int size) {
+        JDOQLQuery<T> query = clone(persistenceManager);
+        try {
+            return fetchPage((FetchableQueryBase<?, ?>) query, token, size);
+        } finally {
+            // the rows of the page have been copied
+            query.close();
+        }
+    }
+
     @Override
     public long fetchCount() {
         try {
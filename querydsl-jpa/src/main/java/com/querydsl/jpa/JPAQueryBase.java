@@ -13,6 +13,11 @@
  */
 package com.querydsl.jpa;
 
+import java.util.List;
+
+import org.jetbrains.annotations.Nullable;
+
+import com.querydsl.core.KeysetPage;
 import com.querydsl.core.QueryMetadata;
 import com.querydsl.core.support.FetchableSubQueryBase;
 import com.querydsl.core.types.*;
@@ -61,6 +66,39 @@ public abstract class JPAQueryBase<T, Q extends JPAQueryBase<T, Q>> extends Fetc
         return serializer;
     }
 
+    /**
+     * Serialize a query for the rows to be counted in memory, for queries which can't be
+     * counted by a count query. Grouped queries select only their group by elements, unless
+     * aliases, a having clause or distinct may depend on the projection.
+     *
+     * @return serializer
+     */
+    protected JPQLSerializer serializeForRowCount() {
+        QueryMetadata metadata = queryMixin.getMetadata().clone();
+        List<Expression<?>> groupBy = metadata.getGroupBy();
+        if (!groupBy.isEmpty() && metadata.getHaving() == null && !metadata.isDistinct()
+                && !hasAlias(metadata.getProjection())) {
+            metadata.setProjection(groupBy.size() == 1 ? groupBy.get(0) : Projections.tuple(groupBy));
+        }
+        metadata.clearOrderBy();
+        JPQLSerializer serializer = createSerializer();
+        serializer.serialize(metadata, false, null);
+        return serializer;
+    }
+
+    private static boolean hasAlias(@Nullable Expression<?> expr) {
+        if (expr instanceof Operation && ((Operation<?>) expr).getOperator() == Ops.ALIAS) {
+            return true;
+        } else if (expr instanceof FactoryExpression) {
+            for (Expression<?> arg : ((FactoryExpression<?>) expr).getArgs()) {
+                if (hasAlias(arg)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
     protected abstract void reset();
 
     @Override
@@ -227,4 +265,9 @@ public abstract class JPAQueryBase<T, Q extends JPAQueryBase<T, Q>> extends Fetc
     @Override
     public abstract Q clone();
 
+    @Override
+    public KeysetPage<T> fetchPage(@Nullable String token, int size) {
+        return fetchPage(clone(), token, size);
+    }
+
 }
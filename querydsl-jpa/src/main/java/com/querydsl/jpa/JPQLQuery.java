@@ -14,6 +14,7 @@
 package com.querydsl.jpa;
 
 import com.querydsl.core.FetchableQuery;
+import com.querydsl.core.KeysetFetchable;
 import com.querydsl.core.Query;
 import com.querydsl.core.Tuple;
 import com.querydsl.core.support.ExtendedSubQuery;
@@ -27,7 +28,8 @@ import com.querydsl.core.types.*;
  * @author tiwe
  *
  */
-public interface JPQLQuery<T> extends FetchableQuery<T, JPQLQuery<T>>, Query<JPQLQuery<T>>, ExtendedSubQuery<T> {
+public interface JPQLQuery<T> extends FetchableQuery<T, JPQLQuery<T>>, Query<JPQLQuery<T>>, ExtendedSubQuery<T>,
+        KeysetFetchable<T> {
 
     /**
      * Add sources to this query
@@ -76,6 +76,17 @@ public abstract class AbstractHibernateQuery<T, Q extends AbstractHibernateQuery
     public long fetchCount() {
         QueryModifiers modifiers = getMetadata().getModifiers();
         try {
+            if (getMetadata().getGroupBy().size() > 1 || getMetadata().getHaving() != null) {
+                // count(distinct a, b) is not valid HQL, so the rows are counted via scrolling
+                Query query = createQuery(serializeForRowCount(), null, true);
+                try (ScrollableResults results = query.scroll(ScrollMode.FORWARD_ONLY)) {
+                    long rv = 0;
+                    while (results.next()) {
+                        rv++;
+                    }
+                    return rv;
+                }
+            }
             Query query = createQuery(modifiers, true);
             Long rv = (Long) query.uniqueResult();
             if (rv != null) {
@@ -98,7 +109,10 @@ public abstract class AbstractHibernateQuery<T, Q extends AbstractHibernateQuery
     }
 
     private Query createQuery(@Nullable QueryModifiers modifiers, boolean forCount) {
-        JPQLSerializer serializer = serialize(forCount);
+        return createQuery(serialize(forCount), modifiers, forCount);
+    }
+
+    private Query createQuery(JPQLSerializer serializer, @Nullable QueryModifiers modifiers, boolean forCount) {
         String queryString = serializer.toString();
         logQuery(queryString);
         Query query = session.createQuery(queryString);
@@ -89,8 +89,11 @@ public abstract class AbstractJPAQuery<T, Q extends AbstractJPAQuery<T, Q>> exte
      * to the where clause instead.
      *
      * In order to support {@code fetchCount} for queries with multiple group by elements or a having clause, we
-     * generate the count in memory instead. This means that the method simply falls back to returning the size of
-     * {@link #fetch()}. For large result sets this may come at a severe performance penalty.
+     * generate the count in memory instead. The rows are iterated via the {@link QueryHandler} and counted, and
+     * queries without a having clause select only their group by elements. The Hibernate and EclipseLink handlers
+     * iterate over a database cursor, so the rows are not kept, whereas the default handler loads the result list
+     * first. For large result sets this may still come at a severe performance penalty, since every row is
+     * transferred from the database.
      *
      * For very specific domain models where {@link #fetchCount()} has to be used in conjunction with complex queries
      * containing multiple group by elements and/or a having clause, we recommend using the
@@ -105,8 +108,15 @@ public abstract class AbstractJPAQuery<T, Q extends AbstractJPAQuery<T, Q>> exte
         try {
             if (getMetadata().getGroupBy().size() > 1 || getMetadata().getHaving() != null) {
                 logger.warning("Fetchable#fetchCount() was computed in memory! See the Javadoc for AbstractJPAQuery#fetchCount for more details.");
-                Query query = createQuery(null, false);
-                return query.getResultList().size();
+                Query query = createQuery(serializeForRowCount(), null, true);
+                try (CloseableIterator<?> rows = queryHandler.iterate(query, null)) {
+                    long count = 0;
+                    while (rows.hasNext()) {
+                        rows.next();
+                        count++;
+                    }
+                    return count;
+                }
             }
 
             Query query = createQuery(null, true);
@@ -126,7 +136,10 @@ public abstract class AbstractJPAQuery<T, Q extends AbstractJPAQuery<T, Q>> exte
     }
 
     protected Query createQuery(@Nullable QueryModifiers modifiers, boolean forCount) {
-        JPQLSerializer serializer = serialize(forCount);
+        return createQuery(serialize(forCount), modifiers, forCount);
+    }
+
+    private Query createQuery(JPQLSerializer serializer, @Nullable QueryModifiers modifiers, boolean forCount) {
         String queryString = serializer.toString();
         logQuery(queryString);
         Query query = entityManager.createQuery(queryString);
@@ -829,6 +829,20 @@ public abstract class AbstractJPATest {
             .select(world).fetch();
     }
 
+    @Test
+    public void fetchPage() {
+        JPQLQuery<Cat> query = query().from(cat).orderBy(cat.name.asc(), cat.id.desc()).select(cat);
+        List<Cat> cats = new ArrayList<Cat>();
+        String token = null;
+        do {
+            KeysetPage<Cat> page = query.fetchPage(token, 4);
+            assertTrue(page.getResults().size() <= 4);
+            cats.addAll(page.getResults());
+            token = page.getNextToken();
+        } while (token != null);
+        assertEquals(query.fetch(), cats);
+    }
+
     @Test
     @ExcludeIn({MYSQL, DERBY})
     @NoBatooJPA
@@ -927,6 +941,21 @@ public abstract class AbstractJPATest {
         assertEquals(6, results.getResults().size());
     }
 
+    @Test
+    public void groupBy_multiple_count() {
+        List<Tuple> groups = query().from(cat).groupBy(cat.name, cat.breed).select(cat.name, cat.breed).fetch();
+        assertEquals(groups.size(),
+                query().from(cat).groupBy(cat.name, cat.breed).select(cat.name, cat.breed).fetchCount());
+    }
+
+    @Test
+    public void groupBy_having_count() {
+        List<Integer> groups = query().from(cat).groupBy(cat.breed)
+                .having(cat.id.count().gt(1)).select(cat.breed).fetch();
+        assertEquals(groups.size(), query().from(cat).groupBy(cat.breed)
+                .having(cat.id.count().gt(1)).select(cat.breed).fetchCount());
+    }
+
     @Test
     public void groupBy_results2() {
         QueryResults<Integer> results = query().from(cat).groupBy(cat.birthdate).select(cat.id.max()).fetchResults();
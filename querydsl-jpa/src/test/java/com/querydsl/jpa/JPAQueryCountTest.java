@@ -0,0 +1,118 @@
+package com.querydsl.jpa;
+
+import static org.easymock.EasyMock.anyInt;
+import static org.easymock.EasyMock.anyObject;
+import static org.easymock.EasyMock.anyString;
+import static org.easymock.EasyMock.createMock;
+import static org.easymock.EasyMock.expect;
+import static org.easymock.EasyMock.replay;
+import static org.easymock.EasyMock.verify;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+import javax.persistence.EntityManager;
+import javax.persistence.Query;
+
+import org.jetbrains.annotations.Nullable;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.mysema.commons.lang.CloseableIterator;
+import com.mysema.commons.lang.IteratorAdapter;
+import com.querydsl.core.types.FactoryExpression;
+import com.querydsl.jpa.domain.QCat;
+import com.querydsl.jpa.impl.JPAQuery;
+
+public class JPAQueryCountTest {
+
+    private static final QCat cat = QCat.cat;
+
+    private final CountingHandler handler = new CountingHandler();
+
+    private final JPQLTemplates templates = new JPQLTemplates(JPQLTemplates.DEFAULT_ESCAPE, handler) { };
+
+    private EntityManager entityManager;
+
+    private Query query;
+
+    @Before
+    public void setUp() {
+        entityManager = createMock(EntityManager.class);
+        query = createMock(Query.class);
+        expect(entityManager.createQuery(anyString())).andReturn(query);
+        expect(query.getParameters()).andReturn(Collections.emptySet()).anyTimes();
+        expect(query.setParameter(anyInt(), anyObject())).andReturn(query).anyTimes();
+        replay(entityManager, query);
+    }
+
+    @Test
+    @SuppressWarnings("deprecation")
+    public void groupBy_multiple() {
+        long count = new JPAQuery<Void>(entityManager, templates)
+                .from(cat).groupBy(cat.name, cat.breed).select(cat.name, cat.breed).fetchCount();
+        assertEquals(3, count);
+        assertTrue(handler.closed);
+        verify(entityManager, query);
+    }
+
+    @Test
+    @SuppressWarnings("deprecation")
+    public void groupBy_having() {
+        long count = new JPAQuery<Void>(entityManager, templates)
+                .from(cat).groupBy(cat.breed).having(cat.id.count().gt(1)).select(cat.breed).fetchCount();
+        assertEquals(3, count);
+        assertTrue(handler.closed);
+        verify(entityManager, query);
+    }
+
+    /**
+     * Handler which iterates over fixed rows and never touches the result list of the query
+     */
+    private static class CountingHandler implements QueryHandler {
+
+        private boolean closed;
+
+        @Override
+        public void addEntity(Query query, String alias, Class<?> type) {
+            // do nothing
+        }
+
+        @Override
+        public void addScalar(Query query, String alias, Class<?> type) {
+            // do nothing
+        }
+
+        @Override
+        public boolean createNativeQueryTyped() {
+            return true;
+        }
+
+        @SuppressWarnings("unchecked")
+        @Override
+        public <T> CloseableIterator<T> iterate(Query query, @Nullable FactoryExpression<?> projection) {
+            return new IteratorAdapter<T>((Iterator<T>) Arrays.asList(1, 2, 3).iterator(), () -> closed = true);
+        }
+
+        @Override
+        public <T> Stream<T> stream(Query query, @Nullable FactoryExpression<?> projection) {
+            throw new AssertionError("rows should be counted through iterate");
+        }
+
+        @Override
+        public boolean transform(Query query, FactoryExpression<?> projection) {
+            return false;
+        }
+
+        @Override
+        public boolean wrapEntityProjections() {
+            return false;
+        }
+
+    }
+
+}
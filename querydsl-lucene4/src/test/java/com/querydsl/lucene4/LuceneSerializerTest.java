@@ -29,6 +29,7 @@ import org.apache.lucene.document.Field.Store;
 import org.apache.lucene.index.IndexReader;
 import org.apache.lucene.index.IndexWriter;
 import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.search.BooleanQuery;
 import org.apache.lucene.search.IndexSearcher;
 import org.apache.lucene.search.Query;
 import org.apache.lucene.search.TopDocs;
@@ -263,6 +264,24 @@ public class LuceneSerializerTest {
         testQuery(title.eq("Jurassic Park").and(year.eq(1990)).and(author.eq("Michael Crichton")), "+(+title:\"jurassic park\" +year:" + YEAR_PREFIX_CODED + ") +author:\"michael crichton\"", 1);
     }
 
+    @Test
+    public void anyOf() throws Exception {
+        testQuery(ExpressionUtils.anyOf(title.eq("jeeves"), rating.eq("superb"), author.eq("michael crichton")),
+                "title:jeeves rating:superb author:\"michael crichton\"", 1);
+    }
+
+    @Test
+    public void anyOf_above_max_clause_count() throws Exception {
+        int maxClauseCount = BooleanQuery.getMaxClauseCount();
+        BooleanQuery.setMaxClauseCount(2);
+        try {
+            testQuery(ExpressionUtils.anyOf(title.eq("jeeves"), rating.eq("superb"), author.eq("michael crichton")),
+                    "(title:jeeves) (rating:superb author:\"michael crichton\")", 1);
+        } finally {
+            BooleanQuery.setMaxClauseCount(maxClauseCount);
+        }
+    }
+
     @Test(expected = UnsupportedOperationException.class)
     public void equals_ignore_case_and_or() throws Exception {
         testQuery(title.equalsIgnoreCase("Jurassic Park").and(rating.equalsIgnoreCase("Bad")).or(author.equalsIgnoreCase("Michael Crichton")), "(+title:\"jurassic park\" +rating:bad) author:\"michael crichton\"", 1);
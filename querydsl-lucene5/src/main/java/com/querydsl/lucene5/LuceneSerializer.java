@@ -157,14 +157,58 @@ public class LuceneSerializer {
 
     private Query toTwoHandSidedQuery(Operation<?> operation, Occur occur,
             QueryMetadata metadata) {
-        Query lhs = toQuery(operation.getArg(0), metadata);
-        Query rhs = toQuery(operation.getArg(1), metadata);
+        // n-ary operations are serialized into a single boolean query
+        List<BooleanClause> clauses = new ArrayList<BooleanClause>(operation.getArgs().size());
+        for (Expression<?> arg : operation.getArgs()) {
+            clauses.add(createBooleanClause(toQuery(arg, metadata), occur));
+        }
+        return toBooleanQuery(clauses, occur);
+    }
+
+    /**
+     * Create a BooleanQuery of the given clauses. If there are more clauses than
+     * {@link BooleanQuery#getMaxClauseCount()}, the non-prohibited clauses are grouped
+     * into nested queries of balanced size.
+     */
+    private BooleanQuery toBooleanQuery(List<BooleanClause> clauses, Occur occur) {
+        List<BooleanClause> positive = new ArrayList<BooleanClause>(clauses.size());
+        List<BooleanClause> prohibited = new ArrayList<BooleanClause>();
+        for (BooleanClause clause : clauses) {
+            if (clause.getOccur() == Occur.MUST_NOT) {
+                prohibited.add(clause);
+            } else {
+                positive.add(clause);
+            }
+        }
+        int limit = BooleanQuery.getMaxClauseCount() - prohibited.size();
+        while (positive.size() > limit && limit > 0) {
+            positive = chunk(positive, occur);
+        }
         BooleanQuery bq = new BooleanQuery();
-        bq.add(createBooleanClause(lhs, occur));
-        bq.add(createBooleanClause(rhs, occur));
+        for (BooleanClause clause : positive) {
+            bq.add(clause);
+        }
+        for (BooleanClause clause : prohibited) {
+            bq.add(clause);
+        }
         return bq;
     }
 
+    private static List<BooleanClause> chunk(List<BooleanClause> clauses, Occur occur) {
+        int maxClauseCount = BooleanQuery.getMaxClauseCount();
+        int chunks = (clauses.size() + maxClauseCount - 1) / maxClauseCount;
+        List<BooleanClause> rv = new ArrayList<BooleanClause>(chunks);
+        for (int i = 0; i < chunks; i++) {
+            BooleanQuery bq = new BooleanQuery();
+            for (BooleanClause clause : clauses.subList(clauses.size() * i / chunks,
+                    clauses.size() * (i + 1) / chunks)) {
+                bq.add(clause);
+            }
+            rv.add(new BooleanClause(bq, occur));
+        }
+        return rv;
+    }
+
     /**
      * If the query is a BooleanQuery and it contains a single Occur.MUST_NOT
      * clause it will be returned as is. Otherwise it will be wrapped in a
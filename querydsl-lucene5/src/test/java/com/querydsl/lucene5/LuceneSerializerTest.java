@@ -35,6 +35,7 @@ import org.apache.lucene.index.DirectoryReader;
 import org.apache.lucene.index.IndexReader;
 import org.apache.lucene.index.IndexWriter;
 import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.search.BooleanQuery;
 import org.apache.lucene.search.IndexSearcher;
 import org.apache.lucene.search.Query;
 import org.apache.lucene.search.TopDocs;
@@ -52,6 +53,7 @@ import com.querydsl.core.QueryMetadata;
 import com.querydsl.core.StringConstant;
 import com.querydsl.core.Target;
 import com.querydsl.core.types.Expression;
+import com.querydsl.core.types.ExpressionUtils;
 import com.querydsl.core.types.Operation;
 import com.querydsl.core.types.Operator;
 import com.querydsl.core.types.Ops;
@@ -299,6 +301,24 @@ public class LuceneSerializerTest {
                         + ") +author:\"michael crichton\"", 1);
     }
 
+    @Test
+    public void anyOf() throws Exception {
+        testQuery(ExpressionUtils.anyOf(title.eq("jeeves"), rating.eq("superb"), author.eq("michael crichton")),
+                "title:jeeves rating:superb author:\"michael crichton\"", 1);
+    }
+
+    @Test
+    public void anyOf_above_max_clause_count() throws Exception {
+        int maxClauseCount = BooleanQuery.getMaxClauseCount();
+        BooleanQuery.setMaxClauseCount(2);
+        try {
+            testQuery(ExpressionUtils.anyOf(title.eq("jeeves"), rating.eq("superb"), author.eq("michael crichton")),
+                    "(title:jeeves) (rating:superb author:\"michael crichton\")", 1);
+        } finally {
+            BooleanQuery.setMaxClauseCount(maxClauseCount);
+        }
+    }
+
     @Test(expected = UnsupportedOperationException.class)
     public void equals_ignore_case_and_or() throws Exception {
         testQuery(
@@ -26,6 +26,7 @@ import java.util.function.Function;
 import com.mongodb.*;
 import com.mysema.commons.lang.CloseableIterator;
 import com.querydsl.core.*;
+import com.querydsl.core.support.KeysetUtils;
 import com.querydsl.core.support.QueryMixin;
 import com.querydsl.core.types.*;
 import com.querydsl.core.types.dsl.CollectionPathBase;
@@ -39,7 +40,8 @@ import com.querydsl.core.types.dsl.CollectionPathBase;
  * @param <K> result type
  * @param <Q> concrete subtype
  */
-public abstract class AbstractMongodbQuery<K, Q extends AbstractMongodbQuery<K, Q>> implements SimpleQuery<Q>, Fetchable<K> {
+public abstract class AbstractMongodbQuery<K, Q extends AbstractMongodbQuery<K, Q>> implements SimpleQuery<Q>, Fetchable<K>,
+        KeysetFetchable<K> {
 
     @SuppressWarnings("serial")
     private static class NoResults extends RuntimeException { }
@@ -260,7 +262,16 @@ public abstract class AbstractMongodbQuery<K, Q extends AbstractMongodbQuery<K,
     }
 
     protected DBCursor createCursor() {
-        QueryMetadata metadata = queryMixin.getMetadata();
+        return createCursor(queryMixin.getMetadata());
+    }
+
+    /**
+     * Create a cursor for the given metadata
+     *
+     * @param metadata query metadata
+     * @return cursor
+     */
+    protected DBCursor createCursor(QueryMetadata metadata) {
         Predicate filter = createFilter(metadata);
         return createCursor(collection, filter, metadata.getProjection(), metadata.getModifiers(), metadata.getOrderBy());
     }
@@ -381,6 +392,73 @@ public abstract class AbstractMongodbQuery<K, Q extends AbstractMongodbQuery<K,
         }
     }
 
+    /**
+     * Get the page of results which follows the document of the given continuation token
+     *
+     * <p>The order of this query defines the keys of the pagination, which need to be unique
+     * and non-null for each document. The limit and offset of this query are ignored.</p>
+     *
+     * @param token continuation token of the previous page or null for the first page
+     * @param size page size
+     * @return results and the continuation token of the next page
+     */
+    @Override
+    public KeysetPage<K> fetchPage(@Nullable String token, int size) {
+        if (size < 1) {
+            throw new IllegalArgumentException("Page size must be positive, got " + size);
+        }
+        // the page is fetched via a copy of the metadata, so this query isn't modified
+        QueryMetadata metadata = queryMixin.getMetadata().clone();
+        List<OrderSpecifier<?>> orderBy = metadata.getOrderBy();
+        List<Expression<?>> keys = KeysetUtils.getKeys(orderBy);
+        Expression<?> projection = metadata.getProjection();
+        List<DBObject> dbObjects = new ArrayList<DBObject>();
+        try {
+            if (token != null) {
+                metadata.addWhere(KeysetUtils.after(orderBy, KeysetUtils.decode(orderBy, token)));
+            }
+            // fetch one more document to detect whether a next page exists
+            metadata.setModifiers(new QueryModifiers((long) size + 1, null));
+            if (projection instanceof FactoryExpression) {
+                List<Expression<?>> args = new ArrayList<Expression<?>>(((FactoryExpression<?>) projection).getArgs());
+                args.addAll(keys);
+                metadata.setProjection(Projections.tuple(args));
+            }
+            for (DBObject dbObject : createCursor(metadata)) {
+                dbObjects.add(dbObject);
+            }
+        } catch (NoResults ex) {
+            dbObjects.clear();
+        }
+
+        List<K> results = new ArrayList<K>(Math.min(dbObjects.size(), size));
+        for (int i = 0; i < dbObjects.size() && i < size; i++) {
+            results.add(transformer.apply(dbObjects.get(i)));
+        }
+        String nextToken = null;
+        if (dbObjects.size() > size) {
+            DBObject last = dbObjects.get(size - 1);
+            Object[] values = new Object[keys.size()];
+            for (int i = 0; i < values.length; i++) {
+                values[i] = getValue(last, (String) serializer.handle(keys.get(i)));
+            }
+            nextToken = KeysetUtils.encode(values);
+        }
+        return new KeysetPage<K>(results, nextToken);
+    }
+
+    @Nullable
+    private static Object getValue(DBObject dbObject, String key) {
+        Object value = dbObject;
+        for (String name : key.split("\\.")) {
+            if (!(value instanceof DBObject)) {
+                return null;
+            }
+            value = ((DBObject) value).get(name);
+        }
+        return value;
+    }
+
     @Override
     public long fetchCount() {
         try {
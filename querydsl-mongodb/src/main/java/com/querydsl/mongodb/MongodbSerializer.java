@@ -21,10 +21,13 @@ import com.querydsl.core.types.*;
 import org.bson.BSONObject;
 import org.bson.types.ObjectId;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.Queue;
 import java.util.regex.Pattern;
 
 /**
@@ -106,18 +109,29 @@ public abstract class MongodbSerializer implements Visitor<Object, Void> {
             return asDBObject(asDBKey(expr, 0), "");
 
         } else if (op == Ops.AND) {
-            BSONObject lhs = (BSONObject) handle(expr.getArg(0));
-            BSONObject rhs = (BSONObject) handle(expr.getArg(1));
-            if (lhs.keySet().stream().noneMatch(rhs.keySet()::contains)) {
-                lhs.putAll(rhs);
-                return lhs;
-            } else {
-                BasicDBList list = new BasicDBList();
-                list.add(handle(expr.getArg(0)));
-                list.add(handle(expr.getArg(1)));
-                return asDBObject("$and", list);
+            Queue<BSONObject> pendingDocuments = collectConnectorArgs("$and", expr);
+            List<BSONObject> unmergeableDocuments = new ArrayList<BSONObject>();
+            BasicDBList generatedDocuments = new BasicDBList();
+
+            while (!pendingDocuments.isEmpty()) {
+
+                BSONObject lhs = pendingDocuments.poll();
+
+                for (BSONObject rhs : pendingDocuments) {
+                    if (lhs.keySet().stream().noneMatch(rhs.keySet()::contains)) {
+                        lhs.putAll(rhs);
+                    } else {
+                        unmergeableDocuments.add(rhs);
+                    }
+                }
+
+                generatedDocuments.add(lhs);
+                pendingDocuments = new LinkedList<BSONObject>(unmergeableDocuments);
+                unmergeableDocuments = new ArrayList<BSONObject>();
             }
 
+            return generatedDocuments.size() == 1 ? generatedDocuments.get(0) : asDBObject("$and", generatedDocuments);
+
         } else if (op == Ops.NOT) {
             //Handle the not's child
             Operation<?> subOperation = (Operation<?>) expr.getArg(0);
@@ -132,8 +146,7 @@ public abstract class MongodbSerializer implements Visitor<Object, Void> {
 
         } else if (op == Ops.OR) {
             BasicDBList list = new BasicDBList();
-            list.add(handle(expr.getArg(0)));
-            list.add(handle(expr.getArg(1)));
+            list.addAll(collectConnectorArgs("$or", expr));
             return asDBObject("$or", list);
 
         } else if (op == Ops.NE) {
@@ -363,6 +376,20 @@ public abstract class MongodbSerializer implements Visitor<Object, Void> {
         return metadata.getElement().toString();
     }
 
+    @SuppressWarnings("unchecked")
+    private Queue<BSONObject> collectConnectorArgs(String operator, Operation<?> operation) {
+        Queue<BSONObject> pendingDocuments = new LinkedList<BSONObject>();
+        for (Expression<?> exp : operation.getArgs()) {
+            BSONObject document = (BSONObject) handle(exp);
+            if (document.keySet().size() == 1 && document.containsField(operator)) {
+                pendingDocuments.addAll((Collection<BSONObject>) document.get(operator));
+            } else {
+                pendingDocuments.add(document);
+            }
+        }
+        return pendingDocuments;
+    }
+
     @Override
     public Object visit(SubQueryExpression<?> expr, Void context) {
         throw new UnsupportedOperationException();
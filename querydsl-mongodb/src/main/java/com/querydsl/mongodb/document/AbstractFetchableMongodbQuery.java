@@ -19,16 +19,23 @@ import com.mongodb.ReadPreference;
 import com.mongodb.client.FindIterable;
 import com.mongodb.client.MongoCollection;
 import com.mongodb.client.MongoCursor;
+import com.mongodb.client.MongoIterable;
 import com.mysema.commons.lang.CloseableIterator;
 import com.querydsl.core.*;
+import com.querydsl.core.support.KeysetUtils;
 import com.querydsl.core.types.Expression;
+import com.querydsl.core.types.FactoryExpression;
+import com.querydsl.core.types.Operation;
 import com.querydsl.core.types.OrderSpecifier;
 import com.querydsl.core.types.Path;
 import com.querydsl.core.types.Predicate;
+import com.querydsl.core.types.Projections;
 import org.bson.Document;
 import org.jetbrains.annotations.Nullable;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 import java.util.function.Function;
@@ -41,12 +48,14 @@ import java.util.function.Function;
  * @author Mark Paluch
  */
 public abstract class AbstractFetchableMongodbQuery<K, Q extends AbstractFetchableMongodbQuery<K, Q>>
-        extends AbstractMongodbQuery<Q> implements Fetchable<K> {
+        extends AbstractMongodbQuery<Q> implements Fetchable<K>, KeysetFetchable<K> {
 
     private final Function<Document, K> transformer;
 
     private final MongoCollection<Document> collection;
 
+    private boolean lookupJoins;
+
     /**
      * Create a new MongodbQuery instance
      * @param collection
@@ -70,10 +79,20 @@ public abstract class AbstractFetchableMongodbQuery<K, Q extends AbstractFetchab
         return iterate();
     }
 
+    /**
+     * Iterate with the specific expressions, which can include aggregates of grouped queries
+     *
+     * @param exprs expressions to return
+     * @return iterator
+     */
+    public CloseableIterator<K> iterate(Expression<?>... exprs) {
+        getQueryMixin().setProjection(exprs);
+        return iterate();
+    }
+
     @Override
     public CloseableIterator<K> iterate() {
-        FindIterable<Document> cursor = createCursor();
-        final MongoCursor<Document> iterator = cursor.iterator();
+        final MongoCursor<Document> iterator = createIterable(null).iterator();
 
         return new CloseableIterator<K>() {
             @Override
@@ -109,10 +128,21 @@ public abstract class AbstractFetchableMongodbQuery<K, Q extends AbstractFetchab
         return fetch();
     }
 
+    /**
+     * Fetch with the specific expressions, which can include aggregates of grouped queries
+     *
+     * @param exprs expressions to return
+     * @return results
+     */
+    public List<K> fetch(Expression<?>... exprs) {
+        getQueryMixin().setProjection(exprs);
+        return fetch();
+    }
+
     @Override
     public List<K> fetch() {
         try {
-            FindIterable<Document> cursor = createCursor();
+            MongoIterable<Document> cursor = createIterable(null);
             List<K> results = new ArrayList<K>();
             for (Document document : cursor) {
                 results.add(transformer.apply(document));
@@ -137,8 +167,7 @@ public abstract class AbstractFetchableMongodbQuery<K, Q extends AbstractFetchab
     @Override
     public K fetchFirst() {
         try {
-            FindIterable<Document> c = createCursor().limit(1);
-            MongoCursor<Document> iterator = c.iterator();
+            MongoCursor<Document> iterator = createIterable(1).iterator();
             try {
 
                 if (iterator.hasNext()) {
@@ -173,8 +202,7 @@ public abstract class AbstractFetchableMongodbQuery<K, Q extends AbstractFetchab
                 limit = 2L;
             }
 
-            FindIterable<Document> c = createCursor().limit(limit.intValue());
-            MongoCursor<Document> iterator = c.iterator();
+            MongoCursor<Document> iterator = createIterable(limit.intValue()).iterator();
             try {
 
                 if (iterator.hasNext()) {
@@ -221,18 +249,261 @@ public abstract class AbstractFetchableMongodbQuery<K, Q extends AbstractFetchab
         }
     }
 
+    /**
+     * Get the page of results which follows the document of the given continuation token
+     *
+     * <p>The order of this query defines the keys of the pagination, which need to be unique
+     * and non-null for each document. The limit and offset of this query are ignored.</p>
+     *
+     * @param token continuation token of the previous page or null for the first page
+     * @param size page size
+     * @return results and the continuation token of the next page
+     */
+    @Override
+    public KeysetPage<K> fetchPage(@Nullable String token, int size) {
+        if (size < 1) {
+            throw new IllegalArgumentException("Page size must be positive, got " + size);
+        }
+        // the page is fetched via a copy of the metadata, so this query isn't modified
+        QueryMetadata metadata = getQueryMixin().getMetadata().clone();
+        if (getSerializer().isGrouped(metadata)) {
+            throw new UnsupportedOperationException("Keyset pagination of grouped queries is not supported");
+        }
+        List<OrderSpecifier<?>> orderBy = metadata.getOrderBy();
+        List<Expression<?>> keys = KeysetUtils.getKeys(orderBy);
+        Expression<?> projection = metadata.getProjection();
+        List<Document> documents = new ArrayList<Document>();
+        try {
+            if (token != null) {
+                metadata.addWhere(KeysetUtils.after(orderBy, KeysetUtils.decode(orderBy, token)));
+            }
+            metadata.setModifiers(QueryModifiers.EMPTY);
+            if (projection instanceof FactoryExpression) {
+                List<Expression<?>> args = new ArrayList<Expression<?>>(((FactoryExpression<?>) projection).getArgs());
+                args.addAll(keys);
+                metadata.setProjection(Projections.tuple(args));
+            }
+            // fetch one more document to detect whether a next page exists
+            for (Document document : createIterable(metadata, size + 1)) {
+                documents.add(document);
+            }
+        } catch (NoResults ex) {
+            documents.clear();
+        }
+
+        List<K> results = new ArrayList<K>(Math.min(documents.size(), size));
+        for (int i = 0; i < documents.size() && i < size; i++) {
+            results.add(transformer.apply(documents.get(i)));
+        }
+        String nextToken = null;
+        if (documents.size() > size) {
+            Document last = documents.get(size - 1);
+            Object[] values = new Object[keys.size()];
+            for (int i = 0; i < values.length; i++) {
+                values[i] = getValue(last, (String) getSerializer().handle(keys.get(i)));
+            }
+            nextToken = KeysetUtils.encode(values);
+        }
+        return new KeysetPage<K>(results, nextToken);
+    }
+
+    @Nullable
+    private static Object getValue(Document document, String key) {
+        Object value = document;
+        for (String name : key.split("\\.")) {
+            if (!(value instanceof Document)) {
+                return null;
+            }
+            value = ((Document) value).get(name);
+        }
+        return value;
+    }
+
     @Override
     public long fetchCount() {
         try {
-            Predicate filter = createFilter(getQueryMixin().getMetadata());
+            QueryMetadata metadata = getQueryMixin().getMetadata();
+            boolean grouped = getSerializer().isGrouped(metadata);
+            if (grouped || isLookupJoin(metadata)) {
+                List<Document> pipeline = createFilterPipeline(metadata);
+                if (grouped) {
+                    pipeline.addAll(getSerializer().toGroupStages(metadata));
+                }
+                pipeline.add(new Document("$count", "count"));
+                Document result = getCollectionToUse(collection).aggregate(pipeline).allowDiskUse(grouped).first();
+                return result != null ? ((Number) result.get("count")).longValue() : 0L;
+            }
+            Predicate filter = createFilter(metadata);
             return collection.count(createQuery(filter));
         } catch (NoResults ex) {
             return 0L;
         }
     }
 
+    /**
+     * Set whether joins are evaluated on the server via a {@code $lookup} aggregation pipeline
+     * (defaults to false). The lookup combines {@code localField} and {@code foreignField} with a
+     * pipeline for the join condition, which requires MongoDB 5.0 or later.
+     *
+     * <p>Otherwise, and for joins of joined documents, separate queries for the ids of the join
+     * targets are used instead.</p>
+     *
+     * @param lookupJoins true, to use {@code $lookup}
+     */
+    public void setLookupJoins(boolean lookupJoins) {
+        this.lookupJoins = lookupJoins;
+    }
+
+    private MongoIterable<Document> createIterable(@Nullable Integer limit) {
+        return createIterable(getQueryMixin().getMetadata(), limit);
+    }
+
+    private MongoIterable<Document> createIterable(QueryMetadata metadata, @Nullable Integer limit) {
+        boolean grouped = getSerializer().isGrouped(metadata);
+        if (grouped || isLookupJoin(metadata)) {
+            List<Document> pipeline = createFilterPipeline(metadata);
+            List<OrderSpecifier<?>> orderBy = metadata.getOrderBy();
+            if (grouped) {
+                pipeline.addAll(getSerializer().toGroupStages(metadata));
+            } else if (!orderBy.isEmpty()) {
+                pipeline.add(new Document("$sort", getSerializer().toSort(orderBy)));
+            }
+            Integer offset = metadata.getModifiers().getOffsetAsInteger();
+            if (offset != null) {
+                pipeline.add(new Document("$skip", offset));
+            }
+            if (limit == null) {
+                limit = metadata.getModifiers().getLimitAsInteger();
+            }
+            if (limit != null) {
+                pipeline.add(new Document("$limit", limit));
+            }
+            if (grouped) {
+                pipeline.add(getSerializer().toGroupProjection(metadata));
+                return getCollectionToUse(collection).aggregate(pipeline).allowDiskUse(true);
+            }
+            Document projection = createProjection(metadata.getProjection());
+            if (projection == null) {
+                projection = new Document();
+                for (int i = 0; i < metadata.getJoins().size(); i++) {
+                    projection.append("__ref" + i, 0).append("__join" + i, 0);
+                }
+            }
+            pipeline.add(new Document("$project", projection));
+            return getCollectionToUse(collection).aggregate(pipeline);
+        } else {
+            FindIterable<Document> cursor = createCursor(metadata);
+            return limit != null ? cursor.limit(limit) : cursor;
+        }
+    }
+
+    /**
+     * Create the stages which filter the queried documents by the where clause and the joins
+     */
+    private List<Document> createFilterPipeline(QueryMetadata metadata) {
+        if (isLookupJoin(metadata)) {
+            return createJoinPipeline(metadata);
+        }
+        List<Document> pipeline = new ArrayList<Document>();
+        Predicate filter = createFilter(metadata);
+        if (filter != null) {
+            pipeline.add(new Document("$match", createQuery(filter)));
+        }
+        return pipeline;
+    }
+
+    /**
+     * Check whether the joins of the given metadata can be evaluated via {@code $lookup}, which
+     * is the case when all joins start from the queried documents
+     */
+    private boolean isLookupJoin(QueryMetadata metadata) {
+        List<JoinExpression> joins = metadata.getJoins();
+        if (!lookupJoins || joins.isEmpty()) {
+            return false;
+        }
+        Path<?> root = getJoinSource(joins.get(0)).getRoot();
+        for (JoinExpression join : joins) {
+            if (!getJoinSource(join).getRoot().equals(root)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static Path<?> getJoinSource(JoinExpression join) {
+        return (Path<?>) ((Operation<?>) join.getTarget()).getArg(0);
+    }
+
+    /**
+     * Create the stages which filter the queried documents by the where clause and the joins.
+     * The ids of the referenced documents are extracted from the references into {@code __ref} fields
+     * and the matching join targets are looked up by {@code _id} into {@code __join} fields, projected
+     * to their ids.
+     */
+    private List<Document> createJoinPipeline(QueryMetadata metadata) {
+        List<Document> pipeline = new ArrayList<Document>();
+        if (metadata.getWhere() != null) {
+            pipeline.add(new Document("$match", createQuery(metadata.getWhere())));
+        }
+        List<JoinExpression> joins = metadata.getJoins();
+        Document matchJoins = new Document();
+        for (int i = 0; i < joins.size(); i++) {
+            JoinExpression join = joins.get(i);
+            Path<?> source = getJoinSource(join);
+            Path<?> target = (Path<?>) ((Operation<?>) join.getTarget()).getArg(1);
+            String field = "$" + getSerializer().handle(source);
+            Object refs = Collection.class.isAssignableFrom(source.getType())
+                    ? new Document("$ifNull", Arrays.asList(field, Collections.emptyList()))
+                    : Collections.singletonList(field);
+            pipeline.add(new Document("$addFields", new Document("__ref" + i,
+                    new Document("$map", new Document("input", refs).append("as", "ref")
+                            .append("in", refId("$$ref"))))));
+
+            List<Document> lookup = new ArrayList<Document>();
+            if (join.getCondition() != null) {
+                lookup.add(new Document("$match", createQuery(join.getCondition())));
+            }
+            lookup.add(new Document("$project", new Document("_id", 1)));
+            pipeline.add(new Document("$lookup", new Document("from",
+                    getCollection(target.getType()).getNamespace().getCollectionName())
+                    .append("localField", "__ref" + i)
+                    .append("foreignField", "_id")
+                    .append("pipeline", lookup)
+                    .append("as", "__join" + i)));
+            matchJoins.append("__join" + i, new Document("$ne", Collections.emptyList()));
+        }
+        pipeline.add(new Document("$match", matchJoins));
+        return pipeline;
+    }
+
+    /**
+     * Get the {@code $id} of the given DBRef, which can't be accessed as a field path
+     */
+    private static Document refId(String ref) {
+        Document idField = new Document("$filter", new Document("input", new Document("$objectToArray", ref))
+                .append("as", "field")
+                .append("cond", new Document("$eq", Arrays.asList("$$field.k", new Document("$literal", "$id")))));
+        return new Document("$let", new Document("vars",
+                new Document("id", new Document("$arrayElemAt", Arrays.asList(idField, 0))))
+                .append("in", "$$id.v"));
+    }
+
+    private MongoCollection<Document> getCollectionToUse(MongoCollection<Document> collection) {
+        ReadPreference readPreference = getReadPreference();
+        return readPreference != null ? collection.withReadPreference(readPreference) : collection;
+    }
+
     protected FindIterable<Document> createCursor() {
-        QueryMetadata metadata = getQueryMixin().getMetadata();
+        return createCursor(getQueryMixin().getMetadata());
+    }
+
+    /**
+     * Create a cursor for the given metadata
+     *
+     * @param metadata query metadata
+     * @return cursor
+     */
+    protected FindIterable<Document> createCursor(QueryMetadata metadata) {
         Predicate filter = createFilter(metadata);
         return createCursor(collection, filter, metadata.getProjection(), metadata.getModifiers(), metadata.getOrderBy());
     }
@@ -240,10 +511,7 @@ public abstract class AbstractFetchableMongodbQuery<K, Q extends AbstractFetchab
     protected FindIterable<Document> createCursor(MongoCollection<Document> collection, @Nullable Predicate where,
                                                   Expression<?> projection, QueryModifiers modifiers, List<OrderSpecifier<?>> orderBy) {
 
-        ReadPreference readPreference = getReadPreference();
-        MongoCollection<Document> collectionToUse = readPreference != null ? collection
-                .withReadPreference(readPreference) : collection;
-        FindIterable<Document> cursor = collectionToUse.find(createQuery(where))
+        FindIterable<Document> cursor = getCollectionToUse(collection).find(createQuery(where))
                 .projection(createProjection(projection));
         Integer limit = modifiers.getLimitAsInteger();
         Integer offset = modifiers.getOffsetAsInteger();
@@ -265,24 +533,14 @@ public abstract class AbstractFetchableMongodbQuery<K, Q extends AbstractFetchab
     @Override
     protected List<Object> getIds(Class<?> targetType, Predicate condition) {
         MongoCollection<Document> collection = getCollection(targetType);
-        // TODO : fetch only ids
-        FindIterable<Document> cursor = createCursor(collection, condition, null,
-                QueryModifiers.EMPTY, Collections.<OrderSpecifier<?>>emptyList());
-
-        MongoCursor<Document> iterator = cursor.iterator();
-        try {
-
-            if (iterator.hasNext()) {
-                List<Object> ids = new ArrayList<Object>();
-                for (Document obj : cursor) {
-                    ids.add(obj.get("_id"));
-                }
-                return ids;
-            } else {
-                return Collections.emptyList();
+        FindIterable<Document> cursor = getCollectionToUse(collection).find(createQuery(condition))
+                .projection(new Document("_id", 1));
+        List<Object> ids = new ArrayList<Object>();
+        try (MongoCursor<Document> iterator = cursor.iterator()) {
+            while (iterator.hasNext()) {
+                ids.add(iterator.next().get("_id"));
             }
-        } finally {
-           iterator.close();
         }
+        return ids;
     }
 }
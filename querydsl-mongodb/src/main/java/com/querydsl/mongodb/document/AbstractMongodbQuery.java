@@ -158,6 +158,26 @@ public abstract class AbstractMongodbQuery<Q extends AbstractMongodbQuery<Q>> im
         return queryMixin.where(e);
     }
 
+    /**
+     * Add grouping expressions, which makes the query run as an aggregation pipeline
+     *
+     * @param o group by expressions
+     * @return the current object
+     */
+    public Q groupBy(Expression<?>... o) {
+        return queryMixin.groupBy(o);
+    }
+
+    /**
+     * Add filters for aggregates of grouped queries
+     *
+     * @param e having conditions
+     * @return the current object
+     */
+    public Q having(Predicate... e) {
+        return queryMixin.having(e);
+    }
+
     @Override
     public Q limit(long limit) {
         return queryMixin.limit(limit);
@@ -17,6 +17,9 @@ package com.querydsl.mongodb.document;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.LinkedList;
 import java.util.List;
@@ -26,12 +29,15 @@ import java.util.Set;
 import java.util.regex.Pattern;
 
 import com.mongodb.DBRef;
+import com.querydsl.core.QueryMetadata;
+import com.querydsl.core.support.ReplaceVisitor;
 import com.querydsl.core.types.*;
 import com.querydsl.mongodb.MongodbOps;
 import org.bson.BsonJavaScript;
 import org.bson.BsonRegularExpression;
 import org.bson.Document;
 import org.bson.types.ObjectId;
+import org.jetbrains.annotations.Nullable;
 
 /**
  * Serializes the given Querydsl query to a Document query for MongoDB.
@@ -40,6 +46,16 @@ import org.bson.types.ObjectId;
  */
 public abstract class MongodbDocumentSerializer implements Visitor<Object, Void> {
 
+    private static final Map<Operator, String> ARITHMETIC_OPS = new HashMap<Operator, String>();
+
+    static {
+        ARITHMETIC_OPS.put(Ops.ADD, "$add");
+        ARITHMETIC_OPS.put(Ops.SUB, "$subtract");
+        ARITHMETIC_OPS.put(Ops.MULT, "$multiply");
+        ARITHMETIC_OPS.put(Ops.DIV, "$divide");
+        ARITHMETIC_OPS.put(Ops.MOD, "$mod");
+    }
+
     public Object handle(Expression<?> expression) {
         return expression.accept(this, null);
     }
@@ -53,6 +69,217 @@ public abstract class MongodbDocumentSerializer implements Visitor<Object, Void>
         return sort;
     }
 
+    /**
+     * Check whether the given query is evaluated via {@code $group}, which is the case if it
+     * has group by expressions or aggregates in the projection
+     *
+     * @param metadata query metadata
+     * @return true, if grouped
+     */
+    public boolean isGrouped(QueryMetadata metadata) {
+        return !metadata.getGroupBy().isEmpty() || !new Grouping(metadata).aggregates.isEmpty();
+    }
+
+    /**
+     * Create the {@code $group} stage of the given query, followed by the stages for the
+     * having condition and the order
+     *
+     * @param metadata query metadata
+     * @return stages
+     */
+    public List<Document> toGroupStages(QueryMetadata metadata) {
+        Grouping grouping = new Grouping(metadata);
+        List<Document> stages = new ArrayList<Document>();
+        Document keys = new Document();
+        for (int i = 0; i < grouping.keys.size(); i++) {
+            keys.append("k" + i, toAggregationExpression(grouping.keys.get(i)));
+        }
+        Document group = new Document("_id", keys.isEmpty() ? null : keys);
+        Document sizes = new Document();
+        for (int i = 0; i < grouping.aggregates.size(); i++) {
+            Operation<?> aggregate = grouping.aggregates.get(i);
+            Operator op = aggregate.getOperator();
+            Object arg = op == Ops.AggOps.COUNT_ALL_AGG ? null : toAggregationExpression(aggregate.getArg(0));
+            String field = "a" + i;
+            if (op == Ops.AggOps.SUM_AGG) {
+                group.append(field, new Document("$sum", arg));
+            } else if (op == Ops.AggOps.AVG_AGG) {
+                group.append(field, new Document("$avg", arg));
+            } else if (op == Ops.AggOps.MIN_AGG) {
+                group.append(field, new Document("$min", arg));
+            } else if (op == Ops.AggOps.MAX_AGG) {
+                group.append(field, new Document("$max", arg));
+            } else if (op == Ops.AggOps.COUNT_ALL_AGG) {
+                group.append(field, new Document("$sum", 1));
+            } else if (op == Ops.AggOps.COUNT_AGG) {
+                // null and missing values are not counted
+                group.append(field, new Document("$sum", new Document("$cond", asList(
+                        new Document("$gt", asList(arg, null)), 1, 0))));
+            } else {
+                group.append(field, new Document("$addToSet", arg));
+                // null values are not counted
+                sizes.append(field, new Document("$size", new Document("$setDifference",
+                        asList("$" + field, asList((Object) null)))));
+            }
+        }
+        stages.add(new Document("$group", group));
+        if (!sizes.isEmpty()) {
+            stages.add(new Document("$addFields", sizes));
+        }
+        if (metadata.getHaving() != null) {
+            stages.add(new Document("$match", handle(grouping.replace(metadata.getHaving()))));
+        }
+        if (!metadata.getOrderBy().isEmpty()) {
+            Document sort = new Document();
+            for (OrderSpecifier<?> orderBy : metadata.getOrderBy()) {
+                sort.append(grouping.getField(orderBy.getTarget()), orderBy.getOrder() == Order.ASC ? 1 : -1);
+            }
+            stages.add(new Document("$sort", sort));
+        }
+        return stages;
+    }
+
+    /**
+     * Create the {@code $project} stage of the given grouped query, which maps the group keys
+     * and aggregates of the projection to their paths or aliases
+     *
+     * @param metadata query metadata
+     * @return stage
+     */
+    public Document toGroupProjection(QueryMetadata metadata) {
+        Grouping grouping = new Grouping(metadata);
+        Document projection = new Document("_id", 0);
+        List<Expression<?>> exprs = grouping.projection.isEmpty() ? grouping.keys : grouping.projection;
+        for (int i = 0; i < exprs.size(); i++) {
+            Expression<?> expr = exprs.get(i);
+            String name;
+            if (expr instanceof Operation && ((Operation<?>) expr).getOperator() == Ops.ALIAS) {
+                name = handle(((Operation<?>) expr).getArg(1)).toString();
+                expr = ((Operation<?>) expr).getArg(0);
+            } else if (expr instanceof Path) {
+                name = handle(expr).toString();
+            } else if (expr instanceof Operation && Ops.aggOps.contains(((Operation<?>) expr).getOperator())
+                    && ((Operation<?>) expr).getArg(0) instanceof Path) {
+                name = ((Operation<?>) expr).getOperator().name().replace("_AGG", "").toLowerCase()
+                        + "_" + handle(((Operation<?>) expr).getArg(0)).toString().replace('.', '_');
+            } else if (expr instanceof Operation && ((Operation<?>) expr).getOperator() == Ops.AggOps.COUNT_ALL_AGG) {
+                name = "count";
+            } else {
+                name = "expr" + i;
+            }
+            projection.append(name, "$" + grouping.getField(expr));
+        }
+        return new Document("$project", projection);
+    }
+
+    /**
+     * Get the aggregation expression of the given expression
+     */
+    private Object toAggregationExpression(Expression<?> expr) {
+        if (expr instanceof Path) {
+            return "$" + handle(expr);
+        } else if (expr instanceof Constant) {
+            return new Document("$literal", handle(expr));
+        } else if (expr instanceof Operation) {
+            Operation<?> operation = (Operation<?>) expr;
+            String op = ARITHMETIC_OPS.get(operation.getOperator());
+            if (op != null) {
+                List<Object> args = new ArrayList<Object>(operation.getArgs().size());
+                for (Expression<?> arg : operation.getArgs()) {
+                    args.add(toAggregationExpression(arg));
+                }
+                return new Document(op, args);
+            }
+        }
+        throw new UnsupportedOperationException("Illegal aggregation expression " + expr);
+    }
+
+    private static List<Object> asList(Object... values) {
+        List<Object> list = new ArrayList<Object>(values.length);
+        Collections.addAll(list, values);
+        return list;
+    }
+
+    /**
+     * {@code Grouping} collects the group keys and aggregates of a query and maps them to the
+     * fields of the {@code $group} stage
+     */
+    private static final class Grouping {
+
+        private final List<Expression<?>> keys;
+
+        private final List<Expression<?>> projection = new ArrayList<Expression<?>>();
+
+        private final List<Operation<?>> aggregates = new ArrayList<Operation<?>>();
+
+        private final Map<Expression<?>, String> fields = new LinkedHashMap<Expression<?>, String>();
+
+        Grouping(QueryMetadata metadata) {
+            keys = metadata.getGroupBy();
+            for (int i = 0; i < keys.size(); i++) {
+                fields.put(keys.get(i), "_id.k" + i);
+            }
+            Expression<?> projection = metadata.getProjection();
+            if (projection instanceof FactoryExpression) {
+                this.projection.addAll(((FactoryExpression<?>) projection).getArgs());
+            } else if (projection != null) {
+                this.projection.add(projection);
+            }
+            for (Expression<?> expr : this.projection) {
+                collect(expr);
+            }
+            if (metadata.getHaving() != null) {
+                collect(metadata.getHaving());
+            }
+            for (OrderSpecifier<?> orderBy : metadata.getOrderBy()) {
+                collect(orderBy.getTarget());
+            }
+        }
+
+        private void collect(Expression<?> expr) {
+            if (expr instanceof Operation && !fields.containsKey(expr)) {
+                Operation<?> operation = (Operation<?>) expr;
+                if (Ops.aggOps.contains(operation.getOperator())
+                        || operation.getOperator() == Ops.AggOps.COUNT_ALL_AGG) {
+                    fields.put(operation, "a" + aggregates.size());
+                    aggregates.add(operation);
+                } else {
+                    for (Expression<?> arg : operation.getArgs()) {
+                        collect(arg);
+                    }
+                }
+            }
+        }
+
+        String getField(Expression<?> expr) {
+            if (expr instanceof Operation && ((Operation<?>) expr).getOperator() == Ops.ALIAS) {
+                expr = ((Operation<?>) expr).getArg(0);
+            }
+            String field = fields.get(expr);
+            if (field == null) {
+                throw new UnsupportedOperationException(expr + " is neither grouped nor aggregated");
+            }
+            return field;
+        }
+
+        Predicate replace(Predicate having) {
+            return (Predicate) having.accept(new ReplaceVisitor<Void>() {
+                @Override
+                public Expression<?> visit(Operation<?> expr, @Nullable Void context) {
+                    String field = fields.get(expr);
+                    return field != null ? ExpressionUtils.path(expr.getType(), field) : super.visit(expr, context);
+                }
+
+                @Override
+                public Expression<?> visit(Path<?> expr, @Nullable Void context) {
+                    String field = fields.get(expr);
+                    return field != null ? ExpressionUtils.path(expr.getType(), field) : expr;
+                }
+            }, null);
+        }
+
+    }
+
     @Override
     public Object visit(Constant<?> expr, Void context) {
         if (Enum.class.isAssignableFrom(expr.getType())) {
@@ -16,6 +16,7 @@ package com.querydsl.mongodb.morphia;
 import com.mongodb.DBCollection;
 import com.mongodb.DBCursor;
 import com.mongodb.DBObject;
+import com.querydsl.core.QueryMetadata;
 import com.querydsl.core.types.EntityPath;
 import com.querydsl.mongodb.AbstractMongodbQuery;
 import org.mongodb.morphia.Datastore;
@@ -77,9 +78,9 @@ public class MorphiaQuery<K> extends AbstractMongodbQuery<K, MorphiaQuery<K>> {
 
 
     @Override
-    protected DBCursor createCursor() {
+    protected DBCursor createCursor(QueryMetadata metadata) {
         cache.flush();
-        return super.createCursor();
+        return super.createCursor(metadata);
     }
 
     @Override
@@ -30,6 +30,7 @@ import com.mongodb.BasicDBObject;
 import com.mongodb.MongoClient;
 import com.mongodb.MongoException;
 import com.mongodb.ReadPreference;
+import com.querydsl.core.KeysetPage;
 import com.querydsl.core.NonUniqueResultException;
 import com.querydsl.core.QueryResults;
 import com.querydsl.core.testutil.MongoDB;
@@ -94,6 +95,17 @@ public class MongodbQueryTest {
         assertEquals(4L, query(User.class).fetchCount());
     }
 
+    @Test
+    public void fetchPage() {
+        MorphiaQuery<User> query = query().orderBy(user.lastName.asc(), user.firstName.asc());
+        KeysetPage<User> page = query.fetchPage(null, 3);
+        assertEquals(users.subList(0, 3), page.getResults());
+        assertTrue(page.hasNext());
+        page = query.fetchPage(page.getNextToken(), 3);
+        assertEquals(users.subList(3, 4), page.getResults());
+        assertFalse(page.hasNext());
+    }
+
     @Test
     public void list_keys() {
         User u = where(user.firstName.eq("Jaakko")).fetch(user.firstName, user.mainAddress().street).get(0);
@@ -29,6 +29,7 @@ import com.mongodb.BasicDBList;
 import com.mongodb.BasicDBObject;
 import com.mongodb.DBObject;
 import com.querydsl.core.types.Expression;
+import com.querydsl.core.types.ExpressionUtils;
 import com.querydsl.core.types.OrderSpecifier;
 import com.querydsl.core.types.dsl.*;
 import com.querydsl.mongodb.domain.QAddress;
@@ -146,6 +147,28 @@ public class MongodbSerializerTest {
         );
     }
 
+    @Test
+    public void allOf() {
+        assertQuery(
+            ExpressionUtils.allOf(title.eq("A"), year.eq(1), year.gt(2)),
+            dbo("$and", dblist(
+                dbo("title", "A").append("year", 1),
+                dbo("year", dbo("$gt", 2))))
+        );
+    }
+
+    @Test
+    public void anyOf() {
+        assertQuery(
+            ExpressionUtils.anyOf(title.eq("A"), year.eq(1), gross.eq(1.0D)),
+            dbo("$or", dblist(dbo("title", "A"), dbo("year", 1), dbo("gross", 1.0D)))
+        );
+        assertQuery(
+            title.eq("A").or(year.eq(1)).or(gross.eq(1.0D)),
+            dbo("$or", dblist(dbo("title", "A"), dbo("year", 1), dbo("gross", 1.0D)))
+        );
+    }
+
     @Test
     public void notEq() {
         assertQuery(title.ne("A"), dbo("title", dbo("$ne", "A")));
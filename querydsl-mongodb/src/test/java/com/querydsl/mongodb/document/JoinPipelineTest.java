@@ -0,0 +1,197 @@
+package com.querydsl.mongodb.document;
+
+import static org.junit.Assert.assertEquals;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Function;
+
+import org.bson.Document;
+import org.junit.Test;
+
+import com.mongodb.DBRef;
+import com.mongodb.MongoNamespace;
+import com.mongodb.client.AggregateIterable;
+import com.mongodb.client.FindIterable;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoCursor;
+import com.querydsl.core.types.Path;
+import com.querydsl.core.types.Predicate;
+import com.querydsl.mongodb.domain.QUser;
+
+public class JoinPipelineTest {
+
+    private final QUser user = QUser.user;
+    private final QUser friend = new QUser("friend");
+    private final QUser friend2 = new QUser("friend2");
+
+    private final List<List<Document>> pipelines = new ArrayList<>();
+
+    private final List<Document> projections = new ArrayList<>();
+
+    private final List<Boolean> allowDiskUse = new ArrayList<>();
+
+    private final MongoCollection<Document> users = collection("users");
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, java.lang.reflect.InvocationHandler handler) {
+        return (T) Proxy.newProxyInstance(JoinPipelineTest.class.getClassLoader(), new Class<?>[]{type}, handler);
+    }
+
+    private MongoCollection<Document> collection(String name) {
+        MongoCursor<Document> cursor = proxy(MongoCursor.class, (p, method, args) ->
+                method.getName().equals("hasNext") ? false : null);
+        return proxy(MongoCollection.class, (p, method, args) -> {
+            switch (method.getName()) {
+            case "getNamespace":
+                return new MongoNamespace("testdb", name);
+            case "aggregate":
+                pipelines.add((List<Document>) args[0]);
+                return proxy(AggregateIterable.class, (p2, m2, a2) -> {
+                    if (m2.getName().equals("allowDiskUse")) {
+                        allowDiskUse.add((Boolean) a2[0]);
+                    }
+                    return m2.getName().equals("iterator") ? cursor : m2.getName().equals("first") ? null : p2;
+                });
+            case "find":
+                return proxy(FindIterable.class, (p2, m2, a2) -> {
+                    if (m2.getName().equals("projection")) {
+                        projections.add((Document) a2[0]);
+                    }
+                    return m2.getName().equals("iterator") ? cursor : p2;
+                });
+            default:
+                throw new UnsupportedOperationException(method.getName());
+            }
+        });
+    }
+
+    private UserQuery where(Predicate... e) {
+        UserQuery query = new UserQuery();
+        query.setLookupJoins(true);
+        return query.where(e);
+    }
+
+    private static Document refIds(Object input) {
+        Document id = new Document("$filter", new Document("input", new Document("$objectToArray", "$$ref"))
+                .append("as", "field")
+                .append("cond", new Document("$eq", Arrays.asList("$$field.k", new Document("$literal", "$id")))));
+        return new Document("$map", new Document("input", input).append("as", "ref")
+                .append("in", new Document("$let", new Document("vars",
+                        new Document("id", new Document("$arrayElemAt", Arrays.asList(id, 0))))
+                        .append("in", "$$id.v"))));
+    }
+
+    private static Document lookup(int i, Document condition) {
+        return new Document("$lookup", new Document("from", "users")
+                .append("localField", "__ref" + i)
+                .append("foreignField", "_id")
+                .append("pipeline", Arrays.asList(
+                        new Document("$match", condition),
+                        new Document("$project", new Document("_id", 1))))
+                .append("as", "__join" + i));
+    }
+
+    @Test
+    public void fetch() {
+        where(user.firstName.eq("Jane")).join(user.friend(), friend).on(friend.firstName.eq("Max"))
+                .orderBy(user.lastName.asc()).offset(1).limit(2).fetch();
+        assertEquals(Arrays.asList(
+                new Document("$match", new Document("firstName", "Jane")),
+                new Document("$addFields", new Document("__ref0", refIds(Collections.singletonList("$friend")))),
+                lookup(0, new Document("firstName", "Max")),
+                new Document("$match", new Document("__join0", new Document("$ne", Collections.emptyList()))),
+                new Document("$sort", new Document("lastName", 1)),
+                new Document("$skip", 1),
+                new Document("$limit", 2),
+                new Document("$project", new Document("__ref0", 0).append("__join0", 0))),
+                pipelines.get(0));
+    }
+
+    @Test
+    public void fetchCount_collection() {
+        where().join(user.friends, friend).on(friend.firstName.eq("Mary")).fetchCount();
+        assertEquals(Arrays.asList(
+                new Document("$addFields", new Document("__ref0",
+                        refIds(new Document("$ifNull", Arrays.asList("$friends", Collections.emptyList()))))),
+                lookup(0, new Document("firstName", "Mary")),
+                new Document("$match", new Document("__join0", new Document("$ne", Collections.emptyList()))),
+                new Document("$count", "count")),
+                pipelines.get(0));
+    }
+
+    @Test
+    public void fetchFirst_projection() {
+        where().join(user.friend(), friend).on(friend.firstName.eq("Max")).fetchFirst(user.firstName);
+        List<Document> pipeline = pipelines.get(0);
+        assertEquals(new Document("$limit", 1), pipeline.get(pipeline.size() - 2));
+        assertEquals(new Document("$project", new Document("firstName", 1)), pipeline.get(pipeline.size() - 1));
+    }
+
+    @Test
+    public void grouped_join() {
+        where().join(user.friend(), friend).on(friend.firstName.eq("Max"))
+                .groupBy(user.lastName).limit(5).fetch(user.lastName, user.age.max());
+        List<Document> pipeline = pipelines.get(0);
+        assertEquals(new Document("$match", new Document("__join0", new Document("$ne", Collections.emptyList()))),
+                pipeline.get(2));
+        assertEquals(Arrays.asList(
+                new Document("$group", new Document("_id", new Document("k0", "$lastName"))
+                        .append("a0", new Document("$max", "$age"))),
+                new Document("$limit", 5),
+                new Document("$project", new Document("_id", 0).append("lastName", "$_id.k0")
+                        .append("max_age", "$a0"))),
+                pipeline.subList(3, pipeline.size()));
+        assertEquals(Collections.singletonList(true), allowDiskUse);
+    }
+
+    @Test
+    public void deep_join_fetches_ids() {
+        where().join(user.friend(), friend).on(friend.firstName.isNotNull())
+                .join(friend.friend(), friend2).on(friend2.firstName.eq("Jane"))
+                .fetch();
+        assertEquals(0, pipelines.size());
+        assertEquals(Collections.singletonList(new Document("_id", 1)), projections);
+    }
+
+    @Test
+    public void ids_by_default() {
+        new UserQuery().join(user.friend(), friend).on(friend.firstName.eq("Max")).fetch();
+        assertEquals(0, pipelines.size());
+        assertEquals(Collections.singletonList(new Document("_id", 1)), projections);
+    }
+
+    @Test
+    public void ids_without_lookup() {
+        UserQuery query = where();
+        query.setLookupJoins(false);
+        query.join(user.friend(), friend).on(friend.firstName.eq("Max")).fetch();
+        assertEquals(0, pipelines.size());
+        assertEquals(Collections.singletonList(new Document("_id", 1)), projections);
+    }
+
+    private class UserQuery extends AbstractFetchableMongodbQuery<Document, UserQuery> {
+
+        UserQuery() {
+            super(users, Function.identity(), new MongodbDocumentSerializer() {
+                @Override
+                protected DBRef asReference(Object constant) {
+                    return null;
+                }
+
+                @Override
+                protected boolean isReference(Path<?> arg) {
+                    return false;
+                }
+            });
+        }
+
+        @Override
+        protected MongoCollection<Document> getCollection(Class<?> type) {
+            return users;
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package com.querydsl.mongodb.document;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.util.function.Function;
+
+import org.bson.Document;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.mongodb.morphia.Datastore;
+import org.mongodb.morphia.Morphia;
+
+import com.mongodb.MongoClient;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoDatabase;
+import com.querydsl.core.testutil.MongoDB;
+import com.querydsl.core.types.Predicate;
+import com.querydsl.mongodb.domain.Item;
+import com.querydsl.mongodb.domain.QUser;
+import com.querydsl.mongodb.domain.User;
+
+@Category(MongoDB.class)
+public class JoinTest {
+
+    private final MongoClient mongo;
+    private final Morphia morphia;
+    private final Datastore ds;
+    private final MongoDatabase database;
+
+    private final String dbname = "testdb";
+    private final QUser user = QUser.user;
+    private final QUser friend = new QUser("friend");
+    private final QUser friend2 = new QUser("friend2");
+    private final QUser enemy = new QUser("enemy");
+
+    private boolean lookupJoins;
+
+    public JoinTest() {
+        mongo = new MongoClient();
+        morphia = new Morphia().map(User.class).map(Item.class);
+        ds = morphia.createDatastore(mongo, dbname);
+        database = mongo.getDatabase(dbname);
+    }
+
+    @Before
+    public void before() {
+        ds.delete(ds.createQuery(User.class));
+
+        User friend1 = new User("Max", null);
+        User friend2 = new User("Jack", null);
+        User friend3 = new User("Bob", null);
+        ds.save(friend1, friend2, friend3);
+
+        User user1 = new User("Jane", null, friend1);
+        User user2 = new User("Mary", null, user1);
+        User user3 = new User("Ann", null, friend3);
+        ds.save(user1, user2, user3);
+
+        User user4 = new User("Mike", null);
+        user4.setFriend(user2);
+        user4.setEnemy(user3);
+        ds.save(user4);
+
+        User user5 = new User("Bart", null);
+        user5.addFriend(user2);
+        user5.addFriend(user3);
+        ds.save(user5);
+    }
+
+    @Test
+    public void lookup() {
+        lookupJoins = true;
+        joins();
+    }
+
+    @Test
+    public void ids() {
+        lookupJoins = false;
+        joins();
+    }
+
+    private void joins() {
+        assertEquals(1, where().join(user.friend(), friend).on(friend.firstName.eq("Max")).fetchCount());
+        assertEquals(0, where(user.firstName.eq("Mary")).join(user.friend(), friend).on(friend.firstName.eq("Max")).fetchCount());
+        assertEquals(1, where().join(user.friends, friend).on(friend.firstName.eq("Ann").or(friend.firstName.eq("Mary"))).fetchCount());
+        assertEquals(0, where().join(user.friends, friend).on(friend.firstName.eq("Max")).fetchCount());
+
+        assertEquals("Jane", firstName(where().join(user.friend(), friend).on(friend.firstName.eq("Max")).fetchFirst()));
+        assertNull(where(user.firstName.eq("Jane")).join(user.friend(), friend).on(friend.firstName.eq("Jack")).fetchFirst());
+        assertEquals("Bart", firstName(where().join(user.friends, friend).on(friend.firstName.eq("Mary")).fetchOne()));
+        assertEquals("Mike", firstName(where()
+                .join(user.friend(), friend).on(friend.firstName.eq("Mary"))
+                .join(user.enemy(), enemy).on(enemy.firstName.eq("Ann"))
+                .fetchFirst()));
+        // Mike -> Mary -> Jane
+        assertEquals("Mike", firstName(where()
+                .join(user.friend(), friend).on(friend.firstName.isNotNull())
+                .join(friend.friend(), friend2).on(friend2.firstName.eq("Jane"))
+                .fetchFirst()));
+    }
+
+    private static String firstName(Document document) {
+        return document.getString("firstName");
+    }
+
+    private UserQuery where(Predicate... e) {
+        UserQuery query = new UserQuery();
+        query.setLookupJoins(lookupJoins);
+        return query.where(e);
+    }
+
+    private class UserQuery extends AbstractFetchableMongodbQuery<Document, UserQuery> {
+
+        UserQuery() {
+            super(database.getCollection(ds.getCollection(User.class).getName()), Function.identity(),
+                    new MongodbQueryTest.SampleSerializer(morphia));
+        }
+
+        @Override
+        protected MongoCollection<Document> getCollection(Class<?> type) {
+            return database.getCollection(ds.getCollection(type).getName());
+        }
+    }
+}
@@ -31,13 +31,17 @@ import org.bson.types.ObjectId;
 import org.junit.Before;
 import org.junit.Test;
 
+import com.querydsl.core.DefaultQueryMetadata;
+import com.querydsl.core.QueryMetadata;
 import com.querydsl.core.types.Expression;
 import com.querydsl.core.types.OrderSpecifier;
+import com.querydsl.core.types.Projections;
 import com.querydsl.core.types.dsl.DatePath;
 import com.querydsl.core.types.dsl.DateTimePath;
 import com.querydsl.core.types.dsl.NumberPath;
 import com.querydsl.core.types.dsl.PathBuilder;
 import com.querydsl.core.types.dsl.StringPath;
+import com.querydsl.core.types.dsl.Wildcard;
 import com.querydsl.mongodb.Point;
 import com.querydsl.mongodb.domain.QAddress;
 import com.querydsl.mongodb.domain.QPerson;
@@ -283,6 +287,56 @@ public class MongodbDocumentSerializerTest {
         assertEquals("mainAddress.street", serializer.visit(user.mainAddress().as(QAddress.class).street, null));
     }
 
+    @Test
+    public void group() {
+        QueryMetadata metadata = new DefaultQueryMetadata();
+        metadata.addGroupBy(title);
+        metadata.addHaving(gross.sum().gt(10.0).or(title.eq("A")));
+        metadata.addOrderBy(year.avg().desc());
+        metadata.setProjection(Projections.tuple(title, gross.multiply(2.0).sum().as("total"),
+                year.countDistinct(), year.count(), Wildcard.count));
+
+        assertTrue(serializer.isGrouped(metadata));
+        assertEquals(Arrays.asList(
+                document("$group", document("_id", document("k0", "$title"))
+                        .append("a0", document("$sum", document("$multiply",
+                                Arrays.asList("$gross", document("$literal", 2.0)))))
+                        .append("a1", document("$addToSet", "$year"))
+                        .append("a2", document("$sum", document("$cond", Arrays.asList(
+                                document("$gt", Arrays.asList("$year", null)), 1, 0))))
+                        .append("a3", document("$sum", 1))
+                        .append("a4", document("$sum", "$gross"))
+                        .append("a5", document("$avg", "$year"))),
+                document("$addFields", document("a1", document("$size", document("$setDifference",
+                        Arrays.asList("$a1", Collections.singletonList(null)))))),
+                document("$match", document("$or", Arrays.asList(
+                        document("a4", document("$gt", 10.0)), document("_id.k0", "A")))),
+                document("$sort", document("a5", -1))),
+                serializer.toGroupStages(metadata));
+        assertEquals(document("$project", document("_id", 0).append("title", "$_id.k0").append("total", "$a0")
+                        .append("count_distinct_year", "$a1").append("count_year", "$a2").append("count", "$a3")),
+                serializer.toGroupProjection(metadata));
+    }
+
+    @Test
+    public void group_without_keys() {
+        QueryMetadata metadata = new DefaultQueryMetadata();
+        metadata.setProjection(year.max());
+        assertTrue(serializer.isGrouped(metadata));
+        assertEquals(Collections.singletonList(document("$group", new Document("_id", null)
+                        .append("a0", document("$max", "$year")))),
+                serializer.toGroupStages(metadata));
+        assertEquals(document("$project", document("_id", 0).append("max_year", "$a0")),
+                serializer.toGroupProjection(metadata));
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void group_ungrouped_projection() {
+        QueryMetadata metadata = new DefaultQueryMetadata();
+        metadata.addGroupBy(title);
+        metadata.setProjection(Projections.tuple(title, year));
+        serializer.toGroupProjection(metadata);
+    }
 
     private List<OrderSpecifier<?>> sortList(OrderSpecifier<?>... order) {
         return Arrays.asList(order);
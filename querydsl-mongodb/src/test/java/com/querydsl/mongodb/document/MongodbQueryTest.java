@@ -21,12 +21,14 @@ import com.mongodb.MongoException;
 import com.mongodb.ReadPreference;
 import com.mongodb.client.MongoCollection;
 import com.mongodb.client.MongoDatabase;
+import com.querydsl.core.KeysetPage;
 import com.querydsl.core.NonUniqueResultException;
 import com.querydsl.core.QueryResults;
 import com.querydsl.core.testutil.MongoDB;
 import com.querydsl.core.types.*;
 import com.querydsl.core.types.dsl.ListPath;
 import com.querydsl.core.types.dsl.StringPath;
+import com.querydsl.core.types.dsl.Wildcard;
 import com.querydsl.mongodb.domain.*;
 import com.querydsl.mongodb.domain.User.Gender;
 import org.bson.Document;
@@ -105,12 +107,47 @@ public class MongodbQueryTest {
         userDocuments = Arrays.asList(u3, u4, u2, u1);
     }
 
+    @Test
+    public void groupBy() {
+        List<Document> results = query(user).where(user.age.gt(20))
+                .groupBy(user.lastName).having(user.age.sum().gt(30))
+                .orderBy(user.lastName.asc())
+                .fetch(user.lastName, user.age.sum().as("total"), Wildcard.count);
+        assertEquals(Arrays.asList(
+                new Document("lastName", "Aakkonen").append("total", 40).append("count", 1),
+                new Document("lastName", "BeekkoNen").append("total", 50).append("count", 1)), results);
+        assertEquals(2L, query(user).where(user.age.gt(20)).groupBy(user.lastName)
+                .having(user.age.sum().gt(30)).fetchCount());
+    }
+
+    @Test
+    public void groupBy_countDistinct() {
+        addUser(null, "Jantunen");
+        database.getCollection(ds.getCollection(User.class).getName())
+                .insertOne(new Document("firstName", null).append("lastName", "Jantunen"));
+        List<Document> results = query(user).where(user.lastName.eq("Jantunen"))
+                .groupBy(user.lastName).fetch(user.lastName, user.firstName.countDistinct());
+        assertEquals(Collections.singletonList(new Document("lastName", "Jantunen")
+                .append("count_distinct_firstName", 2)), results);
+    }
+
     @Test
     public void query1() {
         assertEquals(4L, query(user).fetchCount());
         assertEquals(4L, query(User.class).fetchCount());
     }
 
+    @Test
+    public void fetchPage() {
+        SimpleMongodbQuery query = query().orderBy(user.lastName.asc(), user.firstName.asc());
+        KeysetPage<Document> page = query.fetchPage(null, 3);
+        assertEquals(userDocuments.subList(0, 3), page.getResults());
+        assertTrue(page.hasNext());
+        page = query.fetchPage(page.getNextToken(), 3);
+        assertEquals(userDocuments.subList(3, 4), page.getResults());
+        assertFalse(page.hasNext());
+    }
+
     @Test
     public void list_keys() {
         Document u = where(user.firstName.eq("Jaakko")).fetch(user.firstName, user.mainAddress().street).get(0);
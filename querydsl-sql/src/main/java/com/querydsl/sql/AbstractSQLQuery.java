@@ -13,7 +13,6 @@
  */
 package com.querydsl.sql;
 
-import java.lang.reflect.InvocationTargetException;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
@@ -199,9 +198,20 @@ public abstract class AbstractSQLQuery<T, Q extends AbstractSQLQuery<T, Q>> exte
         return serializer;
     }
 
-    @Nullable
-    private <U> U get(ResultSet rs, Expression<?> expr, int i, Class<U> type) throws SQLException {
-        return configuration.get(rs, expr instanceof Path ? (Path<?>) expr : null, i, type);
+    @Override
+    protected SQLSerializer serialize(boolean forCountRow) {
+        SQLShapeCache shapeCache = configuration.getShapeCache();
+        if (shapeCache == null || useLiterals) {
+            return super.serialize(forCountRow);
+        }
+        SQLShape shape = SQLShape.of(getClass(), queryMixin.getMetadata(), union, unionAll, forCountRow);
+        SQLSerializer serializer = createSerializer();
+        if (!shapeCache.replay(shape, serializer)) {
+            serializer.trackConstantOrigins();
+            serialize(serializer, forCountRow);
+            shapeCache.put(shape, serializer);
+        }
+        return serializer;
     }
 
     private void set(PreparedStatement stmt, Path<?> path, int i, Object value) throws SQLException {
@@ -220,6 +230,9 @@ public abstract class AbstractSQLQuery<T, Q extends AbstractSQLQuery<T, Q>> exte
         if (parentContext != null) {
             context.setData(PARENT_CONTEXT, parentContext);
         }
+        if (configuration.getStatementCache() != null) {
+            context.setData(SQLStatementCache.CONTEXT_KEY, configuration.getStatementCache());
+        }
         listeners.start(context);
         return context;
     }
@@ -284,13 +297,19 @@ public abstract class AbstractSQLQuery<T, Q extends AbstractSQLQuery<T, Q>> exte
 
             listeners.prePrepare(context);
             final PreparedStatement stmt = getPreparedStatement(queryString);
-            setParameters(stmt, constants, serializer.getConstantPaths(), getMetadata().getParams());
-            context.addPreparedStatement(stmt);
-            listeners.prepared(context);
+            final ResultSet rs;
+            try {
+                setParameters(stmt, constants, serializer.getConstantPaths(), getMetadata().getParams());
+                context.addPreparedStatement(stmt);
+                listeners.prepared(context);
 
-            listeners.preExecute(context);
-            final ResultSet rs = stmt.executeQuery();
-            listeners.executed(context);
+                listeners.preExecute(context);
+                rs = stmt.executeQuery();
+                listeners.executed(context);
+            } catch (SQLException | RuntimeException e) {
+                configuration.releaseStatement(stmt);
+                throw e;
+            }
 
             return new ResultSetAdapter(rs) {
                 @Override
@@ -298,7 +317,7 @@ public abstract class AbstractSQLQuery<T, Q extends AbstractSQLQuery<T, Q>> exte
                     try {
                         super.close();
                     } finally {
-                        stmt.close();
+                        configuration.releaseStatement(stmt);
                         reset();
                         endContext(context);
                     }
@@ -313,19 +332,12 @@ public abstract class AbstractSQLQuery<T, Q extends AbstractSQLQuery<T, Q>> exte
     }
 
     private PreparedStatement getPreparedStatement(String queryString) throws SQLException {
-        PreparedStatement statement = connection().prepareStatement(queryString);
-        if (statementOptions.getFetchSize() != null) {
-            statement.setFetchSize(statementOptions.getFetchSize());
-        }
-        if (statementOptions.getMaxFieldSize() != null) {
-            statement.setMaxFieldSize(statementOptions.getMaxFieldSize());
-        }
-        if (statementOptions.getQueryTimeout() != null) {
-            statement.setQueryTimeout(statementOptions.getQueryTimeout());
-        }
-        if (statementOptions.getMaxRows() != null) {
-            statement.setMaxRows(statementOptions.getMaxRows());
+        if (StatementOptions.DEFAULT.equals(statementOptions)) {
+            return configuration.prepareStatement(connection(), queryString);
         }
+        // statements with custom options are not shared via the statement cache
+        PreparedStatement statement = connection().prepareStatement(queryString);
+        statementOptions.apply(statement);
         return statement;
     }
 
@@ -360,47 +372,28 @@ public abstract class AbstractSQLQuery<T, Q extends AbstractSQLQuery<T, Q>> exte
 
             listeners.prePrepare(context);
             final PreparedStatement stmt = getPreparedStatement(queryString);
-            setParameters(stmt, constants, serializer.getConstantPaths(), metadata.getParams());
-            context.addPreparedStatement(stmt);
-            listeners.prepared(context);
+            final ResultSet rs;
+            final SQLRowMapper<T> mapper;
+            try {
+                setParameters(stmt, constants, serializer.getConstantPaths(), metadata.getParams());
+                context.addPreparedStatement(stmt);
+                listeners.prepared(context);
 
-            listeners.preExecute(context);
-            final ResultSet rs = stmt.executeQuery();
-            listeners.executed(context);
+                listeners.preExecute(context);
+                rs = stmt.executeQuery();
+                listeners.executed(context);
 
-            if (expr == null) {
-                return new SQLResultIterator<T>(configuration, stmt, rs, listeners, context) {
-                    @Override
-                    public T produceNext(ResultSet rs) throws Exception {
-                        return (T) rs.getObject(1);
-                    }
-                };
-            } else if (expr instanceof FactoryExpression) {
-                return new SQLResultIterator<T>(configuration, stmt, rs, listeners, context) {
-                    @Override
-                    public T produceNext(ResultSet rs) throws Exception {
-                        return newInstance((FactoryExpression<T>) expr, rs, 0);
-                    }
-                };
-            } else if (expr.equals(Wildcard.all)) {
-                return new SQLResultIterator<T>(configuration, stmt, rs, listeners, context) {
-                    @Override
-                    public T produceNext(ResultSet rs) throws Exception {
-                        Object[] rv = new Object[rs.getMetaData().getColumnCount()];
-                        for (int i = 0; i < rv.length; i++) {
-                            rv[i] = rs.getObject(i + 1);
-                        }
-                        return (T) rv;
-                    }
-                };
-            } else {
-                return new SQLResultIterator<T>(configuration, stmt, rs, listeners, context) {
-                    @Override
-                    public T produceNext(ResultSet rs) throws Exception {
-                        return get(rs, expr, 1, expr.getType());
-                    }
-                };
+                mapper = SQLRowMapper.of(configuration, expr);
+            } catch (SQLException | RuntimeException e) {
+                configuration.releaseStatement(stmt);
+                throw e;
             }
+            return new SQLResultIterator<T>(configuration, stmt, rs, listeners, context) {
+                @Override
+                public T produceNext(ResultSet rs) throws Exception {
+                    return mapper.map(rs);
+                }
+            };
 
         } catch (SQLException e) {
             onException(context, e);
@@ -416,6 +409,27 @@ public abstract class AbstractSQLQuery<T, Q extends AbstractSQLQuery<T, Q>> exte
         }
     }
 
+    /**
+     * Compile the query into an immutable form, which can be executed multiple times without
+     * serializing the query again
+     *
+     * <p>{@link ParamExpression} values are bound on execution via
+     * {@link CompiledSQLQuery#set(ParamExpression, Object)}.</p>
+     *
+     * @return compiled query
+     */
+    @SuppressWarnings("unchecked")
+    public CompiledSQLQuery<T> compile() {
+        SQLSerializer serializer = serialize(false);
+        QueryMetadata metadata = queryMixin.getMetadata().clone();
+        // listeners added to this query later on don't apply to the compiled query
+        SQLListeners compiledListeners = new SQLListeners(configuration.getListeners());
+        compiledListeners.add(listeners);
+        return new CompiledSQLQuery<T>(configuration, metadata, (Expression<T>) metadata.getProjection(),
+                serializer.toString(), serializer.getConstants(), serializer.getConstantPaths(),
+                compiledListeners, statementOptions);
+    }
+
     @SuppressWarnings("unchecked")
     @Override
     public List<T> fetch() {
@@ -436,7 +450,8 @@ public abstract class AbstractSQLQuery<T, Q extends AbstractSQLQuery<T, Q>> exte
             constants = serializer.getConstants();
 
             listeners.prePrepare(context);
-            try (PreparedStatement stmt = getPreparedStatement(queryString)) {
+            PreparedStatement stmt = getPreparedStatement(queryString);
+            try {
                 setParameters(stmt, constants, serializer.getConstantPaths(), queryMixin.getMetadata().getParams());
                 context.addPreparedStatement(stmt);
                 listeners.prepared(context);
@@ -446,44 +461,21 @@ public abstract class AbstractSQLQuery<T, Q extends AbstractSQLQuery<T, Q>> exte
                     listeners.executed(context);
                     lastCell = null;
                     final List<T> rv = new ArrayList<T>();
-                    if (expr instanceof FactoryExpression) {
-                        FactoryExpression<T> fe = (FactoryExpression<T>) expr;
-                        while (rs.next()) {
-                            if (getLastCell) {
-                                lastCell = rs.getObject(fe.getArgs().size() + 1);
-                                getLastCell = false;
-                            }
-                            rv.add(newInstance(fe, rs, 0));
-                        }
-                    } else if (expr.equals(Wildcard.all)) {
-                        while (rs.next()) {
-                            Object[] row = new Object[rs.getMetaData().getColumnCount()];
-                            if (getLastCell) {
-                                lastCell = rs.getObject(row.length);
-                                getLastCell = false;
-                            }
-                            for (int i = 0; i < row.length; i++) {
-                                row[i] = rs.getObject(i + 1);
-                            }
-                            rv.add((T) row);
-                        }
-                    } else {
-                        while (rs.next()) {
-                            if (getLastCell) {
-                                lastCell = rs.getObject(2);
-                                getLastCell = false;
-                            }
-                            rv.add(get(rs, expr, 1, expr.getType()));
+                    SQLRowMapper<T> mapper = SQLRowMapper.of(configuration, expr);
+                    while (rs.next()) {
+                        if (getLastCell) {
+                            lastCell = rs.getObject(getLastCellIndex(expr, rs));
+                            getLastCell = false;
                         }
+                        rv.add(mapper.map(rs));
                     }
                     return rv;
-                } catch (IllegalAccessException | InstantiationException | InvocationTargetException e) {
-                    onException(context, e);
-                    throw new QueryException(e);
                 } catch (SQLException e) {
                     onException(context, e);
                     throw configuration.translate(queryString, constants, e);
                 }
+            } finally {
+                configuration.releaseStatement(stmt);
             }
         } catch (SQLException e) {
             onException(context, e);
@@ -541,13 +533,14 @@ public abstract class AbstractSQLQuery<T, Q extends AbstractSQLQuery<T, Q>> exte
         }
     }
 
-    private <RT> RT newInstance(FactoryExpression<RT> c, ResultSet rs, int offset)
-        throws InstantiationException, IllegalAccessException, InvocationTargetException, SQLException {
-        Object[] args = new Object[c.getArgs().size()];
-        for (int i = 0; i < args.length; i++) {
-            args[i] = get(rs, c.getArgs().get(i), offset + i + 1, c.getArgs().get(i).getType());
+    private int getLastCellIndex(Expression<?> expr, ResultSet rs) throws SQLException {
+        if (expr instanceof FactoryExpression) {
+            return ((FactoryExpression<?>) expr).getArgs().size() + 1;
+        } else if (expr.equals(Wildcard.all)) {
+            return rs.getMetaData().getColumnCount();
+        } else {
+            return 2;
         }
-        return c.newInstance(args);
     }
 
     private void reset() {
@@ -619,7 +612,7 @@ public abstract class AbstractSQLQuery<T, Q extends AbstractSQLQuery<T, Q>> exte
                 }
             } finally {
                 if (stmt != null) {
-                    stmt.close();
+                    configuration.releaseStatement(stmt);
                 }
             }
             endContext(context);
@@ -668,6 +661,13 @@ public abstract class AbstractSQLQuery<T, Q extends AbstractSQLQuery<T, Q>> exte
         return this.clone(this.conn);
     }
 
+    @Override
+    protected Q createPageQuery() {
+        Q query = clone(connection());
+        query.setStatementOptions(statementOptions);
+        return query;
+    }
+
     public abstract Q clone(Connection connection);
 
     /**
@@ -14,12 +14,15 @@
 package com.querydsl.sql;
 
 import java.sql.Connection;
+import java.util.concurrent.Executor;
+import java.util.function.IntFunction;
 import java.util.function.Supplier;
 
 import com.querydsl.core.Tuple;
 import com.querydsl.core.types.Expression;
 import com.querydsl.core.types.Path;
 import com.querydsl.core.types.SubQueryExpression;
+import com.querydsl.sql.dml.SQLBulkInsert;
 import com.querydsl.sql.dml.SQLDeleteClause;
 import com.querydsl.sql.dml.SQLInsertClause;
 import com.querydsl.sql.dml.SQLMergeClause;
@@ -72,6 +75,29 @@ public abstract class AbstractSQLQueryFactory<Q extends SQLCommonQuery<?>> imple
         return new SQLInsertClause(connection, configuration, path);
     }
 
+    /**
+     * Create a new bulk insert for the given table, which inserts rows in chunks via the
+     * insert clauses of this factory
+     *
+     * @param path table
+     * @return bulk insert
+     */
+    public final SQLBulkInsert bulkInsert(RelationalPath<?> path) {
+        return new SQLBulkInsert(path, () -> insert(path));
+    }
+
+    /**
+     * Create a new union, which executes its branches concurrently and merges the results
+     *
+     * @param <T> result type
+     * @param executor executor for the branch queries
+     * @param connections connection for the branch with the given index
+     * @return parallel union
+     */
+    public final <T> ParallelUnion<T> parallelUnion(Executor executor, IntFunction<Connection> connections) {
+        return new ParallelUnion<T>(configuration, executor, connections);
+    }
+
     @Override
     public final SQLMergeClause merge(RelationalPath<?> path) {
         return new SQLMergeClause(connection, configuration, path);
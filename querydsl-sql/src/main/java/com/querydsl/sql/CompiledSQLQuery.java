@@ -0,0 +1,245 @@
+/*
+ * Copyright 2015, The Querydsl Team (http://www.querydsl.com/team)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.querydsl.sql;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.jetbrains.annotations.Nullable;
+
+import com.mysema.commons.lang.CloseableIterator;
+import com.querydsl.core.NonUniqueResultException;
+import com.querydsl.core.QueryMetadata;
+import com.querydsl.core.annotations.Immutable;
+import com.querydsl.core.types.*;
+
+/**
+ * {@code CompiledSQLQuery} is an immutable, thread-safe form of a SQL query, which has been
+ * serialized once and can be executed multiple times against different connections.
+ *
+ * <p>The values of {@link ParamExpression} instances are bound on execution. Values set on the
+ * original query are used as defaults.</p>
+ *
+ * <pre>
+ * Param&lt;String&gt; name = new Param&lt;String&gt;(String.class, "name");
+ * CompiledSQLQuery&lt;Long&gt; query = queryFactory.select(survey.id).from(survey)
+ *     .where(survey.name.eq(name)).compile();
+ * List&lt;Long&gt; ids = query.set(name, "Bob").fetch(connection);
+ * </pre>
+ *
+ * @param <T> result type
+ */
+@Immutable
+public final class CompiledSQLQuery<T> {
+
+    private final Configuration configuration;
+
+    private final QueryMetadata metadata;
+
+    @Nullable
+    private final Expression<T> projection;
+
+    private final String sql;
+
+    private final List<Object> constants;
+
+    private final List<Path<?>> constantPaths;
+
+    private final Map<ParamExpression<?>, Object> params;
+
+    private final SQLListeners listeners;
+
+    private final StatementOptions statementOptions;
+
+    private final SQLRowMapper<T> mapper;
+
+    CompiledSQLQuery(Configuration configuration, QueryMetadata metadata, @Nullable Expression<T> projection,
+                     String sql, List<Object> constants, List<Path<?>> constantPaths,
+                     SQLListeners listeners, StatementOptions statementOptions) {
+        this(configuration, metadata, projection, sql,
+                Collections.unmodifiableList(new ArrayList<>(constants)),
+                Collections.unmodifiableList(new ArrayList<>(constantPaths)),
+                Collections.unmodifiableMap(new HashMap<>(metadata.getParams())),
+                listeners, statementOptions, SQLRowMapper.of(configuration, projection));
+    }
+
+    private CompiledSQLQuery(Configuration configuration, QueryMetadata metadata, @Nullable Expression<T> projection,
+                             String sql, List<Object> constants, List<Path<?>> constantPaths,
+                             Map<ParamExpression<?>, Object> params, SQLListeners listeners,
+                             StatementOptions statementOptions, SQLRowMapper<T> mapper) {
+        this.configuration = configuration;
+        this.metadata = metadata;
+        this.projection = projection;
+        this.sql = sql;
+        this.constants = constants;
+        this.constantPaths = constantPaths;
+        this.params = params;
+        this.listeners = listeners;
+        this.statementOptions = statementOptions;
+        this.mapper = mapper;
+    }
+
+    /**
+     * Create a copy of this query with the given parameter value
+     *
+     * @param <P> parameter type
+     * @param param parameter
+     * @param value binding
+     * @return query with the parameter value
+     */
+    public <P> CompiledSQLQuery<T> set(ParamExpression<P> param, P value) {
+        Map<ParamExpression<?>, Object> newParams = new HashMap<>(params);
+        newParams.put(param, value);
+        return new CompiledSQLQuery<T>(configuration, metadata, projection, sql, constants, constantPaths,
+                Collections.unmodifiableMap(newParams), listeners, statementOptions, mapper);
+    }
+
+    /**
+     * Get the SQL string and the bindings of this query
+     *
+     * @return SQL string and bindings
+     */
+    public SQLBindings getSQL() {
+        return new SQLBindings(sql, getBindings());
+    }
+
+    /**
+     * Get the projection as a typed List
+     *
+     * @param connection connection to use
+     * @return results
+     */
+    public List<T> fetch(Connection connection) {
+        List<T> rv = new ArrayList<T>();
+        try (CloseableIterator<T> iterator = iterate(connection)) {
+            while (iterator.hasNext()) {
+                rv.add(iterator.next());
+            }
+        }
+        return rv;
+    }
+
+    /**
+     * Get the projection as a unique result or null if no result is found
+     *
+     * @param connection connection to use
+     * @return result or null
+     * @throws NonUniqueResultException if there is more than one matching result
+     */
+    @Nullable
+    public T fetchOne(Connection connection) throws NonUniqueResultException {
+        try (CloseableIterator<T> iterator = iterate(connection)) {
+            if (iterator.hasNext()) {
+                T rv = iterator.next();
+                if (iterator.hasNext()) {
+                    throw new NonUniqueResultException();
+                }
+                return rv;
+            } else {
+                return null;
+            }
+        }
+    }
+
+    /**
+     * Get the projection as a typed closeable Iterator
+     *
+     * @param connection connection to use
+     * @return closeable iterator
+     */
+    @SuppressWarnings("unchecked")
+    public CloseableIterator<T> iterate(Connection connection) {
+        SQLListenerContextImpl context = new SQLListenerContextImpl(metadata, connection);
+        if (configuration.getStatementCache() != null) {
+            context.setData(SQLStatementCache.CONTEXT_KEY, configuration.getStatementCache());
+        }
+        listeners.start(context);
+        List<Object> bindings = null;
+        try {
+            bindings = getBindings();
+            context.addSQL(new SQLBindings(sql, bindings));
+            listeners.notifyQuery(metadata);
+
+            listeners.prePrepare(context);
+            final PreparedStatement stmt = prepareStatement(connection);
+            try {
+                for (int i = 0; i < bindings.size(); i++) {
+                    configuration.set(stmt, constantPaths.get(i), i + 1, bindings.get(i));
+                }
+                context.addPreparedStatement(stmt);
+                listeners.prepared(context);
+
+                listeners.preExecute(context);
+                final ResultSet rs = stmt.executeQuery();
+                listeners.executed(context);
+
+                return new SQLResultIterator<T>(configuration, stmt, rs, listeners, context) {
+                    @Override
+                    protected T produceNext(ResultSet rs) throws Exception {
+                        return mapper.map(rs);
+                    }
+                };
+            } catch (SQLException | RuntimeException e) {
+                configuration.releaseStatement(stmt);
+                throw e;
+            }
+        } catch (SQLException e) {
+            context.setException(e);
+            listeners.exception(context);
+            listeners.end(context);
+            throw configuration.translate(sql, bindings != null ? bindings : Collections.emptyList(), e);
+        } catch (RuntimeException e) {
+            context.setException(e);
+            listeners.exception(context);
+            listeners.end(context);
+            throw e;
+        }
+    }
+
+    private PreparedStatement prepareStatement(Connection connection) throws SQLException {
+        if (StatementOptions.DEFAULT.equals(statementOptions)) {
+            return configuration.prepareStatement(connection, sql);
+        }
+        PreparedStatement stmt = connection.prepareStatement(sql);
+        statementOptions.apply(stmt);
+        return stmt;
+    }
+
+    private List<Object> getBindings() {
+        List<Object> bindings = new ArrayList<>(constants.size());
+        for (Object o : constants) {
+            if (o instanceof ParamExpression) {
+                if (!params.containsKey(o)) {
+                    throw new ParamNotSetException((ParamExpression<?>) o);
+                }
+                o = params.get(o);
+            }
+            bindings.add(o);
+        }
+        return bindings;
+    }
+
+    @Override
+    public String toString() {
+        return sql.trim();
+    }
+
+}
@@ -14,9 +14,11 @@
 package com.querydsl.sql;
 
 import java.lang.reflect.Array;
+import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Statement;
 import java.sql.Types;
 import java.util.Arrays;
 import java.util.HashMap;
@@ -70,6 +72,12 @@ public final class Configuration {
 
     private boolean useLiterals = false;
 
+    @Nullable
+    private SQLShapeCache shapeCache;
+
+    @Nullable
+    private SQLStatementCache statementCache;
+
     /**
      * Create a new Configuration instance
      *
@@ -230,6 +238,7 @@ public final class Configuration {
      *            The name mapping that is implemented by the user.
      */
     public void setDynamicNameMapping(NameMapping nameMapping) {
+        clearShapeCache();
         if (nameMapping == null) {
             this.nameMapping = this.internalNameMapping;
         } else {
@@ -267,8 +276,15 @@ public final class Configuration {
         }
     }
 
+    /**
+     * Get the type for the given path and class
+     *
+     * @param path path or null
+     * @param clazz value class
+     * @return type
+     */
     @SuppressWarnings({ "unchecked", "rawtypes" })
-    private <T> Type<T> getType(@Nullable Path<?> path, Class<T> clazz) {
+    public <T> Type<T> getType(@Nullable Path<?> path, Class<T> clazz) {
         if (hasTableColumnTypes && path != null && !clazz.equals(Null.class)
                 && path.getMetadata().getParent() instanceof RelationalPath) {
             String table = ((RelationalPath) path.getMetadata().getParent()).getTableName();
@@ -320,6 +336,7 @@ public final class Configuration {
      */
     @Deprecated
     public String registerSchemaOverride(String oldSchema, String newSchema) {
+        clearShapeCache();
         return schemaMapping.put(oldSchema, newSchema);
     }
 
@@ -334,6 +351,7 @@ public final class Configuration {
      */
     @Deprecated
     public String registerTableOverride(String oldTable, String newTable) {
+        clearShapeCache();
         return internalNameMapping.registerTableOverride(oldTable, newTable);
     }
 
@@ -380,6 +398,7 @@ public final class Configuration {
      */
     @Deprecated
     public SchemaAndTable registerTableOverride(SchemaAndTable from, SchemaAndTable to) {
+        clearShapeCache();
         return internalNameMapping.registerTableOverride(from, to);
     }
 
@@ -396,6 +415,7 @@ public final class Configuration {
      */
     @Deprecated
     public String registerColumnOverride(String schema, String table, String oldColumn, String newColumn) {
+        clearShapeCache();
         return internalNameMapping.registerColumnOverride(schema, table, oldColumn, newColumn);
     }
 
@@ -411,6 +431,7 @@ public final class Configuration {
      */
     @Deprecated
     public String registerColumnOverride(String table, String oldColumn, String newColumn) {
+        clearShapeCache();
         return internalNameMapping.registerColumnOverride(table, oldColumn, newColumn);
     }
 
@@ -420,6 +441,7 @@ public final class Configuration {
      * @param type type
      */
     public void register(Type<?> type) {
+        clearShapeCache();
         jdbcTypeMapping.register(type.getSQLTypes()[0], type.getReturnedClass());
         javaTypeMapping.register(type);
     }
@@ -442,6 +464,7 @@ public final class Configuration {
      * @param javaType java type
      */
     public void registerNumeric(int total, int decimal, Class<?> javaType) {
+        clearShapeCache();
         jdbcTypeMapping.registerNumeric(total, decimal, javaType);
     }
 
@@ -481,6 +504,7 @@ public final class Configuration {
      * @param type type
      */
     public void register(String table, String column, Type<?> type) {
+        clearShapeCache();
         javaTypeMapping.setType(table, column, type);
         hasTableColumnTypes = true;
     }
@@ -546,6 +570,122 @@ public final class Configuration {
         this.useLiterals = useLiterals;
     }
 
+    /**
+     * Get the cache for rendered SQL strings of query shapes
+     *
+     * @return shape cache or null, if disabled
+     */
+    @Nullable
+    public SQLShapeCache getShapeCache() {
+        return shapeCache;
+    }
+
+    /**
+     * Set the maximum amount of query shapes to keep the rendered SQL strings for (default: 0)
+     *
+     * <p>Queries which differ only in their constant values share the same shape and skip
+     * serialization on a cache hit. A size of 0 disables the cache.</p>
+     *
+     * @param size maximum amount of cached shapes
+     */
+    public void setShapeCacheSize(int size) {
+        this.shapeCache = size > 0 ? new SQLShapeCache(size) : null;
+    }
+
+    /**
+     * Get the cache for prepared statements
+     *
+     * @return statement cache or null, if disabled
+     */
+    @Nullable
+    public SQLStatementCache getStatementCache() {
+        return statementCache;
+    }
+
+    /**
+     * Set the maximum amount of idle prepared statements to keep open per connection (default: 0)
+     *
+     * <p>Cached statements are reused by queries and DML clauses which are executed repeatedly with
+     * the same SQL string on the same connection. A size of 0 disables the cache.</p>
+     *
+     * @param size maximum amount of cached statements per connection
+     */
+    public void setStatementCacheSize(int size) {
+        this.statementCache = size > 0 ? new SQLStatementCache(size) : null;
+    }
+
+    /**
+     * Prepare a statement for the given SQL string, using the statement cache, if enabled
+     *
+     * @param connection connection
+     * @param sql SQL string
+     * @return prepared statement
+     * @throws SQLException
+     */
+    public PreparedStatement prepareStatement(Connection connection, String sql) throws SQLException {
+        if (statementCache != null) {
+            return statementCache.prepare(connection, sql);
+        } else {
+            return connection.prepareStatement(sql);
+        }
+    }
+
+    /**
+     * Prepare a statement for the given SQL string, using the statement cache, if enabled
+     *
+     * @param connection connection
+     * @param sql SQL string
+     * @param autoGeneratedKeys key generation mode
+     * @return prepared statement
+     * @throws SQLException
+     */
+    public PreparedStatement prepareStatement(Connection connection, String sql, int autoGeneratedKeys)
+            throws SQLException {
+        if (statementCache != null) {
+            return statementCache.prepare(connection, sql, autoGeneratedKeys);
+        } else {
+            return connection.prepareStatement(sql, autoGeneratedKeys);
+        }
+    }
+
+    /**
+     * Prepare a statement for the given SQL string, using the statement cache, if enabled
+     *
+     * @param connection connection
+     * @param sql SQL string
+     * @param columnNames names of the generated key columns
+     * @return prepared statement
+     * @throws SQLException
+     */
+    public PreparedStatement prepareStatement(Connection connection, String sql, String[] columnNames)
+            throws SQLException {
+        if (statementCache != null) {
+            return statementCache.prepare(connection, sql, columnNames);
+        } else {
+            return connection.prepareStatement(sql, columnNames);
+        }
+    }
+
+    /**
+     * Return the given statement to the statement cache or close it
+     *
+     * @param stmt statement
+     * @throws SQLException
+     */
+    public void releaseStatement(Statement stmt) throws SQLException {
+        if (statementCache != null) {
+            statementCache.release(stmt);
+        } else {
+            stmt.close();
+        }
+    }
+
+    private void clearShapeCache() {
+        if (shapeCache != null) {
+            shapeCache.clear();
+        }
+    }
+
     /**
      * Set the exception translator
      *
@@ -561,6 +701,7 @@ public final class Configuration {
      * @param templates templates
      */
     public void setTemplates(SQLTemplates templates) {
+        clearShapeCache();
         this.templates = templates;
     }
 
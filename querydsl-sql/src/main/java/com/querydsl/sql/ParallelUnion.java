@@ -0,0 +1,540 @@
+/*
+ * Copyright 2015, The Querydsl Team (http://www.querydsl.com/team)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.querydsl.sql;
+
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntFunction;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import org.jetbrains.annotations.Nullable;
+
+import com.mysema.commons.lang.CloseableIterator;
+import com.querydsl.core.QueryException;
+import com.querydsl.core.QueryMetadata;
+import com.querydsl.core.types.ArrayConstructorExpression;
+import com.querydsl.core.types.Expression;
+import com.querydsl.core.types.FactoryExpression;
+import com.querydsl.core.types.Operation;
+import com.querydsl.core.types.Ops;
+import com.querydsl.core.types.Order;
+import com.querydsl.core.types.OrderSpecifier;
+import com.querydsl.core.types.SubQueryExpression;
+
+/**
+ * {@code ParallelUnion} executes the branches of a union as separate queries and merges the
+ * results on the client side.
+ *
+ * <p>Each branch is executed via the given {@link Executor} on the connection supplied for the
+ * index of the branch, so branches can be run concurrently against the same database or
+ * against different shards. Results of UNION ALL are streamed in the order they arrive, UNION
+ * removes duplicate rows via hashing. If an order is given, the branches are ordered by the
+ * database and k-way merged, so the order targets need to be part of the projection of the
+ * first branch. Null values are sorted low, unless the nulls handling is given explicitly.
+ * The branch queries are ordered with the same explicit nulls handling.</p>
+ *
+ * <p>The merge of ordered branches waits for the first row of each branch, while the branches
+ * wait for the merge once their buffer is full. The executor needs to be able to run all
+ * branches concurrently, otherwise the union deadlocks. Executors of the type
+ * {@link ThreadPoolExecutor} and {@link ForkJoinPool} with fewer threads than branches are
+ * rejected.</p>
+ *
+ * <pre>{@code
+ * List<Integer> ids = new ParallelUnion<Integer>(configuration, executor, shards::get)
+ *     .unionAll(
+ *         select(employee.id).from(employee),
+ *         select(employee2.id).from(employee2))
+ *     .orderBy(employee.id.asc())
+ *     .fetch();
+ * }</pre>
+ *
+ * @param <T> result type
+ */
+public class ParallelUnion<T> {
+
+    private static final int QUEUE_CAPACITY = 1024;
+
+    private static final Object END = new Object();
+
+    private final Configuration configuration;
+
+    private final Executor executor;
+
+    private final IntFunction<Connection> connections;
+
+    private final List<SubQueryExpression<T>> branches = new ArrayList<>();
+
+    private final List<OrderSpecifier<?>> orderBy = new ArrayList<>();
+
+    private boolean unionAll;
+
+    /**
+     * Create a new ParallelUnion instance
+     *
+     * @param configuration configuration
+     * @param executor executor for the branch queries, which needs to run all branches concurrently
+     *                 for ordered unions
+     * @param connections connection for the branch with the given index
+     */
+    public ParallelUnion(Configuration configuration, Executor executor, IntFunction<Connection> connections) {
+        this.configuration = configuration;
+        this.executor = executor;
+        this.connections = connections;
+    }
+
+    /**
+     * Set the branches of a UNION
+     *
+     * @param sq branches
+     * @return the current object
+     */
+    @SafeVarargs
+    @SuppressWarnings("varargs")
+    public final ParallelUnion<T> union(SubQueryExpression<T>... sq) {
+        return branches(Arrays.asList(sq), false);
+    }
+
+    /**
+     * Set the branches of a UNION
+     *
+     * @param sq branches
+     * @return the current object
+     */
+    public ParallelUnion<T> union(List<SubQueryExpression<T>> sq) {
+        return branches(sq, false);
+    }
+
+    /**
+     * Set the branches of a UNION ALL
+     *
+     * @param sq branches
+     * @return the current object
+     */
+    @SafeVarargs
+    @SuppressWarnings("varargs")
+    public final ParallelUnion<T> unionAll(SubQueryExpression<T>... sq) {
+        return branches(Arrays.asList(sq), true);
+    }
+
+    /**
+     * Set the branches of a UNION ALL
+     *
+     * @param sq branches
+     * @return the current object
+     */
+    public ParallelUnion<T> unionAll(List<SubQueryExpression<T>> sq) {
+        return branches(sq, true);
+    }
+
+    private ParallelUnion<T> branches(List<SubQueryExpression<T>> sq, boolean all) {
+        if (sq.isEmpty()) {
+            throw new IllegalArgumentException("No union branches given");
+        }
+        branches.clear();
+        branches.addAll(sq);
+        unionAll = all;
+        return this;
+    }
+
+    /**
+     * Define the ordering of the union results
+     *
+     * @param o order
+     * @return the current object
+     */
+    public ParallelUnion<T> orderBy(OrderSpecifier<?>... o) {
+        orderBy.addAll(Arrays.asList(o));
+        return this;
+    }
+
+    /**
+     * Get the union results as a list
+     *
+     * @return results
+     */
+    public List<T> fetch() {
+        List<T> rv = new ArrayList<>();
+        try (CloseableIterator<T> it = iterate()) {
+            while (it.hasNext()) {
+                rv.add(it.next());
+            }
+        }
+        return rv;
+    }
+
+    /**
+     * Get the union results as a stream, which needs to be closed after use
+     *
+     * @return results
+     */
+    public Stream<T> stream() {
+        CloseableIterator<T> it = iterate();
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(it, Spliterator.ORDERED), false)
+                .onClose(it::close);
+    }
+
+    /**
+     * Get the union results as an iterator, which needs to be closed after use
+     *
+     * @return results
+     */
+    @SuppressWarnings("unchecked")
+    public CloseableIterator<T> iterate() {
+        if (branches.isEmpty()) {
+            throw new IllegalStateException("No union branches given");
+        }
+        Expression<?> projection = branches.get(0).getMetadata().getProjection();
+        FactoryExpression<T> factory = projection instanceof FactoryExpression
+                ? (FactoryExpression<T>) projection : null;
+        int[] keys = new int[orderBy.size()];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = indexOf(getArgs(projection), orderBy.get(i).getTarget());
+        }
+        if (keys.length > 0) {
+            checkThreads(branches.size());
+        }
+
+        Merge merge = new Merge(factory, keys);
+        try {
+            submit(merge, keys);
+        } catch (RuntimeException e) {
+            // stop the branches which have already been submitted
+            merge.close();
+            throw e;
+        }
+        return merge;
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private void submit(Merge merge, int[] keys) {
+        for (int i = 0; i < branches.size(); i++) {
+            QueryMetadata metadata = branches.get(i).getMetadata().clone();
+            List<Expression<?>> args = getArgs(metadata.getProjection());
+            if (keys.length > 0) {
+                metadata.clearOrderBy();
+                for (int j = 0; j < keys.length; j++) {
+                    OrderSpecifier<?> order = orderBy.get(j);
+                    Expression<?> target = args.get(keys[j]);
+                    if (target instanceof Operation && ((Operation<?>) target).getOperator() == Ops.ALIAS) {
+                        target = ((Operation<?>) target).getArg(1);
+                    }
+                    metadata.addOrderBy(new OrderSpecifier(order.getOrder(), target,
+                            isNullsFirst(order) ? OrderSpecifier.NullHandling.NullsFirst
+                                                : OrderSpecifier.NullHandling.NullsLast));
+                }
+            }
+            SQLQuery<Object[]> query = new SQLQuery<Void>(connections.apply(i), configuration, metadata)
+                    .select(new ArrayConstructorExpression<Object>(args.toArray(new Expression<?>[0])));
+            BlockingQueue<Object> queue = merge.queues.get(keys.length > 0 ? i : 0);
+            executor.execute(() -> merge.produce(query, queue));
+        }
+    }
+
+    private void checkThreads(int branchCount) {
+        int threads = Integer.MAX_VALUE;
+        if (executor instanceof ThreadPoolExecutor) {
+            ThreadPoolExecutor pool = (ThreadPoolExecutor) executor;
+            // threads beyond the core size are only started for direct hand-offs
+            threads = pool.getQueue().remainingCapacity() == 0
+                    ? pool.getMaximumPoolSize() : pool.getCorePoolSize();
+        } else if (executor instanceof ForkJoinPool) {
+            threads = ((ForkJoinPool) executor).getParallelism();
+        }
+        if (threads < branchCount) {
+            throw new IllegalStateException("Ordered union of " + branchCount
+                    + " branches needs an executor with at least " + branchCount + " threads, got " + threads);
+        }
+    }
+
+    private static boolean isNullsFirst(OrderSpecifier<?> order) {
+        return order.getNullHandling() == OrderSpecifier.NullHandling.NullsFirst
+            || (order.getNullHandling() == OrderSpecifier.NullHandling.Default && order.getOrder() == Order.ASC);
+    }
+
+    private static List<Expression<?>> getArgs(@Nullable Expression<?> projection) {
+        if (projection instanceof FactoryExpression) {
+            return ((FactoryExpression<?>) projection).getArgs();
+        } else if (projection != null) {
+            return Collections.<Expression<?>>singletonList(projection);
+        } else {
+            throw new IllegalArgumentException("Union branches need a projection");
+        }
+    }
+
+    private static int indexOf(List<Expression<?>> args, Expression<?> target) {
+        for (int i = 0; i < args.size(); i++) {
+            Expression<?> arg = args.get(i);
+            if (arg.equals(target)) {
+                return i;
+            } else if (arg instanceof Operation && ((Operation<?>) arg).getOperator() == Ops.ALIAS
+                    && (((Operation<?>) arg).getArg(0).equals(target) || ((Operation<?>) arg).getArg(1).equals(target))) {
+                return i;
+            }
+        }
+        throw new IllegalArgumentException("Order target " + target + " is not part of the projection");
+    }
+
+    /**
+     * Failure of a branch query
+     */
+    private static final class Failure {
+
+        private final Throwable exception;
+
+        Failure(Throwable exception) {
+            this.exception = exception;
+        }
+
+    }
+
+    /**
+     * Current row of an ordered branch
+     */
+    private static final class Head {
+
+        private final Object[] row;
+
+        private final int branch;
+
+        Head(Object[] row, int branch) {
+            this.row = row;
+            this.branch = branch;
+        }
+
+    }
+
+    /**
+     * Merges the rows of the branches, which are passed via one queue per branch if ordered
+     * and via a single shared queue otherwise
+     */
+    private final class Merge implements CloseableIterator<T> {
+
+        private final List<BlockingQueue<Object>> queues = new ArrayList<>();
+
+        @Nullable
+        private final FactoryExpression<T> factory;
+
+        private final int[] keys;
+
+        @Nullable
+        private final Set<List<Object>> seen;
+
+        @Nullable
+        private final PriorityQueue<Head> heads;
+
+        private int running;
+
+        private boolean started;
+
+        @Nullable
+        private Object[] next;
+
+        private volatile boolean closed;
+
+        Merge(@Nullable FactoryExpression<T> factory, int[] keys) {
+            this.factory = factory;
+            this.keys = keys;
+            this.seen = unionAll ? null : new HashSet<List<Object>>();
+            this.running = branches.size();
+            int queueCount = keys.length > 0 ? branches.size() : 1;
+            for (int i = 0; i < queueCount; i++) {
+                queues.add(new ArrayBlockingQueue<Object>(QUEUE_CAPACITY));
+            }
+            this.heads = keys.length > 0 ? new PriorityQueue<Head>(queueCount, this::compare) : null;
+        }
+
+        void produce(SQLQuery<Object[]> query, BlockingQueue<Object> queue) {
+            Object terminal = END;
+            try (CloseableIterator<Object[]> rows = query.iterate()) {
+                while (!closed && rows.hasNext()) {
+                    put(queue, rows.next());
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                terminal = new Failure(new QueryException(e));
+            } catch (Throwable e) {
+                terminal = new Failure(e);
+            } finally {
+                // the consumer waits for the END or Failure of every branch
+                putTerminal(queue, terminal);
+            }
+        }
+
+        private void put(BlockingQueue<Object> queue, Object item) throws InterruptedException {
+            boolean added = false;
+            // wait for the consumer, unless it has been closed
+            while (!added && !closed) {
+                added = queue.offer(item, 100, TimeUnit.MILLISECONDS);
+            }
+        }
+
+        private void putTerminal(BlockingQueue<Object> queue, Object item) {
+            boolean interrupted = Thread.interrupted();
+            try {
+                while (true) {
+                    try {
+                        put(queue, item);
+                        return;
+                    } catch (InterruptedException e) {
+                        interrupted = true;
+                    }
+                }
+            } finally {
+                if (interrupted) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+
+        private Object take(BlockingQueue<Object> queue) {
+            Object item;
+            try {
+                item = queue.take();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                close();
+                throw new QueryException(e);
+            }
+            if (item instanceof Failure) {
+                close();
+                Throwable exception = ((Failure) item).exception;
+                if (exception instanceof RuntimeException) {
+                    throw (RuntimeException) exception;
+                } else if (exception instanceof Error) {
+                    throw (Error) exception;
+                } else {
+                    throw new QueryException(exception);
+                }
+            }
+            return item;
+        }
+
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        private int compare(Head a, Head b) {
+            for (int i = 0; i < keys.length; i++) {
+                Object x = a.row[keys[i]], y = b.row[keys[i]];
+                OrderSpecifier<?> order = orderBy.get(i);
+                int rv;
+                if (x == null || y == null) {
+                    if (x == y) {
+                        continue;
+                    }
+                    rv = (x == null) == isNullsFirst(order) ? -1 : 1;
+                } else {
+                    rv = ((Comparable) x).compareTo(y);
+                    if (order.getOrder() == Order.DESC) {
+                        rv = -rv;
+                    }
+                }
+                if (rv != 0) {
+                    return rv;
+                }
+            }
+            // keep the rows of equal keys in branch order
+            return Integer.compare(a.branch, b.branch);
+        }
+
+        @Nullable
+        private Object[] nextRow() {
+            if (heads == null) {
+                while (running > 0) {
+                    Object item = take(queues.get(0));
+                    if (item == END) {
+                        running--;
+                    } else {
+                        return (Object[]) item;
+                    }
+                }
+                return null;
+            } else {
+                if (!started) {
+                    // wait for the first row of each branch
+                    for (int i = 0; i < queues.size(); i++) {
+                        advance(i);
+                    }
+                    started = true;
+                }
+                Head head = heads.poll();
+                if (head != null) {
+                    advance(head.branch);
+                    return head.row;
+                } else {
+                    return null;
+                }
+            }
+        }
+
+        private void advance(int branch) {
+            Object item = take(queues.get(branch));
+            if (item != END) {
+                heads.add(new Head((Object[]) item, branch));
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (next == null && !closed) {
+                Object[] row = nextRow();
+                if (row == null) {
+                    close();
+                } else if (seen == null || seen.add(Arrays.asList(row))) {
+                    next = row;
+                }
+            }
+            return next != null;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public T next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            Object[] row = next;
+            next = null;
+            return factory != null ? factory.newInstance(row) : (T) row[0];
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+            for (BlockingQueue<Object> queue : queues) {
+                queue.clear();
+            }
+        }
+
+    }
+
+}
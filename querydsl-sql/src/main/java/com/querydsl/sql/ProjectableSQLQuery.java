@@ -27,6 +27,8 @@ import org.jetbrains.annotations.Nullable;
 import com.mysema.commons.lang.CloseableIterator;
 import com.querydsl.core.FetchableQuery;
 import com.querydsl.core.JoinFlag;
+import com.querydsl.core.KeysetFetchable;
+import com.querydsl.core.KeysetPage;
 import com.querydsl.core.NonUniqueResultException;
 import com.querydsl.core.Query;
 import com.querydsl.core.QueryFlag;
@@ -44,7 +46,7 @@ import com.querydsl.core.types.dsl.Wildcard;
  * @param <Q> concrete subtype
  */
 public abstract class ProjectableSQLQuery<T, Q extends ProjectableSQLQuery<T, Q> & Query<Q>> extends FetchableSubQueryBase<T, Q>
-        implements SQLCommonQuery<Q>, FetchableQuery<T, Q> {
+        implements SQLCommonQuery<Q>, FetchableQuery<T, Q>, KeysetFetchable<T> {
 
     private static final Path<?> defaultQueryAlias = ExpressionUtils.path(Object.class, "query");
 
@@ -447,6 +449,20 @@ public abstract class ProjectableSQLQuery<T, Q extends ProjectableSQLQuery<T, Q>
     @Override
     public abstract Q clone();
 
+    @Override
+    public KeysetPage<T> fetchPage(@Nullable String token, int size) {
+        return fetchPage(createPageQuery(), token, size);
+    }
+
+    /**
+     * Create the copy of this query which {@link #fetchPage(String, int)} executes
+     *
+     * @return copy of this query
+     */
+    protected Q createPageQuery() {
+        return clone();
+    }
+
     protected abstract SQLSerializer createSerializer();
 
     private Set<Path<?>> getRootPaths(Collection<? extends Expression<?>> exprs) {
@@ -469,9 +485,20 @@ public abstract class ProjectableSQLQuery<T, Q extends ProjectableSQLQuery<T, Q>
         }
     }
 
-    @SuppressWarnings("unchecked")
     protected SQLSerializer serialize(boolean forCountRow) {
         SQLSerializer serializer = createSerializer();
+        serialize(serializer, forCountRow);
+        return serializer;
+    }
+
+    /**
+     * Serialize the query into the given serializer
+     *
+     * @param serializer serializer
+     * @param forCountRow true, for count query
+     */
+    @SuppressWarnings("unchecked")
+    protected void serialize(SQLSerializer serializer, boolean forCountRow) {
         if (union != null) {
             if (queryMixin.getMetadata().getProjection() == null ||
                 expandProjection(queryMixin.getMetadata().getProjection())
@@ -492,7 +519,6 @@ public abstract class ProjectableSQLQuery<T, Q extends ProjectableSQLQuery<T, Q>
         } else {
             serializer.serialize(queryMixin.getMetadata(), forCountRow);
         }
-        return serializer;
     }
 
     /**
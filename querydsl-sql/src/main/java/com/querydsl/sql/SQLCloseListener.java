@@ -20,6 +20,8 @@ import com.querydsl.core.QueryException;
 
 /**
  * {@code SQLCloseListener} closes the JDBC connection at the end of the query or clause execution
+ *
+ * <p>The idle statements of the connection in the {@link SQLStatementCache} are closed first.</p>
  */
 public final class SQLCloseListener extends SQLBaseListener {
 
@@ -31,8 +33,17 @@ public final class SQLCloseListener extends SQLBaseListener {
     public void end(SQLListenerContext context) {
         Connection connection = context.getConnection();
         if (connection != null && context.getData(AbstractSQLQuery.PARENT_CONTEXT) == null) {
+            SQLStatementCache statementCache = (SQLStatementCache) context.getData(SQLStatementCache.CONTEXT_KEY);
             try {
-                connection.close();
+                if (statementCache != null) {
+                    try {
+                        statementCache.close(connection);
+                    } finally {
+                        connection.close();
+                    }
+                } else {
+                    connection.close();
+                }
             } catch (SQLException e) {
                 throw new QueryException(e);
             }
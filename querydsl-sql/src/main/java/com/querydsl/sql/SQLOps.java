@@ -80,6 +80,8 @@ public enum SQLOps implements Operator {
     WITH_REPEATABLE_READ(Object.class),
     GROUP_CONCAT(String.class),
     GROUP_CONCAT2(String.class),
+    IN_ARRAY(Boolean.class),
+    NOT_IN_ARRAY(Boolean.class),
     SET_PATH(Object.class),
     SET_LITERAL(Object.class);
 
@@ -67,7 +67,7 @@ public abstract class SQLResultIterator<T> implements CloseableIterator<T> {
                 }
             } finally {
                 if (stmt != null) {
-                    stmt.close();
+                    configuration.releaseStatement(stmt);
                 }
             }
         } catch (SQLException e) {
@@ -0,0 +1,291 @@
+/*
+ * Copyright 2015, The Querydsl Team (http://www.querydsl.com/team)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.querydsl.sql;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.codehaus.mojo.animal_sniffer.IgnoreJRERequirement;
+import org.jetbrains.annotations.Nullable;
+
+import com.querydsl.core.types.ConstructorExpression;
+import com.querydsl.core.types.Expression;
+import com.querydsl.core.types.ExpressionException;
+import com.querydsl.core.types.FactoryExpression;
+import com.querydsl.core.types.Path;
+import com.querydsl.core.types.dsl.Wildcard;
+import com.querydsl.core.util.ConstructorUtils;
+import com.querydsl.core.util.PrimitiveUtils;
+import com.querydsl.sql.types.PrimitiveType;
+import com.querydsl.sql.types.Type;
+
+/**
+ * {@code SQLRowMapper} maps the rows of a JDBC ResultSet to instances of the projection type.
+ *
+ * <p>The column {@link Type}s of the projection are resolved once when the mapper is created,
+ * so that mapping a row only reads the column values and invokes the factory expression.
+ * Constructor projections with primitive parameters are composed into a single method handle,
+ * which reads those columns via {@link PrimitiveType} without boxing, as long as the column
+ * values widen to the parameter types. Other constructor projections are instantiated via
+ * {@link FactoryExpression#newInstance(Object...)}.
+ * Mappers are stateless and can be reused for multiple result sets of the same projection.</p>
+ *
+ * @param <T> projection type
+ */
+abstract class SQLRowMapper<T> {
+
+    private static final Map<Class<?>, String> PRIMITIVE_READERS = new HashMap<>();
+
+    private static final List<Class<?>> WIDENING_ORDER = Arrays.<Class<?>>asList(
+            byte.class, short.class, int.class, long.class, float.class, double.class);
+
+    static {
+        PRIMITIVE_READERS.put(int.class, "getInt");
+        PRIMITIVE_READERS.put(long.class, "getLong");
+        PRIMITIVE_READERS.put(double.class, "getDouble");
+    }
+
+    /**
+     * Create a row mapper for the given projection
+     *
+     * @param <T> projection type
+     * @param configuration configuration
+     * @param projection projection or null
+     * @return row mapper
+     */
+    @SuppressWarnings("unchecked")
+    static <T> SQLRowMapper<T> of(Configuration configuration, @Nullable Expression<T> projection) {
+        if (projection == null) {
+            return (SQLRowMapper<T>) FIRST_COLUMN;
+        } else if (projection instanceof FactoryExpression) {
+            FactoryExpression<T> factory = (FactoryExpression<T>) projection;
+            Type<?>[] types = getTypes(configuration, factory.getArgs());
+            if (factory instanceof ConstructorExpression) {
+                MethodHandle handle = getConstructorHandle((ConstructorExpression<T>) factory, types);
+                if (handle != null) {
+                    return new Composed<T>(handle);
+                }
+            }
+            return new Factory<T>(factory, types);
+        } else if (projection.equals(Wildcard.all)) {
+            return (SQLRowMapper<T>) ALL_COLUMNS;
+        } else {
+            return new Single<T>((Type<T>) getType(configuration, projection));
+        }
+    }
+
+    private static Type<?>[] getTypes(Configuration configuration, List<Expression<?>> exprs) {
+        Type<?>[] types = new Type<?>[exprs.size()];
+        for (int i = 0; i < types.length; i++) {
+            types[i] = getType(configuration, exprs.get(i));
+        }
+        return types;
+    }
+
+    private static Type<?> getType(Configuration configuration, Expression<?> expr) {
+        return configuration.getType(expr instanceof Path ? (Path<?>) expr : null, expr.getType());
+    }
+
+    /**
+     * Compose the constructor of the given expression with the column readers into a single
+     * method handle of type (ResultSet)Object. Primitive constructor parameters are read via
+     * {@link PrimitiveType} without boxing.
+     *
+     * @return method handle or null, if the constructor can't be invoked directly
+     */
+    @Nullable
+    private static MethodHandle getConstructorHandle(ConstructorExpression<?> factory, Type<?>[] types) {
+        Class<?>[] parameterTypes = factory.getParameterTypes();
+        if (types.length == 0 || parameterTypes.length != types.length || !isPrimitive(parameterTypes)) {
+            return null;
+        }
+        try {
+            if (factory.getClass().getMethod("newInstance", Object[].class).getDeclaringClass()
+                    != ConstructorExpression.class) {
+                // custom instantiation logic
+                return null;
+            }
+            Constructor<?> constructor = ConstructorUtils.getConstructor(
+                    factory.getType(), parameterTypes);
+            if (constructor.isVarArgs()) {
+                return null;
+            }
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            MethodHandle[] readers = new MethodHandle[types.length];
+            for (int i = 0; i < readers.length; i++) {
+                readers[i] = getReader(lookup, types[i], parameterTypes[i], i + 1);
+                if (readers[i] == null) {
+                    return null;
+                }
+            }
+            MethodHandle handle = MethodHandles.filterArguments(
+                    lookup.unreflectConstructor(constructor), 0, readers);
+            handle = MethodHandles.permuteArguments(handle,
+                    MethodType.methodType(factory.getType(), ResultSet.class), new int[readers.length]);
+            return handle.asType(MethodType.methodType(Object.class, ResultSet.class));
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            return null;
+        }
+    }
+
+    private static boolean isPrimitive(Class<?>[] parameterTypes) {
+        for (Class<?> parameterType : parameterTypes) {
+            if (parameterType.isPrimitive()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Get a reader for the given column as a method handle of type (ResultSet)parameterType
+     *
+     * @return method handle or null, if the column can't be read as the given parameter type
+     */
+    @Nullable
+    private static MethodHandle getReader(MethodHandles.Lookup lookup, Type<?> type, Class<?> parameterType,
+                                          int column) throws NoSuchMethodException, IllegalAccessException {
+        MethodHandle reader;
+        if (!parameterType.isPrimitive()) {
+            reader = lookup.findVirtual(Type.class, "getValue",
+                    MethodType.methodType(Object.class, ResultSet.class, int.class));
+        } else if (type instanceof PrimitiveType && PRIMITIVE_READERS.containsKey(parameterType)
+                && isWidening(type.getReturnedClass(), parameterType)) {
+            reader = lookup.findStatic(SQLRowMapper.class, PRIMITIVE_READERS.get(parameterType),
+                    MethodType.methodType(parameterType, PrimitiveType.class, ResultSet.class, int.class));
+        } else {
+            return null;
+        }
+        reader = MethodHandles.insertArguments(reader.bindTo(type), 1, column);
+        return reader.asType(MethodType.methodType(parameterType, ResultSet.class));
+    }
+
+    private static boolean isWidening(Class<?> valueType, Class<?> parameterType) {
+        int index = WIDENING_ORDER.indexOf(PrimitiveUtils.unwrap(valueType));
+        return index != -1 && index <= WIDENING_ORDER.indexOf(parameterType);
+    }
+
+    // SQL NULL is mapped to the default value, like ConstructorUtils does for null arguments
+    private static int getInt(PrimitiveType<?> type, ResultSet rs, int column) throws SQLException {
+        int value = type.getInt(rs, column);
+        return rs.wasNull() ? 0 : value;
+    }
+
+    private static long getLong(PrimitiveType<?> type, ResultSet rs, int column) throws SQLException {
+        long value = type.getLong(rs, column);
+        return rs.wasNull() ? 0L : value;
+    }
+
+    private static double getDouble(PrimitiveType<?> type, ResultSet rs, int column) throws SQLException {
+        double value = type.getDouble(rs, column);
+        return rs.wasNull() ? 0.0 : value;
+    }
+
+    private static final SQLRowMapper<Object> FIRST_COLUMN = new SQLRowMapper<Object>() {
+        @Override
+        Object map(ResultSet rs) throws SQLException {
+            return rs.getObject(1);
+        }
+    };
+
+    private static final SQLRowMapper<Object[]> ALL_COLUMNS = new SQLRowMapper<Object[]>() {
+        @Override
+        Object[] map(ResultSet rs) throws SQLException {
+            Object[] row = new Object[rs.getMetaData().getColumnCount()];
+            for (int i = 0; i < row.length; i++) {
+                row[i] = rs.getObject(i + 1);
+            }
+            return row;
+        }
+    };
+
+    /**
+     * Map the current row of the given ResultSet
+     *
+     * @param rs result set
+     * @return projection of the row
+     * @throws SQLException
+     */
+    @Nullable
+    abstract T map(ResultSet rs) throws SQLException;
+
+    private static final class Single<T> extends SQLRowMapper<T> {
+
+        private final Type<T> type;
+
+        Single(Type<T> type) {
+            this.type = type;
+        }
+
+        @Override
+        T map(ResultSet rs) throws SQLException {
+            return type.getValue(rs, 1);
+        }
+
+    }
+
+    private static final class Composed<T> extends SQLRowMapper<T> {
+
+        private final MethodHandle handle;
+
+        Composed(MethodHandle handle) {
+            this.handle = handle;
+        }
+
+        @Override
+        @IgnoreJRERequirement
+        @SuppressWarnings("unchecked")
+        T map(ResultSet rs) throws SQLException {
+            try {
+                return (T) handle.invokeExact(rs);
+            } catch (SQLException | RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new ExpressionException(e.getMessage(), e);
+            }
+        }
+
+    }
+
+    private static final class Factory<T> extends SQLRowMapper<T> {
+
+        private final FactoryExpression<T> factory;
+
+        private final Type<?>[] types;
+
+        Factory(FactoryExpression<T> factory, Type<?>[] types) {
+            this.factory = factory;
+            this.types = types;
+        }
+
+        @Override
+        T map(ResultSet rs) throws SQLException {
+            Object[] args = new Object[types.length];
+            for (int i = 0; i < args.length; i++) {
+                args[i] = types[i].getValue(rs, i + 1);
+            }
+            return factory.newInstance(args);
+        }
+
+    }
+
+}
@@ -13,6 +13,7 @@
  */
 package com.querydsl.sql;
 
+import java.lang.reflect.Array;
 import java.sql.Types;
 import java.util.*;
 
@@ -30,6 +31,7 @@ import com.querydsl.core.types.dsl.Expressions;
 import com.querydsl.core.util.CollectionUtils;
 import com.querydsl.core.util.StringUtils;
 import com.querydsl.sql.dml.SQLInsertBatch;
+import com.querydsl.sql.types.ArrayType;
 import com.querydsl.sql.types.Null;
 
 /**
@@ -71,6 +73,20 @@ public class SQLSerializer extends SerializerBase<SQLSerializer> {
 
     protected boolean useLiterals = false;
 
+    @Nullable
+    private List<Object> constantOrigins;
+
+    private int listPadding;
+
+    @Nullable
+    private Set<Constant<?>> readConstants;
+
+    @Nullable
+    private Constant<?> currentConstant;
+
+    @Nullable
+    private Constant<?> arrayOrigin;
+
     public SQLSerializer(Configuration conf) {
         this(conf, false);
     }
@@ -107,6 +123,74 @@ public class SQLSerializer extends SerializerBase<SQLSerializer> {
         return constantPaths;
     }
 
+    /**
+     * Track for each bound constant the {@link Constant} expression it originates from
+     */
+    void trackConstantOrigins() {
+        constantOrigins = new ArrayList<>();
+        readConstants = Collections.newSetFromMap(new IdentityHashMap<Constant<?>, Boolean>());
+    }
+
+    /**
+     * Get the origins of the bound constants, {@code null} entries mark constants which have
+     * been created during serialization
+     *
+     * @return constant origins or null, if not tracked
+     */
+    @Nullable
+    List<Object> getConstantOrigins() {
+        return constantOrigins;
+    }
+
+    /**
+     * Get the constant expressions whose values have been used for more than binding
+     *
+     * @return constants or null, if not tracked
+     */
+    @Nullable
+    Set<Constant<?>> getReadConstants() {
+        return readConstants;
+    }
+
+    /**
+     * Replace the contents of this serializer with already rendered SQL
+     *
+     * @param sql SQL string
+     * @param constants constants
+     * @param paths constant paths
+     */
+    void replay(String sql, List<Object> constants, List<Path<?>> paths) {
+        append(sql);
+        this.constants.addAll(constants);
+        this.constantPaths.addAll(paths);
+    }
+
+    private void addConstant(@Nullable Object origin, Object constant) {
+        constants.add(constant);
+        if (constantOrigins != null) {
+            constantOrigins.add(origin);
+        }
+    }
+
+    private void markRead(List<?> args) {
+        for (Object arg : args) {
+            if (arg instanceof Constant<?>) {
+                readConstants.add((Constant<?>) arg);
+            }
+        }
+    }
+
+    private void markRead(@Nullable Template template, List<?> args) {
+        if (template != null) {
+            for (Element element : template.getElements()) {
+                if (!(element instanceof Template.ByIndex) && !(element instanceof Template.StaticText)) {
+                    markRead(args);
+                    return;
+                }
+            }
+        }
+    }
+
     /**
      * Return a list of expressions that can be used to uniquely define the query sources
      *
@@ -770,9 +854,20 @@ public class SQLSerializer extends SerializerBase<SQLSerializer> {
         stage = oldStage;
     }
 
+    @Override
+    protected void beforeConstant(Constant<?> expr) {
+        if (constantOrigins != null) {
+            // the array of an in-list is bound for the collection constant it was created from
+            currentConstant = arrayOrigin != null ? arrayOrigin : expr;
+            arrayOrigin = null;
+        }
+    }
+
     @SuppressWarnings("unchecked")
     @Override
     public void visitConstant(Object constant) {
+        Constant<?> origin = currentConstant;
+        currentConstant = null;
         if (useLiterals) {
             if (constant instanceof Collection) {
                 append("(");
@@ -790,21 +885,23 @@ public class SQLSerializer extends SerializerBase<SQLSerializer> {
             }
         } else if (constant instanceof Collection) {
             append("(");
-            boolean first = true;
-            for (Object o : ((Collection) constant)) {
-                if (!first) {
+            Object[] elements = ((Collection) constant).toArray();
+            int size = elements.length + listPadding;
+            listPadding = 0;
+            for (int i = 0; i < size; i++) {
+                if (i > 0) {
                     append(COMMA);
                 }
                 serializeConstant(constants.size() + 1, null);
-                constants.add(o);
-                if (first && (constantPaths.size() < constants.size())) {
+                // padding repeats the elements, which keeps the predicate unchanged
+                addConstant(origin, elements[i % elements.length]);
+                if (i == 0 && (constantPaths.size() < constants.size())) {
                     constantPaths.add(null);
                 }
-                first = false;
             }
             append(")");
 
-            int size = ((Collection) constant).size() - 1;
+            size = size - 1;
             Path<?> lastPath = constantPaths.peekLast();
             for (int i = 0; i < size; i++) {
                 constantPaths.add(lastPath);
@@ -819,7 +916,7 @@ public class SQLSerializer extends SerializerBase<SQLSerializer> {
             } else {
                 serializeConstant(constants.size() + 1, null);
             }
-            constants.add(constant);
+            addConstant(origin, constant);
             if (constantPaths.size() < constants.size()) {
                 constantPaths.add(null);
             }
@@ -828,7 +925,7 @@ public class SQLSerializer extends SerializerBase<SQLSerializer> {
 
     @Override
     public Void visit(ParamExpression<?> param, Void context) {
-        constants.add(param);
+        addConstant(param, param);
         serializeConstant(constants.size(), null);
         if (constantPaths.size() < constants.size()) {
             constantPaths.add(null);
@@ -891,6 +988,9 @@ public class SQLSerializer extends SerializerBase<SQLSerializer> {
 
     @Override
     public Void visit(TemplateExpression<?> expr, Void context) {
+        if (readConstants != null) {
+            markRead(expr.getTemplate(), expr.getArgs());
+        }
         if (expr.equals(Expressions.TRUE)) {
             append(templates.serialize("1", Types.BOOLEAN));
         } else if (expr.equals(Expressions.FALSE)) {
@@ -906,9 +1006,32 @@ public class SQLSerializer extends SerializerBase<SQLSerializer> {
         return null;
     }
 
+    @Nullable
+    private Object[] toArray(Class<?> elementType, Collection<Object> coll) {
+        if (useLiterals || elementType.isPrimitive()) {
+            return null;
+        }
+        Object[] array = (Object[]) Array.newInstance(elementType, coll.size());
+        if (!(configuration.getType(null, array.getClass()) instanceof ArrayType)) {
+            return null;
+        }
+        try {
+            return coll.toArray(array);
+        } catch (ArrayStoreException e) {
+            return null;
+        }
+    }
+
     @SuppressWarnings("unchecked")
     @Override
     protected void visitOperation(Class<?> type, Operator operator, List<? extends Expression<?>> args) {
+        if (readConstants != null) {
+            if (operator == Ops.LIKE || operator == Ops.NUMCAST || operator == Ops.ORDER) {
+                markRead(args);
+            } else {
+                markRead(templates.getTemplate(operator), args);
+            }
+        }
         boolean pathAdded = false;
         if (args.size() == 2
          && !useLiterals
@@ -983,8 +1106,33 @@ public class SQLSerializer extends SerializerBase<SQLSerializer> {
                 super.visitOperation(type, operator == Ops.IN ? Ops.EQ : Ops.NE,
                         Arrays.asList(Expressions.ONE, Expressions.TWO));
             } else {
-                if (templates.getListMaxSize() == 0 || coll.size() <= templates.getListMaxSize()) {
-                    super.visitOperation(type, operator, args);
+                Object[] array = templates.getInListStrategy() == SQLTemplates.InListStrategy.ARRAY
+                        ? toArray(args.get(0).getType(), coll) : null;
+                if (array != null) {
+                    // the array is bound without the path, since column specific types apply to the elements
+                    if (pathAdded) {
+                        constantPaths.removeLast();
+                    }
+                    arrayOrigin = (Constant<?>) args.get(1);
+                    try {
+                        super.visitOperation(type, operator == Ops.IN ? SQLOps.IN_ARRAY : SQLOps.NOT_IN_ARRAY,
+                                Arrays.asList(args.get(0), Expressions.constant(array)));
+                    } finally {
+                        arrayOrigin = null;
+                    }
+                } else if (templates.getListMaxSize() == 0 || coll.size() <= templates.getListMaxSize()) {
+                    if (templates.getInListStrategy() == SQLTemplates.InListStrategy.PAD && !useLiterals) {
+                        int size = Integer.highestOneBit(coll.size() - 1) << 1;
+                        if (templates.getListMaxSize() > 0) {
+                            size = Math.min(size, templates.getListMaxSize());
+                        }
+                        listPadding = Math.max(size - coll.size(), 0);
+                    }
+                    try {
+                        super.visitOperation(type, operator, args);
+                    } finally {
+                        listPadding = 0;
+                    }
                 } else {
                     //The type of the path is compatible with the constant
                     //expression, since the compile time checking mandates it to be
@@ -993,6 +1141,9 @@ public class SQLSerializer extends SerializerBase<SQLSerializer> {
                     if (pathAdded) {
                         constantPaths.removeLast();
                     }
+                    if (readConstants != null) {
+                        markRead(args);
+                    }
                     Iterable<List<Object>> partitioned = CollectionUtils.partition(new ArrayList<>(coll), templates.getListMaxSize());
                     Predicate result;
                     if (operator == Ops.IN) {
@@ -0,0 +1,324 @@
+/*
+ * Copyright 2015, The Querydsl Team (http://www.querydsl.com/team)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.querydsl.sql;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import org.jetbrains.annotations.Nullable;
+
+import com.querydsl.core.JoinExpression;
+import com.querydsl.core.JoinFlag;
+import com.querydsl.core.QueryFlag;
+import com.querydsl.core.QueryMetadata;
+import com.querydsl.core.types.*;
+
+/**
+ * {@code SQLShape} is the structural shape of a query with the constant values abstracted.
+ *
+ * <p>Two queries with equal shapes are serialized into the same SQL string, as long as the
+ * constants which are rendered into the SQL string are equal as well. The constant expressions
+ * are collected in a stable traversal order, so that the constants of a query can be mapped
+ * to the bindings of an earlier serialization of the same shape.</p>
+ */
+final class SQLShape {
+
+    private static final Object CONSTANT = new Object();
+
+    private static final Object SUBQUERY = new Object();
+
+    private static final Object INSERT = new Object();
+
+    private static final Object MERGE = new Object();
+
+    private static final Object UPDATE = new Object();
+
+    private static final Visitor<Void, SQLShape> VISITOR = new Visitor<Void, SQLShape>() {
+
+        @Override
+        public Void visit(Constant<?> expr, SQLShape context) {
+            Object value = expr.getConstant();
+            context.tokens.add(CONSTANT);
+            context.tokens.add(value != null ? value.getClass() : null);
+            if (value instanceof Collection) {
+                context.tokens.add(((Collection<?>) value).size());
+            }
+            context.constants.add(expr);
+            return null;
+        }
+
+        @Override
+        public Void visit(FactoryExpression<?> expr, SQLShape context) {
+            context.tokens.add(expr.getClass());
+            context.tokens.add(expr.getType());
+            context.handle(expr.getArgs());
+            return null;
+        }
+
+        @Override
+        public Void visit(Operation<?> expr, SQLShape context) {
+            context.tokens.add(expr.getOperator());
+            context.tokens.add(expr.getType());
+            context.handle(expr.getArgs());
+            return null;
+        }
+
+        @Override
+        public Void visit(ParamExpression<?> expr, SQLShape context) {
+            context.tokens.add(expr);
+            return null;
+        }
+
+        @Override
+        public Void visit(Path<?> expr, SQLShape context) {
+            context.tokens.add(expr);
+            context.tokens.add(expr.getType());
+            if (expr instanceof RelationalPath<?>) {
+                RelationalPath<?> relationalPath = (RelationalPath<?>) expr;
+                context.tokens.add(relationalPath.getSchemaName());
+                context.tokens.add(relationalPath.getTableName());
+            }
+            Path<?> parent = expr.getMetadata().getParent();
+            if (parent != null) {
+                if (parent instanceof RelationalPath<?>) {
+                    context.tokens.add(ColumnMetadata.getName(expr));
+                }
+                parent.accept(this, context);
+            }
+            return null;
+        }
+
+        @Override
+        public Void visit(SubQueryExpression<?> expr, SQLShape context) {
+            context.tokens.add(SUBQUERY);
+            context.handle(expr.getMetadata());
+            return null;
+        }
+
+        @Override
+        public Void visit(TemplateExpression<?> expr, SQLShape context) {
+            context.tokens.add(expr.getTemplate());
+            context.tokens.add(expr.getType());
+            context.tokens.add(expr.getArgs().size());
+            for (Object arg : expr.getArgs()) {
+                if (arg instanceof Expression<?>) {
+                    ((Expression<?>) arg).accept(this, context);
+                } else {
+                    context.tokens.add(arg);
+                }
+            }
+            return null;
+        }
+
+    };
+
+    /**
+     * Create the shape of the given query
+     *
+     * @param queryType query type
+     * @param metadata query metadata
+     * @param union union expression or null
+     * @param unionAll true, for union all
+     * @param forCountRow true, for count query
+     * @return shape
+     */
+    static SQLShape of(Class<?> queryType, QueryMetadata metadata, @Nullable Expression<?> union,
+                       boolean unionAll, boolean forCountRow) {
+        SQLShape shape = new SQLShape(new ArrayList<>(), new ArrayList<>());
+        shape.tokens.add(queryType);
+        shape.tokens.add(forCountRow);
+        shape.tokens.add(unionAll);
+        shape.handle(union);
+        shape.handle(metadata);
+        return shape;
+    }
+
+    /**
+     * Create the shape of the given insert
+     *
+     * @param serializerType serializer type
+     * @param metadata metadata of the clause
+     * @param entity target table
+     * @param columns columns
+     * @param values values
+     * @param subQuery sub query or null
+     * @return shape
+     */
+    static SQLShape ofInsert(Class<?> serializerType, QueryMetadata metadata, RelationalPath<?> entity,
+                             List<Path<?>> columns, List<Expression<?>> values,
+                             @Nullable SubQueryExpression<?> subQuery) {
+        SQLShape shape = new SQLShape(new ArrayList<>(), new ArrayList<>());
+        shape.tokens.add(INSERT);
+        shape.tokens.add(serializerType);
+        shape.handle(entity);
+        shape.handle(columns);
+        shape.handle(values);
+        shape.handle(subQuery);
+        shape.handle(metadata);
+        return shape;
+    }
+
+    /**
+     * Create the shape of the given merge
+     *
+     * @param serializerType serializer type
+     * @param metadata metadata of the clause
+     * @param entity target table
+     * @param keys key columns
+     * @param columns columns
+     * @param values values
+     * @param subQuery sub query or null
+     * @return shape
+     */
+    static SQLShape ofMerge(Class<?> serializerType, QueryMetadata metadata, RelationalPath<?> entity,
+                            List<Path<?>> keys, List<Path<?>> columns, List<Expression<?>> values,
+                            @Nullable SubQueryExpression<?> subQuery) {
+        SQLShape shape = new SQLShape(new ArrayList<>(), new ArrayList<>());
+        shape.tokens.add(MERGE);
+        shape.tokens.add(serializerType);
+        shape.handle(entity);
+        shape.handle(keys);
+        shape.handle(columns);
+        shape.handle(values);
+        shape.handle(subQuery);
+        shape.handle(metadata);
+        return shape;
+    }
+
+    /**
+     * Create the shape of the given update
+     *
+     * @param serializerType serializer type
+     * @param metadata metadata of the clause
+     * @param entity target table
+     * @param updates updates
+     * @return shape
+     */
+    static SQLShape ofUpdate(Class<?> serializerType, QueryMetadata metadata, RelationalPath<?> entity,
+                             Map<Path<?>, Expression<?>> updates) {
+        SQLShape shape = new SQLShape(new ArrayList<>(), new ArrayList<>());
+        shape.tokens.add(UPDATE);
+        shape.tokens.add(serializerType);
+        shape.handle(entity);
+        shape.tokens.add(updates.size());
+        for (Map.Entry<Path<?>, Expression<?>> update : updates.entrySet()) {
+            shape.handle(update.getKey());
+            shape.handle(update.getValue());
+        }
+        shape.handle(metadata);
+        return shape;
+    }
+
+    private final List<Object> tokens;
+
+    private final List<Constant<?>> constants;
+
+    private int hashCode;
+
+    private SQLShape(List<Object> tokens, List<Constant<?>> constants) {
+        this.tokens = tokens;
+        this.constants = constants;
+    }
+
+    private void handle(@Nullable Expression<?> expr) {
+        if (expr != null) {
+            expr.accept(VISITOR, this);
+        } else {
+            tokens.add(null);
+        }
+    }
+
+    private void handle(List<? extends Expression<?>> exprs) {
+        tokens.add(exprs.size());
+        for (Expression<?> expr : exprs) {
+            expr.accept(VISITOR, this);
+        }
+    }
+
+    private void handle(QueryMetadata metadata) {
+        tokens.add(metadata.isDistinct());
+        tokens.add(metadata.getModifiers().getLimit());
+        tokens.add(metadata.getModifiers().getOffset());
+        handle(metadata.getProjection());
+        tokens.add(metadata.getJoins().size());
+        for (JoinExpression join : metadata.getJoins()) {
+            tokens.add(join.getType());
+            tokens.add(join.getFlags().size());
+            for (JoinFlag flag : join.getFlags()) {
+                tokens.add(flag.getPosition());
+                handle(flag.getFlag());
+            }
+            handle(join.getTarget());
+            handle(join.getCondition());
+        }
+        handle(metadata.getWhere());
+        handle(metadata.getGroupBy());
+        handle(metadata.getHaving());
+        tokens.add(metadata.getOrderBy().size());
+        for (OrderSpecifier<?> order : metadata.getOrderBy()) {
+            tokens.add(order.getOrder());
+            tokens.add(order.getNullHandling());
+            handle(order.getTarget());
+        }
+        tokens.add(metadata.getFlags().size());
+        for (QueryFlag flag : metadata.getFlags()) {
+            tokens.add(flag.getPosition());
+            handle(flag.getFlag());
+        }
+    }
+
+    /**
+     * Get the constant expressions of the query in traversal order
+     *
+     * @return constants
+     */
+    List<Constant<?>> getConstants() {
+        return constants;
+    }
+
+    /**
+     * Get a copy of this shape without references to the constants, to be used as a cache key
+     *
+     * @return shape without constants
+     */
+    SQLShape withoutConstants() {
+        SQLShape shape = new SQLShape(tokens, Collections.<Constant<?>>emptyList());
+        shape.hashCode = hashCode;
+        return shape;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (o == this) {
+            return true;
+        } else if (o instanceof SQLShape) {
+            SQLShape other = (SQLShape) o;
+            return hashCode() == other.hashCode() && tokens.equals(other.tokens);
+        } else {
+            return false;
+        }
+    }
+
+    @Override
+    public int hashCode() {
+        if (hashCode == 0) {
+            hashCode = tokens.hashCode();
+        }
+        return hashCode;
+    }
+
+}
@@ -0,0 +1,325 @@
+/*
+ * Copyright 2015, The Querydsl Team (http://www.querydsl.com/team)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.querydsl.sql;
+
+import java.lang.reflect.Array;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.jetbrains.annotations.Nullable;
+
+import com.querydsl.core.QueryMetadata;
+import com.querydsl.core.types.Constant;
+import com.querydsl.core.types.Expression;
+import com.querydsl.core.types.Path;
+import com.querydsl.core.types.SubQueryExpression;
+
+/**
+ * {@code SQLShapeCache} is a bounded LRU cache from query shapes to rendered SQL strings.
+ *
+ * <p>On a cache hit the serialization of the query is skipped and only the constants of the
+ * query are extracted for binding. Shapes with constants that are rendered into the SQL string
+ * are cached only as long as those constants don't change between executions.</p>
+ *
+ * <p>Use {@link Configuration#setShapeCacheSize(int)} to enable the cache. The batches of DML
+ * clauses are serialized via a shape cache in any case, so that batches of the same shape
+ * are serialized only once.</p>
+ */
+public final class SQLShapeCache {
+
+    private static final Entry UNCACHEABLE = new Entry(null, null, null, null, null, null);
+
+    private static final int FIXED = -1;
+
+    private final Map<SQLShape, Entry> entries;
+
+    private final AtomicLong hits = new AtomicLong();
+
+    private final AtomicLong misses = new AtomicLong();
+
+    /**
+     * Create a new SQLShapeCache instance
+     *
+     * @param maxSize maximum amount of shapes to keep
+     */
+    public SQLShapeCache(final int maxSize) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("maxSize needs to be positive, got " + maxSize);
+        }
+        this.entries = Collections.synchronizedMap(new LinkedHashMap<SQLShape, Entry>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<SQLShape, Entry> eldest) {
+                return size() > maxSize;
+            }
+        });
+    }
+
+    /**
+     * Get the amount of serializations which have been served from the cache
+     *
+     * @return hit count
+     */
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    /**
+     * Get the amount of serializations which could not be served from the cache
+     *
+     * @return miss count
+     */
+    public long getMissCount() {
+        return misses.get();
+    }
+
+    /**
+     * Get the amount of cached shapes
+     *
+     * @return size
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Remove all cached shapes
+     */
+    public void clear() {
+        entries.clear();
+    }
+
+    /**
+     * Serialize the given insert, reusing the serialization of an earlier insert of the same shape
+     *
+     * @param serializer serializer to populate
+     * @param metadata metadata of the clause
+     * @param entity target table
+     * @param columns columns
+     * @param values values
+     * @param subQuery sub query or null
+     */
+    public void serializeInsert(SQLSerializer serializer, QueryMetadata metadata, RelationalPath<?> entity,
+                                List<Path<?>> columns, List<Expression<?>> values,
+                                @Nullable SubQueryExpression<?> subQuery) {
+        SQLShape shape = SQLShape.ofInsert(serializer.getClass(), metadata, entity, columns, values, subQuery);
+        if (!replay(shape, serializer)) {
+            serializer.trackConstantOrigins();
+            serializer.serializeInsert(metadata, entity, columns, values, subQuery);
+            put(shape, serializer);
+        }
+    }
+
+    /**
+     * Serialize the given merge, reusing the serialization of an earlier merge of the same shape
+     *
+     * @param serializer serializer to populate
+     * @param metadata metadata of the clause
+     * @param entity target table
+     * @param keys key columns
+     * @param columns columns
+     * @param values values
+     * @param subQuery sub query or null
+     */
+    public void serializeMerge(SQLSerializer serializer, QueryMetadata metadata, RelationalPath<?> entity,
+                               List<Path<?>> keys, List<Path<?>> columns, List<Expression<?>> values,
+                               @Nullable SubQueryExpression<?> subQuery) {
+        SQLShape shape = SQLShape.ofMerge(serializer.getClass(), metadata, entity, keys, columns, values, subQuery);
+        if (!replay(shape, serializer)) {
+            serializer.trackConstantOrigins();
+            serializer.serializeMerge(metadata, entity, keys, columns, values, subQuery);
+            put(shape, serializer);
+        }
+    }
+
+    /**
+     * Serialize the given update, reusing the serialization of an earlier update of the same shape
+     *
+     * @param serializer serializer to populate
+     * @param metadata metadata of the clause
+     * @param entity target table
+     * @param updates updates
+     */
+    public void serializeUpdate(SQLSerializer serializer, QueryMetadata metadata, RelationalPath<?> entity,
+                                Map<Path<?>, Expression<?>> updates) {
+        SQLShape shape = SQLShape.ofUpdate(serializer.getClass(), metadata, entity, updates);
+        if (!replay(shape, serializer)) {
+            serializer.trackConstantOrigins();
+            serializer.serializeUpdate(metadata, entity, updates);
+            put(shape, serializer);
+        }
+    }
+
+    /**
+     * Replay the cached serialization of the given shape into the serializer
+     *
+     * @param shape query shape
+     * @param serializer serializer to populate
+     * @return true, if the serialization was found in the cache
+     */
+    boolean replay(SQLShape shape, SQLSerializer serializer) {
+        Entry entry = entries.get(shape);
+        if (entry == null || entry == UNCACHEABLE) {
+            misses.incrementAndGet();
+            return false;
+        }
+        List<Constant<?>> constants = shape.getConstants();
+        for (int i = 0; i < entry.guards.length; i++) {
+            Object value = constants.get(entry.guards[i]).getConstant();
+            if (!entry.guardValues[i].equals(value)) {
+                // constants rendered into the SQL string vary, stop caching this shape
+                entries.put(shape.withoutConstants(), UNCACHEABLE);
+                misses.incrementAndGet();
+                return false;
+            }
+        }
+        List<Object> bindings = new ArrayList<>(entry.slots.length);
+        Object[][] elements = null;
+        for (int i = 0; i < entry.slots.length; i++) {
+            int slot = entry.slots[i];
+            if (slot == FIXED) {
+                bindings.add(entry.fixed[i]);
+            } else {
+                Object value = constants.get(slot).getConstant();
+                if (value instanceof Collection && entry.fixed[i] instanceof Class) {
+                    // in-list bound as a single array
+                    Collection<?> coll = (Collection<?>) value;
+                    value = coll.toArray((Object[]) Array.newInstance((Class<?>) entry.fixed[i], coll.size()));
+                } else if (value instanceof Collection) {
+                    if (elements == null) {
+                        elements = new Object[constants.size()][];
+                    }
+                    if (elements[slot] == null) {
+                        elements[slot] = ((Collection<?>) value).toArray();
+                    }
+                    value = elements[slot][(Integer) entry.fixed[i]];
+                }
+                bindings.add(value);
+            }
+        }
+        serializer.replay(entry.sql, bindings, entry.constantPaths);
+        hits.incrementAndGet();
+        return true;
+    }
+
+    /**
+     * Cache the serialization of the given shape
+     *
+     * @param shape query shape
+     * @param serializer serializer with tracked constant origins
+     */
+    void put(SQLShape shape, SQLSerializer serializer) {
+        List<Object> origins = serializer.getConstantOrigins();
+        Set<Constant<?>> readConstants = serializer.getReadConstants();
+        if (origins == null || readConstants == null) {
+            return;
+        }
+        List<Constant<?>> constants = shape.getConstants();
+        Map<Constant<?>, Integer> slotOf = new IdentityHashMap<>();
+        for (int i = 0; i < constants.size(); i++) {
+            if (slotOf.put(constants.get(i), i) != null) {
+                // the same constant is used in multiple places, its bindings can't be mapped
+                return;
+            }
+        }
+
+        List<Object> bindings = serializer.getConstants();
+        int[] slots = new int[bindings.size()];
+        Object[] fixed = new Object[bindings.size()];
+        boolean[] bound = new boolean[constants.size()];
+        int run = 0;
+        for (int i = 0; i < slots.length; i++) {
+            Object origin = origins.get(i);
+            Integer slot = origin != null ? slotOf.get(origin) : null;
+            if (slot == null) {
+                // parameters and constants derived from the shape or the read constants
+                slots[i] = FIXED;
+                fixed[i] = bindings.get(i);
+                run = 0;
+            } else {
+                slots[i] = slot;
+                bound[slot] = true;
+                Object value = constants.get(slot).getConstant();
+                if (value instanceof Collection && bindings.get(i) instanceof Object[]) {
+                    fixed[i] = bindings.get(i).getClass().getComponentType();
+                    run = 0;
+                } else if (value instanceof Collection) {
+                    int size = ((Collection<?>) value).size();
+                    run = i > 0 && origins.get(i - 1) == origin ? run + 1 : 0;
+                    fixed[i] = run % size;
+                } else {
+                    run = 0;
+                }
+            }
+        }
+
+        List<Integer> guards = new ArrayList<>();
+        for (int i = 0; i < constants.size(); i++) {
+            if (!bound[i] || readConstants.contains(constants.get(i))) {
+                if (constants.get(i).getConstant() == null) {
+                    return;
+                }
+                guards.add(i);
+            }
+        }
+        int[] guardSlots = new int[guards.size()];
+        Object[] guardValues = new Object[guards.size()];
+        for (int i = 0; i < guardSlots.length; i++) {
+            guardSlots[i] = guards.get(i);
+            guardValues[i] = constants.get(guardSlots[i]).getConstant();
+        }
+
+        Entry entry = new Entry(serializer.toString(), slots, fixed,
+                new ArrayList<>(serializer.getConstantPaths()), guardSlots, guardValues);
+        SQLShape key = shape.withoutConstants();
+        synchronized (entries) {
+            if (entries.get(key) != UNCACHEABLE) {
+                entries.put(key, entry);
+            }
+        }
+    }
+
+    private static final class Entry {
+
+        private final String sql;
+
+        private final int[] slots;
+
+        private final Object[] fixed;
+
+        private final List<Path<?>> constantPaths;
+
+        private final int[] guards;
+
+        private final Object[] guardValues;
+
+        Entry(@Nullable String sql, @Nullable int[] slots, @Nullable Object[] fixed,
+              @Nullable List<Path<?>> constantPaths, @Nullable int[] guards, @Nullable Object[] guardValues) {
+            this.sql = sql;
+            this.slots = slots;
+            this.fixed = fixed;
+            this.constantPaths = constantPaths;
+            this.guards = guards;
+            this.guardValues = guardValues;
+        }
+
+    }
+
+}
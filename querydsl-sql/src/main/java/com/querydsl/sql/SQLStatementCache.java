@@ -0,0 +1,360 @@
+/*
+ * Copyright 2015, The Querydsl Team (http://www.querydsl.com/team)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.querydsl.sql;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * {@code SQLStatementCache} keeps prepared statements open per connection, so that repeated
+ * executions of the same SQL string on the same connection skip the prepare round-trip.
+ *
+ * <p>Statements are keyed by the SQL string and the key generation mode. Each connection keeps
+ * at most {@code maxSize} idle statements, the least recently used ones are closed first.
+ * A statement is removed from the cache while it is in use and returned to it by
+ * {@link #release(Statement)}, so nested executions of the same SQL string get their own
+ * statements. {@link #close(Connection)} discards the statements of a connection before it
+ * is closed, {@link SQLCloseListener} does this for the connections it closes. Statements
+ * of connections which have been closed otherwise are discarded when they are released
+ * or when the next connection is registered.</p>
+ *
+ * <p>Use {@link Configuration#setStatementCacheSize(int)} to enable the cache.</p>
+ */
+public final class SQLStatementCache {
+
+    /**
+     * Key of the listener context data entry which holds the statement cache in use
+     */
+    public static final String CONTEXT_KEY = SQLStatementCache.class.getName();
+
+    private final int maxSize;
+
+    private final Map<Connection, Map<Key, PreparedStatement>> idle =
+            Collections.synchronizedMap(new IdentityHashMap<Connection, Map<Key, PreparedStatement>>());
+
+    private final Map<Statement, Lease> leased =
+            Collections.synchronizedMap(new IdentityHashMap<Statement, Lease>());
+
+    private final AtomicLong hits = new AtomicLong();
+
+    private final AtomicLong misses = new AtomicLong();
+
+    /**
+     * Create a new SQLStatementCache instance
+     *
+     * @param maxSize maximum amount of idle statements per connection
+     */
+    public SQLStatementCache(int maxSize) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("maxSize needs to be positive, got " + maxSize);
+        }
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Get the amount of statements which have been served from the cache
+     *
+     * @return hit count
+     */
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    /**
+     * Get the amount of statements which had to be prepared
+     *
+     * @return miss count
+     */
+    public long getMissCount() {
+        return misses.get();
+    }
+
+    /**
+     * Get the amount of idle statements of the given connection
+     *
+     * @param connection connection
+     * @return size
+     */
+    public int size(Connection connection) {
+        Map<Key, PreparedStatement> statements = idle.get(connection);
+        if (statements == null) {
+            return 0;
+        }
+        synchronized (statements) {
+            return statements.size();
+        }
+    }
+
+    /**
+     * Get a prepared statement for the given SQL string
+     *
+     * @param connection connection
+     * @param sql SQL string
+     * @return prepared statement
+     * @throws SQLException
+     */
+    public PreparedStatement prepare(Connection connection, String sql) throws SQLException {
+        return prepare(connection, new Key(sql, Statement.NO_GENERATED_KEYS, null));
+    }
+
+    /**
+     * Get a prepared statement for the given SQL string
+     *
+     * @param connection connection
+     * @param sql SQL string
+     * @param autoGeneratedKeys key generation mode
+     * @return prepared statement
+     * @throws SQLException
+     */
+    public PreparedStatement prepare(Connection connection, String sql, int autoGeneratedKeys) throws SQLException {
+        return prepare(connection, new Key(sql, autoGeneratedKeys, null));
+    }
+
+    /**
+     * Get a prepared statement for the given SQL string
+     *
+     * @param connection connection
+     * @param sql SQL string
+     * @param columnNames names of the generated key columns
+     * @return prepared statement
+     * @throws SQLException
+     */
+    public PreparedStatement prepare(Connection connection, String sql, String[] columnNames) throws SQLException {
+        return prepare(connection, new Key(sql, Statement.NO_GENERATED_KEYS, columnNames.clone()));
+    }
+
+    private PreparedStatement prepare(Connection connection, Key key) throws SQLException {
+        PreparedStatement stmt = null;
+        Map<Key, PreparedStatement> statements = idle.get(connection);
+        if (statements != null) {
+            synchronized (statements) {
+                stmt = statements.remove(key);
+            }
+            if (stmt != null && stmt.isClosed()) {
+                // the connection has been closed in the meantime
+                idle.remove(connection);
+                stmt = null;
+            }
+        }
+        if (stmt != null) {
+            hits.incrementAndGet();
+        } else {
+            misses.incrementAndGet();
+            stmt = key.prepare(connection);
+        }
+        leased.put(stmt, new Lease(connection, key));
+        return stmt;
+    }
+
+    /**
+     * Return the given statement to the cache or close it, if it hasn't been obtained from
+     * this cache
+     *
+     * @param stmt statement
+     * @throws SQLException
+     */
+    public void release(Statement stmt) throws SQLException {
+        Lease lease = leased.remove(stmt);
+        if (lease == null) {
+            stmt.close();
+            return;
+        }
+        if (stmt.isClosed()) {
+            // the connection has been closed while the statement was in use
+            idle.remove(lease.connection);
+            return;
+        }
+        PreparedStatement evicted;
+        try {
+            PreparedStatement prepared = (PreparedStatement) stmt;
+            prepared.clearParameters();
+            prepared.clearBatch();
+            prepared.clearWarnings();
+            evicted = statementsOf(lease.connection).put(lease.key, prepared);
+        } catch (SQLException | RuntimeException e) {
+            stmt.close();
+            throw e;
+        }
+        if (evicted != null) {
+            // a statement for the same key was released while this one was in use
+            evicted.close();
+        }
+    }
+
+    /**
+     * Close the idle statements of the given connection and remove the connection from the cache
+     *
+     * @param connection connection
+     * @throws SQLException
+     */
+    public void close(Connection connection) throws SQLException {
+        Map<Key, PreparedStatement> statements = idle.remove(connection);
+        if (statements != null) {
+            SQLException exception = close(statements, null);
+            if (exception != null) {
+                throw exception;
+            }
+        }
+    }
+
+    /**
+     * Close all idle statements
+     *
+     * @throws SQLException
+     */
+    public void clear() throws SQLException {
+        List<Map<Key, PreparedStatement>> connections;
+        synchronized (idle) {
+            connections = new ArrayList<>(idle.values());
+            idle.clear();
+        }
+        SQLException exception = null;
+        for (Map<Key, PreparedStatement> statements : connections) {
+            exception = close(statements, exception);
+        }
+        if (exception != null) {
+            throw exception;
+        }
+    }
+
+    @Nullable
+    private static SQLException close(Map<Key, PreparedStatement> statements, @Nullable SQLException exception) {
+        List<PreparedStatement> toClose;
+        synchronized (statements) {
+            toClose = new ArrayList<>(statements.values());
+            statements.clear();
+        }
+        for (PreparedStatement stmt : toClose) {
+            try {
+                stmt.close();
+            } catch (SQLException e) {
+                exception = e;
+            }
+        }
+        return exception;
+    }
+
+    private Map<Key, PreparedStatement> statementsOf(Connection connection) {
+        synchronized (idle) {
+            Map<Key, PreparedStatement> statements = idle.get(connection);
+            if (statements == null) {
+                removeClosedConnections();
+                statements = Collections.synchronizedMap(new LinkedHashMap<Key, PreparedStatement>(16, 0.75f, true) {
+                    @Override
+                    protected boolean removeEldestEntry(Map.Entry<Key, PreparedStatement> eldest) {
+                        if (size() > maxSize) {
+                            try {
+                                eldest.getValue().close();
+                            } catch (SQLException e) {
+                                // statement is discarded anyway
+                            }
+                            return true;
+                        }
+                        return false;
+                    }
+                });
+                idle.put(connection, statements);
+            }
+            return statements;
+        }
+    }
+
+    private void removeClosedConnections() {
+        Iterator<Connection> connections = idle.keySet().iterator();
+        while (connections.hasNext()) {
+            Connection connection = connections.next();
+            boolean closed;
+            try {
+                closed = connection.isClosed();
+            } catch (SQLException e) {
+                closed = true;
+            }
+            if (closed) {
+                connections.remove();
+            }
+        }
+    }
+
+    private static final class Lease {
+
+        private final Connection connection;
+
+        private final Key key;
+
+        Lease(Connection connection, Key key) {
+            this.connection = connection;
+            this.key = key;
+        }
+
+    }
+
+    private static final class Key {
+
+        private final String sql;
+
+        private final int autoGeneratedKeys;
+
+        @Nullable
+        private final String[] columnNames;
+
+        Key(String sql, int autoGeneratedKeys, @Nullable String[] columnNames) {
+            this.sql = sql;
+            this.autoGeneratedKeys = autoGeneratedKeys;
+            this.columnNames = columnNames;
+        }
+
+        PreparedStatement prepare(Connection connection) throws SQLException {
+            if (columnNames != null) {
+                return connection.prepareStatement(sql, columnNames);
+            } else if (autoGeneratedKeys != Statement.NO_GENERATED_KEYS) {
+                return connection.prepareStatement(sql, autoGeneratedKeys);
+            } else {
+                return connection.prepareStatement(sql);
+            }
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (o == this) {
+                return true;
+            } else if (o instanceof Key) {
+                Key other = (Key) o;
+                return sql.equals(other.sql) && autoGeneratedKeys == other.autoGeneratedKeys
+                        && Arrays.equals(columnNames, other.columnNames);
+            } else {
+                return false;
+            }
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * (31 * sql.hashCode() + autoGeneratedKeys) + Arrays.hashCode(columnNames);
+        }
+
+    }
+
+}
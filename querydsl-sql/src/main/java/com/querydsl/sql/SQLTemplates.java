@@ -62,6 +62,27 @@ public class SQLTemplates extends Templates {
 
     private final Set<String> reservedWords;
 
+    /**
+     * {@code InListStrategy} defines how collection constants of {@code in} and {@code not in}
+     * predicates are bound
+     */
+    public enum InListStrategy {
+        /**
+         * one parameter per element
+         */
+        EXPAND,
+        /**
+         * one parameter per element, with the parameter count padded to the next power of two
+         * by repeating elements, so that the number of distinct statements stays small
+         */
+        PAD,
+        /**
+         * a single array parameter via {@code = any(?)}, if an array type is registered for
+         * the element type, otherwise one parameter per element
+         */
+        ARRAY
+    }
+
     /**
      * Fluent builder for {@code SQLTemplates} instances     *
      */
@@ -71,6 +92,8 @@ public class SQLTemplates extends Templates {
 
         protected char escape = '\\';
 
+        protected InListStrategy inListStrategy = InListStrategy.EXPAND;
+
         public Builder printSchema() {
             printSchema = true;
             return this;
@@ -91,6 +114,11 @@ public class SQLTemplates extends Templates {
             return this;
         }
 
+        public Builder inListStrategy(InListStrategy strategy) {
+            inListStrategy = strategy;
+            return this;
+        }
+
         protected abstract SQLTemplates build(char escape, boolean quote);
 
         public SQLTemplates build() {
@@ -99,6 +127,7 @@ public class SQLTemplates extends Templates {
                 templates.newLineToSingleSpace();
             }
             templates.setPrintSchema(printSchema);
+            templates.setInListStrategy(inListStrategy);
             return templates;
         }
 
@@ -230,6 +259,8 @@ public class SQLTemplates extends Templates {
 
     private int listMaxSize = 0;
 
+    private InListStrategy inListStrategy = InListStrategy.EXPAND;
+
     private boolean supportsUnquotedReservedWordsAsIdentifier = false;
 
     private int maxLimit = Integer.MAX_VALUE;
@@ -265,6 +296,8 @@ public class SQLTemplates extends Templates {
         add(SQLOps.FOR_SHARE, "\nfor share");
         add(SQLOps.NO_WAIT, " nowait");
         add(SQLOps.QUALIFY, "\nqualify {0}");
+        add(SQLOps.IN_ARRAY, "{0} = any({1})", Precedence.COMPARISON);
+        add(SQLOps.NOT_IN_ARRAY, "not ({0} = any({1}))", Precedence.NOT);
 
         // boolean
         add(Ops.AND, "{0} and {1}");
@@ -767,6 +800,10 @@ public class SQLTemplates extends Templates {
         return listMaxSize;
     }
 
+    public final InListStrategy getInListStrategy() {
+        return inListStrategy;
+    }
+
     public final boolean isSupportsUnquotedReservedWordsAsIdentifier() {
         return supportsUnquotedReservedWordsAsIdentifier;
     }
@@ -1186,6 +1223,10 @@ public class SQLTemplates extends Templates {
         listMaxSize = i;
     }
 
+    protected void setInListStrategy(InListStrategy strategy) {
+        inListStrategy = strategy;
+    }
+
     protected void setSupportsUnquotedReservedWordsAsIdentifier(boolean b) {
         this.supportsUnquotedReservedWordsAsIdentifier = b;
     }
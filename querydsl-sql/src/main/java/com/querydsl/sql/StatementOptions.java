@@ -14,7 +14,9 @@
 
 package com.querydsl.sql;
 
+import java.sql.SQLException;
 import java.sql.Statement;
+import java.util.Objects;
 
 import com.querydsl.core.annotations.Immutable;
 
@@ -54,6 +56,47 @@ public class StatementOptions {
         return fetchSize;
     }
 
+    /**
+     * Apply the options to the given statement
+     *
+     * @param statement statement
+     * @throws SQLException
+     */
+    void apply(Statement statement) throws SQLException {
+        if (fetchSize != null) {
+            statement.setFetchSize(fetchSize);
+        }
+        if (maxFieldSize != null) {
+            statement.setMaxFieldSize(maxFieldSize);
+        }
+        if (queryTimeout != null) {
+            statement.setQueryTimeout(queryTimeout);
+        }
+        if (maxRows != null) {
+            statement.setMaxRows(maxRows);
+        }
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (o == this) {
+            return true;
+        } else if (o instanceof StatementOptions) {
+            StatementOptions other = (StatementOptions) o;
+            return Objects.equals(maxFieldSize, other.maxFieldSize)
+                    && Objects.equals(maxRows, other.maxRows)
+                    && Objects.equals(queryTimeout, other.queryTimeout)
+                    && Objects.equals(fetchSize, other.fetchSize);
+        } else {
+            return false;
+        }
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(maxFieldSize, maxRows, queryTimeout, fetchSize);
+    }
+
     public static Builder builder() {
         return new Builder();
     }
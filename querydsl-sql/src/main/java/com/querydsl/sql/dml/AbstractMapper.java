@@ -16,6 +16,8 @@ package com.querydsl.sql.dml;
 import java.util.LinkedHashMap;
 import java.util.Map;
 
+import org.jetbrains.annotations.Nullable;
+
 import com.querydsl.core.types.Path;
 import com.querydsl.sql.RelationalPath;
 
@@ -36,6 +38,18 @@ public abstract class AbstractMapper<T> implements Mapper<T> {
         return columns;
     }
 
+    /**
+     * Get the cached mapping of the given bean class to the columns of the given table
+     *
+     * @param entity table
+     * @param beanClass bean class
+     * @return plan or null, if the mapping is only available via {@link #createMap}
+     */
+    @Nullable
+    MapperPlan getPlan(RelationalPath<?> entity, Class<?> beanClass) {
+        return null;
+    }
+
     protected boolean isPrimaryKeyColumn(RelationalPath<?> parent, Path<?> property) {
         return parent.getPrimaryKey() != null
             && parent.getPrimaryKey().getLocalColumns().contains(property);
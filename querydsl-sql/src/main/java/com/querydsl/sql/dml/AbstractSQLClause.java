@@ -40,6 +40,8 @@ import com.querydsl.sql.*;
  */
 public abstract class AbstractSQLClause<C extends AbstractSQLClause<C>> implements DMLClause<C> {
 
+    private static final int BATCH_SHAPES = 16;
+
     protected final Configuration configuration;
 
     protected final SQLListeners listeners;
@@ -94,6 +96,9 @@ public abstract class AbstractSQLClause<C extends AbstractSQLClause<C>> implemen
      */
     protected SQLListenerContextImpl startContext(Connection connection, QueryMetadata metadata, RelationalPath<?> entity) {
         SQLListenerContextImpl context = new SQLListenerContextImpl(metadata, connection, entity);
+        if (configuration.getStatementCache() != null) {
+            context.setData(SQLStatementCache.CONTEXT_KEY, configuration.getStatementCache());
+        }
         listeners.start(context);
         return context;
     }
@@ -136,6 +141,21 @@ public abstract class AbstractSQLClause<C extends AbstractSQLClause<C>> implemen
         return new SQLBindings(queryString, args);
     }
 
+    /**
+     * Get the shape cache to serialize batches with, so that batches of the same shape are
+     * serialized only once
+     *
+     * @return shape cache or null, if literals are used
+     */
+    @Nullable
+    SQLShapeCache getBatchShapeCache() {
+        if (useLiterals) {
+            return null;
+        }
+        SQLShapeCache shapeCache = configuration.getShapeCache();
+        return shapeCache != null ? shapeCache : new SQLShapeCache(BATCH_SHAPES);
+    }
+
     protected SQLSerializer createSerializer() {
         SQLSerializer serializer = new SQLSerializer(configuration, true);
         serializer.setUseLiterals(useLiterals);
@@ -204,7 +224,7 @@ public abstract class AbstractSQLClause<C extends AbstractSQLClause<C>> implemen
 
     protected void close(Statement stmt) {
         try {
-            stmt.close();
+            configuration.releaseStatement(stmt);
         } catch (SQLException e) {
             throw configuration.translate(e);
         }
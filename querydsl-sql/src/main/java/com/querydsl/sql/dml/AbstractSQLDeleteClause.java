@@ -128,11 +128,16 @@ public abstract class AbstractSQLDeleteClause<C extends AbstractSQLDeleteClause<
         listeners.rendered(context);
 
         listeners.prePrepare(context);
-        PreparedStatement stmt = connection().prepareStatement(queryString);
-        setParameters(stmt, serializer.getConstants(), serializer.getConstantPaths(), metadata.getParams());
+        PreparedStatement stmt = configuration.prepareStatement(connection(), queryString);
+        try {
+            setParameters(stmt, serializer.getConstants(), serializer.getConstantPaths(), metadata.getParams());
 
-        context.addPreparedStatement(stmt);
-        listeners.prepared(context);
+            context.addPreparedStatement(stmt);
+            listeners.prepared(context);
+        } catch (RuntimeException e) {
+            close(stmt);
+            throw e;
+        }
 
         return stmt;
     }
@@ -150,38 +155,43 @@ public abstract class AbstractSQLDeleteClause<C extends AbstractSQLDeleteClause<
 
         Map<String, PreparedStatement> stmts = new HashMap<>();
 
-        // add first batch
-        listeners.prePrepare(context);
-        PreparedStatement stmt = connection().prepareStatement(queryString);
-        setParameters(stmt, serializer.getConstants(), serializer.getConstantPaths(), metadata.getParams());
-        if (addBatches) {
-            stmt.addBatch();
-        }
-        stmts.put(queryString, stmt);
-        context.addPreparedStatement(stmt);
-        listeners.prepared(context);
-
-
-        // add other batches
-        for (int i = 1; i < batches.size(); i++) {
-            listeners.preRender(context);
-            serializer = createSerializer();
-            serializer.serializeDelete(batches.get(i), entity);
-            context.addSQL(createBindings(metadata, serializer));
-            listeners.rendered(context);
-
-            stmt = stmts.get(serializer.toString());
-            if (stmt == null) {
-                listeners.prePrepare(context);
-                stmt = connection().prepareStatement(serializer.toString());
-                stmts.put(serializer.toString(), stmt);
-                context.addPreparedStatement(stmt);
-                listeners.prepared(context);
-            }
+        try {
+            // add first batch
+            listeners.prePrepare(context);
+            PreparedStatement stmt = configuration.prepareStatement(connection(), queryString);
+            stmts.put(queryString, stmt);
             setParameters(stmt, serializer.getConstants(), serializer.getConstantPaths(), metadata.getParams());
             if (addBatches) {
                 stmt.addBatch();
             }
+            context.addPreparedStatement(stmt);
+            listeners.prepared(context);
+
+
+            // add other batches
+            for (int i = 1; i < batches.size(); i++) {
+                listeners.preRender(context);
+                serializer = createSerializer();
+                serializer.serializeDelete(batches.get(i), entity);
+                context.addSQL(createBindings(metadata, serializer));
+                listeners.rendered(context);
+
+                stmt = stmts.get(serializer.toString());
+                if (stmt == null) {
+                    listeners.prePrepare(context);
+                    stmt = configuration.prepareStatement(connection(), serializer.toString());
+                    stmts.put(serializer.toString(), stmt);
+                    context.addPreparedStatement(stmt);
+                    listeners.prepared(context);
+                }
+                setParameters(stmt, serializer.getConstants(), serializer.getConstantPaths(), metadata.getParams());
+                if (addBatches) {
+                    stmt.addBatch();
+                }
+            }
+        } catch (SQLException | RuntimeException e) {
+            close(stmts.values());
+            throw e;
         }
 
         return stmts.values();
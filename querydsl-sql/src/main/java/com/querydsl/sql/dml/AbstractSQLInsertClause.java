@@ -263,46 +263,60 @@ public abstract class AbstractSQLInsertClause<C extends AbstractSQLInsertClause<
         }
 
         Map<String, PreparedStatement> stmts = new HashMap<>();
+        SQLShapeCache shapes = getBatchShapeCache();
 
-        // add first batch
-        SQLSerializer serializer = createSerializer();
-        serializer.serializeInsert(metadata, entity, batches.get(0).getColumns(), batches
-                .get(0).getValues(), batches.get(0).getSubQuery());
-        PreparedStatement stmt = prepareStatementAndSetParameters(serializer, withKeys);
-        if (addBatches) {
-            stmt.addBatch();
-        }
-        stmts.put(serializer.toString(), stmt);
-        context.addSQL(createBindings(metadata, serializer));
-        listeners.rendered(context);
-
-        // add other batches
-        for (int i = 1; i < batches.size(); i++) {
-            SQLInsertBatch batch = batches.get(i);
-
-            listeners.preRender(context);
-            serializer = createSerializer();
-            serializer.serializeInsert(metadata, entity, batch.getColumns(),
-                    batch.getValues(), batch.getSubQuery());
+        try {
+            // add first batch
+            SQLSerializer serializer = serializeBatch(shapes, batches.get(0));
+            PreparedStatement stmt = prepareStatementAndSetParameters(serializer, withKeys);
+            stmts.put(serializer.toString(), stmt);
+            if (addBatches) {
+                stmt.addBatch();
+            }
             context.addSQL(createBindings(metadata, serializer));
             listeners.rendered(context);
 
-            stmt = stmts.get(serializer.toString());
-            if (stmt == null) {
-                stmt = prepareStatementAndSetParameters(serializer, withKeys);
-                stmts.put(serializer.toString(), stmt);
-            } else {
-                setParameters(stmt, serializer.getConstants(), serializer.getConstantPaths(),
-                        metadata.getParams());
-            }
-            if (addBatches) {
-                stmt.addBatch();
+            // add other batches
+            for (int i = 1; i < batches.size(); i++) {
+                SQLInsertBatch batch = batches.get(i);
+
+                listeners.preRender(context);
+                serializer = serializeBatch(shapes, batch);
+                context.addSQL(createBindings(metadata, serializer));
+                listeners.rendered(context);
+
+                stmt = stmts.get(serializer.toString());
+                if (stmt == null) {
+                    stmt = prepareStatementAndSetParameters(serializer, withKeys);
+                    stmts.put(serializer.toString(), stmt);
+                } else {
+                    setParameters(stmt, serializer.getConstants(), serializer.getConstantPaths(),
+                            metadata.getParams());
+                }
+                if (addBatches) {
+                    stmt.addBatch();
+                }
             }
+        } catch (SQLException | RuntimeException e) {
+            close(stmts.values());
+            throw e;
         }
 
         return stmts.values();
     }
 
+    private SQLSerializer serializeBatch(@Nullable SQLShapeCache shapes, SQLInsertBatch batch) {
+        SQLSerializer serializer = createSerializer();
+        if (shapes != null) {
+            shapes.serializeInsert(serializer, metadata, entity, batch.getColumns(),
+                    batch.getValues(), batch.getSubQuery());
+        } else {
+            serializer.serializeInsert(metadata, entity, batch.getColumns(),
+                    batch.getValues(), batch.getSubQuery());
+        }
+        return serializer;
+    }
+
     protected PreparedStatement prepareStatementAndSetParameters(SQLSerializer serializer,
             boolean withKeys) throws SQLException {
         listeners.prePrepare(context);
@@ -320,18 +334,23 @@ public abstract class AbstractSQLInsertClause<C extends AbstractSQLInsertClause<
                     column = configuration.getColumnOverride(entity.getSchemaAndTable(), column);
                     target[i] = column;
                 }
-                stmt = connection().prepareStatement(queryString, target);
+                stmt = configuration.prepareStatement(connection(), queryString, target);
             } else {
-                stmt = connection().prepareStatement(queryString, Statement.RETURN_GENERATED_KEYS);
+                stmt = configuration.prepareStatement(connection(), queryString, Statement.RETURN_GENERATED_KEYS);
             }
         } else {
-            stmt = connection().prepareStatement(queryString);
+            stmt = configuration.prepareStatement(connection(), queryString);
+        }
+        try {
+            setParameters(stmt, serializer.getConstants(), serializer.getConstantPaths(),
+                    metadata.getParams());
+
+            context.addPreparedStatement(stmt);
+            listeners.prepared(context);
+        } catch (RuntimeException e) {
+            close(stmt);
+            throw e;
         }
-        setParameters(stmt, serializer.getConstants(), serializer.getConstantPaths(),
-                metadata.getParams());
-
-        context.addPreparedStatement(stmt);
-        listeners.prepared(context);
         return stmt;
     }
 
@@ -342,8 +361,8 @@ public abstract class AbstractSQLInsertClause<C extends AbstractSQLInsertClause<
      */
     public ResultSet executeWithKeys() {
         context = startContext(connection(), metadata, entity);
+        PreparedStatement stmt = null;
         try {
-            PreparedStatement stmt = null;
             if (batches.isEmpty()) {
                 stmt = createStatement(true);
                 listeners.notifyInsert(entity, metadata, columns, values, subQuery);
@@ -361,6 +380,7 @@ public abstract class AbstractSQLInsertClause<C extends AbstractSQLInsertClause<
             } else {
                 Collection<PreparedStatement> stmts = createStatements(true);
                 if (stmts != null && stmts.size() > 1) {
+                    close(stmts);
                     throw new IllegalStateException("executeWithKeys called with batch statement and multiple SQL strings");
                 }
                 stmt = stmts.iterator().next();
@@ -379,17 +399,28 @@ public abstract class AbstractSQLInsertClause<C extends AbstractSQLInsertClause<
                     try {
                         super.close();
                     } finally {
-                        stmt2.close();
+                        configuration.releaseStatement(stmt2);
                         reset();
                         endContext(context);
                     }
                 }
             };
         } catch (SQLException e) {
+            if (stmt != null) {
+                close(stmt);
+            }
             onException(context, e);
             reset();
             endContext(context);
             throw configuration.translate(queryString, constants, e);
+        } catch (RuntimeException e) {
+            if (stmt != null) {
+                close(stmt);
+            }
+            onException(context, e);
+            reset();
+            endContext(context);
+            throw e;
         }
     }
 
@@ -542,9 +573,21 @@ public abstract class AbstractSQLInsertClause<C extends AbstractSQLInsertClause<
      */
     @SuppressWarnings("rawtypes")
     public <T> C populate(T obj, Mapper<T> mapper) {
-        Map<Path<?>, Object> values = mapper.createMap(entity, obj);
-        for (Map.Entry<Path<?>, Object> entry : values.entrySet()) {
-            set((Path) entry.getKey(), entry.getValue());
+        MapperPlan plan = mapper instanceof AbstractMapper
+                ? ((AbstractMapper<?>) mapper).getPlan(entity, obj.getClass()) : null;
+        if (plan != null) {
+            Path<?>[] columns = plan.getColumns();
+            Object[] values = plan.getValues(obj);
+            for (int i = 0; i < columns.length; i++) {
+                if (values[i] != null) {
+                    set((Path) columns[i], values[i]);
+                }
+            }
+        } else {
+            Map<Path<?>, Object> values = mapper.createMap(entity, obj);
+            for (Map.Entry<Path<?>, Object> entry : values.entrySet()) {
+                set((Path) entry.getKey(), entry.getValue());
+            }
         }
         return (C) this;
     }
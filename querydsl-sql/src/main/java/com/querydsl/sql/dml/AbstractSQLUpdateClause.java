@@ -20,6 +20,7 @@ import java.util.*;
 import java.util.logging.Logger;
 import java.util.function.Supplier;
 
+import org.jetbrains.annotations.Nullable;
 import org.jetbrains.annotations.Range;
 
 import com.querydsl.core.*;
@@ -33,6 +34,7 @@ import com.querydsl.sql.Configuration;
 import com.querydsl.sql.RelationalPath;
 import com.querydsl.sql.SQLBindings;
 import com.querydsl.sql.SQLSerializer;
+import com.querydsl.sql.SQLShapeCache;
 import com.querydsl.sql.types.Null;
 
 /**
@@ -126,10 +128,15 @@ public abstract class AbstractSQLUpdateClause<C extends AbstractSQLUpdateClause<
         listeners.prepared(context);
 
         listeners.prePrepare(context);
-        PreparedStatement stmt = connection().prepareStatement(queryString);
-        setParameters(stmt, serializer.getConstants(), serializer.getConstantPaths(), metadata.getParams());
-        context.addPreparedStatement(stmt);
-        listeners.prepared(context);
+        PreparedStatement stmt = configuration.prepareStatement(connection(), queryString);
+        try {
+            setParameters(stmt, serializer.getConstants(), serializer.getConstantPaths(), metadata.getParams());
+            context.addPreparedStatement(stmt);
+            listeners.prepared(context);
+        } catch (RuntimeException e) {
+            close(stmt);
+            throw e;
+        }
 
         return stmt;
     }
@@ -137,8 +144,8 @@ public abstract class AbstractSQLUpdateClause<C extends AbstractSQLUpdateClause<
     protected Collection<PreparedStatement> createStatements() throws SQLException {
         boolean addBatches = !configuration.getUseLiterals();
         listeners.preRender(context);
-        SQLSerializer serializer = createSerializer();
-        serializer.serializeUpdate(batches.get(0).getMetadata(), entity, batches.get(0).getUpdates());
+        SQLShapeCache shapes = getBatchShapeCache();
+        SQLSerializer serializer = serializeBatch(shapes, batches.get(0));
         queryString = serializer.toString();
         constants = serializer.getConstants();
         logQuery(logger, queryString, constants);
@@ -147,43 +154,57 @@ public abstract class AbstractSQLUpdateClause<C extends AbstractSQLUpdateClause<
 
         Map<String, PreparedStatement> stmts = new HashMap<>();
 
-        // add first batch
-        listeners.prePrepare(context);
-        PreparedStatement stmt = connection().prepareStatement(queryString);
-        setParameters(stmt, serializer.getConstants(), serializer.getConstantPaths(), metadata.getParams());
-        if (addBatches) {
-            stmt.addBatch();
-        }
-        stmts.put(serializer.toString(), stmt);
-        context.addPreparedStatement(stmt);
-        listeners.prepared(context);
-
-
-        // add other batches
-        for (int i = 1; i < batches.size(); i++) {
-            listeners.preRender(context);
-            serializer = createSerializer();
-            serializer.serializeUpdate(batches.get(i).getMetadata(), entity, batches.get(i).getUpdates());
-            context.addSQL(createBindings(metadata, serializer));
-            listeners.rendered(context);
-
-            stmt = stmts.get(serializer.toString());
-            if (stmt == null) {
-                listeners.prePrepare(context);
-                stmt = connection().prepareStatement(serializer.toString());
-                stmts.put(serializer.toString(), stmt);
-                context.addPreparedStatement(stmt);
-                listeners.prepared(context);
-            }
+        try {
+            // add first batch
+            listeners.prePrepare(context);
+            PreparedStatement stmt = configuration.prepareStatement(connection(), queryString);
+            stmts.put(queryString, stmt);
             setParameters(stmt, serializer.getConstants(), serializer.getConstantPaths(), metadata.getParams());
             if (addBatches) {
                 stmt.addBatch();
             }
+            context.addPreparedStatement(stmt);
+            listeners.prepared(context);
+
+
+            // add other batches
+            for (int i = 1; i < batches.size(); i++) {
+                listeners.preRender(context);
+                serializer = serializeBatch(shapes, batches.get(i));
+                context.addSQL(createBindings(metadata, serializer));
+                listeners.rendered(context);
+
+                stmt = stmts.get(serializer.toString());
+                if (stmt == null) {
+                    listeners.prePrepare(context);
+                    stmt = configuration.prepareStatement(connection(), serializer.toString());
+                    stmts.put(serializer.toString(), stmt);
+                    context.addPreparedStatement(stmt);
+                    listeners.prepared(context);
+                }
+                setParameters(stmt, serializer.getConstants(), serializer.getConstantPaths(), metadata.getParams());
+                if (addBatches) {
+                    stmt.addBatch();
+                }
+            }
+        } catch (SQLException | RuntimeException e) {
+            close(stmts.values());
+            throw e;
         }
 
         return stmts.values();
     }
 
+    private SQLSerializer serializeBatch(@Nullable SQLShapeCache shapes, SQLUpdateBatch batch) {
+        SQLSerializer serializer = createSerializer();
+        if (shapes != null) {
+            shapes.serializeUpdate(serializer, batch.getMetadata(), entity, batch.getUpdates());
+        } else {
+            serializer.serializeUpdate(batch.getMetadata(), entity, batch.getUpdates());
+        }
+        return serializer;
+    }
+
     @Override
     public long execute() {
         context = startContext(connection(), metadata, entity);
@@ -332,10 +353,22 @@ public abstract class AbstractSQLUpdateClause<C extends AbstractSQLUpdateClause<
         Collection<? extends Path<?>> primaryKeyColumns = entity.getPrimaryKey() != null
                 ? entity.getPrimaryKey().getLocalColumns()
                 : Collections.<Path<?>>emptyList();
-        Map<Path<?>, Object> values = mapper.createMap(entity, obj);
-        for (Map.Entry<Path<?>, Object> entry : values.entrySet()) {
-            if (!primaryKeyColumns.contains(entry.getKey())) {
-                set((Path) entry.getKey(), entry.getValue());
+        MapperPlan plan = mapper instanceof AbstractMapper
+                ? ((AbstractMapper<?>) mapper).getPlan(entity, obj.getClass()) : null;
+        if (plan != null) {
+            Path<?>[] columns = plan.getColumns();
+            Object[] values = plan.getValues(obj);
+            for (int i = 0; i < columns.length; i++) {
+                if (values[i] != null && !primaryKeyColumns.contains(columns[i])) {
+                    set((Path) columns[i], values[i]);
+                }
+            }
+        } else {
+            Map<Path<?>, Object> values = mapper.createMap(entity, obj);
+            for (Map.Entry<Path<?>, Object> entry : values.entrySet()) {
+                if (!primaryKeyColumns.contains(entry.getKey())) {
+                    set((Path) entry.getKey(), entry.getValue());
+                }
             }
         }
         return (C) this;
@@ -13,13 +13,18 @@
  */
 package com.querydsl.sql.dml;
 
-import java.util.LinkedHashMap;
+import java.beans.IntrospectionException;
+import java.beans.Introspector;
+import java.beans.PropertyDescriptor;
+import java.lang.reflect.Method;
+import java.util.HashMap;
 import java.util.Map;
 
+import org.jetbrains.annotations.Nullable;
+
+import com.querydsl.core.QueryException;
 import com.querydsl.core.types.Path;
-import com.querydsl.core.util.BeanMap;
 import com.querydsl.sql.RelationalPath;
-import com.querydsl.sql.types.Null;
 
 /**
  * Creates the mapping by inspecting object via bean inspection.
@@ -37,6 +42,8 @@ public class BeanMapper extends AbstractMapper<Object> {
 
     private final boolean withNullBindings;
 
+    private final MapperPlan.Cache plans = new MapperPlan.Cache(this::createPlan);
+
     public BeanMapper() {
         this(false);
     }
@@ -45,25 +52,38 @@ public class BeanMapper extends AbstractMapper<Object> {
         this.withNullBindings = withNullBindings;
     }
 
-    @SuppressWarnings({ "rawtypes", "unchecked" })
     @Override
     public Map<Path<?>, Object> createMap(RelationalPath<?> entity, Object bean) {
-        Map<Path<?>, Object> values = new LinkedHashMap<>();
-        Map<String, Object> map = new BeanMap(bean);
-        Map<String, Path<?>> columns = getColumns(entity);
+        return plans.get(entity, bean.getClass()).createMap(bean);
+    }
+
+    @Override
+    @Nullable
+    MapperPlan getPlan(RelationalPath<?> entity, Class<?> beanClass) {
+        return getClass() == BeanMapper.class ? plans.get(entity, beanClass) : null;
+    }
+
+    private MapperPlan createPlan(RelationalPath<?> entity, Class<?> beanClass) {
+        Map<String, Method> getters = new HashMap<>();
+        try {
+            for (PropertyDescriptor property : Introspector.getBeanInfo(beanClass).getPropertyDescriptors()) {
+                if (property.getReadMethod() != null) {
+                    getters.put(property.getName(), property.getReadMethod());
+                }
+            }
+        } catch (IntrospectionException e) {
+            throw new QueryException(e);
+        }
+        MapperPlan.Builder builder = new MapperPlan.Builder();
         // populate in column order
-        for (Map.Entry<String, Path<?>> entry : columns.entrySet()) {
+        for (Map.Entry<String, Path<?>> entry : getColumns(entity).entrySet()) {
             Path<?> path = entry.getValue();
-            if (map.containsKey(entry.getKey())) {
-                Object value = map.get(entry.getKey());
-                if (value != null) {
-                    values.put(path, value);
-                } else if (withNullBindings && !isPrimaryKeyColumn(entity, path)) {
-                    values.put(path, Null.DEFAULT);
-                }
+            Method getter = getters.get(entry.getKey());
+            if (getter != null) {
+                builder.getter(path, getter, withNullBindings && !isPrimaryKeyColumn(entity, path));
             }
         }
-        return values;
+        return builder.build();
     }
 
 }
@@ -15,14 +15,13 @@ package com.querydsl.sql.dml;
 
 import java.lang.reflect.Field;
 import java.lang.reflect.Modifier;
-import java.util.LinkedHashMap;
 import java.util.Map;
 
-import com.querydsl.core.QueryException;
+import org.jetbrains.annotations.Nullable;
+
 import com.querydsl.core.types.Path;
 import com.querydsl.core.util.ReflectionUtils;
 import com.querydsl.sql.RelationalPath;
-import com.querydsl.sql.types.Null;
 
 /**
  * Creates the mapping by inspecting the RelationalPath and Object via reflection.
@@ -40,6 +39,8 @@ public class DefaultMapper extends AbstractMapper<Object> {
 
     private final boolean withNullBindings;
 
+    private final MapperPlan.Cache plans = new MapperPlan.Cache(this::createPlan);
+
     public DefaultMapper() {
         this(false);
     }
@@ -50,30 +51,26 @@ public class DefaultMapper extends AbstractMapper<Object> {
 
     @Override
     public Map<Path<?>, Object> createMap(RelationalPath<?> entity, Object bean) {
-        try {
-            Map<Path<?>, Object> values = new LinkedHashMap<>();
-            Class<?> beanClass = bean.getClass();
-            Map<String, Path<?>> columns = getColumns(entity);
-            // populate in column order
-            for (Map.Entry<String, Path<?>> entry : columns.entrySet()) {
-                Path<?> path = entry.getValue();
-                Field beanField = ReflectionUtils.getFieldOrNull(beanClass, entry.getKey());
-                if (beanField != null && !Modifier.isStatic(beanField.getModifiers())) {
-                    beanField.setAccessible(true);
-                    Object propertyValue = beanField.get(bean);
-                    if (propertyValue != null) {
-                        values.put(path, propertyValue);
-                    } else if (withNullBindings && !isPrimaryKeyColumn(entity, path)) {
-                        values.put(path, Null.DEFAULT);
-                    }
-                }
-            }
-            return values;
-        } catch (IllegalAccessException e) {
-            throw new QueryException(e);
-        }
+        return plans.get(entity, bean.getClass()).createMap(bean);
     }
 
+    @Override
+    @Nullable
+    MapperPlan getPlan(RelationalPath<?> entity, Class<?> beanClass) {
+        return getClass() == DefaultMapper.class ? plans.get(entity, beanClass) : null;
+    }
 
+    private MapperPlan createPlan(RelationalPath<?> entity, Class<?> beanClass) {
+        MapperPlan.Builder builder = new MapperPlan.Builder();
+        // populate in column order
+        for (Map.Entry<String, Path<?>> entry : getColumns(entity).entrySet()) {
+            Path<?> path = entry.getValue();
+            Field beanField = ReflectionUtils.getFieldOrNull(beanClass, entry.getKey());
+            if (beanField != null && !Modifier.isStatic(beanField.getModifiers())) {
+                builder.field(path, beanField, withNullBindings && !isPrimaryKeyColumn(entity, path));
+            }
+        }
+        return builder.build();
+    }
 
 }
@@ -0,0 +1,185 @@
+/*
+ * Copyright 2015, The Querydsl Team (http://www.querydsl.com/team)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.querydsl.sql.dml;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiFunction;
+
+import org.codehaus.mojo.animal_sniffer.IgnoreJRERequirement;
+
+import com.querydsl.core.QueryException;
+import com.querydsl.core.types.Path;
+import com.querydsl.sql.RelationalPath;
+import com.querydsl.sql.types.Null;
+
+/**
+ * {@code MapperPlan} is the mapping of a bean class to the columns of a table, resolved once
+ * into method handles which read the mapped fields or properties of a bean.
+ *
+ * <p>Plans are cached per mapper, table and bean class via {@link Cache}, so that mapping a
+ * bean only invokes the method handles.</p>
+ */
+final class MapperPlan {
+
+    /**
+     * {@code Cache} caches the plans of a mapper per table and bean class
+     */
+    static final class Cache {
+
+        private final Map<RelationalPath<?>, ClassValue<MapperPlan>> plans = new ConcurrentHashMap<>();
+
+        private final BiFunction<RelationalPath<?>, Class<?>, MapperPlan> factory;
+
+        Cache(BiFunction<RelationalPath<?>, Class<?>, MapperPlan> factory) {
+            this.factory = factory;
+        }
+
+        MapperPlan get(RelationalPath<?> entity, Class<?> beanClass) {
+            return plans.computeIfAbsent(entity, e -> new ClassValue<MapperPlan>() {
+                @Override
+                protected MapperPlan computeValue(Class<?> type) {
+                    return factory.apply(e, type);
+                }
+            }).get(beanClass);
+        }
+
+    }
+
+    private static final MethodType READER_TYPE = MethodType.methodType(Object.class, Object.class);
+
+    private final Path<?>[] columns;
+
+    private final MethodHandle[] readers;
+
+    private final boolean[] nullBindings;
+
+    private MapperPlan(List<Path<?>> columns, List<MethodHandle> readers, List<Boolean> nullBindings) {
+        this.columns = columns.toArray(new Path<?>[0]);
+        this.readers = readers.toArray(new MethodHandle[0]);
+        this.nullBindings = new boolean[this.columns.length];
+        for (int i = 0; i < this.nullBindings.length; i++) {
+            this.nullBindings[i] = nullBindings.get(i);
+        }
+    }
+
+    /**
+     * Get the mapped columns
+     *
+     * @return columns
+     */
+    Path<?>[] getColumns() {
+        return columns;
+    }
+
+    /**
+     * Get the values of the given bean in the order of {@link #getColumns()}
+     *
+     * <p>Null values are replaced with {@link Null#DEFAULT} for columns with null bindings and
+     * left null otherwise, which means that the column is not populated.</p>
+     *
+     * @param bean bean
+     * @return values
+     */
+    @IgnoreJRERequirement
+    Object[] getValues(Object bean) {
+        Object[] values = new Object[columns.length];
+        try {
+            for (int i = 0; i < values.length; i++) {
+                Object value = (Object) readers[i].invokeExact(bean);
+                values[i] = value == null && nullBindings[i] ? Null.DEFAULT : value;
+            }
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new QueryException(e);
+        }
+        return values;
+    }
+
+    /**
+     * Get the populated columns of the given bean
+     *
+     * @param bean bean
+     * @return column values
+     */
+    Map<Path<?>, Object> createMap(Object bean) {
+        Object[] values = getValues(bean);
+        Map<Path<?>, Object> rv = new LinkedHashMap<>((int) (values.length / 0.75f) + 1);
+        for (int i = 0; i < values.length; i++) {
+            if (values[i] != null) {
+                rv.put(columns[i], values[i]);
+            }
+        }
+        return rv;
+    }
+
+    /**
+     * {@code Builder} collects the columns of a plan
+     */
+    static final class Builder {
+
+        private final MethodHandles.Lookup lookup = MethodHandles.lookup();
+
+        private final List<Path<?>> columns = new ArrayList<>();
+
+        private final List<MethodHandle> readers = new ArrayList<>();
+
+        private final List<Boolean> nullBindings = new ArrayList<>();
+
+        Builder field(Path<?> column, Field field, boolean nullBinding) {
+            try {
+                field.setAccessible(true);
+                return add(column, lookup.unreflectGetter(field), nullBinding);
+            } catch (IllegalAccessException e) {
+                throw new QueryException(e);
+            }
+        }
+
+        Builder getter(Path<?> column, Method getter, boolean nullBinding) {
+            try {
+                getter.setAccessible(true);
+                // getters which fail are read as null, like in BeanMap
+                MethodHandle reader = MethodHandles.catchException(
+                        lookup.unreflect(getter).asType(READER_TYPE), Exception.class,
+                        MethodHandles.dropArguments(MethodHandles.constant(Object.class, null),
+                                0, Exception.class, Object.class));
+                return add(column, reader, nullBinding);
+            } catch (IllegalAccessException e) {
+                throw new QueryException(e);
+            }
+        }
+
+        private Builder add(Path<?> column, MethodHandle reader, boolean nullBinding) {
+            columns.add(column);
+            readers.add(reader.asType(READER_TYPE));
+            nullBindings.add(nullBinding);
+            return this;
+        }
+
+        MapperPlan build() {
+            return new MapperPlan(columns, readers, nullBindings);
+        }
+
+    }
+
+}
@@ -0,0 +1,373 @@
+/*
+ * Copyright 2015, The Querydsl Team (http://www.querydsl.com/team)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.querydsl.sql.dml;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+import org.jetbrains.annotations.Nullable;
+
+import com.querydsl.core.Tuple;
+import com.querydsl.core.types.Path;
+import com.querydsl.sql.RelationalPath;
+
+/**
+ * {@code SQLBulkInsert} inserts a stream of rows in chunks, so that only the rows of the
+ * current chunk are kept in memory.
+ *
+ * <p>Rows are either beans, which are mapped to the columns via the {@link Mapper} of the
+ * bulk insert, or {@code Object[]} and {@link Tuple} instances with the values of the
+ * columns given via {@link #columns(Path[])}. A chunk is executed as a JDBC batch, or as a
+ * single multi-row insert if {@link #batchToBulk(boolean)} is enabled and supported by the
+ * templates, when it reaches the chunk size or the byte budget. As a multi-row insert has a
+ * single column list, a chunk is also executed before a bean row which binds other columns
+ * than the previous rows, e.g. because other properties are null.</p>
+ *
+ * <pre>{@code
+ * long rows = queryFactory.bulkInsert(survey)
+ *     .columns(survey.id, survey.name)
+ *     .chunkSize(5000)
+ *     .execute(values);
+ * }</pre>
+ *
+ * <p>Instances are not thread-safe. The counters of the bulk insert are accumulated over all
+ * executions.</p>
+ */
+public class SQLBulkInsert {
+
+    /**
+     * Default amount of rows per chunk
+     */
+    public static final int DEFAULT_CHUNK_SIZE = 1000;
+
+    private static final int ROW_OVERHEAD = 16;
+
+    private final RelationalPath<?> entity;
+
+    private final Supplier<? extends AbstractSQLInsertClause<?>> clauses;
+
+    @Nullable
+    private Path<?>[] columns;
+
+    @SuppressWarnings("rawtypes")
+    private Mapper mapper = DefaultMapper.DEFAULT;
+
+    private int chunkSize = DEFAULT_CHUNK_SIZE;
+
+    private long byteBudget = Long.MAX_VALUE;
+
+    private boolean batchToBulk;
+
+    private long rowCount, chunkCount, byteCount, elapsedNanos;
+
+    /**
+     * Create a new SQLBulkInsert instance
+     *
+     * @param entity target table
+     * @param clauses factory for the insert clauses of the chunks
+     */
+    public SQLBulkInsert(RelationalPath<?> entity, Supplier<? extends AbstractSQLInsertClause<?>> clauses) {
+        this.entity = entity;
+        this.clauses = clauses;
+    }
+
+    /**
+     * Set the columns of {@code Object[]} and {@link Tuple} rows
+     *
+     * @param columns columns
+     * @return the current object
+     */
+    public SQLBulkInsert columns(Path<?>... columns) {
+        this.columns = columns.clone();
+        return this;
+    }
+
+    /**
+     * Set the mapper for bean rows (default: {@link DefaultMapper#DEFAULT})
+     *
+     * @param mapper mapper
+     * @return the current object
+     */
+    public SQLBulkInsert mapper(Mapper<?> mapper) {
+        this.mapper = mapper;
+        return this;
+    }
+
+    /**
+     * Set the maximum amount of rows per chunk (default: {@value #DEFAULT_CHUNK_SIZE})
+     *
+     * @param chunkSize chunk size
+     * @return the current object
+     */
+    public SQLBulkInsert chunkSize(int chunkSize) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("chunkSize needs to be positive, got " + chunkSize);
+        }
+        this.chunkSize = chunkSize;
+        return this;
+    }
+
+    /**
+     * Set the estimated amount of bytes of the values after which a chunk is executed
+     * (default: unbounded)
+     *
+     * @param byteBudget byte budget
+     * @return the current object
+     */
+    public SQLBulkInsert byteBudget(long byteBudget) {
+        if (byteBudget <= 0) {
+            throw new IllegalArgumentException("byteBudget needs to be positive, got " + byteBudget);
+        }
+        this.byteBudget = byteBudget;
+        return this;
+    }
+
+    /**
+     * Set whether chunks should be executed as multi-row inserts, if supported by the templates
+     *
+     * @param batchToBulk true, for multi-row inserts
+     * @return the current object
+     */
+    public SQLBulkInsert batchToBulk(boolean batchToBulk) {
+        this.batchToBulk = batchToBulk;
+        return this;
+    }
+
+    /**
+     * Insert the given rows
+     *
+     * @param rows rows
+     * @return the amount of inserted rows
+     */
+    public long execute(Iterable<?> rows) {
+        return execute(rows.iterator(), null, null);
+    }
+
+    /**
+     * Insert the given rows
+     *
+     * @param rows rows, the stream is closed afterwards
+     * @return the amount of inserted rows
+     */
+    public long execute(Stream<?> rows) {
+        try (Stream<?> stream = rows) {
+            return execute(stream.iterator(), null, null);
+        }
+    }
+
+    /**
+     * Insert the given rows and pass the generated keys of each chunk to the given consumer
+     *
+     * @param <K> key type
+     * @param rows rows
+     * @param key key column
+     * @param chunkKeys consumer for the generated keys of a chunk
+     * @return the amount of inserted rows
+     */
+    public <K> long executeWithKeys(Iterable<?> rows, Path<K> key, Consumer<List<K>> chunkKeys) {
+        return execute(rows.iterator(), key, chunkKeys);
+    }
+
+    /**
+     * Insert the given rows and pass the generated keys of each chunk to the given consumer
+     *
+     * @param <K> key type
+     * @param rows rows, the stream is closed afterwards
+     * @param key key column
+     * @param chunkKeys consumer for the generated keys of a chunk
+     * @return the amount of inserted rows
+     */
+    public <K> long executeWithKeys(Stream<?> rows, Path<K> key, Consumer<List<K>> chunkKeys) {
+        try (Stream<?> stream = rows) {
+            return execute(stream.iterator(), key, chunkKeys);
+        }
+    }
+
+    private <K> long execute(Iterator<?> rows, @Nullable Path<K> key, @Nullable Consumer<List<K>> chunkKeys) {
+        long start = System.nanoTime();
+        long rv = 0;
+        try {
+            AbstractSQLInsertClause<?> clause = null;
+            List<Path<?>> chunkColumns = null;
+            long bytes = 0;
+            while (rows.hasNext()) {
+                Row row = toRow(rows.next());
+                if (clause != null && clause.batchToBulk && !row.columns.equals(chunkColumns)) {
+                    // the columns of a multi-row insert are taken from its first row
+                    rv += flush(clause, bytes, key, chunkKeys);
+                    clause = null;
+                }
+                if (clause == null) {
+                    clause = clauses.get();
+                    clause.setBatchToBulk(batchToBulk);
+                    chunkColumns = row.columns;
+                    bytes = 0;
+                }
+                bytes += add(clause, row);
+                if (clause.getBatchCount() >= chunkSize || bytes >= byteBudget) {
+                    rv += flush(clause, bytes, key, chunkKeys);
+                    clause = null;
+                }
+            }
+            if (clause != null) {
+                rv += flush(clause, bytes, key, chunkKeys);
+            }
+        } finally {
+            elapsedNanos += System.nanoTime() - start;
+        }
+        return rv;
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private Row toRow(Object row) {
+        Path<?>[] paths;
+        Object[] values;
+        if (row instanceof Object[] || row instanceof Tuple) {
+            if (columns == null) {
+                throw new IllegalStateException("columns need to be set for Object[] and Tuple rows");
+            }
+            paths = columns;
+            values = row instanceof Tuple ? ((Tuple) row).toArray() : (Object[]) row;
+            if (values.length != columns.length) {
+                throw new IllegalArgumentException("Expected " + columns.length + " values, got " + values.length);
+            }
+        } else {
+            MapperPlan plan = mapper instanceof AbstractMapper
+                    ? ((AbstractMapper<?>) mapper).getPlan(entity, row.getClass()) : null;
+            if (plan != null) {
+                paths = plan.getColumns();
+                values = plan.getValues(row);
+            } else {
+                Map<Path<?>, Object> map = mapper.createMap(entity, row);
+                paths = map.keySet().toArray(new Path<?>[0]);
+                values = map.values().toArray();
+            }
+        }
+        Row rv = new Row(values.length);
+        for (int i = 0; i < values.length; i++) {
+            if (values[i] != null || paths == columns) {
+                rv.columns.add(paths[i]);
+                rv.values.add(values[i]);
+            }
+        }
+        return rv;
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static long add(AbstractSQLInsertClause<?> clause, Row row) {
+        long bytes = ROW_OVERHEAD;
+        for (int i = 0; i < row.columns.size(); i++) {
+            Object value = row.values.get(i);
+            clause.set((Path) row.columns.get(i), value);
+            bytes += estimateSize(value);
+        }
+        clause.addBatch();
+        return bytes;
+    }
+
+    private <K> long flush(AbstractSQLInsertClause<?> clause, long bytes, @Nullable Path<K> key,
+                           @Nullable Consumer<List<K>> chunkKeys) {
+        int rows = clause.getBatchCount();
+        long rv;
+        if (key != null) {
+            chunkKeys.accept(clause.executeWithKeys(key));
+            rv = rows;
+        } else {
+            rv = clause.execute();
+        }
+        rowCount += rows;
+        byteCount += bytes;
+        chunkCount++;
+        return rv;
+    }
+
+    private static long estimateSize(@Nullable Object value) {
+        if (value == null) {
+            return 0;
+        } else if (value instanceof CharSequence) {
+            return 2L * ((CharSequence) value).length();
+        } else if (value instanceof byte[]) {
+            return ((byte[]) value).length;
+        } else {
+            return 8;
+        }
+    }
+
+    /**
+     * Get the amount of rows which have been inserted
+     *
+     * @return row count
+     */
+    public long getRowCount() {
+        return rowCount;
+    }
+
+    /**
+     * Get the amount of chunks which have been executed
+     *
+     * @return chunk count
+     */
+    public long getChunkCount() {
+        return chunkCount;
+    }
+
+    /**
+     * Get the estimated amount of bytes of the inserted values
+     *
+     * @return byte count
+     */
+    public long getByteCount() {
+        return byteCount;
+    }
+
+    /**
+     * Get the time spent in executions, including the iteration of the rows
+     *
+     * @return elapsed time in nanoseconds
+     */
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    /**
+     * Get the throughput of the executions
+     *
+     * @return inserted rows per second
+     */
+    public double getRowsPerSecond() {
+        return elapsedNanos > 0 ? rowCount * 1e9 / elapsedNanos : 0.0;
+    }
+
+    /**
+     * Bound columns and values of a row
+     */
+    private static final class Row {
+
+        private final List<Path<?>> columns;
+
+        private final List<Object> values;
+
+        Row(int size) {
+            columns = new ArrayList<Path<?>>(size);
+            values = new ArrayList<Object>(size);
+        }
+
+    }
+
+}
@@ -227,9 +227,9 @@ public class SQLMergeClause extends AbstractSQLClause<SQLMergeClause> implements
      */
     public ResultSet executeWithKeys() {
         context = startContext(connection(), metadata, entity);
+        PreparedStatement stmt = null;
         try {
             if (configuration.getTemplates().isNativeMerge()) {
-                PreparedStatement stmt = null;
                 if (batches.isEmpty()) {
                     stmt = createStatement(true);
                     listeners.notifyMerge(entity, metadata, keys, columns, values, subQuery);
@@ -240,6 +240,7 @@ public class SQLMergeClause extends AbstractSQLClause<SQLMergeClause> implements
                 } else {
                     Collection<PreparedStatement> stmts = createStatements(true);
                     if (stmts != null && stmts.size() > 1) {
+                        close(stmts);
                         throw new IllegalStateException("executeWithKeys called with batch statement and multiple SQL strings");
                     }
                     stmt = stmts.iterator().next();
@@ -258,7 +259,7 @@ public class SQLMergeClause extends AbstractSQLClause<SQLMergeClause> implements
                         try {
                             super.close();
                         } finally {
-                            stmt2.close();
+                            configuration.releaseStatement(stmt2);
                             reset();
                             endContext(context);
                         }
@@ -283,10 +284,21 @@ public class SQLMergeClause extends AbstractSQLClause<SQLMergeClause> implements
                 }
             }
         } catch (SQLException e) {
+            if (stmt != null) {
+                close(stmt);
+            }
             onException(context,e);
             reset();
             endContext(context);
             throw configuration.translate(queryString, constants, e);
+        } catch (RuntimeException e) {
+            if (stmt != null) {
+                close(stmt);
+            }
+            onException(context, e);
+            reset();
+            endContext(context);
+            throw e;
         }
     }
 
@@ -395,24 +407,29 @@ public class SQLMergeClause extends AbstractSQLClause<SQLMergeClause> implements
 
             stmt = prepareStatementAndSetParameters(serializer, withKeys);
 
-            // add first batch
-            if (addBatches) {
-                stmt.addBatch();
-            }
-
-            // add other batches
-            for (int i = 1; i < batches.size(); i++) {
-                SQLMergeBatch batch = batches.get(i);
-                listeners.preRender(context);
-                serializer = createSerializer();
-                serializer.serializeMerge(metadata, entity, batch.getKeys(), batch.getColumns(), batch.getValues(), batch.getSubQuery());
-                context.addSQL(createBindings(metadata, serializer));
-                listeners.rendered(context);
-
-                setParameters(stmt, serializer.getConstants(), serializer.getConstantPaths(), metadata.getParams());
+            try {
+                // add first batch
                 if (addBatches) {
                     stmt.addBatch();
                 }
+
+                // add other batches
+                for (int i = 1; i < batches.size(); i++) {
+                    SQLMergeBatch batch = batches.get(i);
+                    listeners.preRender(context);
+                    serializer = createSerializer();
+                    serializer.serializeMerge(metadata, entity, batch.getKeys(), batch.getColumns(), batch.getValues(), batch.getSubQuery());
+                    context.addSQL(createBindings(metadata, serializer));
+                    listeners.rendered(context);
+
+                    setParameters(stmt, serializer.getConstants(), serializer.getConstantPaths(), metadata.getParams());
+                    if (addBatches) {
+                        stmt.addBatch();
+                    }
+                }
+            } catch (SQLException | RuntimeException e) {
+                close(stmt);
+                throw e;
             }
         }
         return stmt;
@@ -421,43 +438,56 @@ public class SQLMergeClause extends AbstractSQLClause<SQLMergeClause> implements
     protected Collection<PreparedStatement> createStatements(boolean withKeys) throws SQLException {
         boolean addBatches = !configuration.getUseLiterals();
         Map<String, PreparedStatement> stmts = new HashMap<>();
+        SQLShapeCache shapes = getBatchShapeCache();
 
-        // add first batch
-        listeners.preRender(context);
-        SQLSerializer serializer = createSerializer();
-        serializer.serializeMerge(metadata, entity,
-                batches.get(0).getKeys(), batches.get(0).getColumns(),
-                batches.get(0).getValues(), batches.get(0).getSubQuery());
-        context.addSQL(createBindings(metadata, serializer));
-        listeners.rendered(context);
-
-        PreparedStatement stmt = prepareStatementAndSetParameters(serializer, withKeys);
-        stmts.put(serializer.toString(), stmt);
-        if (addBatches) {
-            stmt.addBatch();
-        }
+        try {
+            // add first batch
+            listeners.preRender(context);
+            SQLSerializer serializer = serializeBatch(shapes, batches.get(0));
+            context.addSQL(createBindings(metadata, serializer));
+            listeners.rendered(context);
 
-        // add other batches
-        for (int i = 1; i < batches.size(); i++) {
-            SQLMergeBatch batch = batches.get(i);
-            serializer = createSerializer();
-            serializer.serializeMerge(metadata, entity,
-                    batch.getKeys(), batch.getColumns(), batch.getValues(), batch.getSubQuery());
-            stmt = stmts.get(serializer.toString());
-            if (stmt == null) {
-                stmt = prepareStatementAndSetParameters(serializer, withKeys);
-                stmts.put(serializer.toString(), stmt);
-            } else {
-                setParameters(stmt, serializer.getConstants(), serializer.getConstantPaths(), metadata.getParams());
-            }
+            PreparedStatement stmt = prepareStatementAndSetParameters(serializer, withKeys);
+            stmts.put(serializer.toString(), stmt);
             if (addBatches) {
                 stmt.addBatch();
             }
+
+            // add other batches
+            for (int i = 1; i < batches.size(); i++) {
+                SQLMergeBatch batch = batches.get(i);
+                serializer = serializeBatch(shapes, batch);
+                stmt = stmts.get(serializer.toString());
+                if (stmt == null) {
+                    stmt = prepareStatementAndSetParameters(serializer, withKeys);
+                    stmts.put(serializer.toString(), stmt);
+                } else {
+                    setParameters(stmt, serializer.getConstants(), serializer.getConstantPaths(), metadata.getParams());
+                }
+                if (addBatches) {
+                    stmt.addBatch();
+                }
+            }
+        } catch (SQLException | RuntimeException e) {
+            close(stmts.values());
+            throw e;
         }
 
         return stmts.values();
     }
 
+    private SQLSerializer serializeBatch(@Nullable SQLShapeCache shapes, SQLMergeBatch batch) {
+        SQLSerializer serializer = createSerializer();
+        if (shapes != null) {
+            shapes.serializeMerge(serializer, metadata, entity,
+                    batch.getKeys(), batch.getColumns(), batch.getValues(), batch.getSubQuery());
+        } else {
+            serializer.serializeMerge(metadata, entity,
+                    batch.getKeys(), batch.getColumns(), batch.getValues(), batch.getSubQuery());
+        }
+        return serializer;
+    }
+
     protected PreparedStatement prepareStatementAndSetParameters(SQLSerializer serializer,
             boolean withKeys) throws SQLException {
         listeners.prePrepare(context);
@@ -471,13 +501,18 @@ public class SQLMergeClause extends AbstractSQLClause<SQLMergeClause> implements
             for (int i = 0; i < target.length; i++) {
                 target[i] = ColumnMetadata.getName(getKeys().get(i));
             }
-            stmt = connection().prepareStatement(queryString, target);
+            stmt = configuration.prepareStatement(connection(), queryString, target);
         } else {
-            stmt = connection().prepareStatement(queryString);
+            stmt = configuration.prepareStatement(connection(), queryString);
+        }
+        try {
+            setParameters(stmt, serializer.getConstants(), serializer.getConstantPaths(), metadata.getParams());
+            context.addPreparedStatement(stmt);
+            listeners.prepared(context);
+        } catch (RuntimeException e) {
+            close(stmt);
+            throw e;
         }
-        setParameters(stmt, serializer.getConstants(), serializer.getConstantPaths(), metadata.getParams());
-        context.addPreparedStatement(stmt);
-        listeners.prepared(context);
 
         return stmt;
     }
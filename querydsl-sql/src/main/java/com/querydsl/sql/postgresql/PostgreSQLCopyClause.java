@@ -0,0 +1,503 @@
+/*
+ * Copyright 2015, The Querydsl Team (http://www.querydsl.com/team)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.querydsl.sql.postgresql;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.InvocationTargetException;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.OffsetDateTime;
+import java.time.OffsetTime;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeFormatterBuilder;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAccessor;
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+import org.jetbrains.annotations.Nullable;
+
+import com.querydsl.core.QueryException;
+import com.querydsl.core.Tuple;
+import com.querydsl.core.types.Path;
+import com.querydsl.sql.ColumnMetadata;
+import com.querydsl.sql.Configuration;
+import com.querydsl.sql.RelationalPath;
+import com.querydsl.sql.SQLTemplates;
+import com.querydsl.sql.SchemaAndTable;
+import com.querydsl.sql.dml.DefaultMapper;
+import com.querydsl.sql.dml.Mapper;
+import com.querydsl.sql.types.Null;
+import com.querydsl.sql.types.Type;
+
+/**
+ * {@code PostgreSQLCopyClause} loads rows into a table via {@code COPY ... FROM STDIN}
+ *
+ * <p>Rows are either beans, which are mapped to the columns via the {@link Mapper} of the
+ * clause, or {@code Object[]} and {@link Tuple} instances with the values of the columns in
+ * order. The rows are encoded while the server reads the data, so they are never held in
+ * memory at once.</p>
+ *
+ * <p>In the text format values are rendered via the literal representation of the
+ * {@link Type} registered in the {@link Configuration}, except for temporal values, which are
+ * rendered in ISO format with fractional seconds and, for {@link Instant} and the offset based
+ * types, their UTC offset. {@code java.util.Date} and {@link Calendar} values are rendered in
+ * the local time of the JVM, like they are bound in inserts. The binary format is faster to parse,
+ * but requires the value classes to match the column types exactly and supports only
+ * numbers, booleans, strings, bytes, UUIDs, dates and timestamps.</p>
+ *
+ * <pre>{@code
+ * long rows = queryFactory.copyInto(survey)
+ *     .columns(survey.id, survey.name)
+ *     .execute(values);
+ * }</pre>
+ */
+public class PostgreSQLCopyClause {
+
+    private static final int BUFFER_SIZE = 8192;
+
+    private static final byte[] BINARY_SIGNATURE = {'P', 'G', 'C', 'O', 'P', 'Y', '\n', (byte) 0xff, '\r', '\n', 0};
+
+    private static final LocalDate POSTGRES_EPOCH = LocalDate.of(2000, 1, 1);
+
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private static final DateTimeFormatter TIMESTAMP = new DateTimeFormatterBuilder()
+            .append(DateTimeFormatter.ISO_LOCAL_DATE)
+            .appendLiteral(' ')
+            .append(DateTimeFormatter.ISO_LOCAL_TIME)
+            .toFormatter();
+
+    private static final DateTimeFormatter TIMESTAMP_TZ = new DateTimeFormatterBuilder()
+            .append(TIMESTAMP)
+            .appendOffset("+HH:MM:ss", "+00:00")
+            .toFormatter();
+
+    private static final DateTimeFormatter TIME_TZ = new DateTimeFormatterBuilder()
+            .append(DateTimeFormatter.ISO_LOCAL_TIME)
+            .appendOffset("+HH:MM:ss", "+00:00")
+            .toFormatter();
+
+    private final Configuration configuration;
+
+    private final RelationalPath<?> entity;
+
+    @Nullable
+    private final Supplier<Connection> connProvider;
+
+    @Nullable
+    private Connection conn;
+
+    private List<? extends Path<?>> columns;
+
+    @SuppressWarnings("rawtypes")
+    private Mapper mapper = DefaultMapper.DEFAULT;
+
+    private PostgreSQLCopyHandler handler = PostgreSQLCopyClause::copyInPgJdbc;
+
+    private boolean binary;
+
+    public PostgreSQLCopyClause(Connection connection, Configuration configuration, RelationalPath<?> entity) {
+        this((Supplier<Connection>) null, configuration, entity);
+        this.conn = connection;
+    }
+
+    public PostgreSQLCopyClause(@Nullable Supplier<Connection> connection, Configuration configuration,
+                                RelationalPath<?> entity) {
+        this.connProvider = connection;
+        this.configuration = configuration;
+        this.entity = entity;
+        this.columns = entity.getColumns();
+    }
+
+    /**
+     * Set the columns to copy (default: all columns of the table)
+     *
+     * <p>Bean properties which are null or not mapped are copied as NULL, so columns which
+     * should get their default value need to be left out.</p>
+     *
+     * @param columns columns
+     * @return the current object
+     */
+    public PostgreSQLCopyClause columns(Path<?>... columns) {
+        this.columns = Collections.unmodifiableList(Arrays.asList(columns.clone()));
+        return this;
+    }
+
+    /**
+     * Set the mapper for bean rows (default: {@link DefaultMapper#DEFAULT})
+     *
+     * @param mapper mapper
+     * @return the current object
+     */
+    public PostgreSQLCopyClause mapper(Mapper<?> mapper) {
+        this.mapper = mapper;
+        return this;
+    }
+
+    /**
+     * Set the handler which executes the COPY statement (default: copy API of the PostgreSQL
+     * JDBC driver)
+     *
+     * @param handler handler
+     * @return the current object
+     */
+    public PostgreSQLCopyClause handler(PostgreSQLCopyHandler handler) {
+        this.handler = handler;
+        return this;
+    }
+
+    /**
+     * Set whether the binary format should be used instead of the text format
+     *
+     * @param binary true, for binary format
+     * @return the current object
+     */
+    public PostgreSQLCopyClause binary(boolean binary) {
+        this.binary = binary;
+        return this;
+    }
+
+    /**
+     * Get the COPY statement of this clause
+     *
+     * @return COPY statement
+     */
+    public String getSQL() {
+        SQLTemplates templates = configuration.getTemplates();
+        SchemaAndTable schemaAndTable = configuration.getOverride(entity.getSchemaAndTable());
+        StringBuilder sql = new StringBuilder("copy ");
+        if (templates.isPrintSchema() && schemaAndTable.getSchema() != null) {
+            sql.append(templates.quoteIdentifier(schemaAndTable.getSchema())).append('.');
+            sql.append(templates.quoteIdentifier(schemaAndTable.getTable(), true));
+        } else {
+            sql.append(templates.quoteIdentifier(schemaAndTable.getTable()));
+        }
+        sql.append(" (");
+        for (int i = 0; i < columns.size(); i++) {
+            if (i > 0) {
+                sql.append(", ");
+            }
+            String column = configuration.getColumnOverride(entity.getSchemaAndTable(),
+                    ColumnMetadata.getName(columns.get(i)));
+            sql.append(templates.quoteIdentifier(column));
+        }
+        sql.append(") from stdin");
+        if (binary) {
+            sql.append(" with (format binary)");
+        }
+        return sql.toString();
+    }
+
+    /**
+     * Copy the given rows
+     *
+     * @param rows rows
+     * @return amount of copied rows
+     */
+    public long execute(Iterable<?> rows) {
+        return execute(rows.iterator());
+    }
+
+    /**
+     * Copy the given rows
+     *
+     * @param rows rows, the stream is closed afterwards
+     * @return amount of copied rows
+     */
+    public long execute(Stream<?> rows) {
+        try (Stream<?> stream = rows) {
+            return execute(stream.iterator());
+        }
+    }
+
+    private long execute(Iterator<?> rows) {
+        String sql = getSQL();
+        try {
+            return handler.copyIn(connection(), sql, new RowInputStream(rows));
+        } catch (SQLException e) {
+            throw configuration.translate(sql, Collections.emptyList(), e);
+        } catch (IOException e) {
+            throw new QueryException("Caught " + e.getClass().getSimpleName() + " for " + sql, e);
+        }
+    }
+
+    private Connection connection() {
+        if (conn == null) {
+            if (connProvider != null) {
+                conn = connProvider.get();
+            } else {
+                throw new IllegalStateException("No connection provided");
+            }
+        }
+        return conn;
+    }
+
+    @SuppressWarnings("unchecked")
+    private Object[] getValues(Object row) {
+        if (row instanceof Object[] || row instanceof Tuple) {
+            Object[] values = row instanceof Tuple ? ((Tuple) row).toArray() : (Object[]) row;
+            if (values.length != columns.size()) {
+                throw new IllegalArgumentException("Expected " + columns.size() + " values, got " + values.length);
+            }
+            return values;
+        } else {
+            Map<Path<?>, Object> map = mapper.createMap(entity, row);
+            Object[] values = new Object[columns.size()];
+            for (int i = 0; i < values.length; i++) {
+                values[i] = map.get(columns.get(i));
+            }
+            return values;
+        }
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private void writeText(StringBuilder builder, Path<?> column, @Nullable Object value) {
+        if (value == null || value instanceof Null) {
+            builder.append("\\N");
+        } else if (value instanceof byte[]) {
+            builder.append("\\\\x");
+            for (byte b : (byte[]) value) {
+                builder.append(HEX[(b >> 4) & 0xf]).append(HEX[b & 0xf]);
+            }
+        } else {
+            String literal = getTemporalText(value);
+            if (literal == null) {
+                Type type = configuration.getType(column, value.getClass());
+                literal = type.getLiteral(value);
+            }
+            for (int i = 0; i < literal.length(); i++) {
+                char ch = literal.charAt(i);
+                switch (ch) {
+                    case '\\': builder.append("\\\\"); break;
+                    case '\t': builder.append("\\t"); break;
+                    case '\n': builder.append("\\n"); break;
+                    case '\r': builder.append("\\r"); break;
+                    default: builder.append(ch);
+                }
+            }
+        }
+    }
+
+    @Nullable
+    private static String getTemporalText(Object value) {
+        if (value instanceof Timestamp) {
+            return TIMESTAMP.format(((Timestamp) value).toLocalDateTime());
+        } else if (value instanceof java.sql.Time) {
+            // toLocalTime drops the milliseconds
+            long millis = Math.floorMod(((java.sql.Time) value).getTime(), 1000L);
+            return DateTimeFormatter.ISO_LOCAL_TIME.format(((java.sql.Time) value).toLocalTime()
+                    .withNano((int) (millis * 1000000)));
+        } else if (value instanceof java.sql.Date) {
+            // dates are rendered completely by the literal
+            return null;
+        } else if (value instanceof java.util.Date) {
+            // rendered in local time, as UtilDateType binds it via setTimestamp
+            return TIMESTAMP.format(new Timestamp(((java.util.Date) value).getTime()).toLocalDateTime());
+        } else if (value instanceof Calendar) {
+            // rendered in local time, as CalendarType binds it via setTimestamp
+            return TIMESTAMP.format(new Timestamp(((Calendar) value).getTimeInMillis()).toLocalDateTime());
+        } else if (value instanceof Instant) {
+            return TIMESTAMP_TZ.format(((Instant) value).atOffset(ZoneOffset.UTC));
+        } else if (value instanceof LocalDateTime) {
+            return TIMESTAMP.format((LocalDateTime) value);
+        } else if (value instanceof OffsetDateTime || value instanceof ZonedDateTime) {
+            return TIMESTAMP_TZ.format((TemporalAccessor) value);
+        } else if (value instanceof LocalTime) {
+            return DateTimeFormatter.ISO_LOCAL_TIME.format((LocalTime) value);
+        } else if (value instanceof OffsetTime) {
+            return TIME_TZ.format((OffsetTime) value);
+        } else {
+            return null;
+        }
+    }
+
+    private static void writeBinary(DataOutputStream out, @Nullable Object value) throws IOException {
+        if (value == null || value instanceof Null) {
+            out.writeInt(-1);
+        } else if (value instanceof Boolean) {
+            out.writeInt(1);
+            out.writeBoolean((Boolean) value);
+        } else if (value instanceof Short) {
+            out.writeInt(2);
+            out.writeShort((Short) value);
+        } else if (value instanceof Integer) {
+            out.writeInt(4);
+            out.writeInt((Integer) value);
+        } else if (value instanceof Long) {
+            out.writeInt(8);
+            out.writeLong((Long) value);
+        } else if (value instanceof Float) {
+            out.writeInt(4);
+            out.writeFloat((Float) value);
+        } else if (value instanceof Double) {
+            out.writeInt(8);
+            out.writeDouble((Double) value);
+        } else if (value instanceof String || value instanceof Character) {
+            byte[] bytes = value.toString().getBytes(StandardCharsets.UTF_8);
+            out.writeInt(bytes.length);
+            out.write(bytes);
+        } else if (value instanceof byte[]) {
+            out.writeInt(((byte[]) value).length);
+            out.write((byte[]) value);
+        } else if (value instanceof UUID) {
+            out.writeInt(16);
+            out.writeLong(((UUID) value).getMostSignificantBits());
+            out.writeLong(((UUID) value).getLeastSignificantBits());
+        } else if (value instanceof java.sql.Date || value instanceof LocalDate) {
+            LocalDate date = value instanceof LocalDate ? (LocalDate) value : ((java.sql.Date) value).toLocalDate();
+            out.writeInt(4);
+            out.writeInt((int) ChronoUnit.DAYS.between(POSTGRES_EPOCH, date));
+        } else if (value instanceof Timestamp || value instanceof LocalDateTime) {
+            LocalDateTime dateTime = value instanceof LocalDateTime
+                    ? (LocalDateTime) value : ((Timestamp) value).toLocalDateTime();
+            out.writeInt(8);
+            out.writeLong(ChronoUnit.MICROS.between(POSTGRES_EPOCH.atStartOfDay(), dateTime));
+        } else {
+            throw new IllegalArgumentException("Unsupported type for binary copy " + value.getClass().getName());
+        }
+    }
+
+    private static long copyInPgJdbc(Connection connection, String sql, InputStream data)
+            throws SQLException, IOException {
+        try {
+            Class<?> pgConnection = Class.forName("org.postgresql.PGConnection");
+            Object copyApi = pgConnection.getMethod("getCopyAPI").invoke(connection.unwrap(pgConnection));
+            return (Long) copyApi.getClass().getMethod("copyIn", String.class, InputStream.class)
+                    .invoke(copyApi, sql, data);
+        } catch (InvocationTargetException e) {
+            if (e.getCause() instanceof SQLException) {
+                throw (SQLException) e.getCause();
+            } else if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            } else {
+                throw new QueryException(e.getCause());
+            }
+        } catch (ReflectiveOperationException e) {
+            throw new QueryException("The PostgreSQL JDBC driver is needed for the default copy handler", e);
+        }
+    }
+
+    /**
+     * Encodes the rows on demand
+     */
+    private final class RowInputStream extends InputStream {
+
+        private final Iterator<?> rows;
+
+        private final ByteArrayOutputStream buffer = new ByteArrayOutputStream(BUFFER_SIZE);
+
+        private final DataOutputStream data = new DataOutputStream(buffer);
+
+        private final StringBuilder text = new StringBuilder();
+
+        private byte[] bytes = new byte[0];
+
+        private int position;
+
+        private boolean header, trailer;
+
+        RowInputStream(Iterator<?> rows) {
+            this.rows = rows;
+        }
+
+        private boolean fill() throws IOException {
+            if (trailer) {
+                return false;
+            }
+            buffer.reset();
+            if (binary && !header) {
+                data.write(BINARY_SIGNATURE);
+                data.writeInt(0);
+                data.writeInt(0);
+                header = true;
+            }
+            while (buffer.size() < BUFFER_SIZE && rows.hasNext()) {
+                Object[] values = getValues(rows.next());
+                if (binary) {
+                    data.writeShort(values.length);
+                    for (Object value : values) {
+                        writeBinary(data, value);
+                    }
+                } else {
+                    text.setLength(0);
+                    for (int i = 0; i < values.length; i++) {
+                        if (i > 0) {
+                            text.append('\t');
+                        }
+                        writeText(text, columns.get(i), values[i]);
+                    }
+                    text.append('\n');
+                    buffer.write(text.toString().getBytes(StandardCharsets.UTF_8));
+                }
+            }
+            if (!rows.hasNext()) {
+                if (binary) {
+                    data.writeShort(-1);
+                }
+                trailer = true;
+            }
+            data.flush();
+            bytes = buffer.toByteArray();
+            position = 0;
+            return bytes.length > 0;
+        }
+
+        @Override
+        public int read() throws IOException {
+            while (position >= bytes.length) {
+                if (!fill()) {
+                    return -1;
+                }
+            }
+            return bytes[position++] & 0xff;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (len == 0) {
+                return 0;
+            }
+            while (position >= bytes.length) {
+                if (!fill()) {
+                    return -1;
+                }
+            }
+            int count = Math.min(len, bytes.length - position);
+            System.arraycopy(bytes, position, b, off, count);
+            position += count;
+            return count;
+        }
+
+    }
+
+}
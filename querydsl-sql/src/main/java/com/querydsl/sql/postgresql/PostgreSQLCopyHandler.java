@@ -0,0 +1,43 @@
+/*
+ * Copyright 2015, The Querydsl Team (http://www.querydsl.com/team)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.querydsl.sql.postgresql;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * {@code PostgreSQLCopyHandler} executes {@code COPY ... FROM STDIN} statements for
+ * {@link PostgreSQLCopyClause}
+ *
+ * <p>The default handler uses the copy API of the PostgreSQL JDBC driver, custom handlers can
+ * be used for other drivers or connection pools which don't support unwrapping.</p>
+ */
+@FunctionalInterface
+public interface PostgreSQLCopyHandler {
+
+    /**
+     * Execute the given COPY statement with the given data
+     *
+     * @param connection connection
+     * @param sql COPY statement
+     * @param data data in the format of the statement
+     * @return amount of copied rows
+     * @throws SQLException
+     * @throws IOException
+     */
+    long copyIn(Connection connection, String sql, InputStream data) throws SQLException, IOException;
+
+}
@@ -41,6 +41,16 @@ public class PostgreSQLQueryFactory extends AbstractSQLQueryFactory<PostgreSQLQu
         this(new Configuration(templates), connection);
     }
 
+    /**
+     * Create a new COPY clause for the given table
+     *
+     * @param path table
+     * @return copy clause
+     */
+    public PostgreSQLCopyClause copyInto(RelationalPath<?> path) {
+        return new PostgreSQLCopyClause(connection, configuration, path);
+    }
+
     @Override
     public PostgreSQLQuery<?> query() {
         return new PostgreSQLQuery<Void>(connection, configuration);
@@ -34,6 +34,50 @@ public class ArrayType<T> extends AbstractType<T> {
         }
     }
 
+    private static Object toPrimitiveArray(Object[] source, Class<?> componentType) {
+        for (Object val : source) {
+            if (val == null) {
+                throw new IllegalArgumentException("null element in array of " + componentType.getName());
+            }
+        }
+        // the typed loops fall back to Array.set, which rejects narrowing conversions
+        if (componentType == int.class) {
+            int[] rv = new int[source.length];
+            for (int i = 0; i < rv.length; i++) {
+                if (source[i] instanceof Integer) {
+                    rv[i] = (Integer) source[i];
+                } else {
+                    java.lang.reflect.Array.set(rv, i, source[i]);
+                }
+            }
+            return rv;
+        } else if (componentType == long.class) {
+            long[] rv = new long[source.length];
+            for (int i = 0; i < rv.length; i++) {
+                if (source[i] instanceof Long) {
+                    rv[i] = (Long) source[i];
+                } else {
+                    java.lang.reflect.Array.set(rv, i, source[i]);
+                }
+            }
+            return rv;
+        } else if (componentType == double.class) {
+            double[] rv = new double[source.length];
+            for (int i = 0; i < rv.length; i++) {
+                if (source[i] instanceof Double) {
+                    rv[i] = (Double) source[i];
+                } else {
+                    java.lang.reflect.Array.set(rv, i, source[i]);
+                }
+            }
+            return rv;
+        } else {
+            Object rv = java.lang.reflect.Array.newInstance(componentType, source.length);
+            copy(source, rv, source.length);
+            return rv;
+        }
+    }
+
     private final Class<T> type;
 
     private final String typeName;
@@ -61,9 +105,7 @@ public class ArrayType<T> extends AbstractType<T> {
             Object[] rv = (Object[]) arr.getArray();
             if (convertPrimitives) {
                 // primitives out
-                Object rv2 = java.lang.reflect.Array.newInstance(type.getComponentType(), rv.length);
-                copy(rv, rv2, rv.length);
-                return (T) rv2;
+                return (T) toPrimitiveArray(rv, type.getComponentType());
             } else {
                 return (T) rv;
             }
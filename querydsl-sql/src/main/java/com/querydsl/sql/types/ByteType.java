@@ -24,7 +24,7 @@ import java.sql.Types;
  * @author tiwe
  *
  */
-public class ByteType extends AbstractType<Byte> {
+public class ByteType extends AbstractType<Byte> implements PrimitiveType<Byte> {
 
     public ByteType() {
         super(Types.TINYINT);
@@ -15,6 +15,7 @@ package com.querydsl.sql.types;
 
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
+import java.sql.SQLDataException;
 import java.sql.SQLException;
 import java.sql.Types;
 
@@ -24,7 +25,7 @@ import java.sql.Types;
  * @author tiwe
  *
  */
-public class DoubleType extends AbstractType<Double> {
+public class DoubleType extends AbstractType<Double> implements PrimitiveType<Double> {
 
     public DoubleType() {
         super(Types.DOUBLE);
@@ -45,6 +46,25 @@ public class DoubleType extends AbstractType<Double> {
         return rs.wasNull() ? null : val;
     }
 
+    @Override
+    public int getInt(ResultSet rs, int startIndex) throws SQLException {
+        double val = rs.getDouble(startIndex);
+        if ((int) val != val) {
+            throw new SQLDataException("Value " + val + " of column " + startIndex + " doesn't fit into int");
+        }
+        return (int) val;
+    }
+
+    @Override
+    public long getLong(ResultSet rs, int startIndex) throws SQLException {
+        double val = rs.getDouble(startIndex);
+        // (double) Long.MAX_VALUE is 2^63, which the cast would clamp to Long.MAX_VALUE
+        if (val >= 0x1p63 || val < -0x1p63 || (long) val != val) {
+            throw new SQLDataException("Value " + val + " of column " + startIndex + " doesn't fit into long");
+        }
+        return (long) val;
+    }
+
     @Override
     public void setValue(PreparedStatement st, int startIndex, Double value) throws SQLException {
         st.setDouble(startIndex, value);
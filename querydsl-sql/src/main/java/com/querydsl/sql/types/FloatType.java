@@ -15,6 +15,7 @@ package com.querydsl.sql.types;
 
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
+import java.sql.SQLDataException;
 import java.sql.SQLException;
 import java.sql.Types;
 
@@ -24,7 +25,7 @@ import java.sql.Types;
  * @author tiwe
  *
  */
-public class FloatType extends AbstractType<Float> {
+public class FloatType extends AbstractType<Float> implements PrimitiveType<Float> {
 
     public FloatType() {
         super(Types.FLOAT);
@@ -45,6 +46,25 @@ public class FloatType extends AbstractType<Float> {
         return rs.wasNull() ? null : val;
     }
 
+    @Override
+    public int getInt(ResultSet rs, int startIndex) throws SQLException {
+        double val = rs.getDouble(startIndex);
+        if ((int) val != val) {
+            throw new SQLDataException("Value " + val + " of column " + startIndex + " doesn't fit into int");
+        }
+        return (int) val;
+    }
+
+    @Override
+    public long getLong(ResultSet rs, int startIndex) throws SQLException {
+        double val = rs.getDouble(startIndex);
+        // (double) Long.MAX_VALUE is 2^63, which the cast would clamp to Long.MAX_VALUE
+        if (val >= 0x1p63 || val < -0x1p63 || (long) val != val) {
+            throw new SQLDataException("Value " + val + " of column " + startIndex + " doesn't fit into long");
+        }
+        return (long) val;
+    }
+
     @Override
     public void setValue(PreparedStatement st, int startIndex, Float value) throws SQLException {
         st.setFloat(startIndex, value);
@@ -15,6 +15,7 @@ package com.querydsl.sql.types;
 
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
+import java.sql.SQLDataException;
 import java.sql.SQLException;
 import java.sql.Types;
 
@@ -24,7 +25,7 @@ import java.sql.Types;
  * @author tiwe
  *
  */
-public class LongType extends AbstractType<Long> {
+public class LongType extends AbstractType<Long> implements PrimitiveType<Long> {
 
     public LongType() {
         super(Types.BIGINT);
@@ -45,6 +46,15 @@ public class LongType extends AbstractType<Long> {
         return rs.wasNull() ? null : val;
     }
 
+    @Override
+    public int getInt(ResultSet rs, int startIndex) throws SQLException {
+        long val = rs.getLong(startIndex);
+        if ((int) val != val) {
+            throw new SQLDataException("Value " + val + " of column " + startIndex + " doesn't fit into int");
+        }
+        return (int) val;
+    }
+
     @Override
     public void setValue(PreparedStatement st, int startIndex, Long value) throws SQLException {
         st.setLong(startIndex, value);
@@ -0,0 +1,69 @@
+/*
+ * Copyright 2015, The Querydsl Team (http://www.querydsl.com/team)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.querydsl.sql.types;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * {@code PrimitiveType} is an extension of {@link Type} for numeric types, which can read
+ * column values as primitives without boxing
+ *
+ * <p>SQL NULL is read as 0, like JDBC does. Use {@link ResultSet#wasNull()} after the read to
+ * distinguish NULL from 0. Values which don't fit into the requested primitive type are
+ * rejected with a {@link java.sql.SQLDataException} instead of being truncated. Subclasses which
+ * convert the values in {@link #getValue(ResultSet, int)} need to override the primitive
+ * accessors as well.</p>
+ *
+ * @param <T> value type
+ */
+public interface PrimitiveType<T extends Number> extends Type<T> {
+
+    /**
+     * Get the column value as int
+     *
+     * @param rs result set
+     * @param startIndex column index in result set
+     * @return value or 0 for SQL NULL
+     * @throws SQLException
+     */
+    default int getInt(ResultSet rs, int startIndex) throws SQLException {
+        return rs.getInt(startIndex);
+    }
+
+    /**
+     * Get the column value as long
+     *
+     * @param rs result set
+     * @param startIndex column index in result set
+     * @return value or 0 for SQL NULL
+     * @throws SQLException
+     */
+    default long getLong(ResultSet rs, int startIndex) throws SQLException {
+        return rs.getLong(startIndex);
+    }
+
+    /**
+     * Get the column value as double
+     *
+     * @param rs result set
+     * @param startIndex column index in result set
+     * @return value or 0 for SQL NULL
+     * @throws SQLException
+     */
+    default double getDouble(ResultSet rs, int startIndex) throws SQLException {
+        return rs.getDouble(startIndex);
+    }
+
+}
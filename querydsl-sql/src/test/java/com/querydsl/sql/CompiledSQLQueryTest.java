@@ -0,0 +1,160 @@
+package com.querydsl.sql;
+
+import static com.querydsl.sql.Constants.employee;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import com.mysema.commons.lang.CloseableIterator;
+import com.querydsl.core.NonUniqueResultException;
+import com.querydsl.core.QueryMetadata;
+import com.querydsl.core.Tuple;
+import com.querydsl.core.testutil.H2;
+import com.querydsl.core.types.ParamNotSetException;
+import com.querydsl.core.types.dsl.Param;
+
+@Category(H2.class)
+public class CompiledSQLQueryTest {
+
+    private Configuration configuration;
+
+    @Before
+    public void setUp() throws SQLException, ClassNotFoundException {
+        Connections.initH2();
+        configuration = new Configuration(H2Templates.DEFAULT);
+    }
+
+    @After
+    public void tearDown() throws SQLException {
+        Connections.close();
+    }
+
+    private SQLQuery<?> query() {
+        return new SQLQuery<Void>(Connections.getConnection(), configuration);
+    }
+
+    @Test
+    public void fetch_with_params() {
+        Param<String> name = new Param<String>(String.class, "name");
+        CompiledSQLQuery<Integer> compiled = query().select(employee.id).from(employee)
+                .where(employee.firstname.eq(name)).compile();
+
+        for (String firstname : Arrays.asList("Mike", "Mary", "Joe")) {
+            List<Integer> expected = query().select(employee.id).from(employee)
+                    .where(employee.firstname.eq(firstname)).fetch();
+            assertEquals(expected, compiled.set(name, firstname).fetch(Connections.getConnection()));
+        }
+    }
+
+    @Test
+    public void default_params() {
+        Param<String> name = new Param<String>(String.class, "name");
+        CompiledSQLQuery<Integer> compiled = query().select(employee.id).from(employee)
+                .where(employee.firstname.eq(name)).set(name, "Mike").compile();
+        assertEquals(Arrays.asList("Mike"), compiled.getSQL().getNullFriendlyBindings());
+        assertEquals(Arrays.asList("Mary"), compiled.set(name, "Mary").getSQL().getNullFriendlyBindings());
+    }
+
+    @Test(expected = ParamNotSetException.class)
+    public void param_not_set() {
+        Param<String> name = new Param<String>(String.class, "name");
+        query().select(employee.id).from(employee).where(employee.firstname.eq(name)).compile()
+                .fetch(Connections.getConnection());
+    }
+
+    @Test
+    public void tuples() {
+        CompiledSQLQuery<Tuple> compiled = query().select(employee.id, employee.firstname).from(employee)
+                .orderBy(employee.id.asc()).compile();
+        List<Tuple> expected = query().select(employee.id, employee.firstname).from(employee)
+                .orderBy(employee.id.asc()).fetch();
+        assertEquals(expected, compiled.fetch(Connections.getConnection()));
+        assertEquals(expected, compiled.fetch(Connections.getConnection()));
+    }
+
+    @Test
+    public void fetchOne() {
+        Param<Integer> id = new Param<Integer>(Integer.class, "id");
+        CompiledSQLQuery<String> compiled = query().select(employee.firstname).from(employee)
+                .where(employee.id.eq(id)).compile();
+        assertEquals("Mike", compiled.set(id, 1).fetchOne(Connections.getConnection()));
+        assertNull(compiled.set(id, -1).fetchOne(Connections.getConnection()));
+    }
+
+    @Test(expected = NonUniqueResultException.class)
+    public void fetchOne_nonUnique() {
+        query().select(employee.firstname).from(employee).compile().fetchOne(Connections.getConnection());
+    }
+
+    @Test
+    public void iterate() {
+        CompiledSQLQuery<Integer> compiled = query().select(employee.id).from(employee).compile();
+        int count = 0;
+        try (CloseableIterator<Integer> it = compiled.iterate(Connections.getConnection())) {
+            while (it.hasNext()) {
+                it.next();
+                count++;
+            }
+        }
+        assertEquals(query().select(employee.id).from(employee).fetchCount(), count);
+    }
+
+    @Test
+    public void concurrent() throws Exception {
+        Param<Integer> id = new Param<Integer>(Integer.class, "id");
+        final CompiledSQLQuery<String> compiled = query().select(employee.firstname).from(employee)
+                .where(employee.id.eq(id)).compile();
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            Future<?>[] futures = new Future<?>[16];
+            for (int i = 0; i < futures.length; i++) {
+                final int value = i % 4 + 1;
+                futures[i] = executor.submit(() -> {
+                    String binding = compiled.set(id, value).getSQL().getNullFriendlyBindings().get(0).toString();
+                    assertEquals(String.valueOf(value), binding);
+                });
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+        assertTrue(compiled.toString().startsWith("select"));
+    }
+
+    @Test
+    public void listeners_are_copied() {
+        int[] notified = new int[2];
+        SQLQuery<Integer> query = query().select(employee.id).from(employee);
+        query.addListener(new SQLBaseListener() {
+            @Override
+            public void notifyQuery(QueryMetadata md) {
+                notified[0]++;
+            }
+        });
+        CompiledSQLQuery<Integer> compiled = query.compile();
+        query.addListener(new SQLBaseListener() {
+            @Override
+            public void notifyQuery(QueryMetadata md) {
+                notified[1]++;
+            }
+        });
+        compiled.fetch(Connections.getConnection());
+        assertEquals(1, notified[0]);
+        assertEquals(0, notified[1]);
+    }
+
+}
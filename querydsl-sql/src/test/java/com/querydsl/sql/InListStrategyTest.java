@@ -0,0 +1,54 @@
+package com.querydsl.sql;
+
+import static com.querydsl.sql.Constants.employee;
+import static org.junit.Assert.assertEquals;
+
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import com.querydsl.core.testutil.H2;
+
+@Category(H2.class)
+public class InListStrategyTest {
+
+    @Before
+    public void setUp() throws SQLException, ClassNotFoundException {
+        Connections.initH2();
+    }
+
+    @After
+    public void tearDown() throws SQLException {
+        Connections.close();
+    }
+
+    private List<Integer> fetch(SQLTemplates.InListStrategy strategy, boolean negate) {
+        SQLTemplates templates = H2Templates.builder().inListStrategy(strategy).build();
+        List<Integer> ids = Arrays.asList(1, 2, 10, 11, 20, 99);
+        return new SQLQuery<Void>(Connections.getConnection(), templates)
+                .select(employee.id).from(employee)
+                .where(negate ? employee.id.notIn(ids) : employee.id.in(ids))
+                .orderBy(employee.id.asc()).fetch();
+    }
+
+    @Test
+    public void in() {
+        List<Integer> expected = fetch(SQLTemplates.InListStrategy.EXPAND, false);
+        assertEquals(5, expected.size());
+        assertEquals(expected, fetch(SQLTemplates.InListStrategy.PAD, false));
+        assertEquals(expected, fetch(SQLTemplates.InListStrategy.ARRAY, false));
+    }
+
+    @Test
+    public void not_in() {
+        List<Integer> expected = fetch(SQLTemplates.InListStrategy.EXPAND, true);
+        assertEquals(expected, fetch(SQLTemplates.InListStrategy.PAD, true));
+        assertEquals(expected, fetch(SQLTemplates.InListStrategy.ARRAY, true));
+    }
+
+}
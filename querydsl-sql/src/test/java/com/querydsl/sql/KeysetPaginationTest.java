@@ -0,0 +1,108 @@
+package com.querydsl.sql;
+
+import static com.querydsl.sql.Constants.employee;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import com.querydsl.core.KeysetPage;
+import com.querydsl.core.QueryMetadata;
+import com.querydsl.core.QueryModifiers;
+import com.querydsl.core.Tuple;
+import com.querydsl.core.testutil.H2;
+import com.querydsl.core.types.Expression;
+import com.querydsl.core.types.Predicate;
+import com.querydsl.sql.domain.Employee;
+
+@Category(H2.class)
+public class KeysetPaginationTest {
+
+    @Before
+    public void setUp() throws SQLException, ClassNotFoundException {
+        Connections.initH2();
+    }
+
+    @After
+    public void tearDown() throws SQLException {
+        Connections.close();
+    }
+
+    private SQLQuery<?> query() {
+        return new SQLQuery<Void>(Connections.getConnection(), H2Templates.DEFAULT);
+    }
+
+    private SQLQuery<Tuple> names() {
+        return query().select(employee.lastname, employee.id).from(employee)
+                .where(employee.salary.gt(0))
+                .orderBy(employee.lastname.asc(), employee.id.desc());
+    }
+
+    @Test
+    public void pages() {
+        List<Tuple> expected = names().fetch();
+        assertTrue(expected.size() > 5);
+
+        SQLQuery<Tuple> query = names();
+        List<Tuple> rows = new ArrayList<Tuple>();
+        String token = null;
+        do {
+            KeysetPage<Tuple> page = query.fetchPage(token, 3);
+            assertTrue(page.getResults().size() <= 3);
+            rows.addAll(page.getResults());
+            token = page.getNextToken();
+        } while (token != null);
+        assertEquals(expected, rows);
+        // the query is left unchanged
+        assertEquals(expected, query.fetch());
+    }
+
+    @Test
+    public void beans() {
+        SQLQuery<Employee> query = query().select(employee).from(employee).orderBy(employee.id.asc());
+        List<Integer> ids = new ArrayList<Integer>();
+        KeysetPage<Employee> page = query.fetchPage(null, 4);
+        for (Employee e : page.getResults()) {
+            ids.add(e.getId());
+        }
+        page = query.fetchPage(page.getNextToken(), 100);
+        for (Employee e : page.getResults()) {
+            ids.add(e.getId());
+        }
+        assertFalse(page.hasNext());
+        assertNull(page.getNextToken());
+        assertEquals(query().select(employee.id).from(employee).orderBy(employee.id.asc()).fetch(), ids);
+    }
+
+    @Test
+    public void metadata_unchanged() {
+        SQLQuery<Tuple> query = names();
+        QueryMetadata metadata = query.getMetadata();
+        Predicate where = metadata.getWhere();
+        Expression<?> projection = metadata.getProjection();
+        KeysetPage<Tuple> page = query.fetchPage(null, 3);
+        query.fetchPage(page.getNextToken(), 3);
+        assertEquals(where, metadata.getWhere());
+        assertEquals(projection, metadata.getProjection());
+        assertEquals(QueryModifiers.EMPTY, metadata.getModifiers());
+    }
+
+    @Test
+    public void exact_page() {
+        long count = query().from(employee).fetchCount();
+        KeysetPage<Integer> page = query().select(employee.id).from(employee)
+                .orderBy(employee.id.asc()).fetchPage(null, (int) count);
+        assertEquals(count, page.getResults().size());
+        assertFalse(page.hasNext());
+    }
+
+}
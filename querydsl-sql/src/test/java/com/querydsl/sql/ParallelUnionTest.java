@@ -0,0 +1,213 @@
+package com.querydsl.sql;
+
+import static com.querydsl.sql.Constants.employee;
+import static com.querydsl.sql.Constants.employee2;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import com.querydsl.core.QueryException;
+import com.querydsl.core.Tuple;
+import com.querydsl.core.testutil.H2;
+import com.querydsl.core.types.Projections;
+import com.querydsl.core.types.SubQueryExpression;
+import com.querydsl.sql.domain.Employee;
+
+@Category(H2.class)
+public class ParallelUnionTest {
+
+    private Configuration configuration;
+
+    private ExecutorService executor;
+
+    private Connection[] connections;
+
+    @Before
+    public void setUp() throws SQLException, ClassNotFoundException {
+        Connections.initH2();
+        configuration = new Configuration(H2Templates.DEFAULT);
+        executor = Executors.newFixedThreadPool(2);
+        connections = new Connection[]{Connections.getH2(), Connections.getH2()};
+    }
+
+    @After
+    public void tearDown() throws SQLException {
+        executor.shutdownNow();
+        for (Connection connection : connections) {
+            connection.close();
+        }
+        Connections.close();
+    }
+
+    private ParallelUnion<Tuple> parallelUnion() {
+        return new ParallelUnion<Tuple>(configuration, executor, i -> connections[i]);
+    }
+
+    private SQLQuery<?> query() {
+        return new SQLQuery<Void>(Connections.getConnection(), configuration);
+    }
+
+    private SubQueryExpression<Tuple> high() {
+        return SQLExpressions.select(employee.firstname, employee.id).from(employee)
+                .where(employee.salary.gt(20000));
+    }
+
+    private SubQueryExpression<Tuple> low() {
+        return SQLExpressions.select(employee2.firstname, employee2.id).from(employee2)
+                .where(employee2.salary.lt(60000));
+    }
+
+    @Test
+    public void union_all_ordered() {
+        List<Tuple> expected = query().unionAll(high(), low())
+                .orderBy(employee.firstname.asc(), employee.id.desc()).fetch();
+        List<Tuple> rv = parallelUnion().unionAll(high(), low())
+                .orderBy(employee.firstname.asc(), employee.id.desc()).fetch();
+        assertEquals(expected, rv);
+        assertTrue(rv.size() > 10);
+    }
+
+    @Test
+    public void union_all_ordered_nulls() {
+        SubQueryExpression<Tuple> first = SQLExpressions.select(employee.superiorId, employee.id)
+                .from(employee).where(employee.id.lt(5));
+        SubQueryExpression<Tuple> second = SQLExpressions.select(employee2.superiorId, employee2.id)
+                .from(employee2).where(employee2.id.goe(5));
+        List<Tuple> rv = parallelUnion().unionAll(first, second)
+                .orderBy(employee.superiorId.desc(), employee.id.asc()).fetch();
+        assertEquals(query().unionAll(first, second)
+                .orderBy(employee.superiorId.desc().nullsLast(), employee.id.asc()).fetch(), rv);
+        assertNull(rv.get(rv.size() - 1).get(employee.superiorId));
+        assertEquals(query().unionAll(first, second)
+                .orderBy(employee.superiorId.asc().nullsFirst(), employee.id.asc()).fetch(),
+                parallelUnion().unionAll(first, second)
+                .orderBy(employee.superiorId.asc(), employee.id.asc()).fetch());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void ordered_with_too_few_threads() {
+        new ParallelUnion<Tuple>(configuration, executor, i -> connections[i % 2])
+                .unionAll(high(), low(), high()).orderBy(employee.id.asc()).fetch();
+    }
+
+    @Test
+    public void union_ordered() {
+        List<Tuple> expected = query().union(high(), low()).orderBy(employee.id.desc()).fetch();
+        assertEquals(expected, parallelUnion().union(high(), low()).orderBy(employee.id.desc()).fetch());
+    }
+
+    @Test
+    public void union_all_unordered() {
+        List<Tuple> expected = query().unionAll(high(), low()).fetch();
+        List<Tuple> rv = parallelUnion().unionAll(high(), low()).fetch();
+        assertEquals(expected.size(), rv.size());
+        assertEquals(new HashSet<Tuple>(expected), new HashSet<Tuple>(rv));
+    }
+
+    @Test
+    public void union_unordered() {
+        List<Tuple> expected = query().union(high(), low()).fetch();
+        List<Tuple> rv = parallelUnion().union(high(), low()).fetch();
+        assertEquals(expected.size(), rv.size());
+        assertEquals(new HashSet<Tuple>(expected), new HashSet<Tuple>(rv));
+    }
+
+    @Test
+    public void beans() {
+        SubQueryExpression<Employee> first = SQLExpressions.select(
+                Projections.bean(Employee.class, employee.id, employee.firstname))
+                .from(employee).where(employee.id.lt(5));
+        SubQueryExpression<Employee> second = SQLExpressions.select(
+                Projections.bean(Employee.class, employee2.id, employee2.firstname))
+                .from(employee2).where(employee2.id.goe(5));
+        List<Integer> ids = new ParallelUnion<Employee>(configuration, executor, i -> connections[i])
+                .unionAll(first, second).orderBy(employee.id.asc())
+                .stream().map(Employee::getId).collect(Collectors.toList());
+        assertEquals(query().select(employee.id).from(employee).orderBy(employee.id.asc()).fetch(), ids);
+    }
+
+    @Test
+    public void early_close() {
+        try (Stream<Tuple> rows = parallelUnion().unionAll(high(), low()).stream()) {
+            assertEquals(2, rows.limit(2).count());
+        }
+    }
+
+    @Test(expected = QueryException.class)
+    public void failing_branch() throws SQLException {
+        connections[1].close();
+        parallelUnion().unionAll(high(), low()).orderBy(employee.id.asc()).fetch();
+    }
+
+    @Test(timeout = 10000, expected = LinkageError.class)
+    public void branch_error() {
+        Connection failing = (Connection) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[]{Connection.class}, (proxy, method, args) -> {
+                    if (method.getName().equals("prepareStatement")) {
+                        throw new LinkageError("branch error");
+                    }
+                    try {
+                        return method.invoke(connections[1], args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                });
+        new ParallelUnion<Tuple>(configuration, executor, i -> i == 0 ? connections[0] : failing)
+                .unionAll(high(), low()).orderBy(employee.id.asc()).fetch();
+    }
+
+    @Test
+    public void rejected_branch() throws InterruptedException {
+        AtomicInteger submitted = new AtomicInteger();
+        Executor rejecting = command -> {
+            if (submitted.incrementAndGet() > 1) {
+                throw new RejectedExecutionException();
+            }
+            executor.execute(command);
+        };
+        try {
+            new ParallelUnion<Tuple>(configuration, rejecting, i -> connections[i])
+                    .unionAll(high(), low()).fetch();
+            fail("Expected RejectedExecutionException");
+        } catch (RejectedExecutionException e) {
+            // expected
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void order_outside_projection() {
+        parallelUnion().unionAll(high(), low()).orderBy(employee.salary.asc()).fetch();
+    }
+
+    @Test
+    public void query_factory() {
+        SQLQueryFactory queryFactory = new SQLQueryFactory(configuration, Connections::getConnection);
+        ParallelUnion<Tuple> union = queryFactory.parallelUnion(executor, i -> connections[i]);
+        assertEquals(query().unionAll(high(), low()).orderBy(employee.id.asc()).fetch(),
+                union.unionAll(high(), low()).orderBy(employee.id.asc()).fetch());
+    }
+
+}
@@ -0,0 +1,139 @@
+package com.querydsl.sql;
+
+import static com.querydsl.sql.Constants.employee;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import com.querydsl.core.Tuple;
+import com.querydsl.core.testutil.H2;
+import com.querydsl.core.types.Expression;
+import com.querydsl.core.types.Projections;
+import com.querydsl.core.types.dsl.Expressions;
+import com.querydsl.sql.domain.Employee;
+import com.querydsl.sql.domain.IdName;
+
+@Category(H2.class)
+public class SQLRowMapperTest {
+
+    public static class Row {
+
+        private final long id;
+
+        private final int superiorId;
+
+        private final String firstname;
+
+        public Row(long id, int superiorId, String firstname) {
+            this.id = id;
+            this.superiorId = superiorId;
+            this.firstname = firstname;
+        }
+
+    }
+
+    private Configuration configuration;
+
+    @Before
+    public void setUp() throws SQLException, ClassNotFoundException {
+        Connections.initH2();
+        configuration = new Configuration(H2Templates.DEFAULT);
+    }
+
+    @After
+    public void tearDown() throws SQLException {
+        Connections.close();
+    }
+
+    private SQLQuery<?> query() {
+        return new SQLQuery<Void>(Connections.getConnection(), configuration);
+    }
+
+    private <T> List<T> map(SQLRowMapper<T> mapper, Expression<T> projection) throws SQLException {
+        List<T> rv = new ArrayList<>();
+        try (ResultSet rs = query().select(projection).from(employee).orderBy(employee.id.asc()).getResults()) {
+            while (rs.next()) {
+                rv.add(mapper.map(rs));
+            }
+        }
+        return rv;
+    }
+
+    @Test
+    public void bean() throws SQLException {
+        Expression<Employee> projection = Projections.bean(Employee.class, employee.id, employee.firstname);
+        SQLRowMapper<Employee> mapper = SQLRowMapper.of(configuration, projection);
+        for (int i = 0; i < 2; i++) {
+            Employee first = map(mapper, projection).get(0);
+            assertEquals(Integer.valueOf(1), first.getId());
+            assertEquals("Mike", first.getFirstname());
+            assertNull(first.getLastname());
+        }
+    }
+
+    @Test
+    public void fields() throws SQLException {
+        Expression<Employee> projection = Projections.fields(Employee.class, employee.id, employee.lastname);
+        Employee first = map(SQLRowMapper.of(configuration, projection), projection).get(0);
+        assertEquals(Integer.valueOf(1), first.getId());
+        assertNull(first.getFirstname());
+    }
+
+    @Test
+    public void constructor() throws SQLException {
+        Expression<IdName> projection = Projections.constructor(IdName.class, employee.id, employee.firstname);
+        IdName first = map(SQLRowMapper.of(configuration, projection), projection).get(0);
+        assertEquals(1, first.getId());
+        assertEquals("Mike", first.getName());
+    }
+
+    @Test
+    public void constructor_primitives() throws SQLException {
+        Expression<Row> projection = Projections.constructor(Row.class,
+                new Class<?>[]{long.class, int.class, String.class},
+                employee.id, employee.superiorId, employee.firstname);
+        List<Tuple> expected = query().select(employee.id, employee.superiorId, employee.firstname)
+                .from(employee).orderBy(employee.id.asc()).fetch();
+        List<Row> rows = map(SQLRowMapper.of(configuration, projection), projection);
+        assertEquals(expected.size(), rows.size());
+        for (int i = 0; i < rows.size(); i++) {
+            Integer superiorId = expected.get(i).get(employee.superiorId);
+            assertEquals(expected.get(i).get(employee.id).longValue(), rows.get(i).id);
+            assertEquals(superiorId != null ? superiorId : 0, rows.get(i).superiorId);
+            assertEquals(expected.get(i).get(employee.firstname), rows.get(i).firstname);
+        }
+        assertEquals(rows.size(), query().select(projection).from(employee).fetch().size());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void constructor_primitives_narrowing() throws SQLException {
+        Expression<Row> projection = Projections.constructor(Row.class,
+                new Class<?>[]{long.class, int.class, String.class},
+                employee.id, Expressions.numberTemplate(Long.class, "cast({0} as bigint)", employee.superiorId),
+                employee.firstname);
+        map(SQLRowMapper.of(configuration, projection), projection);
+    }
+
+    @Test
+    public void tuple() throws SQLException {
+        Expression<Tuple> projection = Projections.tuple(employee.id, employee.firstname);
+        assertEquals(query().select(employee.id, employee.firstname).from(employee).orderBy(employee.id.asc()).fetch(),
+                map(SQLRowMapper.of(configuration, projection), projection));
+    }
+
+    @Test
+    public void single() throws SQLException {
+        assertEquals(query().select(employee.firstname).from(employee).orderBy(employee.id.asc()).fetch(),
+                map(SQLRowMapper.of(configuration, employee.firstname), employee.firstname));
+    }
+
+}
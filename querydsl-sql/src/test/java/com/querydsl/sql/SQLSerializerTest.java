@@ -17,6 +17,7 @@ import static com.querydsl.sql.SQLExpressions.*;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 
+import java.math.BigDecimal;
 import java.sql.Connection;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -120,6 +121,52 @@ public class SQLSerializerTest {
         assertEquals(3, serializer.getConstants().size());
     }
 
+    @Test
+    public void in_padded() {
+        Configuration conf = new Configuration(H2Templates.builder()
+                .inListStrategy(SQLTemplates.InListStrategy.PAD).build());
+        SQLSerializer serializer = new SQLSerializer(conf);
+        serializer.handle(employee.id.in(1, 2, 3, 4, 5));
+        assertEquals("EMPLOYEE.ID in (?, ?, ?, ?, ?, ?, ?, ?)", serializer.toString());
+        assertEquals(Arrays.asList(1, 2, 3, 4, 5, 1, 2, 3), serializer.getConstants());
+        assertEquals(Collections.nCopies(8, employee.id), serializer.getConstantPaths());
+    }
+
+    @Test
+    public void in_padded_partitions() {
+        Configuration conf = new Configuration(OracleTemplates.builder()
+                .inListStrategy(SQLTemplates.InListStrategy.PAD).build());
+        List<Integer> ids = new ArrayList<>();
+        for (int i = 0; i < 1500; i++) {
+            ids.add(i);
+        }
+        SQLSerializer serializer = new SQLSerializer(conf);
+        serializer.handle(employee.id.notIn(ids));
+        assertEquals(1000 + 512, serializer.getConstants().size());
+        assertEquals(1000 + 512, serializer.getConstantPaths().size());
+    }
+
+    @Test
+    public void in_array() {
+        Configuration conf = new Configuration(H2Templates.builder()
+                .inListStrategy(SQLTemplates.InListStrategy.ARRAY).build());
+        SQLSerializer serializer = new SQLSerializer(conf);
+        serializer.handle(employee.id.in(1, 2, 3).and(employee.firstname.notIn("a", "b")));
+        assertEquals("EMPLOYEE.ID = any(?) and not (EMPLOYEE.FIRSTNAME = any(?))", serializer.toString());
+        assertEquals(2, serializer.getConstants().size());
+        assertEquals(Arrays.asList(1, 2, 3), Arrays.asList((Object[]) serializer.getConstants().get(0)));
+        assertEquals(Arrays.asList(null, null), serializer.getConstantPaths());
+    }
+
+    @Test
+    public void in_array_without_array_type() {
+        Configuration conf = new Configuration(H2Templates.builder()
+                .inListStrategy(SQLTemplates.InListStrategy.ARRAY).build());
+        SQLSerializer serializer = new SQLSerializer(conf);
+        serializer.handle(employee.salary.in(BigDecimal.ONE, BigDecimal.TEN));
+        assertEquals("EMPLOYEE.SALARY in (?, ?)", serializer.toString());
+    }
+
     @Test
     public void fullJoinWithoutCodeGeneration() {
         SQLQuery<?> sqlQuery = queryForMYSQLTemplate();
@@ -0,0 +1,172 @@
+package com.querydsl.sql;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.function.Function;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.querydsl.core.types.dsl.Param;
+import com.querydsl.sql.domain.QEmployee;
+import com.querydsl.sql.domain.QSurvey;
+
+public class SQLShapeCacheTest {
+
+    private final QSurvey survey = QSurvey.survey;
+
+    private final QEmployee employee = QEmployee.employee;
+
+    private Configuration configuration;
+
+    private Configuration uncached;
+
+    @Before
+    public void setUp() {
+        configuration = new Configuration(new H2Templates());
+        configuration.setShapeCacheSize(16);
+        uncached = new Configuration(new H2Templates());
+    }
+
+    private SQLBindings assertSame(Function<SQLQuery<?>, SQLQuery<?>> query) {
+        SQLBindings expected = query.apply(new SQLQuery<Void>(uncached)).getSQL();
+        SQLBindings actual = query.apply(new SQLQuery<Void>(configuration)).getSQL();
+        assertEquals(expected.getSQL(), actual.getSQL());
+        assertArrayEquals(expected.getNullFriendlyBindings().toArray(), actual.getNullFriendlyBindings().toArray());
+        return actual;
+    }
+
+    @Test
+    public void disabled_by_default() {
+        assertNull(uncached.getShapeCache());
+        assertNotNull(configuration.getShapeCache());
+    }
+
+    @Test
+    public void same_shape() {
+        assertSame(q -> q.select(survey.id).from(survey).where(survey.name.eq("Bob")));
+        SQLBindings bindings = assertSame(q -> q.select(survey.id).from(survey).where(survey.name.eq("Ann")));
+        assertEquals(Collections.singletonList("Ann"), bindings.getNullFriendlyBindings());
+
+        SQLShapeCache cache = configuration.getShapeCache();
+        assertEquals(1, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    public void different_shapes() {
+        assertSame(q -> q.select(survey.id).from(survey).where(survey.name.eq("Bob")));
+        assertSame(q -> q.select(survey.id).from(survey).where(survey.name2.eq("Bob")));
+        assertSame(q -> q.select(survey.id).from(survey).where(survey.id.eq(1)));
+        assertSame(q -> q.select(employee.id).from(employee).where(employee.id.eq(1)));
+
+        assertEquals(0, configuration.getShapeCache().getHitCount());
+        assertEquals(4, configuration.getShapeCache().size());
+    }
+
+    @Test
+    public void count_and_list() {
+        SQLQuery<?> query = new SQLQuery<Void>(configuration).select(survey.id).from(survey).where(survey.name.eq("Bob"));
+        query.getSQL();
+        query.serialize(true);
+        query.getSQL();
+        assertEquals(2, configuration.getShapeCache().size());
+        assertEquals(1, configuration.getShapeCache().getHitCount());
+    }
+
+    @Test
+    public void in_lists() {
+        assertSame(q -> q.select(survey.id).from(survey).where(survey.id.in(1, 2, 3)));
+        SQLBindings bindings = assertSame(q -> q.select(survey.id).from(survey).where(survey.id.in(4, 5, 6)));
+        assertEquals(Arrays.asList(4, 5, 6), bindings.getNullFriendlyBindings());
+        assertSame(q -> q.select(survey.id).from(survey).where(survey.id.in(4, 5)));
+        assertEquals(1, configuration.getShapeCache().getHitCount());
+    }
+
+    @Test
+    public void in_lists_as_array() {
+        configuration = new Configuration(PostgreSQLTemplates.builder().inListStrategy(SQLTemplates.InListStrategy.ARRAY).build());
+        configuration.setShapeCacheSize(16);
+        uncached = new Configuration(configuration.getTemplates());
+        assertSame(q -> q.select(survey.id).from(survey).where(survey.id.in(1, 2, 3)));
+        SQLBindings bindings = assertSame(q -> q.select(survey.id).from(survey).where(survey.id.in(4, 5, 6)));
+        assertArrayEquals(new Integer[]{4, 5, 6}, (Object[]) bindings.getNullFriendlyBindings().get(0));
+        assertEquals(1, configuration.getShapeCache().getHitCount());
+    }
+
+    @Test
+    public void modifiers() {
+        assertSame(q -> q.select(survey.id).from(survey).where(survey.name.eq("Bob")).limit(10).offset(20));
+        assertSame(q -> q.select(survey.id).from(survey).where(survey.name.eq("Ann")).limit(10).offset(20));
+        assertSame(q -> q.select(survey.id).from(survey).where(survey.name.eq("Ann")).limit(10).offset(30));
+        assertEquals(1, configuration.getShapeCache().getHitCount());
+    }
+
+    @Test
+    public void like() {
+        assertSame(q -> q.select(survey.id).from(survey).where(survey.name.like("a%")));
+        assertSame(q -> q.select(survey.id).from(survey).where(survey.name.like("a%")));
+        assertSame(q -> q.select(survey.id).from(survey).where(survey.name.like("b\\%")));
+        assertSame(q -> q.select(survey.id).from(survey).where(survey.name.startsWith("c")));
+        assertSame(q -> q.select(survey.id).from(survey).where(survey.name.startsWith("d")));
+    }
+
+    @Test
+    public void literals_in_sql() {
+        assertSame(q -> q.select(survey.id.castToNum(Long.class)).from(survey));
+        assertSame(q -> q.select(survey.id.castToNum(Integer.class)).from(survey));
+        assertSame(q -> q.select(survey.name.substring(1)).from(survey));
+        assertSame(q -> q.select(survey.name.substring(2)).from(survey));
+    }
+
+    @Test
+    public void shared_constant() {
+        assertSame(q -> q.select(survey.id).from(survey).where(survey.name.eq("a"), survey.name2.eq("a")));
+        assertSame(q -> q.select(survey.id).from(survey).where(survey.name.eq("a"), survey.name2.eq("b")));
+        assertSame(q -> q.select(survey.id).from(survey).where(survey.name.eq("c"), survey.name2.eq("c")));
+    }
+
+    @Test
+    public void subqueries() {
+        assertSame(q -> q.select(survey.id).from(survey)
+                .where(survey.id.in(SQLExpressions.select(employee.id).from(employee).where(employee.firstname.eq("Bob")))));
+        SQLBindings bindings = assertSame(q -> q.select(survey.id).from(survey)
+                .where(survey.id.in(SQLExpressions.select(employee.id).from(employee).where(employee.firstname.eq("Ann")))));
+        assertEquals(Collections.singletonList("Ann"), bindings.getNullFriendlyBindings());
+        assertEquals(1, configuration.getShapeCache().getHitCount());
+    }
+
+    @Test
+    public void params() {
+        Param<String> name = new Param<String>(String.class, "name");
+        assertSame(q -> q.select(survey.id).from(survey).where(survey.name.eq(name), survey.name2.eq("A")).set(name, "Bob"));
+        SQLBindings bindings = assertSame(q -> q.select(survey.id).from(survey).where(survey.name.eq(name), survey.name2.eq("B")).set(name, "Ann"));
+        assertEquals(Arrays.asList("Ann", "B"), bindings.getNullFriendlyBindings());
+        assertEquals(1, configuration.getShapeCache().getHitCount());
+    }
+
+    @Test
+    public void bounded() {
+        configuration.setShapeCacheSize(2);
+        assertSame(q -> q.select(survey.id).from(survey).where(survey.name.eq("Bob")));
+        assertSame(q -> q.select(survey.id).from(survey).where(survey.name2.eq("Bob")));
+        assertSame(q -> q.select(survey.id).from(survey).where(survey.id.eq(1)));
+        assertEquals(2, configuration.getShapeCache().size());
+    }
+
+    @Test
+    public void cleared_on_configuration_change() {
+        assertSame(q -> q.select(survey.id).from(survey).where(survey.name.eq("Bob")));
+        configuration.registerTableOverride("SURVEY", "SURVEY2");
+        assertEquals(0, configuration.getShapeCache().size());
+        SQLBindings bindings = new SQLQuery<Void>(configuration).select(survey.id).from(survey).where(survey.name.eq("Bob")).getSQL();
+        assertEquals("select SURVEY.ID\nfrom SURVEY2 SURVEY\nwhere SURVEY.NAME = ?", bindings.getSQL());
+    }
+
+}
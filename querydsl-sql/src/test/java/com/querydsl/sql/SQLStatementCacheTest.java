@@ -0,0 +1,205 @@
+package com.querydsl.sql;
+
+import static com.querydsl.sql.Constants.employee;
+import static com.querydsl.sql.Constants.survey;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import com.mysema.commons.lang.CloseableIterator;
+import com.querydsl.core.testutil.H2;
+import com.querydsl.sql.dml.SQLUpdateClause;
+
+@Category(H2.class)
+public class SQLStatementCacheTest {
+
+    private Configuration configuration;
+
+    private SQLStatementCache cache;
+
+    @Before
+    public void setUp() throws SQLException, ClassNotFoundException {
+        Connections.initH2();
+        configuration = new Configuration(H2Templates.DEFAULT);
+        configuration.setStatementCacheSize(2);
+        cache = configuration.getStatementCache();
+    }
+
+    @After
+    public void tearDown() throws SQLException {
+        Connections.close();
+    }
+
+    private SQLQuery<?> query() {
+        return new SQLQuery<Void>(Connections.getConnection(), configuration);
+    }
+
+    @Test
+    public void reuse() {
+        List<String> expected = query().select(employee.firstname).from(employee).where(employee.id.eq(1)).fetch();
+        assertEquals(expected, query().select(employee.firstname).from(employee).where(employee.id.eq(1)).fetch());
+        assertEquals(1, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+        assertEquals(1, cache.size(Connections.getConnection()));
+    }
+
+    @Test
+    public void reuse_count_and_iterate() {
+        long count = query().from(employee).fetchCount();
+        assertEquals(count, query().from(employee).fetchCount());
+        int rows = 0;
+        for (int i = 0; i < 2; i++) {
+            try (CloseableIterator<Integer> it = query().select(employee.id).from(employee).iterate()) {
+                while (it.hasNext()) {
+                    it.next();
+                    rows++;
+                }
+            }
+        }
+        assertEquals(2 * count, rows);
+        assertEquals(2, cache.getHitCount());
+    }
+
+    @Test
+    public void nested_execution() {
+        try (CloseableIterator<Integer> outer = query().select(employee.id).from(employee).iterate()) {
+            try (CloseableIterator<Integer> inner = query().select(employee.id).from(employee).iterate()) {
+                assertTrue(inner.hasNext());
+            }
+            assertTrue(outer.hasNext());
+            assertEquals(0, cache.getHitCount());
+        }
+        assertEquals(1, cache.size(Connections.getConnection()));
+    }
+
+    @Test
+    public void bounded() {
+        query().select(employee.id).from(employee).fetch();
+        query().select(employee.firstname).from(employee).fetch();
+        query().select(employee.lastname).from(employee).fetch();
+        assertEquals(2, cache.size(Connections.getConnection()));
+    }
+
+    @Test
+    public void key_generation_modes() throws SQLException {
+        Connection conn = Connections.getConnection();
+        String sql = "select 1";
+        PreparedStatement plain = cache.prepare(conn, sql);
+        cache.release(plain);
+        PreparedStatement withKeys = cache.prepare(conn, sql, Statement.RETURN_GENERATED_KEYS);
+        assertNotSame(plain, withKeys);
+        cache.release(withKeys);
+        assertSame(plain, cache.prepare(conn, sql));
+        cache.release(plain);
+    }
+
+    @Test
+    public void statement_options() {
+        SQLQuery<?> query = query();
+        query.setStatementOptions(StatementOptions.builder().setMaxRows(1).build());
+        assertEquals(1, query.select(employee.id).from(employee).fetch().size());
+        assertEquals(0, cache.getMissCount());
+        assertEquals(0, cache.size(Connections.getConnection()));
+        assertTrue(query().select(employee.id).from(employee).fetch().size() > 1);
+    }
+
+    @Test
+    public void default_statement_options() {
+        SQLQuery<?> query = query();
+        query.setStatementOptions(StatementOptions.builder().build());
+        query.select(employee.id).from(employee).fetch();
+        query().select(employee.id).from(employee).fetch();
+        assertEquals(1, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+    }
+
+    @Test
+    public void dml() {
+        for (int i = 0; i < 3; i++) {
+            new SQLUpdateClause(Connections.getConnection(), configuration, survey)
+                    .set(survey.name, "S" + i).where(survey.id.eq(-1)).execute();
+        }
+        assertEquals(2, cache.getHitCount());
+    }
+
+    @Test
+    public void close_listener() throws SQLException, ClassNotFoundException {
+        configuration.addListener(SQLCloseListener.DEFAULT);
+        Connection first = Connections.getH2();
+        new SQLQuery<Void>(first, configuration).select(employee.id).from(employee).fetch();
+        assertTrue(first.isClosed());
+
+        Connection second = Connections.getH2();
+        new SQLQuery<Void>(second, configuration).select(employee.id).from(employee).fetch();
+        assertTrue(second.isClosed());
+        assertEquals(0, cache.getHitCount());
+        assertEquals(0, cache.size(first));
+        assertEquals(0, cache.size(second));
+    }
+
+    @Test
+    public void failed_execution() {
+        SQLQuery<?> query = query().select(employee.firstname).from(employee);
+        query.addListener(new FailingListener());
+        try {
+            query.iterate();
+            fail();
+        } catch (IllegalStateException e) {
+            // expected
+        }
+        assertEquals(1, cache.size(Connections.getConnection()));
+        query().select(employee.firstname).from(employee).fetch();
+        assertEquals(1, cache.getHitCount());
+    }
+
+    @Test
+    public void failed_dml() {
+        SQLUpdateClause update = new SQLUpdateClause(Connections.getConnection(), configuration, survey)
+                .set(survey.name, "S").where(survey.id.eq(-1));
+        update.addListener(new FailingListener());
+        try {
+            update.execute();
+            fail();
+        } catch (IllegalStateException e) {
+            // expected
+        }
+        assertEquals(1, cache.size(Connections.getConnection()));
+    }
+
+    @Test
+    public void no_close_listener() throws SQLException {
+        Connection conn = Connections.getConnection();
+        SQLQuery<?> query = query().select(employee.id).from(employee);
+        query.addListener(SQLNoCloseListener.DEFAULT);
+        query.fetch();
+        query().select(employee.id).from(employee).fetch();
+        assertFalse(conn.isClosed());
+        assertEquals(1, cache.getHitCount());
+    }
+
+    private static class FailingListener extends SQLBaseListener {
+
+        @Override
+        public void prepared(SQLListenerContext context) {
+            if (context.getPreparedStatement() != null) {
+                throw new IllegalStateException();
+            }
+        }
+
+    }
+
+}
@@ -1,14 +1,18 @@
 package com.querydsl.sql.dml;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
+import java.sql.Date;
 import java.util.Map;
 
 import org.junit.Test;
 
 import com.querydsl.core.types.Path;
+import com.querydsl.sql.domain.Employee;
 import com.querydsl.sql.domain.QEmployee;
+import com.querydsl.sql.types.Null;
 
 public class BeanMapperTest extends AbstractMapperTest {
 
@@ -31,4 +35,26 @@ public class BeanMapperTest extends AbstractMapperTest {
         assertTrue(values.isEmpty());
     }
 
+    @Test
+    public void failing_getter() {
+        Employee employee = new Employee() {
+            @Override
+            public Date getDatefield() {
+                throw new IllegalStateException();
+            }
+        };
+        employee.setFirstname("A");
+        Map<Path<?>, Object> values = BeanMapper.DEFAULT.createMap(emp, employee);
+        assertFalse(values.containsKey(emp.datefield));
+        assertEquals(employee.getFirstname(), values.get(emp.firstname));
+    }
+
+    @Test
+    public void null_bindings() {
+        employee.setFirstname(null);
+        Map<Path<?>, Object> values = BeanMapper.WITH_NULL_BINDINGS.createMap(emp, employee);
+        assertEquals(Null.DEFAULT, values.get(emp.firstname));
+        assertFalse(values.containsKey(emp.id));
+    }
+
 }
@@ -1,6 +1,9 @@
 package com.querydsl.sql.dml;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
 import java.util.*;
@@ -8,6 +11,9 @@ import java.util.*;
 import org.junit.Test;
 
 import com.querydsl.core.types.Path;
+import com.querydsl.sql.RelationalPath;
+import com.querydsl.sql.SQLTemplates;
+import com.querydsl.sql.domain.Employee;
 import com.querydsl.sql.domain.QEmployee;
 
 public class DefaultMapperTest extends AbstractMapperTest {
@@ -31,6 +37,27 @@ public class DefaultMapperTest extends AbstractMapperTest {
         assertTrue(values.isEmpty());
     }
 
+    @Test
+    public void plans_are_cached() {
+        assertSame(DefaultMapper.DEFAULT.getPlan(emp, Employee.class), DefaultMapper.DEFAULT.getPlan(emp, Employee.class));
+        assertNotSame(DefaultMapper.DEFAULT.getPlan(emp, Employee.class), DefaultMapper.DEFAULT.getPlan(emp, EmployeeX.class));
+        assertEquals(0, DefaultMapper.DEFAULT.getPlan(emp, EmployeeX.class).getColumns().length);
+    }
+
+    @Test
+    public void subclasses_without_plan() {
+        DefaultMapper mapper = new DefaultMapper() {
+            @Override
+            public Map<Path<?>, Object> createMap(RelationalPath<?> entity, Object bean) {
+                return Collections.<Path<?>, Object>singletonMap(emp.firstname, "X");
+            }
+        };
+        assertNull(mapper.getPlan(emp, Employee.class));
+        SQLInsertClause insert = new SQLInsertClause(null, SQLTemplates.DEFAULT, emp);
+        insert.populate(employee, mapper);
+        assertEquals("insert into EMPLOYEE (FIRSTNAME)\nvalues (?)", insert.toString());
+    }
+
     @Test
     public void preservedColumnOrder() {
         final Map<String, Path<?>> columns = DefaultMapper.DEFAULT.getColumns(emp);
@@ -0,0 +1,146 @@
+package com.querydsl.sql.dml;
+
+import static com.querydsl.sql.Constants.survey;
+import static org.junit.Assert.assertEquals;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import com.querydsl.core.Tuple;
+import com.querydsl.core.testutil.H2;
+import com.querydsl.sql.Configuration;
+import com.querydsl.sql.Connections;
+import com.querydsl.sql.H2Templates;
+import com.querydsl.sql.SQLBaseListener;
+import com.querydsl.sql.SQLBindings;
+import com.querydsl.sql.SQLListenerContext;
+import com.querydsl.sql.SQLQuery;
+
+@Category(H2.class)
+public class SQLBatchSerializationTest {
+
+    private Configuration configuration;
+
+    private final List<SQLBindings> rendered = new ArrayList<>();
+
+    @Before
+    public void setUp() throws SQLException, ClassNotFoundException {
+        Connections.initH2();
+        configuration = new Configuration(H2Templates.DEFAULT);
+        configuration.setShapeCacheSize(16);
+        configuration.addListener(new SQLBaseListener() {
+            @Override
+            public void preExecute(SQLListenerContext context) {
+                rendered.clear();
+                rendered.addAll(context.getAllSQLBindings());
+            }
+        });
+    }
+
+    @After
+    public void tearDown() throws SQLException {
+        new SQLDeleteClause(Connections.getConnection(), configuration, survey).where(survey.id.goe(1000)).execute();
+        Connections.close();
+    }
+
+    private List<Tuple> rows() {
+        return new SQLQuery<Void>(Connections.getConnection(), configuration)
+                .select(survey.id, survey.name, survey.name2).from(survey)
+                .where(survey.id.goe(1000)).orderBy(survey.id.asc()).fetch();
+    }
+
+    @Test
+    public void insert() {
+        SQLInsertClause insert = new SQLInsertClause(Connections.getConnection(), configuration, survey);
+        for (int i = 0; i < 10; i++) {
+            insert.set(survey.id, 1000 + i).set(survey.name, "N" + i).addBatch();
+        }
+        assertEquals(10, insert.execute());
+        assertEquals(9, configuration.getShapeCache().getHitCount());
+        assertEquals(1, configuration.getShapeCache().getMissCount());
+        List<SQLBindings> bindings = new ArrayList<>(rendered);
+
+        List<Tuple> rows = rows();
+        assertEquals(10, rows.size());
+        for (int i = 0; i < 10; i++) {
+            assertEquals(Integer.valueOf(1000 + i), rows.get(i).get(survey.id));
+            assertEquals("N" + i, rows.get(i).get(survey.name));
+            assertEquals(Arrays.asList(1000 + i, "N" + i), bindings.get(i).getNullFriendlyBindings());
+            assertEquals(bindings.get(0).getSQL(), bindings.get(i).getSQL());
+        }
+    }
+
+    @Test
+    public void insert_mixed_shapes() {
+        SQLInsertClause insert = new SQLInsertClause(Connections.getConnection(), configuration, survey);
+        insert.set(survey.id, 1000).set(survey.name, "A").addBatch();
+        insert.set(survey.id, 1001).set(survey.name, "B").set(survey.name2, "b").addBatch();
+        insert.set(survey.id, 1002).set(survey.name, "C").addBatch();
+        insert.set(survey.id, 1003).set(survey.name, (String) null).addBatch();
+        insert.set(survey.id, 1004).set(survey.name, "E").set(survey.name2, "e").addBatch();
+        assertEquals(5, insert.execute());
+        assertEquals(2, configuration.getShapeCache().getHitCount());
+
+        List<Tuple> rows = rows();
+        assertEquals(Arrays.asList("A", "B", "C", null, "E"), names(rows));
+        assertEquals(Arrays.asList(null, "b", null, null, "e"), Arrays.asList(
+                rows.get(0).get(survey.name2), rows.get(1).get(survey.name2), rows.get(2).get(survey.name2),
+                rows.get(3).get(survey.name2), rows.get(4).get(survey.name2)));
+    }
+
+    @Test
+    public void update() {
+        SQLInsertClause insert = new SQLInsertClause(Connections.getConnection(), configuration, survey);
+        for (int i = 0; i < 5; i++) {
+            insert.set(survey.id, 1000 + i).set(survey.name, "N" + i).addBatch();
+        }
+        insert.execute();
+        long hits = configuration.getShapeCache().getHitCount();
+
+        SQLUpdateClause update = new SQLUpdateClause(Connections.getConnection(), configuration, survey);
+        for (int i = 0; i < 5; i++) {
+            update.set(survey.name, "U" + i).where(survey.id.eq(1000 + i)).addBatch();
+        }
+        assertEquals(5, update.execute());
+        assertEquals(hits + 4, configuration.getShapeCache().getHitCount());
+        assertEquals(Arrays.asList("U0", "U1", "U2", "U3", "U4"), names(rows()));
+    }
+
+    @Test
+    public void merge() {
+        SQLMergeClause merge = new SQLMergeClause(Connections.getConnection(), configuration, survey);
+        for (int i = 0; i < 5; i++) {
+            merge.keys(survey.id).set(survey.id, 1000 + i % 3).set(survey.name, "M" + i).addBatch();
+        }
+        merge.execute();
+        assertEquals(4, configuration.getShapeCache().getHitCount());
+        assertEquals(Arrays.asList("M3", "M4", "M2"), names(rows()));
+    }
+
+    @Test
+    public void literals() {
+        configuration.setUseLiterals(true);
+        SQLInsertClause insert = new SQLInsertClause(Connections.getConnection(), configuration, survey);
+        insert.set(survey.id, 1000).set(survey.name, "A").addBatch();
+        insert.set(survey.id, 1001).set(survey.name, "B").addBatch();
+        insert.execute();
+        assertEquals(0, configuration.getShapeCache().getHitCount());
+        assertEquals(Arrays.asList("A", "B"), names(rows()));
+    }
+
+    private static List<String> names(List<Tuple> rows) {
+        List<String> names = new ArrayList<>();
+        for (Tuple row : rows) {
+            names.add(row.get(survey.name));
+        }
+        return names;
+    }
+
+}
@@ -0,0 +1,164 @@
+package com.querydsl.sql.dml;
+
+import static com.querydsl.sql.Constants.survey;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.IntStream;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import com.querydsl.core.testutil.H2;
+import com.querydsl.sql.Configuration;
+import com.querydsl.sql.Connections;
+import com.querydsl.sql.H2Templates;
+import com.querydsl.sql.SQLQuery;
+import com.querydsl.sql.SQLQueryFactory;
+
+@Category(H2.class)
+public class SQLBulkInsertTest {
+
+    public static class SurveyBean {
+
+        private Integer id;
+
+        private String name;
+
+        public SurveyBean(Integer id, String name) {
+            this.id = id;
+            this.name = name;
+        }
+
+    }
+
+    private Configuration configuration;
+
+    private SQLQueryFactory queryFactory;
+
+    @Before
+    public void setUp() throws SQLException, ClassNotFoundException {
+        Connections.initH2();
+        configuration = new Configuration(H2Templates.DEFAULT);
+        queryFactory = new SQLQueryFactory(configuration, Connections::getConnection);
+    }
+
+    @After
+    public void tearDown() throws SQLException {
+        new SQLDeleteClause(Connections.getConnection(), configuration, survey)
+            .where(survey.id.goe(1000).or(survey.name.startsWith("Bulk"))).execute();
+        Connections.close();
+    }
+
+    private List<String> names() {
+        return new SQLQuery<Void>(Connections.getConnection(), configuration)
+                .select(survey.name).from(survey)
+                .where(survey.name.startsWith("Bulk")).orderBy(survey.id.asc()).fetch();
+    }
+
+    private static List<Object[]> rows(int count) {
+        List<Object[]> rows = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            rows.add(new Object[]{1000 + i, "Bulk" + i});
+        }
+        return rows;
+    }
+
+    @Test
+    public void chunks() {
+        SQLBulkInsert bulkInsert = queryFactory.bulkInsert(survey).columns(survey.id, survey.name).chunkSize(10);
+        assertEquals(25, bulkInsert.execute(rows(25)));
+        assertEquals(25, bulkInsert.getRowCount());
+        assertEquals(3, bulkInsert.getChunkCount());
+        assertTrue(bulkInsert.getByteCount() > 0);
+        assertTrue(bulkInsert.getElapsedNanos() > 0);
+        assertTrue(bulkInsert.getRowsPerSecond() > 0);
+        assertEquals(25, names().size());
+        assertEquals("Bulk24", names().get(24));
+    }
+
+    @Test
+    public void batch_to_bulk() {
+        SQLBulkInsert bulkInsert = queryFactory.bulkInsert(survey).columns(survey.id, survey.name)
+                .chunkSize(10).batchToBulk(true);
+        assertEquals(25, bulkInsert.execute(rows(25)));
+        assertEquals(3, bulkInsert.getChunkCount());
+        assertEquals(25, names().size());
+    }
+
+    @Test
+    public void byte_budget() {
+        // every row is estimated as 16 + 8 + 2 * 5 bytes
+        SQLBulkInsert bulkInsert = queryFactory.bulkInsert(survey).columns(survey.id, survey.name)
+                .byteBudget(100);
+        assertEquals(10, bulkInsert.execute(rows(10)));
+        assertEquals(4, bulkInsert.getChunkCount());
+        assertEquals(340, bulkInsert.getByteCount());
+    }
+
+    @Test
+    public void stream() {
+        AtomicBoolean closed = new AtomicBoolean();
+        SQLBulkInsert bulkInsert = queryFactory.bulkInsert(survey).columns(survey.id, survey.name).chunkSize(7);
+        assertEquals(20, bulkInsert.execute(IntStream.range(0, 20).mapToObj(i -> new Object[]{1000 + i, "Bulk" + i})
+                .onClose(() -> closed.set(true))));
+        assertEquals(3, bulkInsert.getChunkCount());
+        assertEquals(20, names().size());
+        assertTrue(closed.get());
+    }
+
+    @Test
+    public void beans_with_keys() {
+        List<SurveyBean> beans = new ArrayList<>();
+        for (int i = 0; i < 12; i++) {
+            beans.add(new SurveyBean(null, "Bulk" + i));
+        }
+        List<List<Integer>> keys = new ArrayList<>();
+        SQLBulkInsert bulkInsert = queryFactory.bulkInsert(survey).chunkSize(5);
+        assertEquals(12, bulkInsert.executeWithKeys(beans, survey.id, keys::add));
+        assertEquals(3, keys.size());
+        assertEquals(5, keys.get(0).size());
+        assertEquals(5, keys.get(1).size());
+        assertEquals(2, keys.get(2).size());
+        List<Integer> ids = new SQLQuery<Void>(Connections.getConnection(), configuration)
+                .select(survey.id).from(survey)
+                .where(survey.name.startsWith("Bulk")).orderBy(survey.id.asc()).fetch();
+        List<Integer> generated = new ArrayList<>();
+        keys.forEach(generated::addAll);
+        assertEquals(ids, generated);
+    }
+
+    @Test
+    public void batch_to_bulk_beans_with_nulls() {
+        List<SurveyBean> beans = new ArrayList<>();
+        beans.add(new SurveyBean(1000, "Bulk0"));
+        beans.add(new SurveyBean(1001, "Bulk1"));
+        beans.add(new SurveyBean(null, "Bulk2"));
+        beans.add(new SurveyBean(1003, null));
+        beans.add(new SurveyBean(1004, "Bulk4"));
+        SQLBulkInsert bulkInsert = queryFactory.bulkInsert(survey).chunkSize(10).batchToBulk(true);
+        assertEquals(5, bulkInsert.execute(beans));
+        assertEquals(4, bulkInsert.getChunkCount());
+        assertEquals(new HashSet<>(Arrays.asList("Bulk0", "Bulk1", "Bulk2", "Bulk4")), new HashSet<>(names()));
+        assertEquals(Arrays.asList(1003), new SQLQuery<Void>(Connections.getConnection(), configuration)
+                .select(survey.id).from(survey)
+                .where(survey.id.goe(1000), survey.name.isNull()).fetch());
+        assertEquals(Integer.valueOf(1004), new SQLQuery<Void>(Connections.getConnection(), configuration)
+                .select(survey.id).from(survey)
+                .where(survey.name.eq("Bulk4")).fetchOne());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void tuples_without_columns() {
+        queryFactory.bulkInsert(survey).execute(rows(1));
+    }
+
+}
@@ -0,0 +1,221 @@
+/*
+ * Copyright 2015, The Querydsl Team (http://www.querydsl.com/team)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.querydsl.sql.postgresql;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.OffsetTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.Collections;
+import java.util.Date;
+import java.util.TimeZone;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import org.easymock.EasyMock;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.querydsl.sql.PostgreSQLTemplates;
+import com.querydsl.sql.domain.QSurvey;
+
+public class PostgreSQLCopyClauseTest {
+
+    public static class SurveyBean {
+
+        private Integer id;
+
+        private String name;
+
+        public SurveyBean(Integer id, String name) {
+            this.id = id;
+            this.name = name;
+        }
+
+    }
+
+    private final QSurvey survey = QSurvey.survey;
+
+    private PostgreSQLQueryFactory queryFactory;
+
+    private String sql;
+
+    private byte[] data;
+
+    private final PostgreSQLCopyHandler handler = (connection, sql, in) -> {
+        this.sql = sql;
+        this.data = readFully(in);
+        long rows = 0;
+        for (byte b : data) {
+            if (b == '\n') {
+                rows++;
+            }
+        }
+        return rows;
+    };
+
+    @Before
+    public void setUp() {
+        Connection connection = EasyMock.createNiceMock(Connection.class);
+        queryFactory = new PostgreSQLQueryFactory(new PostgreSQLTemplates(), () -> connection);
+    }
+
+    private static byte[] readFully(InputStream in) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] buffer = new byte[100];
+        int read;
+        while ((read = in.read(buffer)) != -1) {
+            out.write(buffer, 0, read);
+        }
+        return out.toByteArray();
+    }
+
+    private String text() {
+        return new String(data, StandardCharsets.UTF_8);
+    }
+
+    @Test
+    public void text_format() {
+        long rows = queryFactory.copyInto(survey).columns(survey.id, survey.name).handler(handler)
+                .execute(Arrays.asList(new Object[]{1, "a"}, new Object[]{2, null}, new Object[]{3, "c\td\\e\nf"}));
+        assertEquals(3, rows);
+        assertEquals("copy SURVEY (ID, NAME) from stdin", sql);
+        assertEquals("1\ta\n2\t\\N\n3\tc\\td\\\\e\\nf\n", text());
+    }
+
+    @Test
+    public void beans() {
+        queryFactory.copyInto(survey).handler(handler)
+                .execute(Arrays.asList(new SurveyBean(1, "a"), new SurveyBean(null, "b")));
+        assertEquals("copy SURVEY (NAME, NAME2, ID) from stdin", sql);
+        assertEquals("a\t\\N\t1\nb\t\\N\t\\N\n", text());
+    }
+
+    @Test
+    public void sub_second_values() {
+        LocalDateTime dateTime = LocalDateTime.of(2020, 1, 2, 3, 4, 5, 123456000);
+        queryFactory.copyInto(survey).columns(survey.id, survey.name, survey.name2).handler(handler)
+                .execute(Collections.singletonList(new Object[]{
+                    Timestamp.valueOf(dateTime), dateTime, LocalTime.of(3, 4, 5, 500000000)}));
+        assertEquals("2020-01-02 03:04:05.123456\t2020-01-02 03:04:05.123456\t03:04:05.5\n", text());
+    }
+
+    @Test
+    public void zoned_values() {
+        Instant instant = Instant.parse("2020-01-02T03:04:05.250Z");
+        queryFactory.copyInto(survey).columns(survey.id, survey.name, survey.name2).handler(handler)
+                .execute(Arrays.asList(
+                    new Object[]{instant, instant.atOffset(ZoneOffset.ofHours(2)), instant.atZone(ZoneId.of("America/New_York"))},
+                    new Object[]{OffsetTime.of(3, 4, 5, 0, ZoneOffset.ofHours(-3))}));
+        assertEquals("2020-01-02 03:04:05.25+00:00\t2020-01-02 05:04:05.25+02:00\t2020-01-01 22:04:05.25-05:00\n"
+                + "03:04:05-03:00\n", text());
+    }
+
+    @Test
+    public void local_values() {
+        TimeZone defaultZone = TimeZone.getDefault();
+        TimeZone.setDefault(TimeZone.getTimeZone("Europe/Helsinki"));
+        try {
+            Instant instant = Instant.parse("2020-01-02T03:04:05.250Z");
+            Calendar calendar = Calendar.getInstance(TimeZone.getTimeZone("America/New_York"));
+            calendar.setTimeInMillis(instant.toEpochMilli());
+            queryFactory.copyInto(survey).columns(survey.id, survey.name, survey.name2).handler(handler)
+                    .execute(Collections.singletonList(new Object[]{
+                        new Date(instant.toEpochMilli()), calendar, new Timestamp(instant.toEpochMilli())}));
+            // like setTimestamp, the values are stored in the local time of the JVM
+            assertEquals("2020-01-02 05:04:05.25\t2020-01-02 05:04:05.25\t2020-01-02 05:04:05.25\n", text());
+        } finally {
+            TimeZone.setDefault(defaultZone);
+        }
+    }
+
+    @Test
+    public void bytes() {
+        queryFactory.copyInto(survey).columns(survey.name).handler(handler)
+                .execute(Collections.singletonList(new Object[]{new byte[]{0, 15, (byte) 255}}));
+        assertEquals("\\\\x000fff\n", text());
+    }
+
+    @Test
+    public void stream_is_closed() {
+        AtomicBoolean closed = new AtomicBoolean();
+        queryFactory.copyInto(survey).columns(survey.id).handler(handler)
+                .execute(Stream.of(new Object[]{1}).onClose(() -> closed.set(true)));
+        assertTrue(closed.get());
+    }
+
+    @Test
+    public void stream_is_encoded_lazily() {
+        int[] consumed = new int[1];
+        Stream<Object[]> rows = IntStream.range(0, 100000)
+                .peek(i -> consumed[0]++)
+                .mapToObj(i -> new Object[]{i, "Name" + i});
+        long count = queryFactory.copyInto(survey).columns(survey.id, survey.name)
+                .handler((connection, sql, in) -> {
+                    in.read(new byte[10]);
+                    assertEquals(true, consumed[0] < 10000);
+                    return readFully(in).length > 0 ? 1 : 0;
+                })
+                .execute(rows);
+        assertEquals(1, count);
+        assertEquals(100000, consumed[0]);
+    }
+
+    @Test
+    public void binary_format() throws IOException {
+        queryFactory.copyInto(survey).columns(survey.id, survey.name).binary(true).handler(handler)
+                .execute(IntStream.range(0, 2).mapToObj(i -> new Object[]{i, i == 0 ? "ab" : null}));
+        assertEquals("copy SURVEY (ID, NAME) from stdin with (format binary)", sql);
+
+        ByteArrayOutputStream expected = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(expected);
+        out.write(new byte[]{'P', 'G', 'C', 'O', 'P', 'Y', '\n', (byte) 0xff, '\r', '\n', 0});
+        out.writeInt(0);
+        out.writeInt(0);
+        out.writeShort(2);
+        out.writeInt(4);
+        out.writeInt(0);
+        out.writeInt(2);
+        out.write(new byte[]{'a', 'b'});
+        out.writeShort(2);
+        out.writeInt(4);
+        out.writeInt(1);
+        out.writeInt(-1);
+        out.writeShort(-1);
+        assertArrayEquals(expected.toByteArray(), data);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void wrong_row_size() {
+        queryFactory.copyInto(survey).columns(survey.id, survey.name).handler(handler)
+                .execute(Collections.singletonList(new Object[]{1}));
+    }
+
+}
@@ -13,8 +13,12 @@
  */
 package com.querydsl.sql.types;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
 import java.lang.reflect.InvocationHandler;
 import java.lang.reflect.Method;
@@ -132,5 +136,87 @@ public class TypeTest implements InvocationHandler {
         }
     }
 
+    @Test
+    public void primitives() throws SQLException {
+        value = null;
+        assertEquals(0, new IntegerType().getInt(resultSet, 1));
+        assertEquals(0L, new LongType().getLong(resultSet, 1));
+        assertEquals(0.0, new DoubleType().getDouble(resultSet, 1), 0.0);
+        assertTrue(resultSet.wasNull());
+
+        value = 3;
+        assertEquals(3, new IntegerType().getInt(resultSet, 1));
+        value = 4L;
+        assertEquals(4L, new LongType().getLong(resultSet, 1));
+        value = 5.0;
+        assertEquals(5.0, new DoubleType().getDouble(resultSet, 1), 0.0);
+        assertFalse(resultSet.wasNull());
+    }
+
+    @Test
+    public void primitives_narrowing() throws SQLException {
+        value = 2L;
+        assertEquals(2, new LongType().getInt(resultSet, 1));
+        value = 2.0;
+        assertEquals(2L, new DoubleType().getLong(resultSet, 1));
+        value = Long.MAX_VALUE;
+        try {
+            new LongType().getInt(resultSet, 1);
+            fail();
+        } catch (SQLDataException e) {
+            // expected
+        }
+        value = 1.5;
+        try {
+            new DoubleType().getInt(resultSet, 1);
+            fail();
+        } catch (SQLDataException e) {
+            // expected
+        }
+        value = -0x1p63;
+        assertEquals(Long.MIN_VALUE, new DoubleType().getLong(resultSet, 1));
+        value = 0x1p63;
+        try {
+            new DoubleType().getLong(resultSet, 1);
+            fail();
+        } catch (SQLDataException e) {
+            // expected
+        }
+        value = 0x1p63;
+        try {
+            new FloatType().getLong(resultSet, 1);
+            fail();
+        } catch (SQLDataException e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void primitiveArrays_narrowing() throws SQLException {
+        Array array = EasyMock.createMock(Array.class);
+        EasyMock.expect(array.getArray()).andReturn(new Long[]{1L, Long.MAX_VALUE}).times(2);
+        EasyMock.replay(array);
+        value = array;
+        assertArrayEquals(new double[]{1.0, Long.MAX_VALUE},
+                new ArrayType<double[]>(double[].class, "DOUBLE").getValue(resultSet, 1), 0.0);
+        try {
+            new ArrayType<int[]>(int[].class, "INTEGER").getValue(resultSet, 1);
+            fail();
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void primitiveArrays() throws SQLException {
+        Array array = EasyMock.createMock(Array.class);
+        EasyMock.expect(array.getArray()).andReturn(new Integer[]{1, 2, 3}).times(3);
+        EasyMock.replay(array);
+        value = array;
+        assertArrayEquals(new int[]{1, 2, 3}, new ArrayType<int[]>(int[].class, "INTEGER").getValue(resultSet, 1));
+        assertArrayEquals(new long[]{1, 2, 3}, new ArrayType<long[]>(long[].class, "BIGINT").getValue(resultSet, 1));
+        assertArrayEquals(new Integer[]{1, 2, 3},
+                new ArrayType<Integer[]>(Integer[].class, "INTEGER").getValue(resultSet, 1));
+    }
 
 }